@@ -0,0 +1,88 @@
+package com.example.benchmark;
+
+import com.example.Application;
+import com.example.dto.TicketContentDto;
+import com.example.model.TestGenerationJob;
+import com.example.service.TestGenerationService;
+import com.example.services.JobLogService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Boots the application once per fork against a fresh file-backed SQLite database
+ * (the dev profile's setup) with {@link BenchmarkStubs} in place of Ollama and the job scheduler.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    static final int LOGS_PER_JOB = 50;
+
+    private static final Path DATABASE = Path.of("target", "jmh", "benchmark.db");
+
+    ConfigurableApplicationContext context;
+    TestGenerationJob jobWithLogs;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        context = boot(DATABASE);
+
+        jobWithLogs = bean(TestGenerationService.class).startTestGeneration(ticket("BENCH-LOGS"));
+        JobLogService jobLogService = bean(JobLogService.class);
+        for (int i = 0; i < LOGS_PER_JOB; i++) {
+            jobLogService.addJobLog(jobWithLogs, "INFO", "Benchmark log line " + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    /**
+     * Boots the application against a fresh SQLite file at {@code database}, with extra properties
+     * applied on top of the dev profile.
+     */
+    static ConfigurableApplicationContext boot(Path database, String... properties) throws IOException {
+        Files.createDirectories(database.getParent());
+        for (String suffix : List.of("", "-wal", "-shm")) {
+            Files.deleteIfExists(Path.of(database + suffix));
+        }
+        return new SpringApplicationBuilder(Application.class, BenchmarkStubs.class)
+                .web(WebApplicationType.NONE)
+                .profiles("dev")
+                .properties(
+                        "spring.datasource.url=jdbc:sqlite:" + database,
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.example=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.type.descriptor.sql=WARN")
+                .properties(properties)
+                .run();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    static TicketContentDto ticket(String ticketId) {
+        return new TicketContentDto.Builder()
+                .setTicketId(ticketId)
+                .setContent("As a registered user I want to log in with my username and password "
+                        + "so that I can reach my dashboard. Invalid credentials show an error message.")
+                .setComponents(List.of("auth", "web"))
+                .build();
+    }
+}
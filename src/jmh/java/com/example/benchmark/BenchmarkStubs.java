@@ -0,0 +1,56 @@
+package com.example.benchmark;
+
+import com.example.agent.OllamaGenerationClient;
+import com.example.model.LlmUsage;
+import com.example.model.TestGenerationJob;
+import com.example.service.FairJobScheduler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Replaces the outbound pieces of the application so benchmarks measure only local work:
+ * the LLM answers instantly with a canned result, and queued jobs are never processed.
+ */
+@Configuration
+public class BenchmarkStubs {
+
+    static final String CANNED_TESTS = """
+            UAT-001 Login with valid credentials
+            Steps:
+            1. Navigate to the login page.
+            2. Enter valid username and password.
+            Result: User is logged in and redirected to the dashboard.
+            """;
+
+    @Bean
+    @Primary
+    public OllamaGenerationClient stubOllamaGenerationClient(ObjectMapper objectMapper, Environment environment) {
+        return new OllamaGenerationClient(objectMapper, "http://localhost:11434", "stub", Duration.ofSeconds(1),
+                environment) {
+            @Override
+            public Completion complete(String prompt, Consumer<String> partialOutput) {
+                return new Completion(CANNED_TESTS,
+                        new LlmUsage("stub", "localhost:11434", prompt.length() / 4, 60, 0L, 5L, 50L, 55L));
+            }
+        };
+    }
+
+    @Bean
+    @Primary
+    public FairJobScheduler discardingJobScheduler(MeterRegistry meterRegistry) {
+        // Job creation is benchmarked on its own; processing would compete for the single SQLite connection
+        return new FairJobScheduler(meterRegistry, 1, Integer.MAX_VALUE, List.of()) {
+            @Override
+            public void submit(Long jobId, TestGenerationJob.JobPriority priority, String tenant, Runnable work) {
+            }
+        };
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.benchmark;
+
+import com.example.model.TestGenerationJob;
+import com.example.service.TestGenerationService;
+import com.example.services.JobLogService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Status reads from the database by six threads while two threads write job logs, as during job
+ * processing. Compares the old single-connection SQLite setup with WAL mode (read-only pool and
+ * batched writes); JMH reports the throughput of readers and writers separately. With batched writes,
+ * writer throughput is the rate at which entries are queued until the queue fills.
+ * Run with {@code ./mvnw -Pbenchmarks test-compile exec:exec -Djmh.args="ConcurrentStatusReadBenchmarks"}.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConcurrentStatusReadBenchmarks {
+
+    private static final int JOBS = 100;
+
+    @Param({"single-connection", "wal"})
+    public String databaseMode;
+
+    private ConfigurableApplicationContext context;
+    private TestGenerationService testGenerationService;
+    private JobLogService jobLogService;
+    private Long[] jobIds;
+    private TestGenerationJob processingJob;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        Path database = Path.of("target", "jmh", "concurrent-" + databaseMode + ".db");
+        context = "wal".equals(databaseMode)
+                ? ApplicationState.boot(database)
+                : ApplicationState.boot(database, "app.sqlite.enabled=false", "app.sqlite.batch-writes=false");
+        testGenerationService = context.getBean(TestGenerationService.class);
+        jobLogService = context.getBean(JobLogService.class);
+        jobIds = new Long[JOBS];
+        for (int i = 0; i < JOBS; i++) {
+            jobIds[i] = testGenerationService.startTestGeneration(ApplicationState.ticket("BENCH-READ-" + i)).getId();
+        }
+        processingJob = testGenerationService.startTestGeneration(ApplicationState.ticket("BENCH-PROCESSING"));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("processing")
+    @GroupThreads(6)
+    public TestGenerationJob statusRead() {
+        // getJob always reads the database, unlike getJobStatus which is served from the status cache
+        return testGenerationService.getJob(jobIds[ThreadLocalRandom.current().nextInt(JOBS)]);
+    }
+
+    @Benchmark
+    @Group("processing")
+    @GroupThreads(2)
+    public void jobLogWrite() {
+        jobLogService.addJobLog(processingJob, "INFO", "Processing step completed");
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.benchmark;
+
+import com.example.agent.TestGeneratorAgent;
+import com.example.controller.TestGenerationController;
+import com.example.model.TestGenerationJob;
+import com.example.service.JobMetrics;
+import com.example.service.TestGenerationService;
+import com.example.services.JobLogService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-threaded latency of the service hot paths against file-backed SQLite.
+ * Run with {@code ./mvnw -Pbenchmarks test-compile exec:exec}; results go to target/jmh-result.json.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HotPathBenchmarks {
+
+    private final AtomicLong ticketSequence = new AtomicLong();
+
+    private TestGenerationService testGenerationService;
+    private JobLogService jobLogService;
+    private TestGenerationController controller;
+    private TestGeneratorAgent agent;
+    private JobMetrics jobMetrics;
+    private TestGenerationJob logTarget;
+    private String jobWithLogsId;
+    private Long jobWithLogsIdLong;
+    private String ticketContent;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState app) {
+        testGenerationService = app.bean(TestGenerationService.class);
+        jobLogService = app.bean(JobLogService.class);
+        controller = app.bean(TestGenerationController.class);
+        agent = app.bean(TestGeneratorAgent.class);
+        jobMetrics = app.bean(JobMetrics.class);
+        // A separate job, so that appended logs do not change the getJobLogs workload
+        logTarget = testGenerationService.startTestGeneration(ApplicationState.ticket("BENCH-APPEND"));
+        jobWithLogsIdLong = app.jobWithLogs.getId();
+        jobWithLogsId = String.valueOf(jobWithLogsIdLong);
+        ticketContent = ApplicationState.ticket("BENCH-PROMPT").getContent();
+    }
+
+    @Benchmark
+    public void addJobLog() {
+        jobLogService.addJobLog(logTarget, "INFO", "Benchmark log line");
+    }
+
+    @Benchmark
+    public TestGenerationJob startTestGeneration() {
+        return testGenerationService.startTestGeneration(
+                ApplicationState.ticket("BENCH-" + ticketSequence.incrementAndGet()));
+    }
+
+    @Benchmark
+    public Object getJobStatusCached() {
+        return testGenerationService.getJobStatus(jobWithLogsId);
+    }
+
+    @Benchmark
+    public TestGenerationJob getJobFromDatabase() {
+        return testGenerationService.getJob(jobWithLogsIdLong);
+    }
+
+    @Benchmark
+    public Object getJobLogs() {
+        return controller.getJobLogs(jobWithLogsId, null);
+    }
+
+    @Benchmark
+    public Object generateTestsPromptConstruction() {
+        // The LLM is stubbed, so this is prompt building, the llm.call timer and result wrapping
+        return agent.generateTests(ticketContent);
+    }
+
+    @Benchmark
+    public void persistenceTimerOverhead(Blackhole blackhole) {
+        blackhole.consume(jobMetrics.timePersistence(JobMetrics.PersistOperation.LOG, () -> logTarget));
+    }
+
+    @Benchmark
+    public void persistenceTimerBaseline(Blackhole blackhole) {
+        blackhole.consume(logTarget);
+    }
+}
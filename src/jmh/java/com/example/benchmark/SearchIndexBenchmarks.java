@@ -0,0 +1,152 @@
+package com.example.benchmark;
+
+import com.example.service.JobSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Index and query latency of the full-text job search over {@value #DOCUMENTS} synthetic jobs in a
+ * file-backed index under target/jmh. Ticket and output text is drawn from a skewed vocabulary, so
+ * common words match most jobs and rare ones a handful, as in real tickets.
+ * Run with {@code ./mvnw -Pbenchmarks test-compile exec:exec -Djmh.args="SearchIndexBenchmarks"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchIndexBenchmarks {
+
+    static final int DOCUMENTS = 100_000;
+
+    private static final Path INDEX_DIR = Path.of("target", "jmh", "search-index");
+    private static final String[] VOCABULARY = vocabulary();
+
+    private JobSearchIndex index;
+    private long nextJobId = DOCUMENTS;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        deleteRecursively(INDEX_DIR);
+        index = new JobSearchIndex(INDEX_DIR);
+        index.open();
+        index.rebuild(entries(DOCUMENTS, 42));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        index.close();
+    }
+
+    @Benchmark
+    public JobSearchIndex.Result searchFirstPage(QueryState query) throws IOException {
+        return index.search(query.text, 0, 20);
+    }
+
+    @Benchmark
+    public JobSearchIndex.Result searchTenthPage(QueryState query) throws IOException {
+        return index.search(query.text, 180, 20);
+    }
+
+    /**
+     * Adding one completed job as the service does: update, commit and refresh the searcher.
+     */
+    @Benchmark
+    public void indexCompletedJob() throws IOException {
+        index.update(entry(nextJobId++, new Random(nextJobId)));
+    }
+
+    /**
+     * Rebuild of the whole index, one shot per iteration.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public long rebuild() throws IOException {
+        return index.rebuild(entries(DOCUMENTS, 42));
+    }
+
+    /**
+     * Query shapes, in their own state so the indexing benchmarks do not run once per query.
+     */
+    @State(Scope.Benchmark)
+    public static class QueryState {
+        @Param({"login", "checkout invoice", "\"reset link\"", "description:password OR testResult:dashboard"})
+        public String text;
+    }
+
+    private static Iterator<JobSearchIndex.Entry> entries(final int count, final long seed) {
+        Random random = new Random(seed);
+        return IntStream.range(0, count).mapToObj(i -> entry(i, random)).iterator();
+    }
+
+    private static JobSearchIndex.Entry entry(final long jobId, final Random random) {
+        String description = "As a user I want to " + words(random, 25) + ".\n- " + words(random, 12) + ".\n- " + words(random, 12) + ".";
+        StringBuilder output = new StringBuilder();
+        for (int testCase = 1; testCase <= 5; testCase++) {
+            output.append(String.format("UAT-%03d %s%nSteps:%n", testCase, words(random, 4)));
+            for (int step = 1; step <= 4; step++) {
+                output.append(step).append(". ").append(words(random, 8)).append(".\n");
+            }
+            output.append("Result: ").append(words(random, 10)).append(".\n\n");
+        }
+        return new JobSearchIndex.Entry(jobId, "PROJ-" + jobId, random.nextBoolean() ? "auth, web" : "billing",
+                description, output.toString(), LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(jobId));
+    }
+
+    private static String words(final Random random, final int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            // Squaring a uniform draw skews towards the start of the vocabulary
+            double skewed = random.nextDouble() * random.nextDouble();
+            text.append(i == 0 ? "" : " ").append(VOCABULARY[(int) (skewed * VOCABULARY.length)]);
+        }
+        return text.toString();
+    }
+
+    private static String[] vocabulary() {
+        String[] common = {"the", "user", "page", "click", "open", "enter", "login", "password", "button", "shown",
+                "error", "message", "valid", "order", "checkout", "invoice", "reset", "link", "email", "dashboard"};
+        String[] vocabulary = new String[5_000];
+        for (int i = 0; i < vocabulary.length; i++) {
+            vocabulary[i] = i < common.length ? common[i] : "term" + Integer.toString(i, 36);
+        }
+        return vocabulary;
+    }
+
+    private static void deleteRecursively(final Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path file : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
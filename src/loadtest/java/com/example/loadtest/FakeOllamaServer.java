@@ -0,0 +1,170 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for Ollama's {@code /api/chat}, listening on a random loopback port.
+ *
+ * <p>Each request holds one of {@code ollama-parallel} slots (Ollama's own concurrency limit)
+ * while it "generates": a log-normal overhead with the configured median and sigma, plus prompt
+ * tokens at {@code prompt-tokens-per-second} and output tokens at {@code tokens-per-second}.
+ * A fraction {@code error-rate} of requests fails with HTTP 500. Responses carry the same
+ * token counts and nanosecond durations as real Ollama responses.</p>
+ *
+ * <p>{@code /api/embeddings} answers at once with a hashed bag-of-words vector, so tickets that
+ * share most of their words come out as near-duplicates.</p>
+ */
+final class FakeOllamaServer implements AutoCloseable {
+
+    private static final int EMBEDDING_DIMENSIONS = 256;
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final ObjectMapper objectMapper;
+    private final LoadTestOptions options;
+    private final Semaphore slots;
+    private final Random random;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+
+    private FakeOllamaServer(final LoadTestOptions options, final ObjectMapper objectMapper) throws IOException {
+        this.options = options;
+        this.objectMapper = objectMapper;
+        this.slots = new Semaphore(options.ollamaParallel, true);
+        this.random = new Random(options.seed);
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/chat", this::handleChat);
+        server.createContext("/api/embeddings", this::handleEmbeddings);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    static FakeOllamaServer start(final LoadTestOptions options, final ObjectMapper objectMapper) throws IOException {
+        return new FakeOllamaServer(options, objectMapper);
+    }
+
+    String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    long getRequests() {
+        return requests.get();
+    }
+
+    long getInjectedErrors() {
+        return injectedErrors.get();
+    }
+
+    private void handleChat(final HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            String model = request.path("model").asText("fake");
+            int promptChars = 0;
+            for (JsonNode message : request.path("messages")) {
+                promptChars += message.path("content").asText("").length();
+            }
+            int promptTokens = Math.max(1, promptChars / 4);
+
+            slots.acquireUninterruptibly();
+            try {
+                double draw;
+                double gaussian;
+                synchronized (random) {
+                    draw = random.nextDouble();
+                    gaussian = random.nextGaussian();
+                }
+                if (draw < options.errorRate) {
+                    injectedErrors.incrementAndGet();
+                    send(exchange, 500, "{\"error\":\"injected failure\"}");
+                    return;
+                }
+                long overheadNanos = (long) (options.llmLatencyMedian.toNanos() * Math.exp(options.llmLatencySigma * gaussian));
+                int outputTokens = Math.max(1, options.outputTokens);
+                long promptEvalNanos = (long) (promptTokens / options.promptTokensPerSecond * 1e9);
+                long evalNanos = (long) (outputTokens / options.tokensPerSecond * 1e9);
+                TimeUnit.NANOSECONDS.sleep(overheadNanos + promptEvalNanos + evalNanos);
+
+                ObjectNode response = objectMapper.createObjectNode();
+                response.put("model", model);
+                response.put("created_at", Instant.now().toString());
+                ObjectNode message = response.putObject("message");
+                message.put("role", "assistant");
+                message.put("content", cannedTests(outputTokens));
+                response.put("done", true);
+                response.put("done_reason", "stop");
+                response.put("total_duration", overheadNanos + promptEvalNanos + evalNanos);
+                response.put("load_duration", overheadNanos);
+                response.put("prompt_eval_count", promptTokens);
+                response.put("prompt_eval_duration", promptEvalNanos);
+                response.put("eval_count", outputTokens);
+                response.put("eval_duration", evalNanos);
+                // Streaming clients read one JSON object per line; a single final chunk is valid for both modes
+                send(exchange, 200, objectMapper.writeValueAsString(response) + "\n");
+            } finally {
+                slots.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handleEmbeddings(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String prompt = objectMapper.readTree(exchange.getRequestBody()).path("prompt").asText("");
+            float[] vector = new float[EMBEDDING_DIMENSIONS];
+            for (String word : prompt.toLowerCase(Locale.ROOT).split("\\W+")) {
+                if (!word.isEmpty()) {
+                    vector[Math.floorMod(word.hashCode(), EMBEDDING_DIMENSIONS)] += 1f;
+                }
+            }
+            ObjectNode response = objectMapper.createObjectNode();
+            ArrayNode embedding = response.putArray("embedding");
+            for (float value : vector) {
+                embedding.add(value);
+            }
+            send(exchange, 200, objectMapper.writeValueAsString(response));
+        }
+    }
+
+    private static String cannedTests(final int outputTokens) {
+        StringBuilder text = new StringBuilder("UAT-001 Login with valid credentials\nSteps:\n");
+        for (int i = 1; text.length() < outputTokens * 4; i++) {
+            text.append(i).append(". Perform user action number ").append(i).append(".\n");
+        }
+        return text.append("Result: The user reaches the dashboard.\n").toString();
+    }
+
+    private static void send(final HttpExchange exchange, final int status, final String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
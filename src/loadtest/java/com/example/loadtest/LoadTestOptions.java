@@ -0,0 +1,74 @@
+package com.example.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Load test settings, parsed from {@code --name=value} arguments. Arguments the load test does
+ * not know (e.g. {@code --app.scheduler.workers=4}) are passed on to the application.
+ */
+final class LoadTestOptions {
+
+    // Arrival process
+    double ratePerSecond = 1.0;
+    Duration duration = Duration.ofMinutes(2);
+    Duration drainTimeout = Duration.ofMinutes(10);
+    long seed = 42;
+
+    // Fake Ollama
+    Duration llmLatencyMedian = Duration.ofSeconds(1);
+    double llmLatencySigma = 0.5;
+    double tokensPerSecond = 40;
+    double promptTokensPerSecond = 400;
+    int outputTokens = 300;
+    double errorRate = 0.0;
+    int ollamaParallel = 2;
+
+    // Reporting
+    Duration sampleInterval = Duration.ofSeconds(1);
+    Path report = Path.of("target", "loadtest-report.json");
+
+    final List<String> applicationArgs = new ArrayList<>();
+
+    static LoadTestOptions parse(final String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+            switch (name) {
+                case "rate" -> options.ratePerSecond = Double.parseDouble(value);
+                case "duration" -> options.duration = duration(value);
+                case "drain-timeout" -> options.drainTimeout = duration(value);
+                case "seed" -> options.seed = Long.parseLong(value);
+                case "llm-latency-median" -> options.llmLatencyMedian = duration(value);
+                case "llm-latency-sigma" -> options.llmLatencySigma = Double.parseDouble(value);
+                case "tokens-per-second" -> options.tokensPerSecond = Double.parseDouble(value);
+                case "prompt-tokens-per-second" -> options.promptTokensPerSecond = Double.parseDouble(value);
+                case "output-tokens" -> options.outputTokens = Integer.parseInt(value);
+                case "error-rate" -> options.errorRate = Double.parseDouble(value);
+                case "ollama-parallel" -> options.ollamaParallel = Integer.parseInt(value);
+                case "sample-interval" -> options.sampleInterval = duration(value);
+                case "report" -> options.report = Path.of(value);
+                default -> options.applicationArgs.add(arg);
+            }
+        }
+        if (options.ratePerSecond <= 0 || options.tokensPerSecond <= 0 || options.promptTokensPerSecond <= 0
+                || options.ollamaParallel <= 0 || options.errorRate < 0 || options.errorRate > 1) {
+            throw new IllegalArgumentException("rate, token rates and ollama-parallel must be positive, error-rate in [0, 1]");
+        }
+        return options;
+    }
+
+    private static Duration duration(final String value) {
+        return DurationStyle.detectAndParse(value, ChronoUnit.SECONDS);
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.loadtest;
+
+import com.example.Application;
+import com.example.service.FairJobScheduler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end load test: boots the application against {@link FakeOllamaServer} and a fresh
+ * SQLite file, submits tickets to {@code /start} as an open-loop Poisson arrival process,
+ * follows every accepted job to COMPLETED or FAILED through the long-poll status endpoint, and
+ * reports throughput, end-to-end latency percentiles, queue depth over time and database writes.
+ *
+ * <p>Run with {@code ./mvnw -Pload-test test-compile exec:java -Dexec.args="--rate=2 --duration=5m"}.
+ * Everything runs on loopback; no network access is needed.</p>
+ */
+public final class LoadTestRunner {
+
+    private static final String API_KEY = "load-test-key";
+    private static final Path DATABASE = Path.of("target", "loadtest", "loadtest.db");
+
+    private final LoadTestOptions options;
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private String baseUrl;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong followErrors = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<String, AtomicLong> rejectedByStatus = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Long> latenciesMillis = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Map<String, Object>> queueSamples = new ConcurrentLinkedQueue<>();
+    private volatile long lastFinishedNanos;
+
+    private LoadTestRunner(final LoadTestOptions options) {
+        this.options = options;
+    }
+
+    public static void main(final String[] args) throws Exception {
+        new LoadTestRunner(LoadTestOptions.parse(args)).run();
+    }
+
+    private void run() throws Exception {
+        Files.createDirectories(DATABASE.getParent());
+        Files.deleteIfExists(DATABASE);
+        try (FakeOllamaServer ollama = FakeOllamaServer.start(options, objectMapper);
+             ConfigurableApplicationContext app = startApplication(ollama.getBaseUrl())) {
+            baseUrl = "http://127.0.0.1:" + app.getEnvironment().getProperty("local.server.port")
+                    + "/api/v1/test-generation";
+            FairJobScheduler scheduler = app.getBean(FairJobScheduler.class);
+            Statistics statistics = app.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            long startNanos = System.nanoTime();
+            ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+            sampler.scheduleAtFixedRate(() -> queueSamples.add(sample(scheduler, startNanos)),
+                    0, options.sampleInterval.toMillis(), TimeUnit.MILLISECONDS);
+
+            driveArrivals(startNanos);
+            long arrivalsEndNanos = System.nanoTime();
+            long drainDeadline = arrivalsEndNanos + options.drainTimeout.toNanos();
+            while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+                TimeUnit.MILLISECONDS.sleep(200);
+            }
+            sampler.shutdownNow();
+
+            Map<String, Object> report = report(startNanos, arrivalsEndNanos, statistics, ollama);
+            Files.createDirectories(options.report.toAbsolutePath().getParent());
+            objectMapper.writeValue(options.report.toFile(), report);
+            System.out.println(objectMapper.writeValueAsString(report));
+            System.out.println("Report written to " + options.report.toAbsolutePath());
+        }
+    }
+
+    private ConfigurableApplicationContext startApplication(final String ollamaBaseUrl) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.ai.ollama.base-url=" + ollamaBaseUrl,
+                "--spring.datasource.url=jdbc:sqlite:" + DATABASE,
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.generate_statistics=true",
+                "--api.security.key=" + API_KEY,
+                // The load test measures the pipeline, not the per-client limits
+                "--api.security.default-requests-per-second=1000000",
+                "--api.security.default-burst=1000000",
+                "--api.security.default-llm-time-quota=0",
+                "--logging.level.root=WARN",
+                "--logging.level.com.example=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql=WARN"));
+        args.addAll(options.applicationArgs);
+        return new SpringApplicationBuilder(Application.class)
+                .profiles("dev")
+                .run(args.toArray(new String[0]));
+    }
+
+    // Open loop: send times follow the arrival process regardless of how fast the service answers
+    private void driveArrivals(final long startNanos) {
+        Random random = new Random(options.seed);
+        long endNanos = startNanos + options.duration.toNanos();
+        long nextNanos = startNanos;
+        while (true) {
+            nextNanos += (long) (-Math.log(1 - random.nextDouble()) / options.ratePerSecond * 1e9);
+            if (nextNanos >= endNanos) {
+                return;
+            }
+            long waitNanos;
+            while ((waitNanos = nextNanos - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(waitNanos);
+            }
+            submit(sent.incrementAndGet());
+        }
+    }
+
+    private void submit(final long sequence) {
+        String body = "{\"ticketId\":\"LOAD-" + sequence + "\",\"components\":[\"load-test\"],"
+                + "\"content\":\"As a registered user I want to log in with my username and password so that "
+                + "I can reach my dashboard. Invalid credentials show an error message. Ticket " + sequence + ".\"}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/start"))
+                .header("Content-Type", "application/json")
+                .header("X-API-Key", API_KEY)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        long sentNanos = System.nanoTime();
+        inFlight.incrementAndGet();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+            if (error != null || response.statusCode() != 202) {
+                String key = error != null ? error.getClass().getSimpleName() : String.valueOf(response.statusCode());
+                rejectedByStatus.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+                inFlight.decrementAndGet();
+                return;
+            }
+            accepted.incrementAndGet();
+            try {
+                follow(objectMapper.readTree(response.body()).path("jobId").asLong(), sentNanos);
+            } catch (IOException e) {
+                followErrors.incrementAndGet();
+                inFlight.decrementAndGet();
+            }
+        });
+    }
+
+    private void follow(final long jobId, final long sentNanos) {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create(baseUrl + "/status/" + jobId + "?waitFor=COMPLETED&timeout=30s"))
+                .header("X-API-Key", API_KEY)
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+            String status = null;
+            if (error == null && response.statusCode() == 200) {
+                try {
+                    status = objectMapper.readTree(response.body()).path("status").asText();
+                } catch (IOException e) {
+                    status = null;
+                }
+            }
+            if (status == null) {
+                followErrors.incrementAndGet();
+                inFlight.decrementAndGet();
+            } else if ("COMPLETED".equals(status) || "FAILED".equals(status)) {
+                long now = System.nanoTime();
+                latenciesMillis.add(TimeUnit.NANOSECONDS.toMillis(now - sentNanos));
+                ("COMPLETED".equals(status) ? completed : failed).incrementAndGet();
+                lastFinishedNanos = now;
+                inFlight.decrementAndGet();
+            } else {
+                follow(jobId, sentNanos);
+            }
+        });
+    }
+
+    private static Map<String, Object> sample(final FairJobScheduler scheduler, final long startNanos) {
+        Map<String, Object> sample = new LinkedHashMap<>();
+        sample.put("elapsedSeconds", TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos));
+        sample.put("queued", scheduler.getQueuedCount());
+        sample.put("active", scheduler.getActiveCount());
+        return sample;
+    }
+
+    private Map<String, Object> report(final long startNanos, final long arrivalsEndNanos,
+                                       final Statistics statistics, final FakeOllamaServer ollama) {
+        double arrivalMinutes = (arrivalsEndNanos - startNanos) / 60e9;
+        long finished = completed.get() + failed.get();
+        double finishMinutes = ((lastFinishedNanos > 0 ? lastFinishedNanos : arrivalsEndNanos) - startNanos) / 60e9;
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("ratePerSecond", options.ratePerSecond);
+        settings.put("duration", options.duration.toString());
+        settings.put("llmLatencyMedian", options.llmLatencyMedian.toString());
+        settings.put("llmLatencySigma", options.llmLatencySigma);
+        settings.put("tokensPerSecond", options.tokensPerSecond);
+        settings.put("outputTokens", options.outputTokens);
+        settings.put("errorRate", options.errorRate);
+        settings.put("ollamaParallel", options.ollamaParallel);
+        settings.put("applicationArgs", options.applicationArgs);
+
+        Map<String, Object> throughput = new LinkedHashMap<>();
+        throughput.put("sent", sent.get());
+        throughput.put("accepted", accepted.get());
+        throughput.put("rejectedByStatus", rejectedByStatus);
+        throughput.put("completed", completed.get());
+        throughput.put("failed", failed.get());
+        throughput.put("unfinished", inFlight.get());
+        throughput.put("followErrors", followErrors.get());
+        throughput.put("offeredPerMinute", sent.get() / arrivalMinutes);
+        throughput.put("finishedPerMinute", finishMinutes > 0 ? finished / finishMinutes : 0);
+        throughput.put("completedPerMinute", finishMinutes > 0 ? completed.get() / finishMinutes : 0);
+
+        List<Long> sorted = new ArrayList<>(latenciesMillis);
+        sorted.sort(null);
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("p50Millis", percentile(sorted, 0.50));
+        latency.put("p95Millis", percentile(sorted, 0.95));
+        latency.put("p99Millis", percentile(sorted, 0.99));
+        latency.put("maxMillis", sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1));
+
+        Map<String, Object> database = new LinkedHashMap<>();
+        database.put("entityInserts", statistics.getEntityInsertCount());
+        database.put("entityUpdates", statistics.getEntityUpdateCount());
+        database.put("entityDeletes", statistics.getEntityDeleteCount());
+        database.put("statementsPrepared", statistics.getPrepareStatementCount());
+        database.put("transactions", statistics.getTransactionCount());
+        database.put("writesPerFinishedJob", finished > 0
+                ? (double) (statistics.getEntityInsertCount() + statistics.getEntityUpdateCount()) / finished : 0);
+
+        Map<String, Object> backend = new LinkedHashMap<>();
+        backend.put("requests", ollama.getRequests());
+        backend.put("injectedErrors", ollama.getInjectedErrors());
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("settings", settings);
+        report.put("throughput", throughput);
+        report.put("endToEndLatency", latency);
+        report.put("database", database);
+        report.put("fakeOllama", backend);
+        report.put("queueDepth", new ArrayList<>(queueSamples));
+        return report;
+    }
+
+    private static long percentile(final List<Long> sorted, final double quantile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.agent;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Calls Ollama's {@code /api/embeddings} with the model configured as {@code app.embedding.model}.
+ */
+@Component
+public class OllamaEmbeddingClient implements TextEmbedder {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI embeddingsUri;
+    private final String model;
+    private final Duration requestTimeout;
+
+    @Autowired
+    public OllamaEmbeddingClient(
+            final ObjectMapper objectMapper,
+            @Value("${spring.ai.ollama.base-url:http://localhost:11434}") final String baseUrl,
+            @Value("${app.embedding.model:nomic-embed-text}") final String model,
+            @Value("${app.embedding.request-timeout:30s}") final Duration requestTimeout) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.objectMapper = objectMapper;
+        URI base = URI.create(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/");
+        this.embeddingsUri = base.resolve("api/embeddings");
+        this.model = model;
+        this.requestTimeout = requestTimeout;
+    }
+
+    @Override
+    public float[] embed(final String text) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(embeddingsUri)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(
+                        objectMapper.writeValueAsBytes(new EmbeddingRequest(model, text))))
+                .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Ollama returned HTTP " + response.statusCode() + " for embedding model " + model);
+        }
+        EmbeddingResponse body = objectMapper.readValue(response.body(), EmbeddingResponse.class);
+        if (body.embedding() == null || body.embedding().length == 0) {
+            throw new IOException("Ollama returned no embedding for model " + model);
+        }
+        return body.embedding();
+    }
+
+    record EmbeddingRequest(String model, String prompt) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record EmbeddingResponse(float[] embedding) {
+    }
+}
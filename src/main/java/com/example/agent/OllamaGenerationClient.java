@@ -0,0 +1,240 @@
+package com.example.agent;
+
+import com.example.model.LlmUsage;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Calls Ollama's {@code /api/chat} for test generation and keeps the response metadata
+ * (token counts and timings) that Spring AI's {@code ChatClient} drops. Every request carries the
+ * model options configured under {@code spring.ai.ollama.options}.
+ */
+@Component
+public class OllamaGenerationClient {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI chatUri;
+    private final String model;
+    private final String backend;
+    private final Map<String, Object> options;
+    private final Duration requestTimeout;
+
+    @Autowired
+    public OllamaGenerationClient(
+            final ObjectMapper objectMapper,
+            @Value("${spring.ai.ollama.base-url:http://localhost:11434}") final String baseUrl,
+            @Value("${spring.ai.ollama.model:mistral}") final String model,
+            @Value("${app.llm.request-timeout:10m}") final Duration requestTimeout,
+            final Environment environment) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.objectMapper = objectMapper;
+        URI base = URI.create(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/");
+        this.chatUri = base.resolve("api/chat");
+        this.backend = base.getPort() > 0 ? base.getHost() + ":" + base.getPort() : base.getHost();
+        this.model = model;
+        this.options = bindOptions(environment);
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Sends a single user message and waits for the complete answer.
+     *
+     * @param prompt The full prompt text.
+     * @return The answer and its usage metadata.
+     * @throws IOException on connection failures, timeouts or a non-2xx response.
+     * @throws InterruptedException if the calling thread is interrupted.
+     */
+    public Completion complete(final String prompt) throws IOException, InterruptedException {
+        return complete(prompt, null);
+    }
+
+    /**
+     * Sends a single user message and waits for the complete answer. With {@code partialOutput},
+     * the answer is streamed and each piece is handed over as soon as it arrives, so whatever was
+     * generated before a failure or an interrupt is not lost.
+     *
+     * @param prompt The full prompt text.
+     * @param partialOutput Receives the answer piece by piece; null to receive it in one response.
+     * @return The answer and its usage metadata.
+     * @throws IOException on connection failures, timeouts, a non-2xx response or a broken stream.
+     * @throws InterruptedException if the calling thread is interrupted.
+     */
+    public Completion complete(final String prompt, final Consumer<String> partialOutput)
+            throws IOException, InterruptedException {
+        boolean stream = partialOutput != null;
+        ChatRequest body = new ChatRequest(model, List.of(new ChatMessage("user", prompt)), stream,
+                options.isEmpty() ? null : options);
+        HttpRequest request = HttpRequest.newBuilder(chatUri)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        if (!stream) {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            checkStatus(response.statusCode());
+            ChatResponse chat = objectMapper.readValue(response.body(), ChatResponse.class);
+            return toCompletion(chat, chat.message() != null ? chat.message().content() : null);
+        }
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        // Closing the stream early drops the connection, which makes Ollama stop generating
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            checkStatus(response.statusCode());
+            StringBuilder content = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException("Interrupted after " + content.length() + " characters");
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                // One JSON object per line; the last one has done=true and the usage metadata
+                ChatResponse chunk = objectMapper.readValue(line, ChatResponse.class);
+                if (chunk.error() != null) {
+                    throw new IOException("Ollama stream failed for model " + model + ": " + chunk.error());
+                }
+                if (chunk.message() != null && chunk.message().content() != null
+                        && !chunk.message().content().isEmpty()) {
+                    content.append(chunk.message().content());
+                    partialOutput.accept(chunk.message().content());
+                }
+                if (Boolean.TRUE.equals(chunk.done())) {
+                    return toCompletion(chunk, content.toString());
+                }
+            }
+            throw new IOException("Ollama stream ended after " + content.length() + " characters without completing");
+        }
+    }
+
+    private void checkStatus(final int statusCode) throws IOException {
+        if (statusCode / 100 != 2) {
+            throw new IOException("Ollama returned HTTP " + statusCode + " for model " + model);
+        }
+    }
+
+    private Completion toCompletion(final ChatResponse chat, final String content) {
+        LlmUsage usage = new LlmUsage(
+                chat.model() != null ? chat.model() : model,
+                backend,
+                chat.promptEvalCount(),
+                chat.evalCount(),
+                toMillis(chat.loadDuration()),
+                toMillis(chat.promptEvalDuration()),
+                toMillis(chat.evalDuration()),
+                toMillis(chat.totalDuration()));
+        return new Completion(content, usage, "length".equals(chat.doneReason()));
+    }
+
+    private static Long toMillis(final Long nanos) {
+        return nanos != null ? TimeUnit.NANOSECONDS.toMillis(nanos) : null;
+    }
+
+    /**
+     * Reads {@code spring.ai.ollama.options} as Ollama expects it: YAML lists such as {@code stop}
+     * become JSON arrays, and numbers or booleans overridden through environment variables are sent
+     * as numbers or booleans rather than strings.
+     */
+    static Map<String, Object> bindOptions(final Environment environment) {
+        Map<String, Object> bound = Binder.get(environment)
+                .bind("spring.ai.ollama.options", Bindable.mapOf(String.class, Object.class))
+                .orElse(Map.of());
+        Map<String, Object> options = new LinkedHashMap<>();
+        bound.forEach((name, value) -> options.put(name, toOptionValue(value)));
+        return options;
+    }
+
+    private static Object toOptionValue(final Object value) {
+        if (value instanceof Map<?, ?> map) {
+            // The binder turns a list into a map keyed 0..n-1
+            boolean list = !map.isEmpty();
+            for (int i = 0; i < map.size() && list; i++) {
+                list = map.containsKey(String.valueOf(i));
+            }
+            if (list) {
+                List<Object> values = new ArrayList<>();
+                for (int i = 0; i < map.size(); i++) {
+                    values.add(map.get(String.valueOf(i)));
+                }
+                return values;
+            }
+            Map<String, Object> nested = new LinkedHashMap<>();
+            map.forEach((key, nestedValue) -> nested.put(String.valueOf(key), toOptionValue(nestedValue)));
+            return nested;
+        }
+        if (value instanceof String text) {
+            if ("true".equalsIgnoreCase(text) || "false".equalsIgnoreCase(text)) {
+                return Boolean.parseBoolean(text);
+            }
+            try {
+                return text.matches("-?\\d+") ? (Object) Long.parseLong(text) : (Object) Double.parseDouble(text);
+            } catch (NumberFormatException e) {
+                return text;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * The generated text with the usage Ollama reported for it. {@code truncated} is set when
+     * Ollama stopped at the {@code num_predict} limit rather than at the end of the answer.
+     */
+    public record Completion(String content, LlmUsage usage, boolean truncated) {
+
+        public Completion(final String content, final LlmUsage usage) {
+            this(content, usage, false);
+        }
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record ChatRequest(String model, List<ChatMessage> messages, boolean stream, Map<String, Object> options) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record ChatMessage(String role, String content) {
+    }
+
+    // Durations are nanoseconds in Ollama's API; when streaming, only the last chunk carries them
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record ChatResponse(
+            String model,
+            ChatMessage message,
+            Boolean done,
+            String error,
+            @JsonProperty("done_reason") String doneReason,
+            @JsonProperty("total_duration") Long totalDuration,
+            @JsonProperty("load_duration") Long loadDuration,
+            @JsonProperty("prompt_eval_count") Integer promptEvalCount,
+            @JsonProperty("prompt_eval_duration") Long promptEvalDuration,
+            @JsonProperty("eval_count") Integer evalCount,
+            @JsonProperty("eval_duration") Long evalDuration) {
+    }
+}
@@ -1,16 +1,22 @@
 package com.example.agent;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.ai.chat.ChatClient;
-import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
 @Component
 public class TestGeneratorAgent {
     private static final Logger logger = LoggerFactory.getLogger(TestGeneratorAgent.class);
-    private final ChatClient chatClient;
+    private final OllamaGenerationClient ollamaClient;
+    private final Timer llmSuccessTimer;
+    private final Timer llmErrorTimer;
 
     private static final String UAT_SYSTEM_PROMPT = """
     You are a UAT test case generator.
@@ -34,40 +40,139 @@ public class TestGeneratorAgent {
     """;
 
     @Autowired
-    public TestGeneratorAgent(ChatClient chatClient) {
-        this.chatClient = chatClient;
+    public TestGeneratorAgent(OllamaGenerationClient ollamaClient, MeterRegistry meterRegistry) {
+        this.ollamaClient = ollamaClient;
+        this.llmSuccessTimer = llmTimer(meterRegistry, "success");
+        this.llmErrorTimer = llmTimer(meterRegistry, "error");
+    }
+
+    private static Timer llmTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("llm.call")
+                .description("Duration of test generation calls to the LLM")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     /**
      * Generates UAT test cases based directly on the provided ticket content.
      *
      * @param ticketContent The raw description or content of the ticket.
-     * @return A string containing the formatted UAT test cases, or an error message.
+     * @return The formatted UAT test cases with Ollama's token and timing metadata, or an
+     *         error message (starting with "Error:") and no usage.
      */
-    public String generateTests(String ticketContent) {
+    public OllamaGenerationClient.Completion generateTests(String ticketContent) {
+        return generateTests(ticketContent, null);
+    }
+
+    /**
+     * Generates UAT test cases based directly on the provided ticket content, streaming the answer.
+     *
+     * @param ticketContent The raw description or content of the ticket.
+     * @param partialOutput Receives the answer piece by piece as it is generated; may be null.
+     * @return The formatted UAT test cases with Ollama's token and timing metadata, or an
+     *         error message (starting with "Error:") and no usage.
+     */
+    public OllamaGenerationClient.Completion generateTests(String ticketContent, Consumer<String> partialOutput) {
         logger.info("Starting UAT test generation for ticket content.");
         logger.debug("Input ticket content length: {} characters", ticketContent != null ? ticketContent.length() : 0);
 
         if (ticketContent == null || ticketContent.trim().isEmpty()) {
             logger.warn("Ticket content is null or empty. Cannot generate tests.");
-            return "Error: Ticket content provided is empty or null.";
+            return new OllamaGenerationClient.Completion("Error: Ticket content provided is empty or null.", null);
         }
 
-        try {
-            String userPrompt = "Ticket Description:\n" + ticketContent;
-            Prompt prompt = new Prompt(UAT_SYSTEM_PROMPT + "\n\n" + userPrompt);
-            logger.debug("Constructed prompt for LLM. System prompt length: {}, User prompt length: {}",
-                         UAT_SYSTEM_PROMPT.length(), userPrompt.length());
+        String userPrompt = "Ticket Description:\n" + ticketContent;
+        logger.debug("Constructed prompt for LLM. System prompt length: {}, User prompt length: {}",
+                     UAT_SYSTEM_PROMPT.length(), userPrompt.length());
+        return call(UAT_SYSTEM_PROMPT + "\n\n" + userPrompt, "UAT test generation", partialOutput);
+    }
+
+    /**
+     * Generates test cases only for the parts of an edited ticket that changed since its previous
+     * version. The whole description is still sent for context.
+     *
+     * @param ticketContent   The new ticket content.
+     * @param changedSections The edited or added sections of the description.
+     * @param existingHeaders Header lines ("UAT-001 Title") of the test cases kept from the previous version.
+     * @param nextTestId      The Test ID the new test cases should start with.
+     * @param partialOutput   Receives the answer piece by piece as it is generated; may be null.
+     * @return The new test cases, or an error message (starting with "Error:") and no usage.
+     */
+    public OllamaGenerationClient.Completion generateTestsForSections(String ticketContent, List<String> changedSections,
+                                                                     List<String> existingHeaders, String nextTestId,
+                                                                     Consumer<String> partialOutput) {
+        StringBuilder prompt = new StringBuilder(UAT_SYSTEM_PROMPT)
+                .append("\n\nTicket Description:\n").append(ticketContent)
+                .append("\n\nOnly these parts of the description are new or changed:\n");
+        for (String section : changedSections) {
+            prompt.append("- ").append(section).append('\n');
+        }
+        if (!existingHeaders.isEmpty()) {
+            prompt.append("\nTest cases for the rest of the description already exist:\n")
+                    .append(String.join("\n", existingHeaders)).append('\n');
+        }
+        prompt.append("\nWrite test cases only for the new or changed parts, starting with ").append(nextTestId)
+                .append(". Do not repeat existing test cases.");
+        logger.debug("Incremental generation for {} changed sections, {} existing test cases",
+                     changedSections.size(), existingHeaders.size());
+        return call(prompt.toString(), "Incremental UAT test generation", partialOutput);
+    }
+
+    /**
+     * Asks for the test cases that come after an answer which was cut off. Only the headers of
+     * the complete test cases are sent back, so the model knows what to skip without paying for
+     * the whole answer as prompt tokens again.
+     *
+     * @param ticketContent  The raw description or content of the ticket.
+     * @param writtenHeaders Header lines ("UAT-001 Title") of the test cases already kept.
+     * @param nextTestId     The Test ID the continuation should start with.
+     * @return The further test cases, or an error message (starting with "Error:") and no usage.
+     */
+    public OllamaGenerationClient.Completion continueTests(String ticketContent, List<String> writtenHeaders,
+                                                          String nextTestId) {
+        String prompt = UAT_SYSTEM_PROMPT + "\n\nTicket Description:\n" + ticketContent
+                + "\n\nThe following test cases have already been written:\n" + String.join("\n", writtenHeaders)
+                + "\n\nWrite only the remaining test cases, starting with " + nextTestId
+                + ". Do not repeat the test cases listed above.";
+        return call(prompt, "UAT test continuation", null);
+    }
 
-            String result = chatClient.call(prompt).getResult().getOutput().getContent();
+    /**
+     * Asks for a single test case to be rewritten in the required format.
+     *
+     * @param ticketContent The raw description or content of the ticket.
+     * @param testCaseText  The test case as the model wrote it.
+     * @param problems      What is wrong with it, as reported by the parser.
+     * @return The rewritten test case, or an error message (starting with "Error:") and no usage.
+     */
+    public OllamaGenerationClient.Completion repairTestCase(String ticketContent, String testCaseText,
+                                                           String problems) {
+        String prompt = UAT_SYSTEM_PROMPT + "\n\nTicket Description:\n" + ticketContent
+                + "\n\nThis test case does not follow the required format (" + problems + "):\n" + testCaseText.strip()
+                + "\n\nRewrite only this test case in the required format, keeping its Test ID.";
+        return call(prompt, "UAT test case repair", null);
+    }
+
+    private OllamaGenerationClient.Completion call(String prompt, String purpose, Consumer<String> partialOutput) {
+        long started = System.nanoTime();
+        try {
+            OllamaGenerationClient.Completion result = ollamaClient.complete(prompt, partialOutput);
+            llmSuccessTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
 
-            logger.info("UAT test generation completed successfully.");
-            logger.debug("Generated UAT tests length: {} characters", result != null ? result.length() : 0);
+            logger.info("{} completed successfully.", purpose);
+            logger.debug("Generated text length: {} characters, usage: {}, truncated: {}",
+                         result.content() != null ? result.content().length() : 0, result.usage(), result.truncated());
             return result;
 
         } catch (Exception e) {
-            logger.error("Error during UAT test generation: {}", e.getMessage(), e);
-            return "Error: Failed to generate tests due to an internal error. Check logs for details.";
+            llmErrorTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            logger.error("Error during {}: {}", purpose, e.getMessage(), e);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return new OllamaGenerationClient.Completion(
+                    "Error: Failed to generate tests due to an internal error. Check logs for details.", null);
         }
     }
-} 
\ No newline at end of file
+}
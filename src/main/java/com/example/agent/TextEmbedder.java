@@ -0,0 +1,19 @@
+package com.example.agent;
+
+import java.io.IOException;
+
+/**
+ * Turns text into an embedding vector. Implemented by {@link OllamaEmbeddingClient}; tests use
+ * a local stub.
+ */
+@FunctionalInterface
+public interface TextEmbedder {
+
+    /**
+     * @param text The text to embed.
+     * @return The embedding; vectors of one model always have the same length.
+     * @throws IOException on connection failures, timeouts or a non-2xx response.
+     * @throws InterruptedException if the calling thread is interrupted.
+     */
+    float[] embed(String text) throws IOException, InterruptedException;
+}
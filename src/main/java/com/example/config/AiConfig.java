@@ -1,6 +1,5 @@
 package com.example.config;
 
-import org.springframework.ai.chat.ChatClient;
 import org.springframework.ai.ollama.OllamaChatClient;
 import org.springframework.ai.ollama.api.OllamaApi;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,12 +30,13 @@ public class AiConfig {
     }
 
     /**
-     * Creates the ChatClient bean using the OllamaApi.
+     * Creates the chat client bean using the OllamaApi.
+     * Exposed as OllamaChatClient so it can be injected as both ChatClient and StreamingChatClient.
      * @param ollamaApi The OllamaApi bean.
      * @return OllamaChatClient instance.
      */
     @Bean
-    public ChatClient chatClient(OllamaApi ollamaApi) {
+    public OllamaChatClient chatClient(OllamaApi ollamaApi) {
         return new OllamaChatClient(ollamaApi);
     }
 } 
\ No newline at end of file
@@ -1,23 +1,38 @@
 package com.example.config;
 
+import com.example.service.ApiQuotaService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.util.StringUtils;
 
+import java.util.Set;
+
 @Component
 public class ApiKeyInterceptor implements HandlerInterceptor {
 
     private static final Logger logger = LoggerFactory.getLogger(ApiKeyInterceptor.class);
 
-    @Value("${api.security.key:dummy-key}") // Read key from properties, provide a default
-    private String expectedApiKey;
-
     private static final String API_KEY_HEADER = "X-API-Key";
+    private static final String STATUS_PATH = "/api/v1/test-generation/status/";
+    private static final Set<String> SUBMISSION_PATHS = Set.of(
+            "/api/v1/test-generation/start", "/api/v1/test-generation/start/batch");
+
+    /** Request attribute holding the name of the authenticated API client. */
+    public static final String API_CLIENT_ATTRIBUTE = "apiClient";
+
+    private final ApiQuotaService apiQuotaService;
+
+    @Autowired
+    public ApiKeyInterceptor(final ApiQuotaService apiQuotaService) {
+        this.apiQuotaService = apiQuotaService;
+    }
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
@@ -29,14 +44,37 @@ public class ApiKeyInterceptor implements HandlerInterceptor {
             return false;
         }
 
-        if (!expectedApiKey.equals(providedApiKey)) {
+        ApiQuotaService.ClientLimits client = apiQuotaService.findByKey(providedApiKey);
+        if (client == null) {
             logger.warn("Invalid API Key provided for request: {}", request.getRequestURI());
             response.sendError(HttpServletResponse.SC_FORBIDDEN, "Invalid API Key");
             return false;
         }
 
+        // Status reads, repeated by long-polling clients, have their own bucket
+        boolean statusRead = "GET".equalsIgnoreCase(request.getMethod())
+                && request.getRequestURI().startsWith(request.getContextPath() + STATUS_PATH);
+        if (statusRead ? !client.tryAcquireStatusRead() : !client.tryAcquireRequest()) {
+            logger.warn("Rate limit exceeded by client {} for request: {}", client.getName(), request.getRequestURI());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(statusRead
+                    ? client.statusRetryAfterSeconds() : client.retryAfterSeconds()));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Rate limit exceeded");
+            return false;
+        }
+
+        // Only submissions start LLM work; reads, deletions and the like stay available once the quota is spent
+        boolean submission = "POST".equalsIgnoreCase(request.getMethod())
+                && SUBMISSION_PATHS.contains(request.getRequestURI().substring(request.getContextPath().length()));
+        if (submission && client.isLlmQuotaExhausted()) {
+            logger.warn("LLM time quota exhausted for client {} on request: {}", client.getName(), request.getRequestURI());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(client.secondsUntilQuotaReset()));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "LLM time quota exhausted");
+            return false;
+        }
+
         // If key is present and valid, allow request to proceed
-        logger.debug("Valid API Key received for request: {}", request.getRequestURI());
+        request.setAttribute(API_CLIENT_ATTRIBUTE, client.getName());
+        logger.debug("Valid API Key received from client {} for request: {}", client.getName(), request.getRequestURI());
         return true;
     }
-} 
\ No newline at end of file
+}
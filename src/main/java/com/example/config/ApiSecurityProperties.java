@@ -0,0 +1,54 @@
+package com.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * API keys accepted by {@link ApiKeyInterceptor} and their limits, bound from {@code api.security}.
+ * The legacy single {@code api.security.key} is still honoured as a client named "default".
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "api.security")
+public class ApiSecurityProperties {
+
+    /** Legacy single shared key; registered as client "default" when set. */
+    private String key;
+
+    private List<Client> clients = new ArrayList<>();
+
+    /** Sustained request rate applied to clients that do not set their own. */
+    private double defaultRequestsPerSecond = 5.0;
+
+    /** Token bucket size (maximum burst) applied to clients that do not set their own. */
+    private int defaultBurst = 20;
+
+    /**
+     * Separate token bucket for job status reads, which long-polling clients repeat while waiting and
+     * which must not use up the budget for submissions.
+     */
+    private double statusRequestsPerSecond = 20.0;
+
+    private int statusBurst = 50;
+
+    /** LLM time a client may consume per quota window; zero disables the quota. */
+    private Duration defaultLlmTimeQuota = Duration.ofHours(1);
+
+    private Duration quotaWindow = Duration.ofDays(1);
+
+    @Data
+    public static class Client {
+        private String name;
+        private String key;
+        private Double requestsPerSecond;
+        private Integer burst;
+        private Duration llmTimeQuota;
+        /** Admin clients see the usage of every client, others only their own. */
+        private boolean admin;
+    }
+}
@@ -1,24 +1,96 @@
 package com.example.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
 
 @Configuration
-@EnableAsync
 public class AsyncConfig {
 
-    @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
+    /**
+     * Executor that drains job event subscriber buffers into their SSE connections.
+     * Kept apart from the job workers so slow clients never delay test generation.
+     */
+    @Bean(name = "jobEventExecutor")
+    public Executor jobEventExecutor(
+            @Value("${app.events.max-threads:8}") int maxThreads,
+            @Value("${app.events.queue-capacity:1000}") int queueCapacity) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);
-        executor.setMaxPoolSize(4);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("TestGeneration-");
+        executor.setCorePoolSize(Math.min(2, maxThreads));
+        executor.setMaxPoolSize(maxThreads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("JobEvents-");
         executor.initialize();
         return executor;
     }
-} 
\ No newline at end of file
+
+    /**
+     * Re-reads job status from the database when a /status long-poll times out. Timeouts fire on
+     * the JDK's single delayer thread, so the blocking read is handed to this bounded pool instead.
+     */
+    @Bean(name = "statusPollExecutor")
+    public Executor statusPollExecutor(
+            @Value("${app.status-cache.reload-max-threads:4}") int maxThreads,
+            @Value("${app.status-cache.reload-queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.min(2, maxThreads));
+        executor.setMaxPoolSize(maxThreads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("StatusPoll-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs /chat requests off the Tomcat threads. Bounded so chat bursts are rejected with 503
+     * instead of piling up; Ollama concurrency itself is capped by LlmBulkhead.
+     */
+    @Bean(name = "chatExecutor")
+    public Executor chatExecutor(
+            @Value("${app.llm.chat-max-threads:4}") int maxThreads,
+            @Value("${app.llm.chat-queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxThreads);
+        executor.setMaxPoolSize(maxThreads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("Chat-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Bounded executor for webhook delivery batches (one batch per target host at a time).
+     */
+    @Bean(name = "webhookExecutor")
+    public Executor webhookExecutor(
+            @Value("${app.webhooks.max-threads:4}") int maxThreads,
+            @Value("${app.webhooks.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.min(2, maxThreads));
+        executor.setMaxPoolSize(maxThreads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("Webhook-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs streaming exports. Each export holds a database cursor for its whole duration, so
+     * only a few run at a time and further requests wait in a short queue.
+     */
+    @Bean(name = "exportExecutor")
+    public ThreadPoolTaskExecutor exportExecutor(
+            @Value("${app.export.max-concurrent:2}") int maxConcurrent,
+            @Value("${app.export.queue-capacity:10}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("Export-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.config;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Lets a handler returning a {@code StreamingResponseBody} or {@code Callable} replace the global
+ * {@code spring.mvc.async.request-timeout} for its own request, by setting {@link #TIMEOUT_ATTRIBUTE}
+ * to a {@link Duration}. Needed for exports, which can stream far longer than a long-poll lasts.
+ */
+@Component
+public class AsyncTimeoutInterceptor implements CallableProcessingInterceptor {
+
+    public static final String TIMEOUT_ATTRIBUTE = AsyncTimeoutInterceptor.class.getName() + ".timeout";
+
+    @Override
+    public <T> void beforeConcurrentHandling(final NativeWebRequest request, final Callable<T> task) {
+        // Called before the async request starts, so the new timeout still applies
+        if (request instanceof AsyncWebRequest asyncRequest
+                && request.getAttribute(TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Duration timeout) {
+            asyncRequest.setTimeout(timeout.toMillis());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Sends connections for read-only transactions to a read pool and everything else to the write pool.
+ * Must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so the
+ * connection is fetched after the transaction has been marked read-only, not when it begins.
+ *
+ * <p>When the read pool is the same database ({@code allReadOnlyTransactions}), every read-only
+ * transaction goes there. When it is a replica that may lag behind, only read-only transactions
+ * started inside {@link #readFromReplica} do; other code may read a row, change it and save it, and
+ * must see the latest version.</p>
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route { READ, WRITE }
+
+    private static final ThreadLocal<Boolean> REPLICA_READS = new ThreadLocal<>();
+
+    private final boolean allReadOnlyTransactions;
+
+    public ReadWriteRoutingDataSource(final DataSource writeDataSource, final DataSource readDataSource,
+                                      final boolean allReadOnlyTransactions) {
+        this.allReadOnlyTransactions = allReadOnlyTransactions;
+        setTargetDataSources(Map.of(Route.WRITE, writeDataSource, Route.READ, readDataSource));
+        setDefaultTargetDataSource(writeDataSource);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Runs a query whose read-only transactions may be served by the replica.
+     *
+     * @param query The query.
+     * @return The query's result.
+     */
+    public static <T> T readFromReplica(final Supplier<T> query) {
+        Boolean previous = REPLICA_READS.get();
+        REPLICA_READS.set(Boolean.TRUE);
+        try {
+            return query.get();
+        } finally {
+            if (previous == null) {
+                REPLICA_READS.remove();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Route.WRITE;
+        }
+        return allReadOnlyTransactions || REPLICA_READS.get() != null ? Route.READ : Route.WRITE;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Read replica for query endpoints ({@code app.datasource.replica.enabled}).
+ *
+ * <p>{@code spring.datasource} stays the primary and serves everything by default. Read-only
+ * transactions started through {@link com.example.service.ReplicaReadRouter} (job status, job and
+ * log reads) use the pool configured under {@code app.datasource.replica}, which takes that load off
+ * the primary's pool. Not combined with {@code app.sqlite.enabled}, which routes reads on its own.</p>
+ */
+@Configuration
+@ConditionalOnExpression("${app.datasource.replica.enabled:false} and !${app.sqlite.enabled:false}")
+public class ReplicaDataSourceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaDataSourceConfig.class);
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(final DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            final DataSourceProperties properties,
+            @Value("${app.datasource.replica.url}") final String url,
+            @Value("${app.datasource.replica.username:}") final String username,
+            @Value("${app.datasource.replica.password:}") final String password) {
+        return DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username.isEmpty() ? properties.determineUsername() : username)
+                .password(password.isEmpty() ? properties.determinePassword() : password)
+                .build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(final HikariDataSource primaryDataSource,
+                                 final HikariDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, false));
+        logger.info("Read replica enabled for query endpoints: {}", replicaDataSource.getJdbcUrl());
+        return proxy;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.config;
+
+import com.example.model.TestGenerationJob;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate second-level cache for finished jobs ({@code app.job-cache.enabled}).
+ *
+ * <p>COMPLETED and FAILED jobs, including their test result, never change, so result downloads and
+ * status reads of them are served from an in-process Caffeine cache instead of the database. The
+ * region holds at most {@code max-entries} jobs, least recently used first out. Deleting a job through
+ * the repository evicts it here; a delete made by another instance is only seen once {@code ttl}
+ * expires. Unfinished jobs are kept out of the region by {@link TerminalJobCacheListener}.</p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.job-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class SecondLevelCacheConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecondLevelCacheConfig.class);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager jobCacheManager(
+            final MeterRegistry meterRegistry,
+            @Value("${app.job-cache.max-entries:1000}") final long maxEntries,
+            @Value("${app.job-cache.ttl:1h}") final Duration ttl) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+        Cache<Object, Object> region = cacheManager.getCache(TestGenerationJob.CACHE_REGION);
+        if (region == null) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxEntries));
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+            configuration.setStatisticsEnabled(true);
+            region = cacheManager.createCache(TestGenerationJob.CACHE_REGION, configuration);
+        }
+        JCacheMetrics.monitor(meterRegistry, region);
+        logger.info("Second-level cache for finished jobs: up to {} entries, ttl {}", maxEntries, ttl);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer jobCacheHibernateProperties(final CacheManager jobCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, jobCacheManager);
+            // The region is created above; a missing one means the names drifted apart
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            properties.put("hibernate.integrator_provider",
+                    (IntegratorProvider) () -> List.of(new TerminalJobCacheIntegrator()));
+        };
+    }
+
+    private static final class TerminalJobCacheIntegrator implements Integrator {
+
+        @Override
+        public void integrate(final Metadata metadata, final BootstrapContext bootstrapContext,
+                              final SessionFactoryImplementor sessionFactory) {
+            TerminalJobCacheListener listener = new TerminalJobCacheListener(sessionFactory);
+            EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+            registry.appendListeners(EventType.POST_LOAD, listener);
+            registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+            registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        }
+
+        @Override
+        public void disintegrate(final SessionFactoryImplementor sessionFactory,
+                                 final SessionFactoryServiceRegistry serviceRegistry) {
+            // Listeners go away with the session factory
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+
+/**
+ * SQLite mode for the single-node dev/edge deployment ({@code app.sqlite.enabled}).
+ *
+ * <p>The database runs in WAL journal mode, where readers see the last committed state without
+ * blocking the writer or each other. All writes share one connection, since SQLite allows a single
+ * writer at a time anyway, while read-only transactions (including Spring Data's default for
+ * {@code find*} calls made outside a transaction) get a pool of read-only connections. Status polls
+ * therefore no longer queue behind job log inserts.</p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sqlite.enabled", havingValue = "true")
+public class SqliteDataSourceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqliteDataSourceConfig.class);
+    // SQLiteOpenMode.READONLY; the flag cannot be changed once the connection is open
+    private static final String OPEN_READ_ONLY = "1";
+
+    /**
+     * The single write connection. Pool settings come from {@code spring.datasource.hikari}; the size
+     * is fixed at one.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource sqliteWriteDataSource(
+            final DataSourceProperties properties,
+            @Value("${app.sqlite.busy-timeout:5s}") final Duration busyTimeout) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.addDataSourceProperty("journal_mode", "WAL");
+        // With WAL, NORMAL only syncs at checkpoints; a power loss can drop the last commits but not corrupt the file
+        dataSource.addDataSourceProperty("synchronous", "NORMAL");
+        dataSource.addDataSourceProperty("busy_timeout", String.valueOf(busyTimeout.toMillis()));
+        dataSource.addDataSourceProperty("foreign_keys", "true");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource sqliteReadDataSource(
+            final DataSourceProperties properties,
+            final HikariDataSource sqliteWriteDataSource,
+            @Value("${app.sqlite.read-pool-size:4}") final int readPoolSize,
+            @Value("${app.sqlite.busy-timeout:5s}") final Duration busyTimeout) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(sqliteWriteDataSource.getPoolName() + "-Read");
+        dataSource.setMaximumPoolSize(readPoolSize);
+        dataSource.setMinimumIdle(Math.min(sqliteWriteDataSource.getMinimumIdle(), readPoolSize));
+        // Hibernate is told the provider disables auto-commit, which must hold for both pools
+        dataSource.setAutoCommit(sqliteWriteDataSource.isAutoCommit());
+        dataSource.setConnectionTimeout(sqliteWriteDataSource.getConnectionTimeout());
+        dataSource.setIdleTimeout(sqliteWriteDataSource.getIdleTimeout());
+        dataSource.setMaxLifetime(sqliteWriteDataSource.getMaxLifetime());
+        dataSource.addDataSourceProperty("open_mode", OPEN_READ_ONLY);
+        dataSource.addDataSourceProperty("busy_timeout", String.valueOf(busyTimeout.toMillis()));
+        return dataSource;
+    }
+
+    /**
+     * The DataSource used by JPA and everything else: picks the pool per transaction, and only once
+     * the first statement runs.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(final HikariDataSource sqliteWriteDataSource,
+                                 final HikariDataSource sqliteReadDataSource) {
+        if (sqliteWriteDataSource.getMaximumPoolSize() != 1) {
+            logger.info("SQLite allows one writer at a time; write pool size {} reduced to 1",
+                    sqliteWriteDataSource.getMaximumPoolSize());
+        }
+        sqliteWriteDataSource.setMaximumPoolSize(1);
+        sqliteWriteDataSource.setMinimumIdle(1);
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(sqliteWriteDataSource, sqliteReadDataSource, true));
+        // Known up front, so the proxy does not open a connection to find out
+        proxy.setDefaultAutoCommit(sqliteWriteDataSource.isAutoCommit());
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        logger.info("SQLite WAL mode: 1 write connection, {} read-only connections", sqliteReadDataSource.getMaximumPoolSize());
+        return proxy;
+    }
+}
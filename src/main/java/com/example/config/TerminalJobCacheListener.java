@@ -0,0 +1,70 @@
+package com.example.config;
+
+import com.example.model.TestGenerationJob;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Keeps only COMPLETED and FAILED jobs in the {@link TestGenerationJob#CACHE_REGION} region.
+ *
+ * <p>Hibernate caches every job it loads, inserts or updates. A job that is still PENDING or
+ * IN_PROGRESS may next be changed by another instance, which would not invalidate this instance's
+ * copy, so it is evicted again once loaded or once the change is committed. Finished jobs never
+ * change and stay cached until deleted or until {@code app.job-cache.ttl} expires.</p>
+ */
+class TerminalJobCacheListener
+        implements PostLoadEventListener, PostCommitInsertEventListener, PostCommitUpdateEventListener {
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    TerminalJobCacheListener(final SessionFactoryImplementor sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public void onPostLoad(final PostLoadEvent event) {
+        evictUnlessTerminal(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostInsert(final PostInsertEvent event) {
+        evictUnlessTerminal(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(final PostInsertEvent event) {
+        // Nothing was cached for a rolled back insert
+    }
+
+    @Override
+    public void onPostUpdate(final PostUpdateEvent event) {
+        evictUnlessTerminal(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(final PostUpdateEvent event) {
+        // Hibernate already dropped the cached copy when the update was rolled back
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(final EntityPersister persister) {
+        return persister.getMappedClass() == TestGenerationJob.class;
+    }
+
+    private void evictUnlessTerminal(final Object entity, final Object id) {
+        if (entity instanceof TestGenerationJob job && !isTerminal(job)) {
+            sessionFactory.getCache().evictEntityData(TestGenerationJob.class, id);
+        }
+    }
+
+    private static boolean isTerminal(final TestGenerationJob job) {
+        return job.getStatus() == TestGenerationJob.JobStatus.COMPLETED
+                || job.getStatus() == TestGenerationJob.JobStatus.FAILED;
+    }
+}
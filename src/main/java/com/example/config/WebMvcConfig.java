@@ -1,7 +1,10 @@
 package com.example.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -11,10 +14,25 @@ public class WebMvcConfig implements WebMvcConfigurer {
     @Autowired
     private ApiKeyInterceptor apiKeyInterceptor;
 
+    @Autowired
+    private AsyncTimeoutInterceptor asyncTimeoutInterceptor;
+
+    @Autowired
+    @Qualifier("exportExecutor")
+    private AsyncTaskExecutor exportExecutor;
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        // Apply the API Key interceptor only to paths under /api/uat/
+        // Apply the API Key interceptor to the test generation API
         registry.addInterceptor(apiKeyInterceptor)
-                .addPathPatterns("/api/uat/**");
+                .addPathPatterns("/api/v1/test-generation/**");
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        // StreamingResponseBody exports are the only Callable-style async handlers; CompletableFuture,
+        // DeferredResult and SSE responses complete on their own threads and do not use this executor
+        configurer.setTaskExecutor(exportExecutor);
+        configurer.registerCallableInterceptors(asyncTimeoutInterceptor);
     }
-} 
\ No newline at end of file
+}
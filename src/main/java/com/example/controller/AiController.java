@@ -1,25 +1,40 @@
 package com.example.controller;
 
-import org.springframework.ai.chat.ChatClient;
-import org.springframework.ai.chat.prompt.Prompt;
+import com.example.service.ChatService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 public class AiController {
 
-    private final ChatClient chatClient;
+    private final ChatService chatService;
 
     @Autowired
-    public AiController(ChatClient chatClient) {
-        this.chatClient = chatClient;
+    public AiController(ChatService chatService) {
+        this.chatService = chatService;
     }
 
     @PostMapping("/chat")
-    public String chat(@RequestBody String message) {
-        Prompt prompt = new Prompt(message);
-        return chatClient.call(prompt).getResult().getOutput().getContent();
+    public DeferredResult<String> chat(@RequestBody String message) {
+        // Own timeout: answers can take longer than spring.mvc.async.request-timeout
+        DeferredResult<String> result = new DeferredResult<>(chatService.getChatTimeout().toMillis());
+        chatService.chat(message).whenComplete((answer, error) -> {
+            if (error != null) {
+                result.setErrorResult(error.getCause() != null ? error.getCause() : error);
+            } else {
+                result.setResult(answer);
+            }
+        });
+        return result;
     }
-} 
\ No newline at end of file
+
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter chatStream(@RequestBody String message) {
+        return chatService.stream(message);
+    }
+}
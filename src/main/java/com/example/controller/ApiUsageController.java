@@ -0,0 +1,78 @@
+package com.example.controller;
+
+import com.example.config.ApiKeyInterceptor;
+import com.example.dto.ApiKeyUsageDto;
+import com.example.dto.JobStatsDto;
+import com.example.dto.LlmUsageRollupDto;
+import com.example.service.ApiQuotaService;
+import com.example.service.JobPhaseStats;
+import com.example.service.LlmUsageService;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * REST controller reporting request rate and LLM time usage per API client,
+ * LLM token usage per model and backend, and job latency stats.
+ */
+@RestController
+@RequestMapping("/api/v1/test-generation")
+public class ApiUsageController {
+
+    private final ApiQuotaService apiQuotaService;
+    private final LlmUsageService llmUsageService;
+    private final JobPhaseStats jobPhaseStats;
+
+    @Autowired
+    public ApiUsageController(final ApiQuotaService apiQuotaService, final LlmUsageService llmUsageService,
+                              final JobPhaseStats jobPhaseStats) {
+        this.apiQuotaService = apiQuotaService;
+        this.llmUsageService = llmUsageService;
+        this.jobPhaseStats = jobPhaseStats;
+    }
+
+    /**
+     * Reports usage of the calling API client, or of every configured client for an admin key.
+     * @param apiClient The authenticated client, set by {@link ApiKeyInterceptor}.
+     * @return ResponseEntity with one entry per visible client (keys are never included).
+     */
+    @Operation(summary = "Get API usage", description = "Reports allowed and rejected requests, remaining burst and LLM time used against the quota for the calling API client, or for every client when called with an admin key.")
+    @GetMapping("/usage")
+    public ResponseEntity<List<ApiKeyUsageDto>> getUsage(
+            @RequestAttribute(value = ApiKeyInterceptor.API_CLIENT_ATTRIBUTE, required = false) String apiClient) {
+        return ResponseEntity.ok(apiQuotaService.getUsage(apiClient));
+    }
+
+    /**
+     * Reports LLM tokens and time per model and backend.
+     * @param createdFrom Only jobs created at or after this time (ISO date-time), optional.
+     * @param createdTo Only jobs created before this time (ISO date-time), optional.
+     * @return ResponseEntity with one entry per (model, backend) pair.
+     */
+    @Operation(summary = "Get LLM usage rollups", description = "Sums prompt and output tokens, load, prompt evaluation and generation time per model and backend, with tokens/second, for capacity planning.")
+    @GetMapping("/llm-usage")
+    public ResponseEntity<List<LlmUsageRollupDto>> getLlmUsage(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+        return ResponseEntity.ok(llmUsageService.getRollups(createdFrom, createdTo));
+    }
+
+    /**
+     * Reports rolling latency percentiles per job phase and throughput on this instance.
+     * @return ResponseEntity with the stats over {@code app.stats.window}.
+     */
+    @Operation(summary = "Get job latency stats", description = "Rolling p50/p95/p99 per job phase (queue, llm_wait, llm, finalize, total) and completed/failed jobs per minute, from in-memory histograms of this instance.")
+    @GetMapping("/stats")
+    public ResponseEntity<JobStatsDto> getStats() {
+        return ResponseEntity.ok(jobPhaseStats.getStats());
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.controller;
+
+import com.example.event.JobEvent;
+import com.example.event.JobEventBus;
+import com.example.event.JobEventSink;
+import com.example.event.JobEventSubscription;
+import com.example.exception.JobNotFoundException;
+import com.example.service.JobStatusSnapshot;
+import com.example.service.TestGenerationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Server-Sent Events endpoints that push job status transitions and log entries,
+ * replacing polling of /status/{jobId} and /jobs/{jobId}/logs.
+ */
+@RestController
+@RequestMapping("/api/v1/test-generation")
+public class JobEventController {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobEventController.class);
+
+    private final TestGenerationService testGenerationService;
+    private final JobEventBus jobEventBus;
+    private final Duration emitterTimeout;
+    private final int maxJobsPerStream;
+
+    @Autowired
+    public JobEventController(
+            final TestGenerationService testGenerationService,
+            final JobEventBus jobEventBus,
+            @Value("${app.events.emitter-timeout:30m}") final Duration emitterTimeout,
+            @Value("${app.events.max-jobs-per-stream:100}") final int maxJobsPerStream) {
+        this.testGenerationService = testGenerationService;
+        this.jobEventBus = jobEventBus;
+        this.emitterTimeout = emitterTimeout;
+        this.maxJobsPerStream = maxJobsPerStream;
+    }
+
+    /**
+     * Streams events for a single job. The first status event is always the current status.
+     * @param jobId The ID of the job.
+     * @return The SSE stream.
+     */
+    @Operation(summary = "Stream job events", description = "Pushes status transitions and log entries of a job as Server-Sent Events.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream opened"),
+            @ApiResponse(responseCode = "404", description = "Job not found")
+    })
+    @GetMapping(path = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamJobEvents(@PathVariable Long jobId) {
+        logger.debug("Opening event stream for job ID: {}", jobId);
+        return openStream(List.of(jobId));
+    }
+
+    /**
+     * Streams events for several jobs over one connection.
+     * @param jobIds The IDs of the jobs, at most {@code app.events.max-jobs-per-stream}.
+     * @return The SSE stream.
+     */
+    @Operation(summary = "Stream events of many jobs", description = "Multiplexes status transitions and log entries of several jobs onto one Server-Sent Events stream.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream opened"),
+            @ApiResponse(responseCode = "400", description = "No job IDs or too many job IDs"),
+            @ApiResponse(responseCode = "404", description = "A job was not found")
+    })
+    @GetMapping(path = "/jobs/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEventsForJobs(@RequestParam List<Long> jobIds) {
+        Set<Long> distinctJobIds = new LinkedHashSet<>(jobIds);
+        if (distinctJobIds.isEmpty() || distinctJobIds.size() > maxJobsPerStream) {
+            throw new IllegalArgumentException("Between 1 and " + maxJobsPerStream + " job IDs are required");
+        }
+        logger.debug("Opening multiplexed event stream for job IDs: {}", distinctJobIds);
+        return openStream(new ArrayList<>(distinctJobIds));
+    }
+
+    private SseEmitter openStream(final List<Long> jobIds) {
+        // Resolve every job first so unknown IDs fail with 404 before the stream starts
+        for (Long jobId : jobIds) {
+            testGenerationService.getJobStatusSnapshot(jobId);
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+        // The initial statuses are sent by the subscription's own drain, ordered with the transitions
+        JobEventSubscription subscription;
+        try {
+            subscription = jobEventBus.subscribe(jobIds, new SseJobEventSink(emitter), jobId -> {
+                JobStatusSnapshot snapshot = testGenerationService.getJobStatusSnapshot(jobId);
+                return new JobEvent(0L, jobId, JobEvent.Type.STATUS, LocalDateTime.now(),
+                        snapshot.getStatus().name(), null, snapshot.getErrorMessage());
+            });
+        } catch (JobNotFoundException e) {
+            // Deleted since it was resolved; the subscription has completed the emitter
+            return emitter;
+        }
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> subscription.close());
+        return emitter;
+    }
+
+    private static SseEmitter.SseEventBuilder toSseEvent(final JobEvent event) {
+        return SseEmitter.event()
+                .id(String.valueOf(event.getSequence()))
+                .name(event.getType().name().toLowerCase())
+                .data(event, MediaType.APPLICATION_JSON);
+    }
+
+    private static final class SseJobEventSink implements JobEventSink {
+        private final SseEmitter emitter;
+
+        private SseJobEventSink(final SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void send(final JobEvent event) throws IOException {
+            emitter.send(toSseEvent(event));
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+}
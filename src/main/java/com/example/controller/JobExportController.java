@@ -0,0 +1,71 @@
+package com.example.controller;
+
+import com.example.config.AsyncTimeoutInterceptor;
+import com.example.dto.JobSearchCriteria;
+import com.example.service.JobExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * REST controller streaming the results of many jobs in one download.
+ */
+@RestController
+@RequestMapping("/api/v1/test-generation/jobs/export")
+public class JobExportController {
+
+    private final JobExportService jobExportService;
+    private final Duration exportTimeout;
+
+    @Autowired
+    public JobExportController(final JobExportService jobExportService,
+                               @Value("${app.export.timeout:1h}") final Duration exportTimeout) {
+        this.jobExportService = jobExportService;
+        this.exportTimeout = exportTimeout;
+    }
+
+    /**
+     * Streams the results of all jobs matching the filters, oldest first.
+     * @param criteria Same filters as the job listing; cursor, limit and sort are ignored.
+     * @param format csv (default), jsonl or xray.
+     * @param request The current request, used to extend its async timeout.
+     * @return ResponseEntity whose body is written while jobs are read from the database.
+     */
+    @Operation(summary = "Export job results", description = "Streams the results of all jobs matching the filters in one response. "
+            + "csv has one row per test case, jsonl one JSON object per job, xray is a CSV for the Xray Test Case Importer with one row per step. "
+            + "Jobs are read through a database cursor, so large exports do not use more memory than small ones.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed"),
+            @ApiResponse(responseCode = "400", description = "Unknown format or invalid filter")
+    })
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportJobs(
+            @ModelAttribute JobSearchCriteria criteria,
+            @RequestParam(required = false) String format,
+            HttpServletRequest request) {
+        JobExportService.Format exportFormat = JobExportService.Format.fromParameter(format);
+        request.setAttribute(AsyncTimeoutInterceptor.TIMEOUT_ATTRIBUTE, exportTimeout);
+        String fileName = "test-generation-export-" + LocalDate.now() + "." + exportFormat.getFileExtension();
+        StreamingResponseBody body = out -> jobExportService.export(criteria, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.controller;
+
+import com.example.config.ApiKeyInterceptor;
+import com.example.dto.JobSearchPageDto;
+import com.example.service.ApiQuotaService;
+import com.example.service.JobSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * REST controller for full-text search over completed jobs.
+ */
+@RestController
+@RequestMapping("/api/v1/test-generation/search")
+public class JobSearchController {
+
+    private final JobSearchService jobSearchService;
+    private final ApiQuotaService apiQuotaService;
+
+    @Autowired
+    public JobSearchController(final JobSearchService jobSearchService, final ApiQuotaService apiQuotaService) {
+        this.jobSearchService = jobSearchService;
+        this.apiQuotaService = apiQuotaService;
+    }
+
+    /**
+     * Searches tickets and generated tests of completed jobs.
+     * @param q The query, e.g. {@code checkout invoice}, {@code "reset link"} or {@code jiraTicket:PROJ-123}.
+     * @param page 0-based page number.
+     * @param size Hits per page, at most 100.
+     * @return ResponseEntity with the page of hits, best match first.
+     */
+    @Operation(summary = "Search jobs", description = "Full-text search over the ticket key, components, description and generated tests of completed jobs. "
+            + "All words must match unless joined with OR; quotes search for a phrase and field:value restricts a word to one of "
+            + "jiraTicket, components, description or testResult. Each hit carries the matching passages with the matched words in <em>.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Search completed"),
+            @ApiResponse(responseCode = "400", description = "Blank query or page out of range"),
+            @ApiResponse(responseCode = "503", description = "Search is disabled or the index is unavailable")
+    })
+    @GetMapping
+    public ResponseEntity<JobSearchPageDto> search(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(jobSearchService.search(q, page, size));
+    }
+
+    /**
+     * Rebuilds the search index from the database in the background. Reading every completed job
+     * is an operator task, so only admin API clients may start it.
+     * @param apiClient The authenticated client, set by {@link ApiKeyInterceptor}.
+     * @return ResponseEntity with 202 (Accepted), also when a rebuild is already running, or 403 (Forbidden).
+     */
+    @Operation(summary = "Rebuild search index", description = "Re-indexes all completed jobs from the database. "
+            + "Searches keep returning the previous content until the rebuild completes. Requires an API key configured with admin: true.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Rebuild started or already running"),
+            @ApiResponse(responseCode = "403", description = "The API key is not an admin key"),
+            @ApiResponse(responseCode = "503", description = "Search is disabled or the index is unavailable")
+    })
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, String>> rebuild(
+            @RequestAttribute(value = ApiKeyInterceptor.API_CLIENT_ATTRIBUTE, required = false) String apiClient) {
+        if (!apiQuotaService.isAdmin(apiClient)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Rebuilding the search index requires an admin API key"));
+        }
+        boolean started = jobSearchService.requestRebuild();
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(Map.of("status", started ? "started" : "already running"));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.controller;
+
+import com.example.dto.TestCaseDto;
+import com.example.dto.TestCaseSummaryDto;
+import com.example.service.TestCaseService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller serving the test cases parsed from a job's generated output.
+ */
+@RestController
+@RequestMapping("/api/v1/test-generation/jobs/{jobId}/test-cases")
+public class TestCaseController {
+
+    private final TestCaseService testCaseService;
+
+    @Autowired
+    public TestCaseController(final TestCaseService testCaseService) {
+        this.testCaseService = testCaseService;
+    }
+
+    /**
+     * Lists a job's test cases without their steps.
+     * @param jobId The ID of the job.
+     * @param malformed Optional filter on the malformed flag.
+     * @return ResponseEntity with the test case summaries in output order.
+     */
+    @Operation(summary = "List test cases", description = "Lists the test cases parsed from the job's output, without steps. Use malformed=true to find sections that did not match the expected format.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Test cases retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Job not found")
+    })
+    @GetMapping
+    public ResponseEntity<List<TestCaseSummaryDto>> listTestCases(
+            @PathVariable Long jobId,
+            @RequestParam(required = false) Boolean malformed) {
+        return ResponseEntity.ok(testCaseService.listTestCases(jobId, malformed));
+    }
+
+    /**
+     * Gets one test case with its steps.
+     * @param jobId The ID of the job.
+     * @param position 1-based position of the test case in the output.
+     * @return ResponseEntity with the test case.
+     */
+    @Operation(summary = "Get test case", description = "Gets one parsed test case with its steps and expected result.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Test case retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Job or test case not found")
+    })
+    @GetMapping("/{position}")
+    public ResponseEntity<TestCaseDto> getTestCase(@PathVariable Long jobId, @PathVariable Integer position) {
+        return ResponseEntity.ok(testCaseService.getTestCase(jobId, position));
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.controller;
 
+import com.example.config.ApiKeyInterceptor;
 import com.example.dto.*;
+import com.example.service.IdempotencyService;
+import com.example.service.JobStatusSnapshot;
+import com.example.service.LlmUsageService;
 import com.example.service.TestGenerationService;
-import com.example.model.JobLog;
-import com.example.repository.JobLogRepository;
+import com.example.services.JobLogService;
 import com.example.model.TestGenerationJob;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,14 +17,22 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 // Import JobNotFoundException
@@ -37,21 +48,41 @@ public class TestGenerationController {
 
     private static final Logger logger = LoggerFactory.getLogger(TestGenerationController.class);
 
+    private static final Duration DEFAULT_LONG_POLL_TIMEOUT = Duration.ofSeconds(30);
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    // Private: responses depend on the caller's API key
+    private static final CacheControl FINISHED_RESULT_CACHE_CONTROL =
+            CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+
     private final TestGenerationService testGenerationService;
-    private final JobLogRepository jobLogRepository;
+    private final JobLogService jobLogService;
+    private final IdempotencyService idempotencyService;
+
+    @Value("${app.batch.max-size:100}")
+    private int maxBatchSize = 100;
+
+    @Value("${app.batch.max-delete-size:1000}")
+    private int maxDeleteSize = 1000;
+
+    @Value("${app.status-cache.max-long-poll:60s}")
+    private Duration maxLongPollTimeout = Duration.ofSeconds(60);
 
     // Constructor injection
     @Autowired
     public TestGenerationController(
             final TestGenerationService testGenerationService,
-            final JobLogRepository jobLogRepository) {
+            final JobLogService jobLogService,
+            final IdempotencyService idempotencyService) {
         this.testGenerationService = testGenerationService;
-        this.jobLogRepository = jobLogRepository;
+        this.jobLogService = jobLogService;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
      * Starts an asynchronous test generation job.
      * @param ticketDto DTO containing ticket details.
+     * @param idempotencyKey Optional key; repeating it returns the original job ID instead of creating a new job.
      * @return ResponseEntity with the accepted job's ID.
      */
     @Operation(summary = "Start asynchronous test generation", description = "Accepts ticket information, creates a job record, returns the job ID, and starts the generation process in the background.")
@@ -63,27 +94,78 @@ public class TestGenerationController {
             @ApiResponse(responseCode = "400", description = "Invalid input data",
                          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
                                           schema = @Schema(implementation = ErrorResponseDto.class))), // Assuming you have an ErrorResponseDto
+            @ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still being processed"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key reused with a different request body"),
             @ApiResponse(responseCode = "500", description = "Failed to create job record",
                          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
                                           schema = @Schema(implementation = ErrorResponseDto.class))) // Example for internal errors
     })
     @PostMapping("/start")
     // Change return type to reflect JSON response with Job ID
-    public ResponseEntity<Map<String, Object>> startTestGeneration(@Valid @RequestBody TicketContentDto ticketDto) {
+    public ResponseEntity<Map<String, Object>> startTestGeneration(
+            @Valid @RequestBody TicketContentDto ticketDto,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestAttribute(value = ApiKeyInterceptor.API_CLIENT_ATTRIBUTE, required = false) String apiClient) {
         logger.info("Received request to start test generation for ticket: {}", ticketDto.getTicketId());
 
-        // Call the synchronous service method which now returns the job
-        TestGenerationJob createdJob = testGenerationService.startTestGeneration(ticketDto);
+        // Call the synchronous service method which now returns the job, at most once per Idempotency-Key
+        IdempotencyService.Outcome outcome = idempotencyService.execute(scopeIdempotencyKey(idempotencyKey, apiClient),
+                ticketDto, () -> List.of(testGenerationService.startTestGeneration(ticketDto, apiClient).getId()));
 
         // Extract the ID
-        Long jobId = createdJob.getId();
+        Long jobId = outcome.getJobIds().get(0);
         logger.info("Job created with ID: {}. Triggering async processing.", jobId);
 
         // Create response body
         Map<String, Object> responseBody = Map.of("jobId", jobId);
 
         // Return 202 Accepted with the job ID in the body
-        return ResponseEntity.status(HttpStatus.ACCEPTED).body(responseBody);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(outcome.isReplayed()))
+                .body(responseBody);
+    }
+
+    /**
+     * Starts one asynchronous test generation job per ticket.
+     * @param ticketDtos DTOs containing ticket details, at most {@code app.batch.max-size}.
+     * @param idempotencyKey Optional key covering the whole batch.
+     * @return ResponseEntity with the accepted jobs' IDs, in request order.
+     */
+    @Operation(summary = "Start test generation for several tickets", description = "Creates one job per ticket and returns their IDs in request order.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "All jobs accepted"),
+            @ApiResponse(responseCode = "400", description = "Invalid input data or batch too large"),
+            @ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still being processed"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key reused with a different request body")
+    })
+    @PostMapping("/start/batch")
+    public ResponseEntity<Map<String, Object>> startTestGenerationBatch(
+            @RequestBody List<@Valid TicketContentDto> ticketDtos,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestAttribute(value = ApiKeyInterceptor.API_CLIENT_ATTRIBUTE, required = false) String apiClient) {
+        if (ticketDtos.isEmpty() || ticketDtos.size() > maxBatchSize) {
+            throw new IllegalArgumentException("A batch must contain between 1 and " + maxBatchSize + " tickets");
+        }
+        logger.info("Received batch request to start test generation for {} tickets", ticketDtos.size());
+
+        IdempotencyService.Outcome outcome = idempotencyService.execute(scopeIdempotencyKey(idempotencyKey, apiClient),
+                ticketDtos, () -> testGenerationService.startTestGenerationBatch(ticketDtos, apiClient).stream()
+                        .map(TestGenerationJob::getId)
+                        .collect(Collectors.toList()));
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(outcome.isReplayed()))
+                .body(Map.of("jobIds", outcome.getJobIds()));
+    }
+
+    /**
+     * Keys are namespaced per API client so two clients can never collide on the same key.
+     */
+    private static String scopeIdempotencyKey(final String idempotencyKey, final String apiClient) {
+        if (idempotencyKey == null || apiClient == null) {
+            return idempotencyKey;
+        }
+        return apiClient + ":" + idempotencyKey;
     }
 
     /**
@@ -91,35 +173,96 @@ public class TestGenerationController {
      * @param jobId The ID of the job.
      * @return ResponseEntity with job status or error.
      */
-    @Operation(summary = "Get job status", description = "Retrieves the current status and any error message for a specific test generation job.")
+    @Operation(summary = "Get job status", description = "Retrieves the current status and any error message for a specific test generation job. "
+            + "Supports If-None-Match, and long-polling with waitFor/timeout (e.g. ?waitFor=COMPLETED&timeout=30s).")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Job status retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Status unchanged since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Job not found"),
-            @ApiResponse(responseCode = "400", description = "Invalid Job ID format") // Handled by GlobalExceptionHandler if needed
+            @ApiResponse(responseCode = "400", description = "Invalid Job ID format or negative timeout") // Handled by GlobalExceptionHandler if needed
     })
     @GetMapping("/status/{jobId}")
-    public ResponseEntity<Map<String, Object>> getJobStatus(@PathVariable String jobId) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getJobStatus(
+            @PathVariable String jobId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam(required = false) TestGenerationJob.JobStatus waitFor,
+            @RequestParam(required = false) String timeout) {
         logger.debug("Received request for status of job ID: {}", jobId);
         // No try-catch needed for NumberFormatException or JobNotFoundException, handled globally
-        Map<String, Object> status = testGenerationService.getJobStatus(jobId);
-        return ResponseEntity.ok(status);
+        Long jobIdLong = Long.parseLong(jobId);
+
+        if (waitFor == null && timeout == null) {
+            JobStatusSnapshot snapshot = testGenerationService.getJobStatusSnapshot(jobIdLong);
+            return CompletableFuture.completedFuture(toStatusResponse(snapshot, ifNoneMatch));
+        }
+
+        Duration wait = timeout != null ? DurationStyle.detectAndParse(timeout, ChronoUnit.SECONDS) : DEFAULT_LONG_POLL_TIMEOUT;
+        if (wait.isNegative()) {
+            throw new IllegalArgumentException("timeout must not be negative: " + timeout);
+        }
+        if (wait.compareTo(maxLongPollTimeout) > 0) {
+            wait = maxLongPollTimeout;
+        }
+        Predicate<JobStatusSnapshot> condition;
+        if (waitFor != null) {
+            // A terminal state other than the requested one will never change, so return it as well
+            condition = snapshot -> snapshot.getStatus() == waitFor || snapshot.isTerminal();
+        } else if (ifNoneMatch != null) {
+            condition = snapshot -> !snapshot.matches(ifNoneMatch);
+        } else {
+            condition = JobStatusSnapshot::isTerminal;
+        }
+        return testGenerationService.awaitJobStatus(jobIdLong, condition, wait)
+                .thenApply(snapshot -> toStatusResponse(snapshot, ifNoneMatch));
+    }
+
+    private static ResponseEntity<Map<String, Object>> toStatusResponse(final JobStatusSnapshot snapshot,
+                                                                        final String ifNoneMatch) {
+        if (snapshot.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getEtag()).build();
+        }
+        Map<String, Object> body = Map.of(
+                "status", snapshot.getStatus().name(),
+                "error", snapshot.getErrorMessage() != null ? snapshot.getErrorMessage() : "");
+        return ResponseEntity.ok()
+                .eTag(snapshot.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .body(body);
+    }
+
+    /**
+     * Lists jobs matching optional filters, newest first by default.
+     * @param criteria Filters (status, jiraTicket, component, createdFrom, createdTo), limit, sort and cursor.
+     * @return ResponseEntity with one page of job summaries and the cursor for the next page.
+     */
+    @Operation(summary = "List jobs", description = "Lists job summaries with optional filters and keyset pagination. Pass the returned nextCursor to fetch the following page.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of jobs retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid filter, sort or cursor")
+    })
+    @GetMapping("/jobs")
+    public ResponseEntity<JobPageDto> listJobs(@ModelAttribute JobSearchCriteria criteria) {
+        logger.debug("Received request to list jobs with criteria: {}", criteria);
+        return ResponseEntity.ok(testGenerationService.listJobs(criteria));
     }
 
     /**
      * Gets the logs for a specific job.
      * @param jobId The ID of the job.
-     * @return ResponseEntity with a list of job logs or error.
+     * @param tail Optional number of most recent entries to return; all entries when omitted.
+     * @return ResponseEntity with a list of job logs, newest first, or error.
      */
     @GetMapping("/jobs/{jobId}/logs")
-    public ResponseEntity<List<JobLogDto>> getJobLogs(@PathVariable String jobId) {
+    public ResponseEntity<List<JobLogDto>> getJobLogs(@PathVariable String jobId,
+                                                      @RequestParam(required = false) Integer tail) {
         try {
             Long jobIdLong = Long.parseLong(jobId);
+            if (tail != null && tail < 1) {
+                logger.warn("Invalid tail {} for logs of job ID: {}", tail, jobIdLong);
+                return ResponseEntity.badRequest().build();
+            }
             logger.debug("Received request for logs of job ID: {}", jobIdLong);
-            List<JobLog> logs = jobLogRepository.findByJobIdOrderByTimestampDesc(jobIdLong);
-            List<JobLogDto> logDtos = logs.stream()
-                    .map(log -> new JobLogDto(log.getTimestamp(), log.getLevel(), log.getMessage()))
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(logDtos);
+            return ResponseEntity.ok(jobLogService.getJobLogs(jobIdLong, tail));
         } catch (NumberFormatException e) {
             logger.warn("Invalid job ID format for logs request: {}", jobId);
             return ResponseEntity.badRequest().build();
@@ -127,18 +270,48 @@ public class TestGenerationController {
     }
 
     /**
-     * Gets the generated test result for a specific job.
+     * Gets the generated test result for a specific job. Results of COMPLETED and FAILED jobs never
+     * change, so they are marked immutable and revalidated by ETag.
      * @param jobId The ID of the job.
+     * @param ifNoneMatch ETag of a result the client already holds, if any.
      * @return ResponseEntity with the test result or error.
      */
+    @Operation(summary = "Get job test result", description = "Retrieves the generated tests and LLM usage of a job. "
+            + "Finished jobs are returned with Cache-Control: immutable and an ETag; supports If-None-Match.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Test result retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "The finished job's result is the one in If-None-Match"),
+            @ApiResponse(responseCode = "404", description = "Job not found"),
+            @ApiResponse(responseCode = "400", description = "Invalid Job ID format")
+    })
     @GetMapping("/jobs/{jobId}/test-result")
-    public ResponseEntity<JobTestResultDto> getJobTestResult(@PathVariable String jobId) {
+    public ResponseEntity<JobTestResultDto> getJobTestResult(
+            @PathVariable String jobId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
             Long jobIdLong = Long.parseLong(jobId);
             logger.debug("Received request for test result of job ID: {}", jobIdLong);
+            // Answered from the status cache without loading the result at all
+            JobStatusSnapshot cached = testGenerationService.getJobStatusSnapshot(jobIdLong);
+            if (cached.isTerminal() && cached.matches(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(cached.getEtag())
+                        .cacheControl(FINISHED_RESULT_CACHE_CONTROL)
+                        .build();
+            }
             TestGenerationJob job = testGenerationService.getJob(jobIdLong);
-            JobTestResultDto resultDto = new JobTestResultDto(job.getTestResult());
-            return ResponseEntity.ok(resultDto);
+            JobTestResultDto resultDto = new JobTestResultDto(job.getTestResult(), LlmUsageService.toDto(job.getLlmUsage()),
+                    job.getPreviousJobId(), job.getRevision(), job.getReusedTestCaseCount(),
+                    job.getGenerationMode() != null ? job.getGenerationMode().name() : null,
+                    job.getSimilarJobId(), job.getSimilarity());
+            JobStatusSnapshot snapshot = JobStatusSnapshot.of(job);
+            if (!snapshot.isTerminal()) {
+                return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(resultDto);
+            }
+            return ResponseEntity.ok()
+                    .eTag(snapshot.getEtag())
+                    .cacheControl(FINISHED_RESULT_CACHE_CONTROL)
+                    .body(resultDto);
         } catch (NumberFormatException e) {
             logger.warn("Invalid job ID format for test result request: {}", jobId);
             return ResponseEntity.badRequest().build();
@@ -166,6 +339,26 @@ public class TestGenerationController {
         testGenerationService.deleteJob(jobId);
         return ResponseEntity.noContent().build(); // 204 No Content for successful deletion
     }
+
+    /**
+     * Deletes several jobs at once.
+     * @param jobIds IDs of the jobs to delete, at most {@code app.batch.max-delete-size}.
+     * @return ResponseEntity with the deleted IDs and those not found or skipped.
+     */
+    @Operation(summary = "Delete several jobs", description = "Deletes the given jobs with their logs and test cases using one bulk delete per table. "
+            + "Jobs that do not exist or are IN_PROGRESS are listed in notFound and inProgress instead of failing the request.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Deletion completed"),
+            @ApiResponse(responseCode = "400", description = "Empty or too many job IDs")
+    })
+    @PostMapping("/jobs/delete")
+    public ResponseEntity<JobDeletionResultDto> deleteJobs(@RequestBody List<Long> jobIds) {
+        if (jobIds.isEmpty() || jobIds.size() > maxDeleteSize || jobIds.contains(null)) {
+            throw new IllegalArgumentException("Between 1 and " + maxDeleteSize + " job IDs must be given");
+        }
+        logger.info("Received request to delete {} jobs", jobIds.size());
+        return ResponseEntity.ok(testGenerationService.deleteJobs(jobIds));
+    }
 }
 
 // Helper DTO (can be placed in dto package or as inner class if simple)
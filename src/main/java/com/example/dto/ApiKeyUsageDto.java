@@ -0,0 +1,20 @@
+package com.example.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApiKeyUsageDto {
+    private String client;
+    private long requestsAllowed;
+    private long requestsRejected;
+    private double tokensAvailable;
+    private double requestsPerSecond;
+    private int burst;
+    private double llmSecondsUsed;
+    private double llmSecondsQuota;
+    private long quotaWindowEndsAtEpochMillis;
+}
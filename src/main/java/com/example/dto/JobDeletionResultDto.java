@@ -0,0 +1,20 @@
+package com.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a multi-job delete: the IDs that were deleted, those that did not exist and
+ * those skipped because they are IN_PROGRESS.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobDeletionResultDto {
+    private List<Long> deleted;
+    private List<Long> notFound;
+    private List<Long> inProgress;
+}
@@ -0,0 +1,17 @@
+package com.example.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated job listing. {@code nextCursor} is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobPageDto {
+    private List<JobSummaryDto> items;
+    private String nextCursor;
+}
@@ -0,0 +1,33 @@
+package com.example.dto;
+
+import com.example.model.TestGenerationJob;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Query parameters accepted by the job listing endpoint. All filters are optional.
+ */
+@Data
+@NoArgsConstructor
+public class JobSearchCriteria {
+    private TestGenerationJob.JobStatus status;
+    private String jiraTicket;
+    private String component;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+
+    /** Opaque cursor returned as {@code nextCursor} by the previous page. */
+    private String cursor;
+
+    private Integer limit;
+
+    /** "desc" (default, newest first) or "asc". */
+    private String sort;
+}
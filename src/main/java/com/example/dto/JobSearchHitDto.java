@@ -0,0 +1,25 @@
+package com.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * One completed job matching a full-text search, with the matching passages of its ticket
+ * ({@code description}) and output ({@code testResult}). Matched words are wrapped in {@code <em>};
+ * the rest of the passage is HTML-escaped.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobSearchHitDto {
+    private Long jobId;
+    private String jiraTicket;
+    private String components;
+    private LocalDateTime completedAt;
+    private Float score;
+    private Map<String, String> highlights;
+}
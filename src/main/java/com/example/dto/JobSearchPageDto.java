@@ -0,0 +1,22 @@
+package com.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of full-text search hits in relevance order. {@code totalHits} is a lower bound
+ * when {@code totalHitsExact} is false.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobSearchPageDto {
+    private List<JobSearchHitDto> items;
+    private Integer page;
+    private Integer size;
+    private Long totalHits;
+    private Boolean totalHitsExact;
+}
@@ -0,0 +1,19 @@
+package com.example.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobStatsDto {
+    // ISO-8601 duration the figures cover, e.g. PT10M
+    private String window;
+    // Keyed by phase: queue, llm_wait, llm, finalize, total
+    private Map<String, PhaseStatsDto> phases;
+    private double completedPerMinute;
+    private double failedPerMinute;
+}
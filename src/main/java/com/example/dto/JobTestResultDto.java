@@ -9,4 +9,14 @@ import lombok.AllArgsConstructor;
 @AllArgsConstructor
 public class JobTestResultDto {
     private String testResult;
+    // Token counts and timings of the generation call; null if not recorded
+    private LlmUsageDto llmUsage;
+    // Job this result was derived from (null for a full generation) and the ticket's version number
+    private Long previousJobId;
+    private Integer revision;
+    private Integer reusedTestCaseCount;
+    // FULL, INCREMENTAL or REUSED; and the closest earlier job of another ticket, if any
+    private String generationMode;
+    private Long similarJobId;
+    private Double similarity;
 } 
\ No newline at end of file
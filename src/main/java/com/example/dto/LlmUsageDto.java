@@ -0,0 +1,21 @@
+package com.example.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LlmUsageDto {
+    private String model;
+    private String backend;
+    private Integer promptTokens;
+    private Integer completionTokens;
+    private Long loadMillis;
+    private Long promptEvalMillis;
+    private Long evalMillis;
+    private Long totalMillis;
+    private Double promptTokensPerSecond;
+    private Double completionTokensPerSecond;
+}
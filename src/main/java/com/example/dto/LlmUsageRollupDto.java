@@ -0,0 +1,24 @@
+package com.example.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LlmUsageRollupDto {
+    private String model;
+    private String backend;
+    private long jobs;
+    private long promptTokens;
+    private long completionTokens;
+    private long loadMillis;
+    private long promptEvalMillis;
+    private long evalMillis;
+    private long totalMillis;
+    // Aggregate throughput: total tokens over total time, not an average of per-job rates
+    private Double promptTokensPerSecond;
+    private Double completionTokensPerSecond;
+    private Double avgTotalMillisPerJob;
+}
@@ -0,0 +1,20 @@
+package com.example.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TestCaseDto {
+    private Integer position;
+    private String code;
+    private String title;
+    private List<String> steps;
+    private String expectedResult;
+    private boolean malformed;
+    private String parseProblems;
+}
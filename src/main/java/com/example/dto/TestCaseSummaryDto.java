@@ -0,0 +1,17 @@
+package com.example.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TestCaseSummaryDto {
+    private Integer position;
+    private String code;
+    private String title;
+    private Integer stepCount;
+    private boolean malformed;
+    private String parseProblems;
+}
@@ -1,7 +1,9 @@
 package com.example.dto;
 
+import com.example.model.TestGenerationJob;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -16,6 +18,16 @@ public class TicketContentDto {
     @NotEmpty(message = "La lista dei componenti non può essere vuota")
     private List<String> components = new ArrayList<>();
 
+    // URL opzionale chiamato in POST al termine del job (COMPLETED o FAILED)
+    @Size(max = 2048, message = "L'URL di callback non può superare i 2048 caratteri")
+    private String callbackUrl;
+
+    // Priorità opzionale del job (HIGH, NORMAL, LOW); se assente vale NORMAL
+    private TestGenerationJob.JobPriority priority;
+
+    // Se true rigenera tutti i test anche se esiste un job completato per lo stesso ticket
+    private boolean fullRegeneration;
+
     // Costruttore senza argomenti per Spring
     public TicketContentDto() {
     }
@@ -25,6 +37,9 @@ public class TicketContentDto {
         this.content = builder.content;
         this.ticketId = builder.ticketId;
         this.components = builder.components;
+        this.callbackUrl = builder.callbackUrl;
+        this.priority = builder.priority;
+        this.fullRegeneration = builder.fullRegeneration;
     }
 
     // Getter e setter per il data binding
@@ -52,10 +67,37 @@ public class TicketContentDto {
         this.components = components;
     }
 
+    public String getCallbackUrl() {
+        return callbackUrl;
+    }
+
+    public void setCallbackUrl(String callbackUrl) {
+        this.callbackUrl = callbackUrl;
+    }
+
+    public TestGenerationJob.JobPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(TestGenerationJob.JobPriority priority) {
+        this.priority = priority;
+    }
+
+    public boolean isFullRegeneration() {
+        return fullRegeneration;
+    }
+
+    public void setFullRegeneration(boolean fullRegeneration) {
+        this.fullRegeneration = fullRegeneration;
+    }
+
     public static class Builder {
         private String content;
         private String ticketId;
         private List<String> components = new ArrayList<>();
+        private String callbackUrl;
+        private TestGenerationJob.JobPriority priority;
+        private boolean fullRegeneration;
 
         public Builder setContent(String content) {
             this.content = content;
@@ -72,6 +114,21 @@ public class TicketContentDto {
             return this;
         }
 
+        public Builder setCallbackUrl(String callbackUrl) {
+            this.callbackUrl = callbackUrl;
+            return this;
+        }
+
+        public Builder setPriority(TestGenerationJob.JobPriority priority) {
+            this.priority = priority;
+            return this;
+        }
+
+        public Builder setFullRegeneration(boolean fullRegeneration) {
+            this.fullRegeneration = fullRegeneration;
+            return this;
+        }
+
         public TicketContentDto build() {
             // Possibili validazioni possono essere inserite qui se necessario
             return new TicketContentDto(this);
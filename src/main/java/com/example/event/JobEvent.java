@@ -0,0 +1,30 @@
+package com.example.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A status transition or log entry of a job, as pushed to event stream subscribers.
+ * {@code status} is set for STATUS events; {@code level} and {@code message} for LOG events.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobEvent {
+
+    public enum Type {
+        STATUS,
+        LOG
+    }
+
+    private long sequence;
+    private Long jobId;
+    private Type type;
+    private LocalDateTime timestamp;
+    private String status;
+    private String level;
+    private String message;
+}
@@ -0,0 +1,171 @@
+package com.example.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * In-process fan-out of {@link JobEvent}s to event stream subscribers.
+ *
+ * <p>Publishing never blocks: each subscriber owns a bounded buffer drained on the
+ * {@code jobEventExecutor}. A subscriber whose buffer overflows is considered a slow
+ * consumer and is disconnected, so a stuck client can hold at most {@code buffer-size}
+ * events in memory.</p>
+ */
+@Component
+public class JobEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobEventBus.class);
+
+    private final Map<Long, Set<JobEventSubscription>> subscriptionsByJob = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Executor jobEventExecutor;
+    private final int bufferSize;
+
+    @Autowired
+    public JobEventBus(
+            @Qualifier("jobEventExecutor") final Executor jobEventExecutor,
+            @Value("${app.events.buffer-size:256}") final int bufferSize) {
+        this.jobEventExecutor = jobEventExecutor;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Publishes a status transition.
+     *
+     * @param jobId The job ID.
+     * @param status The new status name.
+     * @param errorMessage The error message for FAILED jobs, otherwise null.
+     */
+    public void publishStatus(final Long jobId, final String status, final String errorMessage) {
+        publish(new JobEvent(sequence.incrementAndGet(), jobId, JobEvent.Type.STATUS,
+                LocalDateTime.now(), status, null, errorMessage));
+    }
+
+    /**
+     * Publishes a job log entry.
+     *
+     * @param jobId The job ID.
+     * @param level The log level.
+     * @param message The log message.
+     * @param timestamp The log entry's timestamp.
+     */
+    public void publishLog(final Long jobId, final String level, final String message, final LocalDateTime timestamp) {
+        publish(new JobEvent(sequence.incrementAndGet(), jobId, JobEvent.Type.LOG,
+                timestamp, null, level, message));
+    }
+
+    /**
+     * Registers a subscriber for one or more jobs.
+     *
+     * @param jobIds The jobs to follow.
+     * @param sink Where buffered events are delivered.
+     * @return The subscription; close it to unsubscribe.
+     */
+    public JobEventSubscription subscribe(final Collection<Long> jobIds, final JobEventSink sink) {
+        JobEventSubscription subscription = register(jobIds, sink);
+        subscription.start(List.of());
+        return subscription;
+    }
+
+    /**
+     * Registers a subscriber whose stream starts with the current status of each job.
+     *
+     * <p>The statuses are read only once the subscriber is registered, so no transition falls in
+     * between, and each takes a sequence number reserved before it is read. They are merged into
+     * the subscriber's buffer by sequence, dropping buffered transitions they already reflect, so
+     * the client never sees an older status after a newer one and event IDs only increase.</p>
+     *
+     * @param jobIds The jobs to follow, in the order their statuses are sent.
+     * @param sink Where buffered events are delivered.
+     * @param currentStatus Reads the current status of a job as a STATUS event; its sequence is set here.
+     * @return The subscription; close it to unsubscribe.
+     * @throws RuntimeException whatever {@code currentStatus} throws, after closing the subscription.
+     */
+    public JobEventSubscription subscribe(final Collection<Long> jobIds, final JobEventSink sink,
+                                          final Function<Long, JobEvent> currentStatus) {
+        JobEventSubscription subscription = register(jobIds, sink);
+        List<JobEvent> initialEvents = new ArrayList<>(jobIds.size());
+        try {
+            for (Long jobId : jobIds) {
+                long reserved = sequence.incrementAndGet();
+                JobEvent event = currentStatus.apply(jobId);
+                event.setSequence(reserved);
+                initialEvents.add(event);
+            }
+        } catch (RuntimeException e) {
+            subscription.close();
+            throw e;
+        }
+        subscription.start(initialEvents);
+        return subscription;
+    }
+
+    private JobEventSubscription register(final Collection<Long> jobIds, final JobEventSink sink) {
+        JobEventSubscription subscription = new JobEventSubscription(Set.copyOf(jobIds), sink, bufferSize,
+                jobEventExecutor, this::unsubscribe);
+        for (Long jobId : subscription.getJobIds()) {
+            subscriptionsByJob.computeIfAbsent(jobId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        }
+        logger.debug("Event subscriber registered for jobs {}", subscription.getJobIds());
+        return subscription;
+    }
+
+    /**
+     * Closes every subscription that follows the given job, e.g. after it was deleted.
+     *
+     * @param jobId The job ID.
+     */
+    public void closeJob(final Long jobId) {
+        Set<JobEventSubscription> subscriptions = subscriptionsByJob.get(jobId);
+        if (subscriptions != null) {
+            for (JobEventSubscription subscription : subscriptions) {
+                subscription.close();
+            }
+        }
+    }
+
+    /**
+     * @return The number of live subscriptions across all jobs.
+     */
+    public int getSubscriberCount() {
+        return (int) subscriptionsByJob.values().stream().flatMap(Set::stream).distinct().count();
+    }
+
+    private void publish(final JobEvent event) {
+        Set<JobEventSubscription> subscriptions = subscriptionsByJob.get(event.getJobId());
+        if (subscriptions == null) {
+            return;
+        }
+        for (JobEventSubscription subscription : subscriptions) {
+            if (!subscription.offer(event)) {
+                logger.warn("Disconnecting slow event subscriber for jobs {}: buffer of {} events is full",
+                        subscription.getJobIds(), bufferSize);
+                subscription.close();
+            }
+        }
+    }
+
+    private void unsubscribe(final JobEventSubscription subscription) {
+        for (Long jobId : subscription.getJobIds()) {
+            subscriptionsByJob.computeIfPresent(jobId, (id, subscriptions) -> {
+                subscriptions.remove(subscription);
+                return subscriptions.isEmpty() ? null : subscriptions;
+            });
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.event;
+
+import java.io.IOException;
+
+/**
+ * Transport a {@link JobEventSubscription} delivers to, e.g. an SSE emitter.
+ * Calls happen on the event executor, one at a time per subscription.
+ */
+public interface JobEventSink {
+
+    /**
+     * Delivers one event; may block on a slow client.
+     *
+     * @param event The event.
+     * @throws IOException if the client is gone.
+     */
+    void send(JobEvent event) throws IOException;
+
+    /**
+     * Ends the stream. Called once, whether the subscriber or the bus closed it.
+     */
+    void close();
+}
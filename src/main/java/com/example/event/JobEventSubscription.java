@@ -0,0 +1,160 @@
+package com.example.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * One subscriber of the {@link JobEventBus}: a bounded buffer plus a drain task that
+ * forwards buffered events to the sink on the event executor. Events are only buffered until
+ * the subscription is started with its initial events, so that all of them go out through one
+ * ordered drain.
+ */
+public class JobEventSubscription {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobEventSubscription.class);
+
+    private final Set<Long> jobIds;
+    private final JobEventSink sink;
+    private final BlockingQueue<JobEvent> buffer;
+    private final Executor executor;
+    private final Consumer<JobEventSubscription> onClose;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    // Guards the buffer while the initial events are merged in; held only for in-memory work
+    private final Object bufferLock = new Object();
+    private boolean started;
+
+    JobEventSubscription(final Set<Long> jobIds, final JobEventSink sink, final int bufferSize,
+                         final Executor executor, final Consumer<JobEventSubscription> onClose) {
+        this.jobIds = jobIds;
+        this.sink = sink;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.executor = executor;
+        this.onClose = onClose;
+    }
+
+    public Set<Long> getJobIds() {
+        return jobIds;
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * Buffers an event for delivery without blocking.
+     *
+     * @param event The event.
+     * @return false if the buffer is full, i.e. the subscriber is not keeping up.
+     */
+    boolean offer(final JobEvent event) {
+        if (closed.get()) {
+            return true;
+        }
+        synchronized (bufferLock) {
+            if (!buffer.offer(event)) {
+                return false;
+            }
+            if (!started) {
+                return true;
+            }
+        }
+        scheduleDrain();
+        return true;
+    }
+
+    /**
+     * Merges the initial events into what was buffered since registering, in sequence order, and
+     * starts delivering. A buffered STATUS event older than a job's initial status is dropped: the
+     * initial status was read after it and already reflects it.
+     *
+     * @param initialEvents One STATUS event per job, each with a sequence reserved before it was read.
+     */
+    void start(final List<JobEvent> initialEvents) {
+        synchronized (bufferLock) {
+            Map<Long, Long> initialSequences = new HashMap<>();
+            for (JobEvent event : initialEvents) {
+                initialSequences.put(event.getJobId(), event.getSequence());
+            }
+            List<JobEvent> pending = new ArrayList<>(buffer.size() + initialEvents.size());
+            buffer.drainTo(pending);
+            pending.removeIf(event -> event.getType() == JobEvent.Type.STATUS
+                    && event.getSequence() < initialSequences.getOrDefault(event.getJobId(), Long.MIN_VALUE));
+            pending.addAll(initialEvents);
+            pending.sort(Comparator.comparingLong(JobEvent::getSequence));
+            for (JobEvent event : pending) {
+                if (!buffer.offer(event)) {
+                    logger.warn("Disconnecting event subscriber for jobs {}: initial events exceed the buffer", jobIds);
+                    close();
+                    return;
+                }
+            }
+            started = true;
+        }
+        if (!buffer.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Unsubscribes and ends the stream. The sink is closed on the executor so that a caller
+     * never blocks behind a send stuck on a slow client.
+     */
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        onClose.accept(this);
+        buffer.clear();
+        try {
+            executor.execute(sink::close);
+        } catch (RejectedExecutionException e) {
+            sink.close();
+        }
+    }
+
+    private void scheduleDrain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            draining.set(false);
+            logger.warn("Event executor saturated, disconnecting subscriber for jobs {}", jobIds);
+            close();
+        }
+    }
+
+    private void drain() {
+        try {
+            JobEvent event;
+            while (!closed.get() && (event = buffer.poll()) != null) {
+                sink.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Event subscriber for jobs {} went away: {}", jobIds, e.getMessage());
+            close();
+        } finally {
+            draining.set(false);
+        }
+        // An event may have arrived between the last poll and resetting the flag
+        if (!closed.get() && !buffer.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+}
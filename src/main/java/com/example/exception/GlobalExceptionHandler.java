@@ -3,6 +3,7 @@ package com.example.exception;
 import com.example.exception.InvalidJobStateException;
 import com.example.exception.JobNotFoundException;
 import com.example.exception.JobProcessingException;
+import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -44,6 +45,25 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Handles TestCaseNotFoundException.
+     *
+     * @param ex      The caught exception.
+     * @param request The current web request.
+     * @return A ResponseEntity with HTTP status 404 (Not Found).
+     */
+    @ExceptionHandler(TestCaseNotFoundException.class)
+    public ResponseEntity<Object> handleTestCaseNotFoundException(TestCaseNotFoundException ex, WebRequest request) {
+        logger.warn("Test case not found: {}", ex.getMessage());
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", System.currentTimeMillis());
+        body.put("status", HttpStatus.NOT_FOUND.value());
+        body.put("error", "Not Found");
+        body.put("message", ex.getMessage());
+        body.put("path", request.getDescription(false));
+        return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
+    }
+
     /**
      * Handles InvalidJobStateException.
      *
@@ -85,6 +105,139 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(body, status);
     }
 
+    /**
+     * Handles JobQueueFullException.
+     *
+     * @param ex      The caught exception.
+     * @param request The current web request.
+     * @return A ResponseEntity with HTTP status 503 (Service Unavailable).
+     */
+    @ExceptionHandler(JobQueueFullException.class)
+    public ResponseEntity<Object> handleJobQueueFullException(JobQueueFullException ex, WebRequest request) {
+        logger.warn("Job rejected: {}", ex.getMessage());
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", System.currentTimeMillis());
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        body.put("error", "Service Unavailable");
+        body.put("message", ex.getMessage());
+        body.put("path", request.getDescription(false));
+        return new ResponseEntity<>(body, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Handles LlmCapacityExceededException.
+     *
+     * @param ex      The caught exception.
+     * @param request The current web request.
+     * @return A ResponseEntity with HTTP status 503 (Service Unavailable).
+     */
+    @ExceptionHandler(LlmCapacityExceededException.class)
+    public ResponseEntity<Object> handleLlmCapacityExceededException(LlmCapacityExceededException ex, WebRequest request) {
+        logger.warn("LLM capacity exceeded: {}", ex.getMessage());
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", System.currentTimeMillis());
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        body.put("error", "Service Unavailable");
+        body.put("message", ex.getMessage());
+        body.put("path", request.getDescription(false));
+        return new ResponseEntity<>(body, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Handles SearchUnavailableException.
+     *
+     * @param ex      The caught exception.
+     * @param request The current web request.
+     * @return A ResponseEntity with HTTP status 503 (Service Unavailable).
+     */
+    @ExceptionHandler(SearchUnavailableException.class)
+    public ResponseEntity<Object> handleSearchUnavailableException(SearchUnavailableException ex, WebRequest request) {
+        logger.warn("Search unavailable: {}", ex.getMessage());
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", System.currentTimeMillis());
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        body.put("error", "Service Unavailable");
+        body.put("message", ex.getMessage());
+        body.put("path", request.getDescription(false));
+        return new ResponseEntity<>(body, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Handles IdempotencyKeyConflictException.
+     *
+     * @param ex      The caught exception.
+     * @param request The current web request.
+     * @return A ResponseEntity with HTTP status 409 (Conflict).
+     */
+    @ExceptionHandler(IdempotencyKeyConflictException.class)
+    public ResponseEntity<Object> handleIdempotencyKeyConflictException(IdempotencyKeyConflictException ex, WebRequest request) {
+        logger.warn("Idempotency key conflict: {}", ex.getMessage());
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", System.currentTimeMillis());
+        body.put("status", HttpStatus.CONFLICT.value());
+        body.put("error", "Conflict");
+        body.put("message", ex.getMessage());
+        body.put("path", request.getDescription(false));
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles TicketRevisionConflictException.
+     *
+     * @param ex      The caught exception.
+     * @param request The current web request.
+     * @return A ResponseEntity with HTTP status 409 (Conflict).
+     */
+    @ExceptionHandler(TicketRevisionConflictException.class)
+    public ResponseEntity<Object> handleTicketRevisionConflictException(TicketRevisionConflictException ex, WebRequest request) {
+        logger.warn("Ticket revision conflict: {}", ex.getMessage());
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", System.currentTimeMillis());
+        body.put("status", HttpStatus.CONFLICT.value());
+        body.put("error", "Conflict");
+        body.put("message", ex.getMessage());
+        body.put("path", request.getDescription(false));
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles IdempotencyKeyMismatchException.
+     *
+     * @param ex      The caught exception.
+     * @param request The current web request.
+     * @return A ResponseEntity with HTTP status 422 (Unprocessable Entity).
+     */
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<Object> handleIdempotencyKeyMismatchException(IdempotencyKeyMismatchException ex, WebRequest request) {
+        logger.warn("Idempotency key reused with a different body: {}", ex.getMessage());
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", System.currentTimeMillis());
+        body.put("status", HttpStatus.UNPROCESSABLE_ENTITY.value());
+        body.put("error", "Unprocessable Entity");
+        body.put("message", ex.getMessage());
+        body.put("path", request.getDescription(false));
+        return new ResponseEntity<>(body, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    /**
+     * Handles validation errors on method parameters, such as the elements of a batch request.
+     *
+     * @param ex      The caught exception.
+     * @param request The current web request.
+     * @return A ResponseEntity with HTTP status 400 (Bad Request).
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Object> handleConstraintViolationException(ConstraintViolationException ex, WebRequest request) {
+        logger.warn("Constraint violation: {}", ex.getMessage());
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", System.currentTimeMillis());
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+        body.put("error", "Bad Request");
+        body.put("message", "Validation failed: " + ex.getMessage());
+        body.put("path", request.getDescription(false));
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Handles validation errors (e.g., @Valid annotation).
      *
@@ -105,6 +258,25 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handles malformed request values such as non-numeric job IDs or invalid listing cursors.
+     *
+     * @param ex      The caught exception.
+     * @param request The current web request.
+     * @return A ResponseEntity with HTTP status 400 (Bad Request).
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Object> handleIllegalArgumentException(IllegalArgumentException ex, WebRequest request) {
+        logger.warn("Invalid request argument: {}", ex.getMessage());
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", System.currentTimeMillis());
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+        body.put("error", "Bad Request");
+        body.put("message", ex.getMessage());
+        body.put("path", request.getDescription(false));
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Handles generic exceptions as a fallback.
      *
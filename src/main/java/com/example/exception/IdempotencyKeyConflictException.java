@@ -0,0 +1,17 @@
+package com.example.exception;
+
+/**
+ * Exception thrown when a request reuses an Idempotency-Key whose original request
+ * is still being processed.
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+    /**
+     * Constructs a new IdempotencyKeyConflictException with the specified detail message.
+     *
+     * @param message the detail message.
+     */
+    public IdempotencyKeyConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.exception;
+
+/**
+ * Exception thrown when a request reuses an Idempotency-Key with a different request body
+ * than the one originally submitted under that key.
+ */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    /**
+     * Constructs a new IdempotencyKeyMismatchException with the specified detail message.
+     *
+     * @param message the detail message.
+     */
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.exception;
+
+/**
+ * Exception thrown when a job cannot be accepted because the processing queue is full.
+ */
+public class JobQueueFullException extends RuntimeException {
+
+    /**
+     * Constructs a new JobQueueFullException with the specified detail message.
+     *
+     * @param message the detail message.
+     */
+    public JobQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.exception;
+
+/**
+ * Exception thrown when no LLM capacity is available to a request within its wait limit.
+ */
+public class LlmCapacityExceededException extends RuntimeException {
+
+    /**
+     * Constructs a new LlmCapacityExceededException with the specified detail message.
+     *
+     * @param message the detail message.
+     */
+    public LlmCapacityExceededException(String message) {
+        super(message);
+    }
+}
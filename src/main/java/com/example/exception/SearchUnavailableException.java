@@ -0,0 +1,16 @@
+package com.example.exception;
+
+/**
+ * Exception thrown when the full-text search index is disabled or could not be opened.
+ */
+public class SearchUnavailableException extends RuntimeException {
+
+    /**
+     * Constructs a new SearchUnavailableException with the specified detail message.
+     *
+     * @param message the detail message.
+     */
+    public SearchUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.exception;
+
+/**
+ * Exception thrown when a requested test case does not exist for a job.
+ */
+public class TestCaseNotFoundException extends RuntimeException {
+
+    /**
+     * Constructs a new TestCaseNotFoundException with the specified detail message.
+     *
+     * @param message the detail message.
+     */
+    public TestCaseNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.exception;
+
+/**
+ * Exception thrown when the first jobs of a ticket are created concurrently and only one of them
+ * could take a revision. The request can be retried.
+ */
+public class TicketRevisionConflictException extends RuntimeException {
+
+    /**
+     * Constructs a new TicketRevisionConflictException with the specified detail message and cause.
+     *
+     * @param message the detail message.
+     * @param cause the cause.
+     */
+    public TicketRevisionConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+import java.time.LocalDateTime;
+
+/**
+ * Durable half of the idempotency key store. A row with null {@code jobIds} is a reservation
+ * for a request that is still being processed; it expires after the short in-flight timeout,
+ * a completed row after the full TTL.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+    @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+})
+public class IdempotencyRecord implements Persistable<String> {
+    /** Length of the comma-separated {@code jobIds} column; bounds {@code app.batch.max-size}. */
+    public static final int JOB_IDS_LENGTH = 2000;
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String key;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(length = JOB_IDS_LENGTH)
+    private String jobIds;
+
+    // Identifies the request holding a reservation, so that it cannot complete or release a
+    // reservation that expired and was taken over by a retry; cleared once the jobs are recorded
+    @Column(length = 36)
+    private String reservationToken;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Assigned IDs would make Spring Data merge instead of insert; force an INSERT for new records
+    // so that a concurrent reservation of the same key fails on the primary key.
+    @Transient
+    private boolean newRecord = true;
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRecord;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newRecord = false;
+    }
+}
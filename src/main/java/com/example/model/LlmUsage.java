@@ -0,0 +1,73 @@
+package com.example.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Token counts and timings reported by Ollama for the generation calls of a job, summed
+ * over the first call and any repair calls. Durations are stored in milliseconds; Ollama
+ * reports them in nanoseconds.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class LlmUsage {
+
+    @Column(name = "llm_model")
+    private String model;
+
+    // Ollama base URL host:port that served the call
+    @Column(name = "llm_backend")
+    private String backend;
+
+    // prompt_eval_count
+    @Column(name = "llm_prompt_tokens")
+    private Integer promptTokens;
+
+    // eval_count
+    @Column(name = "llm_completion_tokens")
+    private Integer completionTokens;
+
+    @Column(name = "llm_load_ms")
+    private Long loadMillis;
+
+    @Column(name = "llm_prompt_eval_ms")
+    private Long promptEvalMillis;
+
+    @Column(name = "llm_eval_ms")
+    private Long evalMillis;
+
+    @Column(name = "llm_total_ms")
+    private Long totalMillis;
+
+    /**
+     * @param other Usage of a further call to the same model, may be null.
+     * @return A new instance with the counts and durations of both calls added up.
+     */
+    public LlmUsage plus(final LlmUsage other) {
+        if (other == null) {
+            return new LlmUsage(model, backend, promptTokens, completionTokens,
+                    loadMillis, promptEvalMillis, evalMillis, totalMillis);
+        }
+        return new LlmUsage(model != null ? model : other.model,
+                backend != null ? backend : other.backend,
+                sum(promptTokens, other.promptTokens),
+                sum(completionTokens, other.completionTokens),
+                sum(loadMillis, other.loadMillis),
+                sum(promptEvalMillis, other.promptEvalMillis),
+                sum(evalMillis, other.evalMillis),
+                sum(totalMillis, other.totalMillis));
+    }
+
+    private static Integer sum(final Integer a, final Integer b) {
+        return a == null ? b : b == null ? a : Integer.valueOf(a + b);
+    }
+
+    private static Long sum(final Long a, final Long b) {
+        return a == null ? b : b == null ? a : Long.valueOf(a + b);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One UAT test case parsed from a job's generated output.
+ */
+@Entity
+@Table(name = "test_cases", indexes = {
+    @Index(name = "idx_test_cases_job_position", columnList = "job_id, position", unique = true)
+})
+@Data
+public class TestCase {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "job_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private TestGenerationJob job;
+
+    // 1-based order within the job's output
+    @Column(nullable = false)
+    private Integer position;
+
+    // Test ID as written by the model, e.g. UAT-001
+    @Column(nullable = false, length = 50)
+    private String code;
+
+    @Column(length = 500)
+    private String title;
+
+    @Column(length = 2000)
+    private String expectedResult;
+
+    @Column(nullable = false)
+    private Integer stepCount;
+
+    @Column(nullable = false)
+    private boolean malformed;
+
+    // Why the section did not match the expected format
+    @Column(length = 1000)
+    private String parseProblems;
+
+    @OneToMany(mappedBy = "testCase", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("position ASC")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<TestStep> steps = new ArrayList<>();
+}
@@ -4,6 +4,9 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -12,8 +15,20 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "test_generation_jobs")
+@Table(name = "test_generation_jobs", indexes = {
+    @Index(name = "idx_jobs_status_created_at", columnList = "status, created_at"),
+    @Index(name = "idx_jobs_created_at", columnList = "created_at"),
+    @Index(name = "idx_jobs_jira_ticket", columnList = "jira_ticket"),
+    @Index(name = "idx_jobs_previous_job_id", columnList = "previous_job_id")
+})
+// Only COMPLETED and FAILED jobs stay in the second-level cache; see SecondLevelCacheConfig
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = TestGenerationJob.CACHE_REGION)
+// Lease renewals write only their own column and cannot undo a worker's concurrent status change
+@DynamicUpdate
 public class TestGenerationJob {
+    public static final String CACHE_REGION = "terminal-jobs";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -37,16 +52,102 @@ public class TestGenerationJob {
     @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Phase timestamps: a worker picked the job up, then the LLM call started and returned
+    @Column
+    private LocalDateTime startedAt;
+
+    @Column
+    private LocalDateTime llmStartedAt;
+
+    @Column
+    private LocalDateTime llmFinishedAt;
+
     @Column
     private LocalDateTime completedAt;
+
+    // Held by the worker processing the job and renewed by its instance's heartbeat; an IN_PROGRESS
+    // job whose lease has passed lost its worker and goes back to PENDING
+    @Column
+    private LocalDateTime leaseExpiresAt;
+
+    // Identifies the claim holding the lease; only that worker may complete, fail or release the job
+    @Column(length = 36)
+    private String leaseToken;
+
+    // Output streamed before the job was interrupted by a shutdown; the next worker continues from it
+    @Column(columnDefinition = "TEXT")
+    private String checkpoint;
+
+    // Kept so a job restarted after a shutdown is generated the same way it was requested
+    @Column
+    private Boolean fullRegeneration;
     
     @Column(columnDefinition = "TEXT")
     private String testResult;
 
+    // Test cases parsed from testResult into test_cases; null until parsed
+    @Column
+    private Integer testCaseCount;
+
+    @Column(length = 2048)
+    private String callbackUrl;
+
+    // Name of the API client that submitted the job, used for per-client LLM time quotas
+    @Column
+    private String apiClient;
+
+    @Column
+    @Enumerated(EnumType.STRING)
+    private JobPriority priority = JobPriority.NORMAL;
+
+    // Lineage: the last completed job for the same ticket when this one was submitted (null if none),
+    // and the ticket's version number, 1 for its first job
+    @Column
+    private Long previousJobId;
+
+    @Column
+    private Integer revision;
+
+    // Test cases carried over unchanged from previousJobId; null for full generations
+    @Column
+    private Integer reusedTestCaseCount;
+
+    // How the result was produced; null while the job has not been processed
+    @Column
+    @Enumerated(EnumType.STRING)
+    private GenerationMode generationMode;
+
+    // Closest earlier job of another ticket by embedding, when above app.embedding.offer-threshold
+    @Column
+    private Long similarJobId;
+
+    @Column
+    private Double similarity;
+
+    // Null until the generation call succeeds
+    @Embedded
+    private LlmUsage llmUsage;
+
     @OneToMany(mappedBy = "job", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("timestamp DESC")
     private List<JobLog> logs = new ArrayList<>();
 
+    public enum GenerationMode {
+        // The whole ticket was sent to the LLM
+        FULL,
+        // Only sections changed since previousJobId were sent; the rest was reused
+        INCREMENTAL,
+        // The result of similarJobId was copied without calling the LLM
+        REUSED
+    }
+
+    // Declared highest first: the scheduler orders by ordinal
+    public enum JobPriority {
+        HIGH,
+        NORMAL,
+        LOW
+    }
+
     public enum JobStatus {
         PENDING,
         IN_PROGRESS,
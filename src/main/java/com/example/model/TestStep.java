@@ -0,0 +1,33 @@
+package com.example.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * One numbered step of a {@link TestCase}.
+ */
+@Entity
+@Table(name = "test_steps", indexes = {
+    @Index(name = "idx_test_steps_test_case_id", columnList = "test_case_id")
+})
+@Data
+public class TestStep {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "test_case_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private TestCase testCase;
+
+    // 1-based
+    @Column(nullable = false)
+    private Integer position;
+
+    @Column(nullable = false, length = 2000)
+    private String text;
+}
@@ -0,0 +1,44 @@
+package com.example.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Revision counter of one ticket. Jobs take their revision by incrementing it, which keeps the row
+ * locked until their transaction ends, so concurrent submissions for a ticket get distinct revisions.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "ticket_revisions")
+public class TicketRevision implements Persistable<String> {
+    @Id
+    @Column(name = "jira_ticket")
+    private String jiraTicket;
+
+    @Column(nullable = false)
+    private int lastRevision;
+
+    // Force an INSERT so that two instances creating the same counter fail on the primary key
+    // instead of one silently merging over the other; see IdempotencyRecord
+    @Transient
+    private boolean newRecord = true;
+
+    @Override
+    public String getId() {
+        return jiraTicket;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRecord;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newRecord = false;
+    }
+}
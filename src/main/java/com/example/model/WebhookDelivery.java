@@ -0,0 +1,57 @@
+package com.example.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row for a job completion callback. Rows are written when a job finishes and
+ * removed from the PENDING set only once delivered or out of retries, so deliveries
+ * survive restarts.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "webhook_deliveries", indexes = {
+    @Index(name = "idx_webhook_deliveries_status_next", columnList = "status, next_attempt_at")
+})
+public class WebhookDelivery {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long jobId;
+
+    @Column(nullable = false, length = 2048)
+    private String targetUrl;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private DeliveryStatus status = DeliveryStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column
+    private LocalDateTime deliveredAt;
+
+    @Column
+    private String lastError;
+
+    public enum DeliveryStatus {
+        PENDING,
+        DELIVERED,
+        FAILED
+    }
+}
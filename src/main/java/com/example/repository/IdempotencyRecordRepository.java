@@ -0,0 +1,48 @@
+package com.example.repository;
+
+import com.example.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    /**
+     * Deletes one key if it has expired, e.g. the reservation of an instance that died mid-request.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.expiresAt < :now")
+    int deleteIfExpired(@Param("key") String key, @Param("now") LocalDateTime now);
+
+    /**
+     * Records the job IDs of a reservation, if the reservation with this token still exists.
+     *
+     * @return 1 if the reservation was completed, 0 if it expired and was taken over meanwhile.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.jobIds = :jobIds, r.expiresAt = :expiresAt, r.reservationToken = NULL "
+            + "WHERE r.key = :key AND r.reservationToken = :token")
+    int completeReservation(@Param("key") String key, @Param("token") String token,
+                            @Param("jobIds") String jobIds, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Releases a reservation after its request failed, unless it was taken over meanwhile.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.reservationToken = :token")
+    int deleteReservation(@Param("key") String key, @Param("token") String token);
+}
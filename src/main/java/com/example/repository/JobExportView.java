@@ -0,0 +1,27 @@
+package com.example.repository;
+
+import com.example.model.TestGenerationJob;
+
+import java.time.LocalDateTime;
+
+/**
+ * Closed interface projection over {@link TestGenerationJob} used by the export query.
+ * Rows are read as plain tuples, so a long export does not fill the persistence context.
+ */
+public interface JobExportView {
+    Long getId();
+
+    String getJiraTicket();
+
+    String getComponents();
+
+    TestGenerationJob.JobStatus getStatus();
+
+    String getErrorMessage();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getCompletedAt();
+
+    String getTestResult();
+}
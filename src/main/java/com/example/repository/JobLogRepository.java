@@ -1,11 +1,26 @@
 package com.example.repository;
 
 import com.example.model.JobLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface JobLogRepository extends JpaRepository<JobLog, Long> {
     List<JobLog> findByJobIdOrderByTimestampDesc(Long jobId);
+
+    List<JobLog> findByJobIdOrderByTimestampDesc(Long jobId, Pageable pageable);
+
+    /**
+     * Deletes the logs of several jobs in one statement, instead of one DELETE per row through the
+     * {@code logs} collection.
+     */
+    @Modifying
+    @Query("DELETE FROM JobLog l WHERE l.job.id IN :jobIds")
+    int deleteByJobIds(@Param("jobIds") Collection<Long> jobIds);
 } 
\ No newline at end of file
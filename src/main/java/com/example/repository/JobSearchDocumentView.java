@@ -0,0 +1,23 @@
+package com.example.repository;
+
+import com.example.model.TestGenerationJob;
+
+import java.time.LocalDateTime;
+
+/**
+ * Closed interface projection over {@link TestGenerationJob} with the fields of a completed job
+ * that go into the full-text search index.
+ */
+public interface JobSearchDocumentView {
+    Long getId();
+
+    String getJiraTicket();
+
+    String getComponents();
+
+    String getDescription();
+
+    String getTestResult();
+
+    LocalDateTime getCompletedAt();
+}
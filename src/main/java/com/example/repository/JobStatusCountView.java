@@ -0,0 +1,12 @@
+package com.example.repository;
+
+import com.example.model.TestGenerationJob;
+
+/**
+ * Number of jobs in one status, as returned by {@link TestGenerationJobRepository#countByStatus()}.
+ */
+public interface JobStatusCountView {
+    TestGenerationJob.JobStatus getStatus();
+
+    long getJobCount();
+}
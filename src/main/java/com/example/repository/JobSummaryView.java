@@ -0,0 +1,26 @@
+package com.example.repository;
+
+import com.example.model.TestGenerationJob;
+
+import java.time.LocalDateTime;
+
+/**
+ * Closed interface projection over {@link TestGenerationJob} used by the listing queries.
+ * Only scalar columns are selected so listing never loads the description or the
+ * {@code testResult} CLOB.
+ */
+public interface JobSummaryView {
+    Long getId();
+
+    String getJiraTicket();
+
+    String getComponents();
+
+    TestGenerationJob.JobStatus getStatus();
+
+    String getErrorMessage();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getCompletedAt();
+}
@@ -0,0 +1,25 @@
+package com.example.repository;
+
+/**
+ * LLM usage summed per model and backend, as returned by {@link TestGenerationJobRepository#sumLlmUsage}.
+ * Sums are null when no job in the group reported the value.
+ */
+public interface LlmUsageRollupView {
+    String getModel();
+
+    String getBackend();
+
+    long getJobCount();
+
+    Long getPromptTokens();
+
+    Long getCompletionTokens();
+
+    Long getLoadMillis();
+
+    Long getPromptEvalMillis();
+
+    Long getEvalMillis();
+
+    Long getTotalMillis();
+}
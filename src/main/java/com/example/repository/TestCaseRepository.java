@@ -0,0 +1,42 @@
+package com.example.repository;
+
+import com.example.model.TestCase;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TestCaseRepository extends JpaRepository<TestCase, Long> {
+
+    List<TestCase> findByJobIdOrderByPositionAsc(Long jobId);
+
+    List<TestCase> findByJobIdAndMalformedOrderByPositionAsc(Long jobId, boolean malformed);
+
+    /**
+     * Loads one test case with its steps in a single query.
+     */
+    @Query("SELECT DISTINCT tc FROM TestCase tc LEFT JOIN FETCH tc.steps WHERE tc.job.id = :jobId AND tc.position = :position")
+    Optional<TestCase> findWithSteps(@Param("jobId") Long jobId, @Param("position") Integer position);
+
+    @Modifying
+    @Query("DELETE FROM TestStep s WHERE s.testCase.id IN (SELECT tc.id FROM TestCase tc WHERE tc.job.id = :jobId)")
+    int deleteStepsByJobId(@Param("jobId") Long jobId);
+
+    @Modifying
+    @Query("DELETE FROM TestCase tc WHERE tc.job.id = :jobId")
+    int deleteByJobId(@Param("jobId") Long jobId);
+
+    @Modifying
+    @Query("DELETE FROM TestStep s WHERE s.testCase.id IN (SELECT tc.id FROM TestCase tc WHERE tc.job.id IN :jobIds)")
+    int deleteStepsByJobIds(@Param("jobIds") Collection<Long> jobIds);
+
+    @Modifying
+    @Query("DELETE FROM TestCase tc WHERE tc.job.id IN :jobIds")
+    int deleteByJobIds(@Param("jobIds") Collection<Long> jobIds);
+}
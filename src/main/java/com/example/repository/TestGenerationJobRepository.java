@@ -1,9 +1,202 @@
 package com.example.repository;
 
 import com.example.model.TestGenerationJob;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface TestGenerationJobRepository extends JpaRepository<TestGenerationJob, Long> {
-} 
\ No newline at end of file
+
+    /**
+     * Keyset-paginated job listing, newest first. Every filter is optional (pass {@code null} to skip it);
+     * the cursor pair is the (createdAt, id) of the last row of the previous page.
+     */
+    @Query("""
+            SELECT j.id AS id, j.jiraTicket AS jiraTicket, j.components AS components, j.status AS status,
+                   j.errorMessage AS errorMessage, j.createdAt AS createdAt, j.completedAt AS completedAt
+            FROM TestGenerationJob j
+            WHERE (:status IS NULL OR j.status = :status)
+              AND (:jiraTicket IS NULL OR j.jiraTicket = :jiraTicket)
+              AND (:componentPattern IS NULL OR j.components LIKE :componentPattern)
+              AND (:createdFrom IS NULL OR j.createdAt >= :createdFrom)
+              AND (:createdTo IS NULL OR j.createdAt < :createdTo)
+              AND (:cursorCreatedAt IS NULL OR j.createdAt < :cursorCreatedAt
+                   OR (j.createdAt = :cursorCreatedAt AND j.id < :cursorId))
+            ORDER BY j.createdAt DESC, j.id DESC
+            """)
+    List<JobSummaryView> searchNewestFirst(@Param("status") TestGenerationJob.JobStatus status,
+                                           @Param("jiraTicket") String jiraTicket,
+                                           @Param("componentPattern") String componentPattern,
+                                           @Param("createdFrom") LocalDateTime createdFrom,
+                                           @Param("createdTo") LocalDateTime createdTo,
+                                           @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                           @Param("cursorId") Long cursorId,
+                                           Pageable pageable);
+
+    /**
+     * Same as {@link #searchNewestFirst} but walking the (createdAt, id) keyset in ascending order.
+     */
+    @Query("""
+            SELECT j.id AS id, j.jiraTicket AS jiraTicket, j.components AS components, j.status AS status,
+                   j.errorMessage AS errorMessage, j.createdAt AS createdAt, j.completedAt AS completedAt
+            FROM TestGenerationJob j
+            WHERE (:status IS NULL OR j.status = :status)
+              AND (:jiraTicket IS NULL OR j.jiraTicket = :jiraTicket)
+              AND (:componentPattern IS NULL OR j.components LIKE :componentPattern)
+              AND (:createdFrom IS NULL OR j.createdAt >= :createdFrom)
+              AND (:createdTo IS NULL OR j.createdAt < :createdTo)
+              AND (:cursorCreatedAt IS NULL OR j.createdAt > :cursorCreatedAt
+                   OR (j.createdAt = :cursorCreatedAt AND j.id > :cursorId))
+            ORDER BY j.createdAt ASC, j.id ASC
+            """)
+    List<JobSummaryView> searchOldestFirst(@Param("status") TestGenerationJob.JobStatus status,
+                                           @Param("jiraTicket") String jiraTicket,
+                                           @Param("componentPattern") String componentPattern,
+                                           @Param("createdFrom") LocalDateTime createdFrom,
+                                           @Param("createdTo") LocalDateTime createdTo,
+                                           @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                           @Param("cursorId") Long cursorId,
+                                           Pageable pageable);
+
+    /**
+     * Streams the jobs matching the listing filters, oldest first, with their generated output.
+     * Rows are fetched from the JDBC cursor in batches of 500; the caller must consume the stream
+     * inside a read-only transaction and close it.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("""
+            SELECT j.id AS id, j.jiraTicket AS jiraTicket, j.components AS components, j.status AS status,
+                   j.errorMessage AS errorMessage, j.createdAt AS createdAt, j.completedAt AS completedAt,
+                   j.testResult AS testResult
+            FROM TestGenerationJob j
+            WHERE (:status IS NULL OR j.status = :status)
+              AND (:jiraTicket IS NULL OR j.jiraTicket = :jiraTicket)
+              AND (:componentPattern IS NULL OR j.components LIKE :componentPattern)
+              AND (:createdFrom IS NULL OR j.createdAt >= :createdFrom)
+              AND (:createdTo IS NULL OR j.createdAt < :createdTo)
+            ORDER BY j.createdAt ASC, j.id ASC
+            """)
+    Stream<JobExportView> streamForExport(@Param("status") TestGenerationJob.JobStatus status,
+                                          @Param("jiraTicket") String jiraTicket,
+                                          @Param("componentPattern") String componentPattern,
+                                          @Param("createdFrom") LocalDateTime createdFrom,
+                                          @Param("createdTo") LocalDateTime createdTo);
+
+    /**
+     * The most recent job for a ticket in the given status; used to find the version an edited ticket
+     * is derived from.
+     */
+    Optional<JobSummaryView> findFirstByJiraTicketAndStatusOrderByCreatedAtDescIdDesc(String jiraTicket,
+                                                                                    TestGenerationJob.JobStatus status);
+
+    /**
+     * Highest revision recorded for a ticket, or null if it has no versioned jobs.
+     */
+    @Query("select max(j.revision) from TestGenerationJob j where j.jiraTicket = :jiraTicket")
+    Integer findMaxRevision(@Param("jiraTicket") String jiraTicket);
+
+    /**
+     * Completed jobs with an ID above {@code afterId}, in ID order; pages through the table for a
+     * search index rebuild without holding a cursor open.
+     */
+    @Query("""
+            SELECT j.id AS id, j.jiraTicket AS jiraTicket, j.components AS components, j.description AS description,
+                   j.testResult AS testResult, j.completedAt AS completedAt
+            FROM TestGenerationJob j
+            WHERE j.status = com.example.model.TestGenerationJob$JobStatus.COMPLETED
+              AND j.id > :afterId
+            ORDER BY j.id ASC
+            """)
+    List<JobSearchDocumentView> findSearchDocuments(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * ID and status of each existing job among {@code ids}. The rows stay locked until the
+     * transaction ends, so their status cannot change before they are deleted.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<JobSummaryView> findForUpdateByIdIn(Collection<Long> ids);
+
+    /**
+     * Oldest jobs in a status created before {@code cutoff}; walks the (status, created_at) index.
+     */
+    @Query("""
+            SELECT j.id FROM TestGenerationJob j
+            WHERE j.status = :status AND j.createdAt < :cutoff
+            ORDER BY j.createdAt ASC, j.id ASC
+            """)
+    List<Long> findIdsCreatedBefore(@Param("status") TestGenerationJob.JobStatus status,
+                                    @Param("cutoff") LocalDateTime cutoff,
+                                    Pageable pageable);
+
+    /**
+     * Loads a job and locks its row until the transaction ends, so two workers cannot both claim it.
+     * Bypasses the second-level cache.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM TestGenerationJob j WHERE j.id = :id")
+    Optional<TestGenerationJob> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * IN_PROGRESS jobs whose worker stopped renewing the lease, e.g. because its instance was killed.
+     * A missing lease means the job was started before leases were recorded.
+     */
+    @Query("""
+            SELECT j.id FROM TestGenerationJob j
+            WHERE j.status = com.example.model.TestGenerationJob$JobStatus.IN_PROGRESS
+              AND (j.leaseExpiresAt IS NULL OR j.leaseExpiresAt < :now)
+            ORDER BY j.id ASC
+            """)
+    List<Long> findIdsWithExpiredLease(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Deletes jobs in one statement; their logs and test cases must be deleted first.
+     * Jobs that became IN_PROGRESS in the meantime are left alone.
+     */
+    @Modifying
+    @Query("DELETE FROM TestGenerationJob j WHERE j.id IN :ids AND j.status <> com.example.model.TestGenerationJob$JobStatus.IN_PROGRESS")
+    int deleteNotInProgress(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Counts jobs per status; answered from the status index without touching job rows.
+     */
+    @Query("select j.status as status, count(j) as jobCount from TestGenerationJob j group by j.status")
+    List<JobStatusCountView> countByStatus();
+
+    /**
+     * Sums LLM usage per model and backend over jobs created in [createdFrom, createdTo); both bounds optional.
+     * Jobs without recorded usage (failed or not yet generated) are skipped.
+     */
+    @Query("""
+            SELECT j.llmUsage.model AS model, j.llmUsage.backend AS backend, COUNT(j) AS jobCount,
+                   SUM(j.llmUsage.promptTokens) AS promptTokens, SUM(j.llmUsage.completionTokens) AS completionTokens,
+                   SUM(j.llmUsage.loadMillis) AS loadMillis, SUM(j.llmUsage.promptEvalMillis) AS promptEvalMillis,
+                   SUM(j.llmUsage.evalMillis) AS evalMillis, SUM(j.llmUsage.totalMillis) AS totalMillis
+            FROM TestGenerationJob j
+            WHERE j.llmUsage.model IS NOT NULL
+              AND (:createdFrom IS NULL OR j.createdAt >= :createdFrom)
+              AND (:createdTo IS NULL OR j.createdAt < :createdTo)
+            GROUP BY j.llmUsage.model, j.llmUsage.backend
+            ORDER BY j.llmUsage.model, j.llmUsage.backend
+            """)
+    List<LlmUsageRollupView> sumLlmUsage(@Param("createdFrom") LocalDateTime createdFrom,
+                                         @Param("createdTo") LocalDateTime createdTo);
+}
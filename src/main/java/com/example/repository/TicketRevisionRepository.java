@@ -0,0 +1,24 @@
+package com.example.repository;
+
+import com.example.model.TicketRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TicketRevisionRepository extends JpaRepository<TicketRevision, String> {
+
+    /**
+     * Advances a ticket's counter by {@code count}, locking its row until the surrounding transaction ends.
+     *
+     * @return 1 if the counter was advanced, 0 if the ticket has no counter yet.
+     */
+    @Modifying
+    @Query("UPDATE TicketRevision t SET t.lastRevision = t.lastRevision + :count WHERE t.jiraTicket = :jiraTicket")
+    int advance(@Param("jiraTicket") String jiraTicket, @Param("count") int count);
+
+    @Query("SELECT t.lastRevision FROM TicketRevision t WHERE t.jiraTicket = :jiraTicket")
+    int findLastRevision(@Param("jiraTicket") String jiraTicket);
+}
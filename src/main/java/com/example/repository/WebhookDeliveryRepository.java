@@ -0,0 +1,53 @@
+package com.example.repository;
+
+import com.example.model.WebhookDelivery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface WebhookDeliveryRepository extends JpaRepository<WebhookDelivery, Long> {
+
+    @Query("SELECT d FROM WebhookDelivery d WHERE d.status = :status AND d.nextAttemptAt <= :now ORDER BY d.nextAttemptAt")
+    List<WebhookDelivery> findDue(@Param("status") WebhookDelivery.DeliveryStatus status,
+                                  @Param("now") LocalDateTime now,
+                                  Pageable pageable);
+
+    /**
+     * Leases a due delivery by pushing its next attempt time into the future. Only one caller
+     * (on any instance) can win the lease; a crashed holder's lease simply expires.
+     *
+     * @return 1 if the lease was acquired, 0 if another dispatcher got there first.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE WebhookDelivery d SET d.nextAttemptAt = :leaseUntil "
+            + "WHERE d.id = :id AND d.status = :status AND d.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id,
+              @Param("status") WebhookDelivery.DeliveryStatus status,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Moves deliveries to the back of the queue without counting an attempt: due rows of a host
+     * that already has a batch in flight, or leased rows that could not be handed to a worker.
+     * Rows whose next attempt is after {@code notAfter} (leased by someone else) are left alone.
+     *
+     * @return The number of rows moved.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE WebhookDelivery d SET d.nextAttemptAt = :until "
+            + "WHERE d.id IN :ids AND d.status = :status AND d.nextAttemptAt <= :notAfter")
+    int defer(@Param("ids") List<Long> ids,
+              @Param("status") WebhookDelivery.DeliveryStatus status,
+              @Param("notAfter") LocalDateTime notAfter,
+              @Param("until") LocalDateTime until);
+}
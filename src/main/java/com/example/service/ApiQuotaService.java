@@ -0,0 +1,256 @@
+package com.example.service;
+
+import com.example.config.ApiSecurityProperties;
+import com.example.dto.ApiKeyUsageDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Per-API-key request rate limiting and LLM time quotas.
+ *
+ * <p>Clients are resolved once at startup into an immutable map, so the request path is a
+ * hash lookup plus a CAS on the client's {@link TokenBucket}. LLM time is accumulated in a
+ * striped {@link LongAdder} per client and reset when its fixed quota window rolls over.</p>
+ */
+@Service
+public class ApiQuotaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiQuotaService.class);
+    static final String DEFAULT_CLIENT = "default";
+
+    private final Map<String, ClientLimits> clientsByKey;
+    private final Map<String, ClientLimits> clientsByName;
+
+    @Autowired
+    public ApiQuotaService(final ApiSecurityProperties properties) {
+        Map<String, ClientLimits> byKey = new HashMap<>();
+        Map<String, ClientLimits> byName = new LinkedHashMap<>();
+        long windowMillis = properties.getQuotaWindow().toMillis();
+        if (properties.getKey() != null && !properties.getKey().isBlank()) {
+            register(byKey, byName, new ClientLimits(DEFAULT_CLIENT, properties.getDefaultRequestsPerSecond(),
+                    properties.getDefaultBurst(), properties.getDefaultLlmTimeQuota(), windowMillis,
+                    new TokenBucket(properties.getStatusRequestsPerSecond(), properties.getStatusBurst()), false),
+                    properties.getKey());
+        }
+        for (ApiSecurityProperties.Client client : properties.getClients()) {
+            if (client.getName() == null || client.getKey() == null || client.getKey().isBlank()) {
+                throw new IllegalStateException("Every api.security.clients entry needs a name and a key");
+            }
+            ClientLimits limits = new ClientLimits(client.getName(),
+                    client.getRequestsPerSecond() != null ? client.getRequestsPerSecond() : properties.getDefaultRequestsPerSecond(),
+                    client.getBurst() != null ? client.getBurst() : properties.getDefaultBurst(),
+                    client.getLlmTimeQuota() != null ? client.getLlmTimeQuota() : properties.getDefaultLlmTimeQuota(),
+                    windowMillis, new TokenBucket(properties.getStatusRequestsPerSecond(), properties.getStatusBurst()),
+                    client.isAdmin());
+            register(byKey, byName, limits, client.getKey());
+        }
+        this.clientsByKey = Collections.unmodifiableMap(byKey);
+        this.clientsByName = Collections.unmodifiableMap(byName);
+        logger.info("Configured {} API client(s): {}", byName.size(), byName.keySet());
+    }
+
+    /**
+     * Resolves the client owning an API key.
+     *
+     * @param apiKey The key from the request header.
+     * @return The client's limits, or null if the key is unknown.
+     */
+    public ClientLimits findByKey(final String apiKey) {
+        return clientsByKey.get(apiKey);
+    }
+
+    /**
+     * Adds LLM time consumed by a job to its client's quota.
+     *
+     * @param clientName The client that submitted the job; ignored when null or unknown.
+     * @param llmTime The time spent waiting on the LLM.
+     */
+    public void recordLlmTime(final String clientName, final Duration llmTime) {
+        if (clientName == null) {
+            return;
+        }
+        ClientLimits limits = clientsByName.get(clientName);
+        if (limits != null) {
+            limits.recordLlmMillis(llmTime.toMillis());
+        }
+    }
+
+    /**
+     * @return Current usage for every configured client, without exposing keys.
+     */
+    public List<ApiKeyUsageDto> getUsage() {
+        return clientsByName.values().stream()
+                .map(ClientLimits::toUsage)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Reports usage as visible to one client: every client's for an admin client, its own otherwise.
+     *
+     * @param clientName The calling client; null or unknown clients see nothing.
+     * @return The visible usage entries, without exposing keys.
+     */
+    public List<ApiKeyUsageDto> getUsage(final String clientName) {
+        ClientLimits limits = clientName != null ? clientsByName.get(clientName) : null;
+        if (limits == null) {
+            return List.of();
+        }
+        return limits.isAdmin() ? getUsage() : List.of(limits.toUsage());
+    }
+
+    /**
+     * @param clientName The calling client; may be null.
+     * @return Whether the client is configured with {@code admin: true}.
+     */
+    public boolean isAdmin(final String clientName) {
+        ClientLimits limits = clientName != null ? clientsByName.get(clientName) : null;
+        return limits != null && limits.isAdmin();
+    }
+
+    private static void register(final Map<String, ClientLimits> byKey, final Map<String, ClientLimits> byName,
+                                 final ClientLimits limits, final String key) {
+        if (byName.putIfAbsent(limits.getName(), limits) != null) {
+            throw new IllegalStateException("Duplicate API client name: " + limits.getName());
+        }
+        if (byKey.putIfAbsent(key, limits) != null) {
+            throw new IllegalStateException("API key of client " + limits.getName() + " is already in use");
+        }
+    }
+
+    /**
+     * Rate limit and LLM time quota state of one API client.
+     */
+    public static final class ClientLimits {
+        private final String name;
+        private final double requestsPerSecond;
+        private final int burst;
+        private final TokenBucket bucket;
+        private final TokenBucket statusBucket;
+        private final boolean admin;
+        private final long llmQuotaMillis;
+        private final long windowMillis;
+        private final AtomicLong windowStart = new AtomicLong();
+        private final LongAdder llmMillisUsed = new LongAdder();
+        private final LongAdder requestsAllowed = new LongAdder();
+        private final LongAdder requestsRejected = new LongAdder();
+
+        ClientLimits(final String name, final double requestsPerSecond, final int burst,
+                     final Duration llmQuota, final long windowMillis, final TokenBucket statusBucket,
+                     final boolean admin) {
+            this.name = name;
+            this.requestsPerSecond = requestsPerSecond;
+            this.burst = burst;
+            this.bucket = new TokenBucket(requestsPerSecond, burst);
+            this.statusBucket = statusBucket;
+            this.admin = admin;
+            this.llmQuotaMillis = llmQuota.toMillis();
+            this.windowMillis = windowMillis;
+            this.windowStart.set(currentWindowStart());
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Consumes one request token.
+         *
+         * @return true if the request is within the client's rate.
+         */
+        public boolean tryAcquireRequest() {
+            if (bucket.tryAcquire()) {
+                requestsAllowed.increment();
+                return true;
+            }
+            requestsRejected.increment();
+            return false;
+        }
+
+        /**
+         * Consumes one token from the separate job status bucket, so that long-polling does not
+         * starve the client's other requests.
+         *
+         * @return true if the status read is within the client's status rate.
+         */
+        public boolean tryAcquireStatusRead() {
+            if (statusBucket.tryAcquire()) {
+                requestsAllowed.increment();
+                return true;
+            }
+            requestsRejected.increment();
+            return false;
+        }
+
+        /**
+         * @return Seconds a rejected client should wait before retrying.
+         */
+        public long retryAfterSeconds() {
+            return bucket.secondsUntilNextToken();
+        }
+
+        /**
+         * @return Seconds a client rejected on a status read should wait before retrying.
+         */
+        public long statusRetryAfterSeconds() {
+            return statusBucket.secondsUntilNextToken();
+        }
+
+        public boolean isAdmin() {
+            return admin;
+        }
+
+        /**
+         * @return true if the client used up its LLM time in the current window.
+         */
+        public boolean isLlmQuotaExhausted() {
+            rollWindowIfNeeded();
+            return llmQuotaMillis > 0 && llmMillisUsed.sum() >= llmQuotaMillis;
+        }
+
+        /**
+         * @return Seconds until the current quota window ends.
+         */
+        public long secondsUntilQuotaReset() {
+            long remaining = windowStart.get() + windowMillis - System.currentTimeMillis();
+            return Math.max(1L, remaining / 1000L);
+        }
+
+        void recordLlmMillis(final long millis) {
+            rollWindowIfNeeded();
+            llmMillisUsed.add(millis);
+        }
+
+        private void rollWindowIfNeeded() {
+            long current = currentWindowStart();
+            long start = windowStart.get();
+            // Only the thread that wins the CAS resets; time recorded concurrently may land in either window
+            if (current != start && windowStart.compareAndSet(start, current)) {
+                llmMillisUsed.reset();
+            }
+        }
+
+        private long currentWindowStart() {
+            long now = System.currentTimeMillis();
+            return now - Math.floorMod(now, windowMillis);
+        }
+
+        private ApiKeyUsageDto toUsage() {
+            rollWindowIfNeeded();
+            return new ApiKeyUsageDto(name, requestsAllowed.sum(), requestsRejected.sum(), bucket.availableTokens(),
+                    requestsPerSecond, burst, llmMillisUsed.sum() / 1000d, llmQuotaMillis / 1000d,
+                    windowStart.get() + windowMillis);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single writer thread that commits queued writes in batches, one transaction per batch
+ * ({@code app.sqlite.batch-writes}). With SQLite every commit takes the database write lock and
+ * syncs the WAL, so grouping the inserts of many callers into one commit raises write throughput
+ * and frees the write connection sooner.
+ *
+ * <p>Only for writes nobody waits on, such as job log entries: {@link #submit} returns at once and
+ * the write becomes visible when its batch commits. If a batch fails, its writes are retried one by
+ * one so a single bad write does not drop the others. When batching is off or the queue is full,
+ * the write runs directly on the calling thread, inside the caller's transaction.</p>
+ */
+@Component
+public class BatchedWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchedWriter.class);
+    private static final long POLL_MILLIS = 100;
+    private static final long SHUTDOWN_WAIT_MILLIS = 10_000;
+
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final BlockingQueue<QueuedWrite> queue;
+    private final DistributionSummary batchSizes;
+    private Thread writerThread;
+    private volatile boolean closing;
+
+    @Autowired
+    public BatchedWriter(
+            final PlatformTransactionManager transactionManager,
+            final MeterRegistry meterRegistry,
+            @Value("${app.sqlite.batch-writes:false}") final boolean enabled,
+            @Value("${app.sqlite.max-batch-size:200}") final int maxBatchSize,
+            @Value("${app.sqlite.write-queue-capacity:10000}") final int queueCapacity) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("app.sqlite.max-batch-size must be at least 1");
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.batchSizes = DistributionSummary.builder("db.write.batch.size")
+                .description("Writes committed per batch by the batched writer")
+                .register(meterRegistry);
+        meterRegistry.gauge("db.write.queue.size", queue, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        writerThread = new Thread(this::run, "batched-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Lets the writer thread commit what is queued, then flushes anything submitted after it stopped.
+     */
+    @PreDestroy
+    void close() throws InterruptedException {
+        closing = true;
+        if (writerThread != null) {
+            writerThread.join(SHUTDOWN_WAIT_MILLIS);
+        }
+        List<QueuedWrite> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+
+    /**
+     * Queues a write for the next batch.
+     *
+     * @param write The write; runs inside the batch transaction.
+     * @return Completed when the write has been committed, or exceptionally if it failed.
+     */
+    public CompletableFuture<Void> submit(final Runnable write) {
+        if (enabled && !closing) {
+            QueuedWrite queued = new QueuedWrite(write);
+            // Never block: the caller may hold the only write connection the writer thread needs
+            if (queue.offer(queued)) {
+                return queued.future;
+            }
+        }
+        write.run();
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private void run() {
+        List<QueuedWrite> batch = new ArrayList<>(maxBatchSize);
+        while (!closing || !queue.isEmpty()) {
+            try {
+                QueuedWrite first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Batched writer failed: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(final List<QueuedWrite> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(queued -> queued.write.run()));
+            batchSizes.record(batch.size());
+            batch.forEach(queued -> queued.future.complete(null));
+            return;
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                fail(batch.get(0), e);
+                return;
+            }
+            logger.warn("Batch of {} writes failed, retrying them one by one: {}", batch.size(), e.getMessage());
+        }
+        for (QueuedWrite queued : batch) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> queued.write.run());
+                batchSizes.record(1);
+                queued.future.complete(null);
+            } catch (RuntimeException e) {
+                fail(queued, e);
+            }
+        }
+    }
+
+    private static void fail(final QueuedWrite queued, final RuntimeException e) {
+        logger.error("Batched write failed: {}", e.getMessage());
+        queued.future.completeExceptionally(e);
+    }
+
+    private static final class QueuedWrite {
+        private final Runnable write;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private QueuedWrite(final Runnable write) {
+            this.write = write;
+        }
+    }
+}
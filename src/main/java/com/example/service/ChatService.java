@@ -0,0 +1,183 @@
+package com.example.service;
+
+import com.example.exception.LlmCapacityExceededException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.ChatClient;
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.StreamingChatClient;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Ad-hoc chat with the model, isolated from job processing.
+ *
+ * <p>Requests run on the bounded {@code chatExecutor} rather than on Tomcat threads, and each
+ * holds a {@link LlmBulkhead.Pool#CHAT} slot for the duration of its Ollama call. When no slot
+ * frees up within {@code app.llm.chat-acquire-timeout}, or the executor is saturated, the
+ * request fails fast with {@link LlmCapacityExceededException}.</p>
+ */
+@Service
+public class ChatService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatService.class);
+
+    private final ChatClient chatClient;
+    private final StreamingChatClient streamingChatClient;
+    private final LlmBulkhead llmBulkhead;
+    private final Executor chatExecutor;
+    private final Duration acquireTimeout;
+    private final Duration chatTimeout;
+
+    @Autowired
+    public ChatService(
+            final ChatClient chatClient,
+            final StreamingChatClient streamingChatClient,
+            final LlmBulkhead llmBulkhead,
+            @Qualifier("chatExecutor") final Executor chatExecutor,
+            @Value("${app.llm.chat-acquire-timeout:10s}") final Duration acquireTimeout,
+            @Value("${app.llm.chat-timeout:5m}") final Duration chatTimeout) {
+        this.chatClient = chatClient;
+        this.streamingChatClient = streamingChatClient;
+        this.llmBulkhead = llmBulkhead;
+        this.chatExecutor = chatExecutor;
+        this.acquireTimeout = acquireTimeout;
+        this.chatTimeout = chatTimeout;
+    }
+
+    /**
+     * @return How long a chat request may take end to end.
+     */
+    public Duration getChatTimeout() {
+        return chatTimeout;
+    }
+
+    /**
+     * Sends a message and completes with the full answer.
+     *
+     * @param message The user message.
+     * @return The model's answer.
+     * @throws LlmCapacityExceededException if the chat executor is saturated.
+     */
+    public CompletableFuture<String> chat(final String message) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                LlmBulkhead.Permit permit = acquirePermit();
+                try {
+                    return chatClient.call(new Prompt(message)).getResult().getOutput().getContent();
+                } finally {
+                    permit.close();
+                }
+            }, chatExecutor);
+        } catch (RejectedExecutionException e) {
+            throw new LlmCapacityExceededException("Too many chat requests in progress, retry later");
+        }
+    }
+
+    /**
+     * Sends a message and streams the answer as it is generated, one {@code token} event per
+     * chunk (JSON {@code {"content": ...}} so leading whitespace survives), then a {@code done}
+     * event. Capacity errors after the stream has opened are reported as an {@code error} event.
+     *
+     * @param message The user message.
+     * @return The emitter to return from the controller.
+     * @throws LlmCapacityExceededException if the chat executor is saturated.
+     */
+    public SseEmitter stream(final String message) {
+        SseEmitter emitter = new SseEmitter(chatTimeout.toMillis());
+        try {
+            chatExecutor.execute(() -> startStream(message, emitter));
+        } catch (RejectedExecutionException e) {
+            throw new LlmCapacityExceededException("Too many chat requests in progress, retry later");
+        }
+        return emitter;
+    }
+
+    private void startStream(final String message, final SseEmitter emitter) {
+        LlmBulkhead.Permit permit;
+        try {
+            permit = acquirePermit();
+        } catch (LlmCapacityExceededException e) {
+            sendQuietly(emitter, "error", Map.of("message", e.getMessage()));
+            emitter.complete();
+            return;
+        }
+        // Cancel the Ollama stream as soon as the client goes away
+        AtomicReference<Disposable> subscription = new AtomicReference<>();
+        Runnable cancel = () -> {
+            Disposable disposable = subscription.get();
+            if (disposable != null) {
+                disposable.dispose();
+            }
+            permit.close();
+        };
+        emitter.onCompletion(cancel);
+        emitter.onTimeout(cancel);
+        emitter.onError(e -> cancel.run());
+
+        subscription.set(streamingChatClient.stream(new Prompt(message))
+                .doFinally(signal -> permit.close())
+                .subscribe(
+                        response -> sendChunk(emitter, response),
+                        error -> {
+                            logger.warn("Chat stream failed: {}", error.getMessage());
+                            sendQuietly(emitter, "error", Map.of("message", String.valueOf(error.getMessage())));
+                            emitter.complete();
+                        },
+                        () -> {
+                            sendQuietly(emitter, "done", Map.of());
+                            emitter.complete();
+                        }));
+    }
+
+    private void sendChunk(final SseEmitter emitter, final ChatResponse response) {
+        if (response.getResult() == null || response.getResult().getOutput() == null) {
+            return;
+        }
+        String content = response.getResult().getOutput().getContent();
+        if (content == null || content.isEmpty()) {
+            return;
+        }
+        try {
+            emitter.send(SseEmitter.event().name("token").data(Map.of("content", content)));
+        } catch (IOException e) {
+            // Client disconnected: failing here cancels the upstream subscription
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void sendQuietly(final SseEmitter emitter, final String name, final Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Could not send chat '{}' event: {}", name, e.getMessage());
+        }
+    }
+
+    private LlmBulkhead.Permit acquirePermit() {
+        try {
+            LlmBulkhead.Permit permit = llmBulkhead.tryAcquire(LlmBulkhead.Pool.CHAT, acquireTimeout);
+            if (permit == null) {
+                throw new LlmCapacityExceededException("No LLM capacity available for chat, retry later");
+            }
+            return permit;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LlmCapacityExceededException("Interrupted while waiting for LLM capacity");
+        }
+    }
+}
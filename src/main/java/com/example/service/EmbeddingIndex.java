@@ -0,0 +1,352 @@
+package com.example.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process approximate nearest neighbour index over unit-length embeddings, keyed by job ID.
+ *
+ * <p>Uses random-hyperplane locality sensitive hashing: each of {@code tables} hash tables maps a
+ * vector to the {@code bits}-bit sign pattern of its dot products with fixed random hyperplanes.
+ * Close vectors share a bucket in at least one table with high probability; the candidates from
+ * all tables are then compared exactly. With the defaults (20 tables of 10 bits) a vector at
+ * cosine similarity 0.9 is found with probability above 0.99 while only about 2% of the index is
+ * compared per query.</p>
+ *
+ * <p>The index is persisted as an append-only file of add and remove records, so each update
+ * is one small write. The file is compacted on load when it holds more records than live
+ * entries. A file written for another model or vector length is discarded.</p>
+ */
+final class EmbeddingIndex implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddingIndex.class);
+    private static final int MAGIC = 0x454D4258; // "EMBX"
+    private static final int VERSION = 1;
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 2;
+    // Fixed so bucket keys computed from a reloaded file match those of a fresh index
+    private static final long HYPERPLANE_SEED = 0x5EED_0F_1DE5L;
+
+    private final Path file;
+    private final String model;
+    private final int tables;
+    private final int bits;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, float[]> vectors = new HashMap<>();
+    private final List<Map<Integer, List<Long>>> buckets = new ArrayList<>();
+    private int dimensions;
+    private float[][] hyperplanes;
+    private DataOutputStream out;
+
+    /**
+     * @param file   Where the index is persisted; null keeps it in memory only.
+     * @param model  Embedding model name, stored in the file header.
+     * @param tables Number of hash tables.
+     * @param bits   Hyperplanes per table, at most 31.
+     */
+    EmbeddingIndex(final Path file, final String model, final int tables, final int bits) {
+        if (tables < 1 || bits < 1 || bits > 31) {
+            throw new IllegalArgumentException("Embedding index needs at least one table and 1 to 31 bits per table");
+        }
+        this.file = file;
+        this.model = model;
+        this.tables = tables;
+        this.bits = bits;
+        for (int t = 0; t < tables; t++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Reads the persisted index, if any, and opens the file for appending.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    void load() throws IOException {
+        if (file == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int records = 0;
+            if (Files.exists(file)) {
+                records = readFile();
+            }
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            if (records == 0 || records > vectors.size()) {
+                rewriteFile();
+            }
+            out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+            logger.info("Embedding index loaded from {} with {} entries", file, vectors.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int readFile() throws IOException {
+        int records = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !model.equals(in.readUTF())) {
+                logger.warn("Discarding embedding index {}: written by another version or model", file);
+                return 0;
+            }
+            int fileDimensions = in.readInt();
+            while (true) {
+                byte op;
+                try {
+                    op = in.readByte();
+                } catch (EOFException e) {
+                    break;
+                }
+                long jobId = in.readLong();
+                if (op == ADD) {
+                    float[] vector = new float[fileDimensions];
+                    for (int i = 0; i < fileDimensions; i++) {
+                        vector[i] = in.readFloat();
+                    }
+                    putInMemory(jobId, vector);
+                } else {
+                    removeInMemory(jobId);
+                }
+                records++;
+            }
+        } catch (EOFException e) {
+            // A record cut short by a crash; everything before it is intact
+            logger.warn("Embedding index {} ends with a partial record; it will be compacted", file);
+            records++;
+        }
+        return records;
+    }
+
+    private void rewriteFile() throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream tempOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            writeHeader(tempOut);
+            for (Map.Entry<Long, float[]> entry : vectors.entrySet()) {
+                writeAdd(tempOut, entry.getKey(), entry.getValue());
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void writeHeader(final DataOutputStream target) throws IOException {
+        target.writeInt(MAGIC);
+        target.writeInt(VERSION);
+        target.writeUTF(model);
+        target.writeInt(dimensions);
+    }
+
+    private static void writeAdd(final DataOutputStream target, final long jobId, final float[] vector) throws IOException {
+        target.writeByte(ADD);
+        target.writeLong(jobId);
+        for (float value : vector) {
+            target.writeFloat(value);
+        }
+    }
+
+    /**
+     * Adds or replaces a job's embedding.
+     *
+     * @param jobId     The job ID.
+     * @param embedding The raw embedding; it is normalized to unit length.
+     * @throws IllegalArgumentException if its length differs from the vectors already indexed.
+     */
+    void add(final long jobId, final float[] embedding) throws IOException {
+        float[] vector = normalize(embedding);
+        lock.writeLock().lock();
+        try {
+            boolean firstVector = dimensions == 0;
+            putInMemory(jobId, vector);
+            if (out != null) {
+                if (firstVector) {
+                    // The header was written before the vector length was known
+                    out.close();
+                    rewriteFile();
+                    out = new DataOutputStream(new BufferedOutputStream(
+                            Files.newOutputStream(file, StandardOpenOption.APPEND)));
+                } else {
+                    writeAdd(out, jobId, vector);
+                    out.flush();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a job's embedding, if indexed.
+     */
+    void remove(final long jobId) throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (removeInMemory(jobId) && out != null) {
+                out.writeByte(REMOVE);
+                out.writeLong(jobId);
+                out.flush();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param embedding     The query embedding.
+     * @param minSimilarity Lowest cosine similarity to accept.
+     * @return The most similar indexed job at or above {@code minSimilarity}, or null.
+     */
+    Match nearest(final float[] embedding, final double minSimilarity) {
+        float[] query = normalize(embedding);
+        lock.readLock().lock();
+        try {
+            if (vectors.isEmpty() || query.length != dimensions) {
+                return null;
+            }
+            Set<Long> seen = new HashSet<>();
+            long bestId = -1;
+            double best = minSimilarity;
+            for (int t = 0; t < tables; t++) {
+                List<Long> bucket = buckets.get(t).get(hash(t, query));
+                if (bucket == null) {
+                    continue;
+                }
+                for (Long jobId : bucket) {
+                    if (!seen.add(jobId)) {
+                        continue;
+                    }
+                    double similarity = dot(query, vectors.get(jobId));
+                    if (similarity >= best) {
+                        best = similarity;
+                        bestId = jobId;
+                    }
+                }
+            }
+            return bestId < 0 ? null : new Match(bestId, Math.min(1.0, best));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return vectors.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (out != null) {
+                out.close();
+                out = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putInMemory(final long jobId, final float[] vector) {
+        if (dimensions == 0) {
+            dimensions = vector.length;
+            hyperplanes = hyperplanes(dimensions);
+        } else if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Embedding has " + vector.length + " dimensions, index has " + dimensions);
+        }
+        removeInMemory(jobId);
+        vectors.put(jobId, vector);
+        for (int t = 0; t < tables; t++) {
+            buckets.get(t).computeIfAbsent(hash(t, vector), key -> new ArrayList<>(4)).add(jobId);
+        }
+    }
+
+    private boolean removeInMemory(final long jobId) {
+        float[] vector = vectors.remove(jobId);
+        if (vector == null) {
+            return false;
+        }
+        for (int t = 0; t < tables; t++) {
+            int key = hash(t, vector);
+            List<Long> bucket = buckets.get(t).get(key);
+            if (bucket != null) {
+                bucket.remove(Long.valueOf(jobId));
+                if (bucket.isEmpty()) {
+                    buckets.get(t).remove(key);
+                }
+            }
+        }
+        return true;
+    }
+
+    private int hash(final int table, final float[] vector) {
+        int key = 0;
+        for (int b = 0; b < bits; b++) {
+            if (dot(hyperplanes[table * bits + b], vector) >= 0) {
+                key |= 1 << b;
+            }
+        }
+        return key;
+    }
+
+    private float[][] hyperplanes(final int length) {
+        Random random = new Random(HYPERPLANE_SEED);
+        float[][] planes = new float[tables * bits][length];
+        for (float[] plane : planes) {
+            for (int i = 0; i < length; i++) {
+                plane[i] = (float) random.nextGaussian();
+            }
+        }
+        return planes;
+    }
+
+    private static double dot(final float[] a, final float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private static float[] normalize(final float[] embedding) {
+        double norm = Math.sqrt(dot(embedding, embedding));
+        float[] unit = new float[embedding.length];
+        if (norm == 0) {
+            return unit;
+        }
+        for (int i = 0; i < embedding.length; i++) {
+            unit[i] = (float) (embedding[i] / norm);
+        }
+        return unit;
+    }
+
+    /**
+     * The closest indexed job and its cosine similarity to the query.
+     */
+    record Match(long jobId, double similarity) {
+    }
+}
@@ -0,0 +1,358 @@
+package com.example.service;
+
+import com.example.exception.JobQueueFullException;
+import com.example.model.TestGenerationJob;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs test generation jobs by priority, with weighted fair queuing across tenants.
+ *
+ * <p>Priority classes are strict: a queued HIGH job always starts before any NORMAL or LOW one.
+ * Within a class, tenants (the submitting API client, or the job's components when there is
+ * none) share the workers through start-time fair queuing: every job gets a virtual start tag
+ * {@code max(V, lastFinish[tenant])} and finish tag {@code start + 1 / weight}, and jobs start
+ * in tag order. A tenant that bulk-imports hundreds of tickets therefore only advances its own
+ * tags, and another tenant's next job is interleaved right after the jobs already started.</p>
+ *
+ * <p>The queue lives in memory only; every queued job is still PENDING in the database, so
+ * {@link #drain} can drop it on shutdown and {@link JobRecoveryService} queues it again on the
+ * next start.</p>
+ */
+@Component
+public class FairJobScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(FairJobScheduler.class);
+    private static final String ANONYMOUS_TENANT = "anonymous";
+    // How long interrupted workers get to put their jobs back before shutdown moves on
+    // How long drain() waits for interrupted jobs to put themselves back; part of the shutdown budget
+    static final Duration INTERRUPT_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ThreadPoolExecutor executor;
+    private final Map<TestGenerationJob.JobPriority, ClassState> classes = new EnumMap<>(TestGenerationJob.JobPriority.class);
+    private final Map<TestGenerationJob.JobPriority, Timer> queueWaitTimers = new EnumMap<>(TestGenerationJob.JobPriority.class);
+    private final Map<String, Double> tenantWeights;
+    private final int maxQueued;
+    // Guards reservedSlots together with the queue growth of reserved submissions
+    private final Object capacityLock = new Object();
+    private int reservedSlots;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Set<Long> scheduledJobIds = ConcurrentHashMap.newKeySet();
+    private final Set<Long> runningJobIds = ConcurrentHashMap.newKeySet();
+    private volatile boolean draining;
+    private volatile boolean interrupting;
+
+    @Autowired
+    public FairJobScheduler(
+            final MeterRegistry meterRegistry,
+            @Value("${app.scheduler.workers:2}") final int workers,
+            @Value("${app.scheduler.max-queued:1000}") final int maxQueued,
+            @Value("${app.scheduler.tenant-weights:}") final List<String> tenantWeights) {
+        this.maxQueued = maxQueued;
+        this.tenantWeights = parseWeights(tenantWeights);
+        for (TestGenerationJob.JobPriority priority : TestGenerationJob.JobPriority.values()) {
+            classes.put(priority, new ClassState());
+            queueWaitTimers.put(priority, Timer.builder("job.queue.wait")
+                    .description("Time a job waits in the scheduler queue before a worker starts it")
+                    .tag("priority", priority.name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        Gauge.builder("job.scheduler.queued", this, FairJobScheduler::getQueuedCount)
+                .description("Jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("job.scheduler.active", this, FairJobScheduler::getActiveCount)
+                .description("Jobs being processed")
+                .register(meterRegistry);
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), new CustomizableThreadFactory("TestGeneration-")) {
+            @Override
+            protected void beforeExecute(final Thread thread, final Runnable runnable) {
+                super.beforeExecute(thread, runnable);
+                onStart((ScheduledJob) runnable);
+            }
+
+            @Override
+            protected void afterExecute(final Runnable runnable, final Throwable failure) {
+                super.afterExecute(runnable, failure);
+                ScheduledJob job = (ScheduledJob) runnable;
+                runningJobIds.remove(job.jobId);
+                scheduledJobIds.remove(job.jobId);
+            }
+        };
+    }
+
+    /**
+     * Reserves queue slots for new jobs before their records are created, so that a request is
+     * rejected while nothing has been written yet. The check and the reservation are one step:
+     * concurrent requests cannot both pass it and together overfill the queue.
+     *
+     * @param jobs Number of jobs about to be submitted.
+     * @return The reservation; submit the jobs through it and close it once done.
+     * @throws JobQueueFullException if the jobs would exceed {@code max-queued}, or on shutdown.
+     */
+    public Reservation reserve(final int jobs) {
+        synchronized (capacityLock) {
+            if (draining) {
+                throw new JobQueueFullException("Shutting down, retry later");
+            }
+            if (executor.getQueue().size() + reservedSlots + jobs > maxQueued) {
+                throw new JobQueueFullException("Job queue is full (" + maxQueued + " jobs waiting), retry later");
+            }
+            reservedSlots += jobs;
+            return new Reservation(jobs);
+        }
+    }
+
+    /**
+     * Queues a job's processing without a reservation, e.g. a PENDING job recovered after a restart,
+     * which was accepted earlier and is not subject to {@code max-queued}. Jobs already queued or
+     * running here, and any job once shutdown has begun, are skipped; they are still PENDING in the
+     * database.
+     *
+     * @param jobId The job ID; a job is queued at most once at a time.
+     * @param priority The job's priority class; null is treated as NORMAL.
+     * @param tenant The fairness key (API client or components); null shares one anonymous tenant.
+     * @param work The processing to run on a worker thread.
+     */
+    public void submit(final Long jobId, final TestGenerationJob.JobPriority priority, final String tenant,
+                       final Runnable work) {
+        TestGenerationJob.JobPriority effectivePriority = priority != null ? priority : TestGenerationJob.JobPriority.NORMAL;
+        String effectiveTenant = tenant != null && !tenant.isBlank() ? tenant : ANONYMOUS_TENANT;
+        if (draining || !scheduledJobIds.add(jobId)) {
+            logger.debug("Not queueing job {}: {}", jobId, draining ? "shutting down" : "already queued");
+            return;
+        }
+        ClassState state = classes.get(effectivePriority);
+        double startTag;
+        synchronized (state) {
+            double lastFinish = state.lastFinishByTenant.getOrDefault(effectiveTenant, 0d);
+            startTag = Math.max(state.virtualTime, lastFinish);
+            state.lastFinishByTenant.put(effectiveTenant, startTag + 1d / weightOf(effectiveTenant));
+        }
+        try {
+            executor.execute(new ScheduledJob(jobId, effectivePriority, effectiveTenant, startTag,
+                    sequence.incrementAndGet(), work));
+        } catch (RejectedExecutionException e) {
+            // Shutdown began after the check above
+            scheduledJobIds.remove(jobId);
+            logger.debug("Not queueing job {}: shutting down", jobId);
+            return;
+        }
+        logger.debug("Queued job {} (priority {}, tenant {}, start tag {})", jobId, effectivePriority, effectiveTenant, startTag);
+    }
+
+    /**
+     * @return Jobs waiting for a worker.
+     */
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * @return Jobs currently being processed.
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * @return IDs of the jobs being processed.
+     */
+    public Set<Long> getRunningJobIds() {
+        return Set.copyOf(runningJobIds);
+    }
+
+    /**
+     * @return true once {@link #drain} has interrupted the jobs that outlived the grace period.
+     *         Their workers should stop without failing the job.
+     */
+    public boolean isInterrupting() {
+        return interrupting;
+    }
+
+    /**
+     * Stops taking work for shutdown. Queued jobs are dropped, running jobs get the grace period to
+     * finish, and the ones still running after it are interrupted.
+     *
+     * @param gracePeriod How long to wait for running jobs.
+     * @return IDs of the interrupted jobs.
+     */
+    public List<Long> drain(final Duration gracePeriod) {
+        draining = true;
+        List<Runnable> unstarted = new ArrayList<>();
+        executor.getQueue().drainTo(unstarted);
+        for (Runnable runnable : unstarted) {
+            scheduledJobIds.remove(((ScheduledJob) runnable).jobId);
+        }
+        logger.info("Draining job scheduler: {} queued jobs left PENDING, waiting up to {} for {} running",
+                unstarted.size(), gracePeriod, runningJobIds.size());
+        executor.shutdown();
+        List<Long> interrupted = new ArrayList<>();
+        try {
+            if (executor.awaitTermination(gracePeriod.toMillis(), TimeUnit.MILLISECONDS)) {
+                return interrupted;
+            }
+            interrupting = true;
+            interrupted.addAll(runningJobIds);
+            logger.warn("Interrupting {} jobs still running after {}: {}", interrupted.size(), gracePeriod, interrupted);
+            executor.shutdownNow();
+            if (!executor.awaitTermination(INTERRUPT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("Jobs {} did not stop within {}", runningJobIds, INTERRUPT_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            interrupting = true;
+            interrupted.addAll(runningJobIds);
+            executor.shutdownNow();
+        }
+        return interrupted;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        draining = true;
+        executor.shutdown();
+    }
+
+    /**
+     * Parses "tenant=weight" entries, e.g. {@code team-a=2,team-b=0.5}.
+     */
+    private static Map<String, Double> parseWeights(final List<String> entries) {
+        Map<String, Double> weights = new HashMap<>();
+        for (String entry : entries) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalStateException("Invalid app.scheduler.tenant-weights entry: " + entry);
+            }
+            weights.put(entry.substring(0, separator).trim(), Double.parseDouble(entry.substring(separator + 1).trim()));
+        }
+        return weights;
+    }
+
+    private double weightOf(final String tenant) {
+        Double weight = tenantWeights.get(tenant);
+        return weight != null && weight > 0 ? weight : 1d;
+    }
+
+    private void onStart(final ScheduledJob job) {
+        runningJobIds.add(job.jobId);
+        ClassState state = classes.get(job.priority);
+        synchronized (state) {
+            // Virtual time follows the start tag of the job in service
+            state.virtualTime = Math.max(state.virtualTime, job.startTag);
+            if (executor.getQueue().isEmpty()) {
+                // Idle system: forget history so a returning tenant is not penalised for old work
+                state.lastFinishByTenant.clear();
+            }
+        }
+        Duration waited = Duration.ofNanos(System.nanoTime() - job.enqueuedAtNanos);
+        queueWaitTimers.get(job.priority).record(waited);
+        logger.debug("Starting job {} (priority {}, tenant {}) after {} ms in queue",
+                job.jobId, job.priority, job.tenant, waited.toMillis());
+    }
+
+    /**
+     * Queue slots reserved by {@link #reserve} for jobs that are being created.
+     */
+    public final class Reservation implements AutoCloseable {
+        private int remaining;
+
+        private Reservation(final int slots) {
+            this.remaining = slots;
+        }
+
+        /**
+         * Queues a job in one of the reserved slots; see {@link FairJobScheduler#submit}.
+         *
+         * @throws IllegalStateException if all reserved slots are used.
+         */
+        public void submit(final Long jobId, final TestGenerationJob.JobPriority priority, final String tenant,
+                           final Runnable work) {
+            synchronized (capacityLock) {
+                if (remaining == 0) {
+                    throw new IllegalStateException("All reserved queue slots are used");
+                }
+                remaining--;
+                reservedSlots--;
+                FairJobScheduler.this.submit(jobId, priority, tenant, work);
+            }
+        }
+
+        /**
+         * Returns the slots that were not used, e.g. after the jobs' transaction rolled back.
+         */
+        @Override
+        public void close() {
+            synchronized (capacityLock) {
+                reservedSlots -= remaining;
+                remaining = 0;
+            }
+        }
+    }
+
+    private static final class ClassState {
+        private double virtualTime;
+        private final Map<String, Double> lastFinishByTenant = new HashMap<>();
+    }
+
+    private static final class ScheduledJob implements Runnable, Comparable<ScheduledJob> {
+        private final Long jobId;
+        private final TestGenerationJob.JobPriority priority;
+        private final String tenant;
+        private final double startTag;
+        private final long sequence;
+        private final long enqueuedAtNanos = System.nanoTime();
+        private final Runnable work;
+
+        private ScheduledJob(final Long jobId, final TestGenerationJob.JobPriority priority, final String tenant,
+                             final double startTag, final long sequence, final Runnable work) {
+            this.jobId = jobId;
+            this.priority = priority;
+            this.tenant = tenant;
+            this.startTag = startTag;
+            this.sequence = sequence;
+            this.work = work;
+        }
+
+        @Override
+        public void run() {
+            work.run();
+        }
+
+        @Override
+        public int compareTo(final ScheduledJob other) {
+            int byPriority = Integer.compare(priority.ordinal(), other.priority.ordinal());
+            if (byPriority != 0) {
+                return byPriority;
+            }
+            int byTag = Double.compare(startTag, other.startTag);
+            return byTag != 0 ? byTag : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.service;
+
+import com.example.exception.IdempotencyKeyConflictException;
+import com.example.exception.IdempotencyKeyMismatchException;
+import com.example.model.IdempotencyRecord;
+import com.example.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Idempotency-Key store for job submission endpoints.
+ *
+ * <p>Lookups hit a compact in-memory map first (two longs of the request hash plus the job IDs
+ * per key), so a repeated key costs no database round trip on this instance. The database table
+ * is the source of truth across instances and restarts: a key is reserved there with an INSERT
+ * before any job is created, so concurrent duplicates lose on the primary key. A reservation
+ * expires after {@code in-flight-timeout}, a completed key after {@code ttl}; both are swept from
+ * both tiers.</p>
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+    private static final int MAX_KEY_LENGTH = 255;
+    // Long.MAX_VALUE has 19 digits, plus the comma separating it from the next ID
+    private static final int MAX_JOB_ID_CHARS = 20;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration inFlightTimeout;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Autowired
+    public IdempotencyService(
+            final IdempotencyRecordRepository idempotencyRecordRepository,
+            final ObjectMapper objectMapper,
+            final PlatformTransactionManager transactionManager,
+            @Value("${app.idempotency.ttl:24h}") final Duration ttl,
+            @Value("${app.idempotency.in-flight-timeout:2m}") final Duration inFlightTimeout,
+            @Value("${app.idempotency.max-entries:50000}") final int maxEntries,
+            @Value("${app.batch.max-size:100}") final int maxBatchSize) {
+        if (maxBatchSize * MAX_JOB_ID_CHARS - 1 > IdempotencyRecord.JOB_IDS_LENGTH) {
+            throw new IllegalStateException("app.batch.max-size " + maxBatchSize + " exceeds the "
+                    + IdempotencyRecord.JOB_IDS_LENGTH / MAX_JOB_ID_CHARS
+                    + " job IDs the idempotency_keys.job_ids column can hold");
+        }
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.inFlightTimeout = inFlightTimeout;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Runs a job submission at most once per key.
+     *
+     * <p>The action runs in one transaction with the recording of its job IDs, so either all of a
+     * batch's jobs are created and remembered under the key, or none are and the key is released
+     * for a retry.</p>
+     *
+     * @param key The Idempotency-Key header value; when null the action simply runs.
+     * @param request The request body, hashed to detect a key reused for a different request.
+     * @param action Creates the jobs and returns their IDs.
+     * @return The job IDs, either freshly created or those of the original request.
+     * @throws IdempotencyKeyMismatchException if the key was used with a different body.
+     * @throws IdempotencyKeyConflictException if the original request is still in progress.
+     * @throws IllegalArgumentException if the key is blank or too long.
+     */
+    public Outcome execute(final String key, final Object request, final Supplier<List<Long>> action) {
+        if (key == null) {
+            return new Outcome(action.get(), false);
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        byte[] hash = hash(request);
+        long hashHi = ByteBuffer.wrap(hash, 0, 8).getLong();
+        long hashLo = ByteBuffer.wrap(hash, 8, 8).getLong();
+
+        Optional<Outcome> previous = lookup(key, hashHi, hashLo);
+        if (previous.isPresent()) {
+            return previous.get();
+        }
+
+        String token = UUID.randomUUID().toString();
+        Entry reservation = new Entry(hashHi, hashLo, null, System.currentTimeMillis() + inFlightTimeout.toMillis());
+        Optional<Outcome> concurrent = reserve(key, hash, reservation, token);
+        if (concurrent.isPresent()) {
+            return concurrent.get();
+        }
+        List<Long> jobIds;
+        LocalDateTime expiresAt;
+        try {
+            expiresAt = LocalDateTime.now().plus(ttl);
+            jobIds = transactionTemplate.execute(status -> {
+                List<Long> created = action.get();
+                complete(key, token, created, expiresAt);
+                return created;
+            });
+        } catch (RuntimeException e) {
+            // Nothing was created: let the client retry with the same key. Only our own reservation is
+            // dropped; a retry that took over the expired reservation may have cached its entry since
+            entries.remove(key, reservation);
+            idempotencyRecordRepository.deleteReservation(key, token);
+            throw e;
+        }
+        cache(key, new Entry(hashHi, hashLo, jobIds.stream().mapToLong(Long::longValue).toArray(),
+                expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+        return new Outcome(jobIds, false);
+    }
+
+    /**
+     * Removes expired keys from memory and from the database.
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.sweep-interval-ms:600000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAtMillis < now);
+        int deleted = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Evicted {} expired idempotency keys", deleted);
+        }
+    }
+
+    private Optional<Outcome> lookup(final String key, final long hashHi, final long hashLo) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.isExpired()) {
+            // Not known locally: another instance or a previous run may have seen it
+            entry = idempotencyRecordRepository.findById(key)
+                    .filter(record -> record.getExpiresAt().isAfter(LocalDateTime.now()))
+                    .map(IdempotencyService::toEntry)
+                    .orElse(null);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            if (entry.isCompleted()) {
+                cache(key, entry);
+            }
+        }
+        if (entry.hashHi != hashHi || entry.hashLo != hashLo) {
+            throw new IdempotencyKeyMismatchException(
+                    "Idempotency-Key '" + key + "' was already used with a different request body");
+        }
+        if (!entry.isCompleted()) {
+            throw new IdempotencyKeyConflictException(
+                    "A request with Idempotency-Key '" + key + "' is still being processed");
+        }
+        logger.info("Replaying idempotent request for key {}: jobs {}", key, Arrays.toString(entry.jobIds));
+        return Optional.of(new Outcome(Arrays.stream(entry.jobIds).boxed().collect(Collectors.toList()), true));
+    }
+
+    /**
+     * Reserves the key in memory and in the database until the in-flight timeout, so that the key of
+     * a request whose instance died becomes usable again soon rather than after the full TTL.
+     *
+     * @return The outcome of a concurrent request that completed first, or empty if the key is now reserved.
+     */
+    private Optional<Outcome> reserve(final String key, final byte[] hash, final Entry reservation,
+                                      final String token) {
+        long hashHi = reservation.hashHi;
+        long hashLo = reservation.hashLo;
+        Entry existing = entries.putIfAbsent(key, reservation);
+        if (existing != null && !existing.isExpired()) {
+            return lookup(key, hashHi, hashLo); // Replays, or throws mismatch/conflict
+        } else if (existing != null) {
+            entries.put(key, reservation);
+        }
+
+        for (int attempt = 0; ; attempt++) {
+            LocalDateTime now = LocalDateTime.now();
+            IdempotencyRecord record = new IdempotencyRecord();
+            record.setKey(key);
+            record.setRequestHash(HexFormat.of().formatHex(hash));
+            record.setReservationToken(token);
+            record.setCreatedAt(now);
+            record.setExpiresAt(now.plus(inFlightTimeout));
+            try {
+                idempotencyRecordRepository.saveAndFlush(record);
+                return Optional.empty();
+            } catch (DataIntegrityViolationException e) {
+                // Another instance reserved the key first, or an expired row is still there
+                if (attempt == 0 && idempotencyRecordRepository.deleteIfExpired(key, now) > 0) {
+                    continue;
+                }
+                entries.remove(key, reservation);
+                Optional<Outcome> winner = lookup(key, hashHi, hashLo);
+                if (winner.isPresent()) {
+                    return winner;
+                }
+                throw new IdempotencyKeyConflictException(
+                        "A request with Idempotency-Key '" + key + "' is still being processed");
+            }
+        }
+    }
+
+    /**
+     * Records the job IDs under the key, in the transaction that created the jobs.
+     *
+     * @throws IdempotencyKeyConflictException if the reservation ran past the in-flight timeout and
+     *         was taken over by a retry; the jobs are then rolled back.
+     */
+    private void complete(final String key, final String token, final List<Long> jobIds, final LocalDateTime expiresAt) {
+        String ids = jobIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        if (idempotencyRecordRepository.completeReservation(key, token, ids, expiresAt) == 0) {
+            throw new IdempotencyKeyConflictException("The reservation of Idempotency-Key '" + key
+                    + "' expired before the request completed, please retry");
+        }
+    }
+
+    private void cache(final String key, final Entry entry) {
+        entries.put(key, entry);
+        if (entries.size() > maxEntries) {
+            // The database still holds evicted keys; drop expired ones first, then arbitrary ones
+            long now = System.currentTimeMillis();
+            entries.values().removeIf(candidate -> candidate.expiresAtMillis < now);
+            Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+            while (entries.size() > maxEntries && iterator.hasNext()) {
+                Map.Entry<String, Entry> candidate = iterator.next();
+                if (candidate.getValue().isCompleted()) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private byte[] hash(final Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to hash request for idempotency check", e);
+        }
+    }
+
+    private static Entry toEntry(final IdempotencyRecord record) {
+        byte[] hash = HexFormat.of().parseHex(record.getRequestHash());
+        long[] jobIds = record.getJobIds() == null ? null
+                : Arrays.stream(record.getJobIds().split(",")).filter(id -> !id.isBlank())
+                        .mapToLong(Long::parseLong).toArray();
+        long expiresAt = record.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return new Entry(ByteBuffer.wrap(hash, 0, 8).getLong(), ByteBuffer.wrap(hash, 8, 8).getLong(), jobIds, expiresAt);
+    }
+
+    /**
+     * Result of {@link #execute}: the job IDs and whether they were replayed from an earlier request.
+     */
+    public static final class Outcome {
+        private final List<Long> jobIds;
+        private final boolean replayed;
+
+        public Outcome(final List<Long> jobIds, final boolean replayed) {
+            this.jobIds = jobIds;
+            this.replayed = replayed;
+        }
+
+        public List<Long> getJobIds() {
+            return jobIds;
+        }
+
+        public boolean isReplayed() {
+            return replayed;
+        }
+    }
+
+    /** Compact in-memory entry: 128 bits of the request hash, the job IDs (null while in progress) and expiry. */
+    private static final class Entry {
+        private final long hashHi;
+        private final long hashLo;
+        private final long[] jobIds;
+        private final long expiresAtMillis;
+
+        private Entry(final long hashHi, final long hashLo, final long[] jobIds, final long expiresAtMillis) {
+            this.hashHi = hashHi;
+            this.hashLo = hashLo;
+            this.jobIds = jobIds;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        private boolean isCompleted() {
+            return jobIds != null;
+        }
+
+        private boolean isExpired() {
+            return expiresAtMillis < System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Works out which parts of an edited ticket need new test cases, given the description and
+ * output of the previous completed job for the same ticket.
+ *
+ * <p>Descriptions are split into sections at blank lines, list items and headings, and sections
+ * are compared by their normalized text (case, spacing and bullets ignored). Each previous test
+ * case is attributed to the previous section it shares the most words with. Test cases of
+ * sections that are still present are reused; those of edited or removed sections are dropped,
+ * and edited or added sections are regenerated. Test cases that match no section are kept.</p>
+ */
+public final class IncrementalGenerationPlanner {
+
+    // Sections shorter than this (headings, "Acceptance criteria:") carry no requirement of their own
+    private static final int MIN_SECTION_WORDS = 3;
+    // Words shorter than this are mostly stop words and say nothing about which section a test covers
+    private static final int MIN_WORD_LENGTH = 4;
+    private static final double MIN_ATTRIBUTION_SCORE = 0.1;
+
+    private IncrementalGenerationPlanner() {
+    }
+
+    /**
+     * @param previousDescription The ticket content of the previous job.
+     * @param previousOutput      The generated output of the previous job.
+     * @param description         The new ticket content.
+     * @return What to reuse and what to regenerate.
+     */
+    public static Plan plan(final String previousDescription, final String previousOutput, final String description) {
+        List<String> previousSections = splitSections(previousDescription);
+        List<String> sections = splitSections(description);
+        Set<String> previousKeys = new HashSet<>();
+        for (String section : previousSections) {
+            previousKeys.add(normalize(section));
+        }
+        Set<String> keys = new HashSet<>();
+        List<String> changed = new ArrayList<>();
+        for (String section : sections) {
+            String key = normalize(section);
+            keys.add(key);
+            if (!previousKeys.contains(key)) {
+                changed.add(section);
+            }
+        }
+        int removed = 0;
+        for (String key : previousKeys) {
+            if (!keys.contains(key)) {
+                removed++;
+            }
+        }
+
+        List<Set<String>> previousWords = new ArrayList<>(previousSections.size());
+        for (String section : previousSections) {
+            previousWords.add(words(section));
+        }
+        StringBuilder reused = new StringBuilder();
+        List<TestCaseParser.ParsedTestCase> reusedCases = new ArrayList<>();
+        int dropped = 0;
+        for (TestCaseParser.ParsedTestCase testCase : TestCaseParser.parse(previousOutput)) {
+            int section = attribute(testCase, previousWords);
+            if (section >= 0 && !keys.contains(normalize(previousSections.get(section)))) {
+                dropped++;
+                continue;
+            }
+            reusedCases.add(testCase);
+            reused.append(previousOutput, testCase.getStartOffset(), testCase.getEndOffset());
+        }
+        return new Plan(changed, sections.size(), removed, reusedCases, reused.toString().strip(), dropped);
+    }
+
+    /**
+     * Splits a description into requirement-sized sections; sections too short to be a
+     * requirement are left out.
+     */
+    static List<String> splitSections(final String description) {
+        List<String> sections = new ArrayList<>();
+        if (description == null) {
+            return sections;
+        }
+        StringBuilder current = new StringBuilder();
+        for (String line : description.split("\r?\n")) {
+            String trimmed = line.strip();
+            if (trimmed.isEmpty() || startsSection(trimmed)) {
+                addSection(sections, current);
+            }
+            if (!trimmed.isEmpty()) {
+                current.append(current.length() > 0 ? " " : "").append(trimmed);
+            }
+        }
+        addSection(sections, current);
+        return sections;
+    }
+
+    private static void addSection(final List<String> sections, final StringBuilder current) {
+        if (current.length() > 0 && normalize(current.toString()).split(" ").length >= MIN_SECTION_WORDS) {
+            sections.add(current.toString());
+        }
+        current.setLength(0);
+    }
+
+    private static boolean startsSection(final String line) {
+        char first = line.charAt(0);
+        if (first == '-' || first == '*' || first == '#' || first == '\u2022') {
+            return true;
+        }
+        int i = 0;
+        while (i < line.length() && Character.isDigit(line.charAt(i))) {
+            i++;
+        }
+        return i > 0 && i < line.length() && (line.charAt(i) == '.' || line.charAt(i) == ')');
+    }
+
+    /**
+     * Lower-cased words and numbers of a section, without bullets, numbering or punctuation.
+     */
+    static String normalize(final String section) {
+        StringBuilder key = new StringBuilder(section.length());
+        int start = 0;
+        while (start < section.length() && !Character.isLetter(section.charAt(start))) {
+            start++;
+        }
+        boolean space = false;
+        for (int i = start; i < section.length(); i++) {
+            char c = section.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (space && key.length() > 0) {
+                    key.append(' ');
+                }
+                key.append(Character.toLowerCase(c));
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return key.toString();
+    }
+
+    private static Set<String> words(final String text) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : normalize(text).split(" ")) {
+            if (word.length() >= MIN_WORD_LENGTH) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * @return Index of the previous section the test case shares most words with, or -1.
+     */
+    private static int attribute(final TestCaseParser.ParsedTestCase testCase, final List<Set<String>> sectionWords) {
+        StringBuilder text = new StringBuilder(testCase.getTitle());
+        for (String step : testCase.getSteps()) {
+            text.append(' ').append(step);
+        }
+        if (testCase.getExpectedResult() != null) {
+            text.append(' ').append(testCase.getExpectedResult());
+        }
+        Set<String> caseWords = words(text.toString());
+        int best = -1;
+        double bestScore = MIN_ATTRIBUTION_SCORE;
+        for (int i = 0; i < sectionWords.size(); i++) {
+            Set<String> section = sectionWords.get(i);
+            if (section.isEmpty() || caseWords.isEmpty()) {
+                continue;
+            }
+            int shared = 0;
+            for (String word : section) {
+                if (caseWords.contains(word)) {
+                    shared++;
+                }
+            }
+            // Cosine similarity of the word sets, so long sections do not win by size alone
+            double score = shared / Math.sqrt((double) section.size() * caseWords.size());
+            if (score > bestScore) {
+                bestScore = score;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return The Test ID following the highest one in {@code testCases}, e.g. UAT-008 after UAT-007.
+     */
+    static String nextTestId(final List<TestCaseParser.ParsedTestCase> testCases) {
+        String prefix = TestCaseParser.TEST_ID_PREFIX;
+        int width = 3;
+        int max = 0;
+        for (TestCaseParser.ParsedTestCase testCase : testCases) {
+            String code = testCase.getCode();
+            int digits = code.length();
+            while (digits > 0 && Character.isDigit(code.charAt(digits - 1))) {
+                digits--;
+            }
+            if (digits == code.length() || code.length() - digits > 9) {
+                continue;
+            }
+            int number = Integer.parseInt(code.substring(digits));
+            if (number >= max) {
+                max = number;
+                prefix = code.substring(0, digits);
+                width = code.length() - digits;
+            }
+        }
+        return prefix + String.format("%0" + width + "d", max + 1);
+    }
+
+    /**
+     * Outcome of comparing a ticket with its previous version.
+     */
+    public static final class Plan {
+        private final List<String> changedSections;
+        private final int sectionCount;
+        private final int removedSections;
+        private final List<TestCaseParser.ParsedTestCase> reusedTestCases;
+        private final String reusedOutput;
+        private final int droppedTestCases;
+
+        private Plan(final List<String> changedSections, final int sectionCount, final int removedSections,
+                     final List<TestCaseParser.ParsedTestCase> reusedTestCases, final String reusedOutput,
+                     final int droppedTestCases) {
+            this.changedSections = changedSections;
+            this.sectionCount = sectionCount;
+            this.removedSections = removedSections;
+            this.reusedTestCases = reusedTestCases;
+            this.reusedOutput = reusedOutput;
+            this.droppedTestCases = droppedTestCases;
+        }
+
+        /**
+         * @return Sections of the new description that are edited or added, in description order.
+         */
+        public List<String> getChangedSections() {
+            return changedSections;
+        }
+
+        public int getRemovedSections() {
+            return removedSections;
+        }
+
+        /**
+         * @return Header lines ("UAT-001 Title") of the reused test cases.
+         */
+        public List<String> getReusedHeaders() {
+            List<String> headers = new ArrayList<>(reusedTestCases.size());
+            for (TestCaseParser.ParsedTestCase testCase : reusedTestCases) {
+                headers.add(testCase.getCode() + " " + testCase.getTitle());
+            }
+            return headers;
+        }
+
+        public int getReusedTestCaseCount() {
+            return reusedTestCases.size();
+        }
+
+        public int getDroppedTestCases() {
+            return droppedTestCases;
+        }
+
+        /**
+         * @return Share of the new description's sections that need generation, 0 to 1.
+         */
+        public double getChangedRatio() {
+            return sectionCount == 0 ? 1.0 : (double) changedSections.size() / sectionCount;
+        }
+
+        /**
+         * @return True if anything has to be generated or dropped.
+         */
+        public boolean hasChanges() {
+            return !changedSections.isEmpty() || removedSections > 0 || droppedTestCases > 0;
+        }
+
+        /**
+         * @return The Test ID generated test cases should start at.
+         */
+        public String getNextTestId() {
+            return nextTestId(reusedTestCases);
+        }
+
+        /**
+         * @param generated Output generated for the changed sections; may be null.
+         * @return The reused test cases followed by the generated ones.
+         */
+        public String merge(final String generated) {
+            if (generated == null || generated.isBlank()) {
+                return reusedOutput + "\n";
+            }
+            List<TestCaseParser.ParsedTestCase> cases = TestCaseParser.parse(generated);
+            String fromFirst = cases.isEmpty() ? generated : generated.substring(cases.get(0).getStartOffset());
+            return reusedOutput.isEmpty() ? fromFirst : reusedOutput + "\n\n" + fromFirst.strip() + "\n";
+        }
+    }
+}
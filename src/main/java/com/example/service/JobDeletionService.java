@@ -0,0 +1,132 @@
+package com.example.service;
+
+import com.example.dto.JobDeletionResultDto;
+import com.example.event.JobEventBus;
+import com.example.model.TestGenerationJob;
+import com.example.repository.JobLogRepository;
+import com.example.repository.JobSummaryView;
+import com.example.repository.TestCaseRepository;
+import com.example.repository.TestGenerationJobRepository;
+import com.example.services.JobLogService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Deletes jobs together with their logs, test cases and steps using one set-based DELETE per table,
+ * and removes them from the caches and indexes that refer to them. Backs single and multi-job
+ * deletes as well as the {@link JobRetentionSweeper}. Hibernate clears the finished-job region of the
+ * second-level cache after each bulk DELETE on the jobs table.
+ *
+ * <p>The job rows are locked first, so no job can be claimed by a worker while its children are
+ * being deleted. Caches, indexes, event streams and log files are only cleaned up once the
+ * transaction has committed; a failed delete leaves them untouched.</p>
+ */
+@Service
+public class JobDeletionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobDeletionService.class);
+
+    private final TestGenerationJobRepository testGenerationRepository;
+    private final JobLogRepository jobLogRepository;
+    private final JobLogService jobLogService;
+    private final TestCaseRepository testCaseRepository;
+    private final SemanticReuseService semanticReuseService;
+    private final JobSearchService jobSearchService;
+    private final JobStatusCache jobStatusCache;
+    private final JobEventBus jobEventBus;
+
+    @Autowired
+    public JobDeletionService(
+            final TestGenerationJobRepository testGenerationRepository,
+            final JobLogRepository jobLogRepository,
+            final JobLogService jobLogService,
+            final TestCaseRepository testCaseRepository,
+            final SemanticReuseService semanticReuseService,
+            final JobSearchService jobSearchService,
+            final JobStatusCache jobStatusCache,
+            final JobEventBus jobEventBus) {
+        this.testGenerationRepository = testGenerationRepository;
+        this.jobLogRepository = jobLogRepository;
+        this.jobLogService = jobLogService;
+        this.testCaseRepository = testCaseRepository;
+        this.semanticReuseService = semanticReuseService;
+        this.jobSearchService = jobSearchService;
+        this.jobStatusCache = jobStatusCache;
+        this.jobEventBus = jobEventBus;
+    }
+
+    /**
+     * Deletes the given jobs in one transaction. Jobs that are IN_PROGRESS are skipped.
+     *
+     * @param jobIds The job IDs; keep them to at most 1000, Oracle's limit for an IN list.
+     * @return Which IDs were deleted, not found or skipped.
+     */
+    @Transactional
+    public JobDeletionResultDto deleteJobs(final Collection<Long> jobIds) {
+        Set<Long> requested = new LinkedHashSet<>(jobIds);
+        List<Long> deletable = new ArrayList<>();
+        List<Long> inProgress = new ArrayList<>();
+        // Locked until commit: a PENDING job cannot turn IN_PROGRESS while it is being deleted
+        for (JobSummaryView job : testGenerationRepository.findForUpdateByIdIn(requested)) {
+            if (job.getStatus() == TestGenerationJob.JobStatus.IN_PROGRESS) {
+                inProgress.add(job.getId());
+            } else {
+                deletable.add(job.getId());
+            }
+        }
+        List<Long> notFound = new ArrayList<>(requested);
+        notFound.removeAll(deletable);
+        notFound.removeAll(inProgress);
+        if (deletable.isEmpty()) {
+            return new JobDeletionResultDto(deletable, notFound, inProgress);
+        }
+
+        int steps = testCaseRepository.deleteStepsByJobIds(deletable);
+        int testCases = testCaseRepository.deleteByJobIds(deletable);
+        int logs = jobLogRepository.deleteByJobIds(deletable);
+        int jobs = testGenerationRepository.deleteNotInProgress(deletable);
+        if (jobs != deletable.size()) {
+            // Only possible if a row lock was not honoured; roll back rather than orphan job rows
+            throw new IllegalStateException("Deleted " + jobs + " of " + deletable.size()
+                    + " locked jobs; jobs changed while being deleted");
+        }
+        logger.info("Deleted {} jobs with {} logs, {} test cases and {} steps", jobs, logs, testCases, steps);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cleanUpDeletedJobs(deletable);
+            }
+        });
+        return new JobDeletionResultDto(deletable, notFound, inProgress);
+    }
+
+    /**
+     * Drops deleted jobs from everything outside the database. Runs after commit, when the delete
+     * can no longer be rolled back; a failure here is logged, not reported to the caller.
+     */
+    private void cleanUpDeletedJobs(final List<Long> deleted) {
+        try {
+            for (Long jobId : deleted) {
+                semanticReuseService.remove(jobId);
+                jobStatusCache.evict(jobId);
+                jobEventBus.closeJob(jobId);
+            }
+            jobLogService.deleteLogs(deleted);
+            jobSearchService.onJobsDeleted(deleted);
+        } catch (RuntimeException e) {
+            logger.error("Cleaning up after deleting jobs {} failed: {}", deleted, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.service;
+
+import com.example.dto.JobSearchCriteria;
+import com.example.repository.JobExportView;
+import com.example.repository.TestGenerationJobRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes the results of all jobs matching a filter to a stream, one job at a time.
+ *
+ * <p>Jobs are read through a database cursor and each job's output is parsed and written before
+ * the next row is fetched, so memory use does not grow with the number of jobs exported.</p>
+ */
+@Service
+public class JobExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobExportService.class);
+    // Push written rows to the client regularly instead of only when the buffer fills
+    private static final int FLUSH_EVERY_JOBS = 100;
+
+    private final TestGenerationJobRepository testGenerationJobRepository;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public JobExportService(final TestGenerationJobRepository testGenerationJobRepository,
+                            final ObjectMapper objectMapper) {
+        this.testGenerationJobRepository = testGenerationJobRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Export formats.
+     * <ul>
+     *   <li>{@code csv}: one row per test case, steps numbered and separated by line breaks.</li>
+     *   <li>{@code jsonl}: one JSON object per job with its status, parsed test cases and raw output.</li>
+     *   <li>{@code xray}: Xray Test Case Importer CSV, one row per step grouped by Test ID.</li>
+     * </ul>
+     * CSV formats only contain jobs that have output; JSON Lines contains every matching job.
+     */
+    public enum Format {
+        CSV("text/csv", "csv"),
+        JSONL("application/x-ndjson", "jsonl"),
+        XRAY("text/csv", "xray.csv");
+
+        private final String contentType;
+        private final String fileExtension;
+
+        Format(final String contentType, final String fileExtension) {
+            this.contentType = contentType;
+            this.fileExtension = fileExtension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getFileExtension() {
+            return fileExtension;
+        }
+
+        /**
+         * @param value The {@code format} request parameter, case-insensitive; null means CSV.
+         * @return The matching format.
+         * @throws IllegalArgumentException for unknown formats.
+         */
+        public static Format fromParameter(final String value) {
+            if (value == null || value.isBlank()) {
+                return CSV;
+            }
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value.trim())) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unknown export format '" + value + "'; use csv, jsonl or xray");
+        }
+    }
+
+    /**
+     * Streams the matching jobs to {@code out} in the given format. Cursor and paging fields of
+     * the criteria are ignored. Must be called through the Spring proxy so the cursor is read
+     * inside a read-only transaction.
+     *
+     * @param criteria Listing filters (status, ticket, component, creation window).
+     * @param format   Output format.
+     * @param out      Target stream; flushed but not closed.
+     * @return The number of jobs written.
+     * @throws IOException if writing to the client fails.
+     */
+    @Transactional(readOnly = true)
+    public long export(final JobSearchCriteria criteria, final Format format, final OutputStream out) throws IOException {
+        String componentPattern = criteria.getComponent() == null || criteria.getComponent().isBlank()
+                ? null : "%" + criteria.getComponent().trim() + "%";
+        long started = System.nanoTime();
+        try (Stream<JobExportView> jobs = testGenerationJobRepository.streamForExport(criteria.getStatus(),
+                criteria.getJiraTicket(), componentPattern, criteria.getCreatedFrom(), criteria.getCreatedTo())) {
+            long written = write(jobs.iterator(), format, out);
+            logger.info("Exported {} jobs as {} in {} ms", written, format, (System.nanoTime() - started) / 1_000_000);
+            return written;
+        }
+    }
+
+    long write(final Iterator<JobExportView> jobs, final Format format, final OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        JsonGenerator json = null;
+        if (format == Format.JSONL) {
+            json = objectMapper.getFactory().createGenerator(writer);
+            // Lines are separated by hand; flushing the generator must not flush the socket per job
+            json.setRootValueSeparator(null);
+            json.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        }
+        if (format == Format.CSV) {
+            writeCsvRow(writer, "job_id", "jira_ticket", "components", "test_id", "title", "steps",
+                    "expected_result", "malformed", "problems");
+        } else if (format == Format.XRAY) {
+            writeCsvRow(writer, "Test ID", "Summary", "Description", "Test Type", "Labels",
+                    "Action", "Data", "Expected Result");
+        }
+        long count = 0;
+        while (jobs.hasNext()) {
+            JobExportView job = jobs.next();
+            switch (format) {
+                case CSV -> writeCsv(writer, job);
+                case JSONL -> writeJsonLine(json, writer, job);
+                case XRAY -> writeXray(writer, job);
+            }
+            if (++count % FLUSH_EVERY_JOBS == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsv(final Writer writer, final JobExportView job) throws IOException {
+        if (job.getTestResult() == null) {
+            return;
+        }
+        for (TestCaseParser.ParsedTestCase testCase : TestCaseParser.parse(job.getTestResult())) {
+            StringBuilder steps = new StringBuilder();
+            List<String> stepList = testCase.getSteps();
+            for (int i = 0; i < stepList.size(); i++) {
+                if (i > 0) {
+                    steps.append('\n');
+                }
+                steps.append(i + 1).append(". ").append(stepList.get(i));
+            }
+            writeCsvRow(writer, String.valueOf(job.getId()), job.getJiraTicket(), job.getComponents(),
+                    testCase.getCode(), testCase.getTitle(), steps.toString(), testCase.getExpectedResult(),
+                    String.valueOf(testCase.isMalformed()), testCase.getProblems());
+        }
+    }
+
+    private static void writeXray(final Writer writer, final JobExportView job) throws IOException {
+        if (job.getTestResult() == null) {
+            return;
+        }
+        String description = "Generated from " + (job.getJiraTicket() != null ? job.getJiraTicket() : "ticket")
+                + " (job " + job.getId() + ")";
+        String labels = job.getComponents() != null
+                ? job.getComponents().trim().replaceAll("\\s*,\\s*", ",").replaceAll("\\s+", "_") : null;
+        int position = 0;
+        for (TestCaseParser.ParsedTestCase testCase : TestCaseParser.parse(job.getTestResult())) {
+            String testId = job.getId() + "-" + (++position);
+            String summary = testCase.getCode() + " " + testCase.getTitle();
+            List<String> steps = testCase.getSteps();
+            if (steps.isEmpty()) {
+                writeCsvRow(writer, testId, summary, description, "Manual", labels,
+                        null, null, testCase.getExpectedResult());
+                continue;
+            }
+            for (int i = 0; i < steps.size(); i++) {
+                boolean first = i == 0;
+                boolean last = i == steps.size() - 1;
+                // Xray reads Summary and the other issue fields from the first row of each Test ID
+                writeCsvRow(writer, testId, first ? summary : null, first ? description : null,
+                        first ? "Manual" : null, first ? labels : null,
+                        steps.get(i), null, last ? testCase.getExpectedResult() : null);
+            }
+        }
+    }
+
+    private static void writeJsonLine(final JsonGenerator json, final Writer writer, final JobExportView job)
+            throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", job.getId());
+        json.writeStringField("jiraTicket", job.getJiraTicket());
+        json.writeStringField("components", job.getComponents());
+        json.writeStringField("status", job.getStatus() != null ? job.getStatus().name() : null);
+        json.writeStringField("createdAt", job.getCreatedAt() != null ? job.getCreatedAt().toString() : null);
+        json.writeStringField("completedAt", job.getCompletedAt() != null ? job.getCompletedAt().toString() : null);
+        json.writeStringField("errorMessage", job.getErrorMessage());
+        json.writeArrayFieldStart("testCases");
+        if (job.getTestResult() != null) {
+            for (TestCaseParser.ParsedTestCase testCase : TestCaseParser.parse(job.getTestResult())) {
+                json.writeStartObject();
+                json.writeStringField("code", testCase.getCode());
+                json.writeStringField("title", testCase.getTitle());
+                json.writeArrayFieldStart("steps");
+                for (String step : testCase.getSteps()) {
+                    json.writeString(step);
+                }
+                json.writeEndArray();
+                json.writeStringField("expectedResult", testCase.getExpectedResult());
+                json.writeBooleanField("malformed", testCase.isMalformed());
+                json.writeStringField("problems", testCase.getProblems());
+                json.writeEndObject();
+            }
+        }
+        json.writeEndArray();
+        json.writeStringField("testResult", job.getTestResult());
+        json.writeEndObject();
+        json.flush();
+        writer.write('\n');
+    }
+
+    private static void writeCsvRow(final Writer writer, final String... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvValue(writer, values[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    private static void writeCsvValue(final Writer writer, final String rawValue) throws IOException {
+        if (rawValue == null || rawValue.isEmpty()) {
+            return;
+        }
+        // Spreadsheets run cells starting with these as formulas; the text comes from the model and
+        // the ticket, so keep it text (OWASP CSV injection)
+        char first = rawValue.charAt(0);
+        String value = first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r'
+                ? "'" + rawValue : rawValue;
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
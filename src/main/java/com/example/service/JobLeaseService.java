@@ -0,0 +1,204 @@
+package com.example.service;
+
+import com.example.exception.JobNotFoundException;
+import com.example.model.TestGenerationJob;
+import com.example.repository.TestGenerationJobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ownership of IN_PROGRESS jobs across instances ({@code app.recovery.lease}).
+ *
+ * <p>A worker claims a PENDING job under a row lock, so a job queued on several instances after a
+ * restart still runs once. The claim holds a lease that the worker's instance keeps renewing; when
+ * the instance dies the lease runs out and any instance may put the job back to PENDING.</p>
+ *
+ * <p>Each claim gets a token. A worker may renew, complete, fail or release its job only while
+ * the row still carries its token, so a worker whose lease ran out and whose job was claimed
+ * again elsewhere cannot overwrite the new owner's result.</p>
+ */
+@Service
+public class JobLeaseService {
+
+    private final TestGenerationJobRepository testGenerationRepository;
+    private final WebhookService webhookService;
+    private final Duration lease;
+    // Tokens of the claims made by this instance's workers, by job ID
+    private final Map<Long, String> heldTokens = new ConcurrentHashMap<>();
+
+    @Autowired
+    public JobLeaseService(
+            final TestGenerationJobRepository testGenerationRepository,
+            final WebhookService webhookService,
+            @Value("${app.recovery.lease:2m}") final Duration lease) {
+        this.testGenerationRepository = testGenerationRepository;
+        this.webhookService = webhookService;
+        this.lease = lease;
+    }
+
+    /**
+     * Moves a PENDING job to IN_PROGRESS for the calling worker.
+     *
+     * @param jobId The job ID.
+     * @return The claimed job, or null if it is no longer PENDING (claimed elsewhere, or finished).
+     * @throws JobNotFoundException if the job does not exist.
+     */
+    @Transactional
+    public TestGenerationJob claim(final Long jobId) {
+        TestGenerationJob job = testGenerationRepository.findByIdForUpdate(jobId)
+                .orElseThrow(() -> new JobNotFoundException("Job not found with id: " + jobId));
+        if (job.getStatus() != TestGenerationJob.JobStatus.PENDING) {
+            return null;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        String token = UUID.randomUUID().toString();
+        job.setStatus(TestGenerationJob.JobStatus.IN_PROGRESS);
+        job.setStartedAt(now);
+        job.setLeaseExpiresAt(now.plus(lease));
+        job.setLeaseToken(token);
+        heldTokens.put(jobId, token);
+        return job;
+    }
+
+    /**
+     * Extends the leases of the jobs this instance is processing.
+     *
+     * @param jobIds IDs of the running jobs.
+     */
+    @Transactional
+    public void renew(final Collection<Long> jobIds) {
+        if (jobIds.isEmpty()) {
+            return;
+        }
+        LocalDateTime until = LocalDateTime.now().plus(lease);
+        for (TestGenerationJob job : testGenerationRepository.findAllById(jobIds)) {
+            if (isHeld(job)) {
+                job.setLeaseExpiresAt(until);
+            }
+        }
+    }
+
+    /**
+     * Saves a job its worker has completed, unless the worker no longer holds it, and records its
+     * completion callback in the same transaction.
+     *
+     * @param job The job with its result and COMPLETED status set.
+     * @return The saved job, or null if the job was released or claimed by another worker meanwhile.
+     */
+    @Transactional
+    public TestGenerationJob complete(final TestGenerationJob job) {
+        TestGenerationJob current = testGenerationRepository.findByIdForUpdate(job.getId()).orElse(null);
+        boolean held = current != null && isHeld(current);
+        heldTokens.remove(job.getId());
+        if (!held) {
+            return null;
+        }
+        job.setLeaseExpiresAt(null);
+        job.setLeaseToken(null);
+        job.setCheckpoint(null);
+        TestGenerationJob saved = testGenerationRepository.save(job);
+        webhookService.enqueueCompletion(saved);
+        return saved;
+    }
+
+    /**
+     * Marks a job FAILED, unless its worker no longer holds it, and records its completion callback
+     * in the same transaction.
+     *
+     * @param jobId The job ID.
+     * @param errorMessage The reason, already shortened to fit the column.
+     * @param progress The worker's copy of the job, whose generation mode and LLM phase timestamps
+     *                 are saved on the locked row; null if the job failed before it was claimed.
+     * @return The failed job, or null if the job was released or claimed by another worker meanwhile.
+     * @throws JobNotFoundException if the job does not exist.
+     */
+    @Transactional
+    public TestGenerationJob fail(final Long jobId, final String errorMessage, final TestGenerationJob progress) {
+        TestGenerationJob job = testGenerationRepository.findByIdForUpdate(jobId)
+                .orElseThrow(() -> new JobNotFoundException("Attempted to fail non-existent job: " + jobId));
+        boolean held = isHeld(job);
+        heldTokens.remove(jobId);
+        if (!held) {
+            return null;
+        }
+        if (progress != null) {
+            job.setGenerationMode(progress.getGenerationMode());
+            job.setLlmStartedAt(progress.getLlmStartedAt());
+            job.setLlmFinishedAt(progress.getLlmFinishedAt());
+        }
+        job.setStatus(TestGenerationJob.JobStatus.FAILED);
+        job.setErrorMessage(errorMessage);
+        job.setCompletedAt(LocalDateTime.now());
+        job.setLeaseExpiresAt(null);
+        job.setLeaseToken(null);
+        job.setCheckpoint(null);
+        webhookService.enqueueCompletion(job);
+        return job;
+    }
+
+    /**
+     * Puts a job held by one of this instance's workers back to PENDING.
+     *
+     * @param jobId The job ID.
+     * @param checkpoint Output to continue from, or null to keep the job's current checkpoint.
+     * @return The job as released, or null if this instance no longer holds it or it does not exist.
+     */
+    @Transactional
+    public TestGenerationJob release(final Long jobId, final String checkpoint) {
+        TestGenerationJob job = testGenerationRepository.findByIdForUpdate(jobId).orElse(null);
+        boolean held = job != null && isHeld(job);
+        heldTokens.remove(jobId);
+        if (!held) {
+            return null;
+        }
+        return toPending(job, checkpoint);
+    }
+
+    /**
+     * Puts IN_PROGRESS jobs whose lease ran out back to PENDING.
+     *
+     * @param limit Maximum number of jobs released per call.
+     * @return The released jobs.
+     */
+    @Transactional
+    public List<TestGenerationJob> releaseExpired(final int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<TestGenerationJob> released = new ArrayList<>();
+        for (Long jobId : testGenerationRepository.findIdsWithExpiredLease(now, PageRequest.of(0, limit))) {
+            TestGenerationJob job = testGenerationRepository.findByIdForUpdate(jobId).orElse(null);
+            // Checked again under the lock: the owner may have renewed it in the meantime
+            if (job != null && job.getStatus() == TestGenerationJob.JobStatus.IN_PROGRESS
+                    && (job.getLeaseExpiresAt() == null || job.getLeaseExpiresAt().isBefore(now))) {
+                released.add(toPending(job, null));
+            }
+        }
+        return released;
+    }
+
+    private boolean isHeld(final TestGenerationJob job) {
+        return job.getStatus() == TestGenerationJob.JobStatus.IN_PROGRESS
+                && job.getLeaseToken() != null && job.getLeaseToken().equals(heldTokens.get(job.getId()));
+    }
+
+    private static TestGenerationJob toPending(final TestGenerationJob job, final String checkpoint) {
+        job.setStatus(TestGenerationJob.JobStatus.PENDING);
+        job.setLeaseExpiresAt(null);
+        job.setLeaseToken(null);
+        if (checkpoint != null) {
+            job.setCheckpoint(checkpoint);
+        }
+        return job;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.service;
+
+import com.example.model.TestGenerationJob;
+import com.example.repository.JobStatusCountView;
+import com.example.repository.TestGenerationJobRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters for the generation pipeline.
+ *
+ * <p>All meters are registered once up front and kept in enum maps, so recording on the hot path
+ * is a map lookup plus the timer itself, with no registry lookup or tag allocation per call.
+ * The jobs-by-status gauges read one grouped count query, cached for
+ * {@code app.metrics.status-count-ttl} so frequent scrapes do not load the database.</p>
+ */
+@Component
+public class JobMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobMetrics.class);
+
+    /**
+     * Kinds of job persistence timed by {@code job.persistence}.
+     */
+    public enum PersistOperation {
+        CREATE,
+        STATUS,
+        RESULT,
+        LOG
+    }
+
+    /**
+     * Failure causes counted by {@code job.failures}.
+     */
+    public enum FailureCause {
+        GENERATION,
+        NOT_FOUND,
+        UNEXPECTED
+    }
+
+    /**
+     * Why a job completed without a generation call, counted by {@code llm.calls.avoided}.
+     */
+    public enum AvoidedCallReason {
+        // Edited ticket whose changes did not touch any requirement section
+        UNCHANGED,
+        // Result copied from a near-duplicate ticket found by embedding
+        SIMILAR
+    }
+
+    private final TestGenerationJobRepository testGenerationJobRepository;
+    private final long statusCountTtlNanos;
+    private final Map<PersistOperation, Timer> persistTimers = new EnumMap<>(PersistOperation.class);
+    private final Map<FailureCause, Counter> failureCounters = new EnumMap<>(FailureCause.class);
+    private final Map<AvoidedCallReason, Counter> avoidedCallCounters = new EnumMap<>(AvoidedCallReason.class);
+
+    private Map<TestGenerationJob.JobStatus, Long> statusCounts = new EnumMap<>(TestGenerationJob.JobStatus.class);
+    private long statusCountsLoadedAtNanos;
+    private boolean statusCountsLoaded;
+
+    @Autowired
+    public JobMetrics(
+            final MeterRegistry meterRegistry,
+            final TestGenerationJobRepository testGenerationJobRepository,
+            @Value("${app.metrics.status-count-ttl:15s}") final Duration statusCountTtl) {
+        this.testGenerationJobRepository = testGenerationJobRepository;
+        this.statusCountTtlNanos = statusCountTtl.toNanos();
+        for (PersistOperation operation : PersistOperation.values()) {
+            persistTimers.put(operation, Timer.builder("job.persistence")
+                    .description("Time spent writing job state and logs to the database")
+                    .tag("operation", operation.name().toLowerCase(Locale.ROOT))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        for (FailureCause cause : FailureCause.values()) {
+            failureCounters.put(cause, Counter.builder("job.failures")
+                    .description("Jobs that ended FAILED, by cause")
+                    .tag("cause", cause.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        for (AvoidedCallReason reason : AvoidedCallReason.values()) {
+            avoidedCallCounters.put(reason, Counter.builder("llm.calls.avoided")
+                    .description("Jobs completed from earlier results without calling the LLM, by reason")
+                    .tag("reason", reason.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        for (TestGenerationJob.JobStatus status : TestGenerationJob.JobStatus.values()) {
+            Gauge.builder("jobs.by.status", this, metrics -> metrics.countFor(status))
+                    .description("Jobs currently in each status")
+                    .tag("status", status.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Runs a persistence call and records its duration.
+     *
+     * @param operation What is being persisted.
+     * @param call The repository call.
+     * @return The call's result.
+     */
+    public <T> T timePersistence(final PersistOperation operation, final Supplier<T> call) {
+        return persistTimers.get(operation).record(call);
+    }
+
+    /**
+     * Counts a job failure.
+     *
+     * @param cause Why the job failed.
+     */
+    public void recordFailure(final FailureCause cause) {
+        failureCounters.get(cause).increment();
+    }
+
+    /**
+     * Counts a job that completed without a generation call.
+     *
+     * @param reason Where its result came from.
+     */
+    public void recordLlmCallAvoided(final AvoidedCallReason reason) {
+        avoidedCallCounters.get(reason).increment();
+    }
+
+    private synchronized double countFor(final TestGenerationJob.JobStatus status) {
+        long now = System.nanoTime();
+        if (!statusCountsLoaded || now - statusCountsLoadedAtNanos > statusCountTtlNanos) {
+            try {
+                Map<TestGenerationJob.JobStatus, Long> counts = new EnumMap<>(TestGenerationJob.JobStatus.class);
+                for (JobStatusCountView row : testGenerationJobRepository.countByStatus()) {
+                    counts.put(row.getStatus(), row.getJobCount());
+                }
+                statusCounts = counts;
+                statusCountsLoaded = true;
+            } catch (Exception e) {
+                // Keep serving the last counts; the next scrape retries
+                logger.debug("Could not refresh job status counts: {}", e.getMessage());
+            }
+            statusCountsLoadedAtNanos = now;
+        }
+        return statusCounts.getOrDefault(status, 0L);
+    }
+}
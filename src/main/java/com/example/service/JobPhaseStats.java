@@ -0,0 +1,110 @@
+package com.example.service;
+
+import com.example.dto.JobStatsDto;
+import com.example.dto.PhaseStatsDto;
+import com.example.model.TestGenerationJob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Rolling latency percentiles per job phase and throughput, kept in memory per instance.
+ *
+ * <p>Phases are derived from the job's timestamps when it finishes:
+ * queue ({@code createdAt → startedAt}), llm-wait ({@code startedAt → llmStartedAt}, mostly
+ * waiting for an LLM slot), llm ({@code llmStartedAt → llmFinishedAt}), finalize
+ * ({@code llmFinishedAt → completedAt}) and total ({@code createdAt → completedAt}).
+ * Only completed jobs feed the phase histograms; failed jobs are counted for throughput.</p>
+ */
+@Component
+public class JobPhaseStats {
+
+    /**
+     * Job lifecycle phases with a latency histogram.
+     */
+    public enum Phase {
+        QUEUE,
+        LLM_WAIT,
+        LLM,
+        FINALIZE,
+        TOTAL
+    }
+
+    private final Map<Phase, RollingHistogram> histograms = new EnumMap<>(Phase.class);
+    private final RollingHistogram failures;
+    private final Duration window;
+
+    @Autowired
+    public JobPhaseStats(
+            @Value("${app.stats.window:10m}") final Duration window,
+            @Value("${app.stats.slices:30}") final int slices) {
+        this(window, slices, System::nanoTime);
+    }
+
+    JobPhaseStats(final Duration window, final int slices, final LongSupplier nanoClock) {
+        this.window = window;
+        for (Phase phase : Phase.values()) {
+            histograms.put(phase, new RollingHistogram(window.toNanos(), slices, nanoClock));
+        }
+        this.failures = new RollingHistogram(window.toNanos(), slices, nanoClock);
+    }
+
+    /**
+     * Records the phase durations of a job that reached COMPLETED.
+     *
+     * @param job The completed job with its phase timestamps.
+     */
+    public void recordCompleted(final TestGenerationJob job) {
+        recordPhase(Phase.QUEUE, job.getCreatedAt(), job.getStartedAt());
+        recordPhase(Phase.LLM_WAIT, job.getStartedAt(), job.getLlmStartedAt());
+        recordPhase(Phase.LLM, job.getLlmStartedAt(), job.getLlmFinishedAt());
+        recordPhase(Phase.FINALIZE, job.getLlmFinishedAt(), job.getCompletedAt());
+        recordPhase(Phase.TOTAL, job.getCreatedAt(), job.getCompletedAt());
+    }
+
+    /**
+     * Records a job that reached FAILED, and the LLM wait and call phases it got through: a call
+     * that timed out or errored counts towards LLM latency as much as one that succeeded.
+     *
+     * @param job The failed job.
+     */
+    public void recordFailed(final TestGenerationJob job) {
+        recordPhase(Phase.LLM_WAIT, job.getStartedAt(), job.getLlmStartedAt());
+        recordPhase(Phase.LLM, job.getLlmStartedAt(), job.getLlmFinishedAt());
+        failures.record(millisBetween(job.getCreatedAt(), job.getCompletedAt()));
+    }
+
+    /**
+     * @return Percentiles per phase and throughput over the window.
+     */
+    public JobStatsDto getStats() {
+        Map<String, PhaseStatsDto> phases = new LinkedHashMap<>();
+        for (Phase phase : Phase.values()) {
+            RollingHistogram.Snapshot snapshot = histograms.get(phase).snapshot();
+            phases.put(phase.name().toLowerCase(Locale.ROOT), new PhaseStatsDto(snapshot.getCount(),
+                    snapshot.percentile(0.50), snapshot.percentile(0.95), snapshot.percentile(0.99), snapshot.getMax()));
+        }
+        double windowMinutes = window.toMillis() / 60_000d;
+        long completed = histograms.get(Phase.TOTAL).snapshot().getCount();
+        long failed = failures.snapshot().getCount();
+        return new JobStatsDto(window.toString(), phases, completed / windowMinutes, failed / windowMinutes);
+    }
+
+    private void recordPhase(final Phase phase, final LocalDateTime from, final LocalDateTime to) {
+        if (from != null && to != null) {
+            histograms.get(phase).record(Duration.between(from, to).toMillis());
+        }
+    }
+
+    private static long millisBetween(final LocalDateTime from, final LocalDateTime to) {
+        return from != null && to != null ? Duration.between(from, to).toMillis() : 0;
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.service;
+
+import com.example.model.TestGenerationJob;
+import com.example.repository.TestGenerationJobRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps jobs from getting lost or stuck across restarts ({@code app.recovery.*}).
+ * <ul>
+ *   <li>On shutdown, once the web server has finished its requests, the job scheduler is drained:
+ *       queued jobs stay PENDING, running jobs get {@code grace-period} to finish, and the rest are
+ *       interrupted and put back to PENDING with the output streamed so far as a checkpoint. The drain
+ *       runs off the shutdown thread and must fit {@code spring.lifecycle.timeout-per-shutdown-phase},
+ *       which is checked at startup.</li>
+ *   <li>On startup, PENDING jobs left by earlier runs are queued again.</li>
+ *   <li>A heartbeat renews the leases of the jobs running here and puts IN_PROGRESS jobs whose
+ *       lease ran out, because their instance was killed, back into the queue.</li>
+ * </ul>
+ */
+@Service
+public class JobRecoveryService implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobRecoveryService.class);
+    // Stopped right after the web server's graceful shutdown, so no request is still submitting jobs
+    private static final int PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1;
+    private static final int LOAD_CHUNK_SIZE = 500;
+    private static final int RELEASE_BATCH_SIZE = 100;
+
+    private final TestGenerationJobRepository testGenerationRepository;
+    private final TestGenerationService testGenerationService;
+    private final JobLeaseService jobLeaseService;
+    private final FairJobScheduler jobScheduler;
+    private final Duration gracePeriod;
+    private final Map<String, Counter> recoveredCounters = new HashMap<>();
+    private volatile boolean running;
+
+    @Autowired
+    public JobRecoveryService(
+            final TestGenerationJobRepository testGenerationRepository,
+            final TestGenerationService testGenerationService,
+            final JobLeaseService jobLeaseService,
+            final FairJobScheduler jobScheduler,
+            final MeterRegistry meterRegistry,
+            @Value("${app.recovery.grace-period:8s}") final Duration gracePeriod,
+            @Value("${spring.lifecycle.timeout-per-shutdown-phase:30s}") final Duration shutdownPhaseTimeout) {
+        Duration drainBudget = gracePeriod.plus(FairJobScheduler.INTERRUPT_TIMEOUT);
+        if (drainBudget.compareTo(shutdownPhaseTimeout) >= 0) {
+            throw new IllegalStateException("app.recovery.grace-period (" + gracePeriod + ") plus the "
+                    + FairJobScheduler.INTERRUPT_TIMEOUT + " interrupt wait must be shorter than "
+                    + "spring.lifecycle.timeout-per-shutdown-phase (" + shutdownPhaseTimeout + ")");
+        }
+        this.testGenerationRepository = testGenerationRepository;
+        this.testGenerationService = testGenerationService;
+        this.jobLeaseService = jobLeaseService;
+        this.jobScheduler = jobScheduler;
+        this.gracePeriod = gracePeriod;
+        for (String reason : List.of("pending", "expired_lease", "interrupted")) {
+            recoveredCounters.put(reason, Counter.builder("jobs.recovered")
+                    .description("Jobs put back in the queue after a shutdown or a lost worker")
+                    .tag("reason", reason)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Queues the PENDING jobs created before this instance started: jobs drained by the instance it
+     * replaces, or lost with a crashed one. A job queued on several instances still runs once.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverPendingJobs() {
+        List<Long> jobIds = testGenerationRepository.findIdsCreatedBefore(
+                TestGenerationJob.JobStatus.PENDING, LocalDateTime.now(), Pageable.unpaged());
+        int queued = 0;
+        for (int from = 0; from < jobIds.size(); from += LOAD_CHUNK_SIZE) {
+            List<TestGenerationJob> jobs = new ArrayList<>(testGenerationRepository.findAllById(
+                    jobIds.subList(from, Math.min(from + LOAD_CHUNK_SIZE, jobIds.size()))));
+            // Oldest first, as they were submitted
+            jobs.sort(Comparator.comparing(TestGenerationJob::getCreatedAt).thenComparing(TestGenerationJob::getId));
+            for (TestGenerationJob job : jobs) {
+                if (job.getStatus() == TestGenerationJob.JobStatus.PENDING) {
+                    testGenerationService.resumeJob(job);
+                    queued++;
+                }
+            }
+        }
+        if (queued > 0) {
+            logger.info("Queued {} PENDING jobs left by earlier runs", queued);
+            recoveredCounters.get("pending").increment(queued);
+        }
+    }
+
+    /**
+     * Renews the leases of the jobs running here, then requeues jobs whose worker has disappeared.
+     * Keep the interval well below {@code app.recovery.lease}.
+     */
+    @Scheduled(fixedDelayString = "${app.recovery.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        if (!running) {
+            return;
+        }
+        jobLeaseService.renew(jobScheduler.getRunningJobIds());
+        for (TestGenerationJob job : jobLeaseService.releaseExpired(RELEASE_BATCH_SIZE)) {
+            logger.warn("Job {} started at {} lost its worker (lease expired); queueing it again",
+                    job.getId(), job.getStartedAt());
+            recoveredCounters.get("expired_lease").increment();
+            testGenerationService.resumeJob(job);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    /**
+     * Drains the job scheduler on its own thread and signals the lifecycle processor when done, so
+     * the wait is bounded by the shutdown phase timeout rather than holding the shutdown thread.
+     */
+    @Override
+    public void stop(final Runnable callback) {
+        running = false;
+        Thread drainThread = new Thread(() -> {
+            try {
+                stop();
+            } finally {
+                callback.run();
+            }
+        }, "JobDrain");
+        drainThread.start();
+    }
+
+    /**
+     * Drains the job scheduler. Blocks for up to the grace period plus the time interrupted workers
+     * take to put their jobs back.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        List<Long> interrupted = jobScheduler.drain(gracePeriod);
+        // Workers normally put their own job back; this covers the ones that did not stop in time
+        for (Long jobId : interrupted) {
+            testGenerationService.returnToPending(jobId);
+        }
+        if (!interrupted.isEmpty()) {
+            recoveredCounters.get("interrupted").increment(interrupted.size());
+        }
+        logger.info("Job scheduler drained; {} interrupted jobs returned to PENDING", interrupted.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
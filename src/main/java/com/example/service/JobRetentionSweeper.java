@@ -0,0 +1,129 @@
+package com.example.service;
+
+import com.example.dto.JobDeletionResultDto;
+import com.example.model.TestGenerationJob;
+import com.example.repository.TestGenerationJobRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Deletes COMPLETED and FAILED jobs older than their configured retention ({@code app.retention.*}).
+ *
+ * <p>Each sweep walks the (status, created_at) index oldest first and deletes through
+ * {@link JobDeletionService} in chunks of {@code chunk-size} jobs, one short transaction per chunk,
+ * pausing between chunks so live requests get the database in between. A sweep stops after
+ * {@code max-sweep-duration}; the rest is picked up by the next one.</p>
+ */
+@Service
+public class JobRetentionSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobRetentionSweeper.class);
+    // Oracle rejects IN lists longer than this
+    private static final int MAX_CHUNK_SIZE = 1000;
+
+    private final TestGenerationJobRepository testGenerationRepository;
+    private final JobDeletionService jobDeletionService;
+    private final boolean enabled;
+    private final Map<TestGenerationJob.JobStatus, Duration> maxAges = new EnumMap<>(TestGenerationJob.JobStatus.class);
+    private final int chunkSize;
+    private final Duration pauseBetweenChunks;
+    private final Duration maxSweepDuration;
+    private final Map<TestGenerationJob.JobStatus, Counter> deletedCounters = new EnumMap<>(TestGenerationJob.JobStatus.class);
+
+    @Autowired
+    public JobRetentionSweeper(
+            final TestGenerationJobRepository testGenerationRepository,
+            final JobDeletionService jobDeletionService,
+            final MeterRegistry meterRegistry,
+            @Value("${app.retention.enabled:false}") final boolean enabled,
+            @Value("${app.retention.completed-max-age:90d}") final Duration completedMaxAge,
+            @Value("${app.retention.failed-max-age:30d}") final Duration failedMaxAge,
+            @Value("${app.retention.chunk-size:500}") final int chunkSize,
+            @Value("${app.retention.pause-between-chunks:500ms}") final Duration pauseBetweenChunks,
+            @Value("${app.retention.max-sweep-duration:5m}") final Duration maxSweepDuration) {
+        if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("app.retention.chunk-size must be between 1 and " + MAX_CHUNK_SIZE);
+        }
+        this.testGenerationRepository = testGenerationRepository;
+        this.jobDeletionService = jobDeletionService;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.pauseBetweenChunks = pauseBetweenChunks;
+        this.maxSweepDuration = maxSweepDuration;
+        maxAges.put(TestGenerationJob.JobStatus.COMPLETED, completedMaxAge);
+        maxAges.put(TestGenerationJob.JobStatus.FAILED, failedMaxAge);
+        for (TestGenerationJob.JobStatus status : maxAges.keySet()) {
+            deletedCounters.put(status, Counter.builder("jobs.retention.deleted")
+                    .description("Jobs deleted by the retention sweeper")
+                    .tag("status", status.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Runs one sweep over all statuses with a retention.
+     */
+    @Scheduled(initialDelayString = "${app.retention.initial-delay-ms:300000}",
+            fixedDelayString = "${app.retention.sweep-interval-ms:3600000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        long deadline = System.nanoTime() + maxSweepDuration.toNanos();
+        for (Map.Entry<TestGenerationJob.JobStatus, Duration> entry : maxAges.entrySet()) {
+            Duration maxAge = entry.getValue();
+            if (maxAge.isZero() || maxAge.isNegative()) {
+                continue; // Kept forever
+            }
+            try {
+                long deleted = sweep(entry.getKey(), LocalDateTime.now().minus(maxAge), deadline);
+                if (deleted > 0) {
+                    logger.info("Retention deleted {} {} jobs older than {}", deleted, entry.getKey(), maxAge);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Retention sweep of {} jobs failed: {}", entry.getKey(), e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Deletes jobs in {@code status} created before {@code cutoff}, chunk by chunk, until none are left
+     * or the deadline passes.
+     *
+     * @return Number of jobs deleted.
+     */
+    long sweep(final TestGenerationJob.JobStatus status, final LocalDateTime cutoff, final long deadlineNanos)
+            throws InterruptedException {
+        long deleted = 0;
+        while (true) {
+            List<Long> ids = testGenerationRepository.findIdsCreatedBefore(status, cutoff, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                return deleted;
+            }
+            JobDeletionResultDto result = jobDeletionService.deleteJobs(ids);
+            deleted += result.getDeleted().size();
+            deletedCounters.get(status).increment(result.getDeleted().size());
+            if (ids.size() < chunkSize || result.getDeleted().isEmpty() || System.nanoTime() - deadlineNanos >= 0) {
+                return deleted;
+            }
+            Thread.sleep(pauseBetweenChunks.toMillis());
+        }
+    }
+}
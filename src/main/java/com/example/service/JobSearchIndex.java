@@ -0,0 +1,325 @@
+package com.example.service;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lucene index over the tickets and generated output of completed jobs, one document per job.
+ *
+ * <p>Updates go through a single {@link IndexWriter} and are committed one by one, so a crash loses
+ * nothing that was acknowledged; jobs complete at LLM speed, far below what commits can sustain.
+ * Searches use near-real-time readers from a {@link SearcherManager}, refreshed after each update.
+ * Description and output are indexed with offsets, so highlights are cut from the postings instead
+ * of re-analyzing stored text.</p>
+ *
+ * <p>A {@link #rebuild} replaces the content in one commit. Until it commits, searches keep seeing
+ * the previous content and concurrent updates are applied to the new one.</p>
+ */
+public final class JobSearchIndex implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobSearchIndex.class);
+
+    static final String ID = "id";
+    static final String JIRA_TICKET = "jiraTicket";
+    static final String COMPONENTS = "components";
+    static final String DESCRIPTION = "description";
+    static final String TEST_RESULT = "testResult";
+    static final String COMPLETED_AT = "completedAt";
+
+    private static final String[] SEARCH_FIELDS = {JIRA_TICKET, COMPONENTS, DESCRIPTION, TEST_RESULT};
+    // Ticket keys and components are short; a hit there says more about the job than one in a long output
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(JIRA_TICKET, 4f, COMPONENTS, 2f, DESCRIPTION, 1.5f, TEST_RESULT, 1f);
+    private static final String[] HIGHLIGHT_FIELDS = {DESCRIPTION, TEST_RESULT};
+    private static final int[] HIGHLIGHT_PASSAGES = {1, 2};
+    // Outputs of very long tickets are highlighted within their first 100k characters only
+    private static final int HIGHLIGHT_MAX_LENGTH = 100_000;
+    private static final FieldType HIGHLIGHTED_TEXT = highlightedText();
+
+    private final Path directoryPath;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Set<Long> deletedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private Directory directory;
+    private volatile IndexWriter writer;
+    private volatile SearcherManager searcherManager;
+    private volatile boolean rebuilding;
+
+    /**
+     * @param directoryPath Where the index is stored; null keeps it in memory only.
+     */
+    public JobSearchIndex(final Path directoryPath) {
+        this.directoryPath = directoryPath;
+    }
+
+    private static FieldType highlightedText() {
+        FieldType type = new FieldType(TextField.TYPE_STORED);
+        type.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS);
+        type.freeze();
+        return type;
+    }
+
+    /**
+     * Opens the index, creating it if needed.
+     *
+     * @return False if the index did not exist yet and should be filled with {@link #rebuild}.
+     * @throws IOException if the directory cannot be opened or is locked by another process.
+     */
+    public synchronized boolean open() throws IOException {
+        boolean existed;
+        if (directoryPath == null) {
+            directory = new ByteBuffersDirectory();
+            existed = false;
+        } else {
+            Files.createDirectories(directoryPath);
+            directory = FSDirectory.open(directoryPath);
+            existed = DirectoryReader.indexExists(directory);
+        }
+        openWriter();
+        logger.info("Search index opened at {} with {} documents", directoryPath == null ? "memory" : directoryPath, size());
+        return existed;
+    }
+
+    private void openWriter() throws IOException {
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    /**
+     * Adds a job, or replaces it if already indexed, and commits.
+     */
+    public void update(final Entry entry) throws IOException {
+        writer.updateDocument(idTerm(entry.jobId()), toDocument(entry));
+        publish();
+    }
+
+    /**
+     * Removes jobs, if indexed, and commits.
+     */
+    public void delete(final Collection<Long> jobIds) throws IOException {
+        if (jobIds.isEmpty()) {
+            return;
+        }
+        if (rebuilding) {
+            // The rebuild may have read these jobs before they were deleted; they are removed again before it commits
+            deletedDuringRebuild.addAll(jobIds);
+        }
+        writer.deleteDocuments(jobIds.stream().map(JobSearchIndex::idTerm).toArray(Term[]::new));
+        publish();
+    }
+
+    private void publish() throws IOException {
+        if (rebuilding) {
+            return; // Committed with the rebuild
+        }
+        writer.commit();
+        searcherManager.maybeRefresh();
+    }
+
+    /**
+     * Replaces the whole content of the index with {@code entries} in one commit.
+     *
+     * @param entries All completed jobs, read lazily.
+     * @return Number of jobs indexed.
+     * @throws IOException if the index cannot be written; the previous content is then kept.
+     */
+    public synchronized long rebuild(final Iterator<Entry> entries) throws IOException {
+        deletedDuringRebuild.clear();
+        rebuilding = true;
+        long count = 0;
+        try {
+            writer.deleteAll();
+            while (entries.hasNext()) {
+                Entry entry = entries.next();
+                // Not addDocument: an update for the same job may have arrived since the rebuild started
+                writer.updateDocument(idTerm(entry.jobId()), toDocument(entry));
+                count++;
+            }
+            writer.deleteDocuments(deletedDuringRebuild.stream().map(JobSearchIndex::idTerm).toArray(Term[]::new));
+            rebuilding = false;
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            return count;
+        } catch (IOException | RuntimeException e) {
+            rebuilding = false;
+            // Drops everything since the last commit, i.e. the partial rebuild, and reopens at that commit
+            searcherManager.close();
+            writer.rollback();
+            openWriter();
+            throw e;
+        } finally {
+            deletedDuringRebuild.clear();
+        }
+    }
+
+    /**
+     * @param queryText Query in Lucene classic syntax; all words must match unless joined with OR.
+     *                  Text that is not valid syntax is searched for literally.
+     * @param offset    Number of hits to skip.
+     * @param limit     Maximum number of hits to return.
+     * @return The hits in relevance order, with highlighted passages of description and output.
+     */
+    public Result search(final String queryText, final int offset, final int limit) throws IOException {
+        Query query = parse(queryText);
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs topDocs = searcher.search(query, offset + limit);
+            ScoreDoc[] pageDocs = offset >= topDocs.scoreDocs.length ? new ScoreDoc[0]
+                    : Arrays.copyOfRange(topDocs.scoreDocs, offset, Math.min(topDocs.scoreDocs.length, offset + limit));
+            List<Hit> hits = new ArrayList<>(pageDocs.length);
+            if (pageDocs.length > 0) {
+                UnifiedHighlighter highlighter = UnifiedHighlighter.builder(searcher, analyzer)
+                        .withFormatter(new DefaultPassageFormatter("<em>", "</em>", "... ", true))
+                        .withMaxLength(HIGHLIGHT_MAX_LENGTH)
+                        .withMaxNoHighlightPassages(0)
+                        .build();
+                Map<String, String[]> highlights = highlighter.highlightFields(HIGHLIGHT_FIELDS, query,
+                        new TopDocs(topDocs.totalHits, pageDocs), HIGHLIGHT_PASSAGES);
+                StoredFields storedFields = searcher.storedFields();
+                for (int i = 0; i < pageDocs.length; i++) {
+                    Document document = storedFields.document(pageDocs[i].doc);
+                    Map<String, String> docHighlights = new LinkedHashMap<>();
+                    for (String field : HIGHLIGHT_FIELDS) {
+                        String highlight = highlights.get(field)[i];
+                        if (highlight != null && !highlight.isEmpty()) {
+                            docHighlights.put(field, highlight);
+                        }
+                    }
+                    String completedAt = document.get(COMPLETED_AT);
+                    hits.add(new Hit(Long.parseLong(document.get(ID)), document.get(JIRA_TICKET), document.get(COMPONENTS),
+                            completedAt == null ? null : LocalDateTime.parse(completedAt), pageDocs[i].score, docHighlights));
+                }
+            }
+            return new Result(topDocs.totalHits.value, topDocs.totalHits.relation == TotalHits.Relation.EQUAL_TO, hits);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private Query parse(final String queryText) {
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(SEARCH_FIELDS, analyzer, FIELD_BOOSTS);
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        try {
+            return parser.parse(queryText);
+        } catch (ParseException e) {
+            try {
+                // Unbalanced quotes or brackets in a pasted snippet should still find the snippet
+                return parser.parse(QueryParser.escape(queryText));
+            } catch (ParseException escaped) {
+                throw new IllegalArgumentException("Invalid search query: " + e.getMessage(), escaped);
+            }
+        }
+    }
+
+    /**
+     * @return Number of indexed jobs, including updates not yet visible to searches.
+     */
+    public int size() {
+        IndexWriter current = writer;
+        return current == null ? 0 : current.getDocStats().numDocs;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer == null) {
+            return;
+        }
+        searcherManager.close();
+        writer.close(); // Commits pending changes
+        directory.close();
+        writer = null;
+    }
+
+    private static Term idTerm(final long jobId) {
+        return new Term(ID, Long.toString(jobId));
+    }
+
+    private static Document toDocument(final Entry entry) {
+        Document document = new Document();
+        document.add(new StringField(ID, Long.toString(entry.jobId()), Field.Store.YES));
+        addText(document, JIRA_TICKET, entry.jiraTicket());
+        addText(document, COMPONENTS, entry.components());
+        if (entry.description() != null) {
+            document.add(new Field(DESCRIPTION, entry.description(), HIGHLIGHTED_TEXT));
+        }
+        if (entry.testResult() != null) {
+            document.add(new Field(TEST_RESULT, entry.testResult(), HIGHLIGHTED_TEXT));
+        }
+        if (entry.completedAt() != null) {
+            document.add(new StoredField(COMPLETED_AT, entry.completedAt().toString()));
+        }
+        return document;
+    }
+
+    private static void addText(final Document document, final String field, final String value) {
+        if (value != null) {
+            document.add(new TextField(field, value, Field.Store.YES));
+        }
+    }
+
+    /**
+     * The indexed fields of one completed job.
+     */
+    public record Entry(long jobId, String jiraTicket, String components, String description, String testResult,
+                        LocalDateTime completedAt) {
+    }
+
+    /**
+     * One matching job.
+     *
+     * @param highlights Passages with the matched words in {@code <em>}, by field; fields without a match are left out.
+     */
+    public record Hit(long jobId, String jiraTicket, String components, LocalDateTime completedAt, float score,
+                      Map<String, String> highlights) {
+    }
+
+    /**
+     * @param totalHits      Number of matching jobs; a lower bound if {@code totalHitsExact} is false.
+     * @param totalHitsExact Whether {@code totalHits} was counted exactly; Lucene stops counting past 1000.
+     * @param hits           The requested page of hits.
+     */
+    public record Result(long totalHits, boolean totalHitsExact, List<Hit> hits) {
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.service;
+
+import com.example.dto.JobSearchHitDto;
+import com.example.dto.JobSearchPageDto;
+import com.example.exception.SearchUnavailableException;
+import com.example.model.TestGenerationJob;
+import com.example.repository.JobSearchDocumentView;
+import com.example.repository.TestGenerationJobRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Full-text search over the tickets and generated tests of completed jobs.
+ *
+ * <p>Jobs are added to a {@link JobSearchIndex} at {@code app.search.index-dir} when they complete and
+ * removed when they are deleted. The index is rebuilt from the database on first start, and on request
+ * when it has drifted (e.g. restored from an older backup). The index is local to each instance;
+ * indexing failures never fail a job.</p>
+ */
+@Service
+public class JobSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobSearchService.class);
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final TestGenerationJobRepository testGenerationRepository;
+    private final boolean enabled;
+    private final int maxResultWindow;
+    private final JobSearchIndex index;
+    private final Timer queryTimer;
+    private final Timer rebuildTimer;
+    private final AtomicBoolean rebuildRunning = new AtomicBoolean();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-index-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean available;
+    private volatile boolean closing;
+
+    @Autowired
+    public JobSearchService(
+            final TestGenerationJobRepository testGenerationRepository,
+            final MeterRegistry meterRegistry,
+            @Value("${app.search.enabled:true}") final boolean enabled,
+            @Value("${app.search.index-dir:./data/search-index}") final String indexDir,
+            @Value("${app.search.max-result-window:10000}") final int maxResultWindow) {
+        this.testGenerationRepository = testGenerationRepository;
+        this.enabled = enabled;
+        this.maxResultWindow = maxResultWindow;
+        this.index = new JobSearchIndex(indexDir == null || indexDir.isBlank() ? null : Path.of(indexDir));
+        this.queryTimer = Timer.builder("search.query")
+                .description("Duration of full-text job searches, highlighting included")
+                .register(meterRegistry);
+        this.rebuildTimer = Timer.builder("search.rebuild")
+                .description("Duration of full-text index rebuilds from the database")
+                .register(meterRegistry);
+        Gauge.builder("search.index.size", index, JobSearchIndex::size)
+                .description("Completed jobs in the full-text search index")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void openIndex() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            boolean existed = index.open();
+            available = true;
+            if (!existed) {
+                requestRebuild();
+            }
+        } catch (IOException e) {
+            // Jobs still run; /search answers 503 until the index can be opened at the next start
+            logger.error("Could not open the search index, search is unavailable: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    void closeIndex() throws IOException {
+        // Not shutdownNow: interrupting Lucene I/O closes the index files under the writer
+        closing = true;
+        rebuildExecutor.shutdown();
+        try {
+            rebuildExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        index.close();
+    }
+
+    /**
+     * Searches completed jobs by ticket key, components, description and generated output.
+     *
+     * @param query Lucene classic query syntax: words, "phrases", field:value, OR, -excluded.
+     * @param page  0-based page number; defaults to 0.
+     * @param size  Hits per page; defaults to 20, at most 100.
+     * @return The requested page of hits in relevance order.
+     * @throws IllegalArgumentException if the query is blank or the page is out of range.
+     * @throws SearchUnavailableException if search is disabled or the index could not be opened.
+     */
+    public JobSearchPageDto search(final String query, final Integer page, final Integer size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query 'q' must not be blank");
+        }
+        int pageNumber = page == null ? 0 : page;
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+        if (pageNumber < 0 || pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        // Deep pages cost as much as collecting every hit before them
+        if ((long) (pageNumber + 1) * pageSize > maxResultWindow) {
+            throw new IllegalArgumentException("Only the first " + maxResultWindow + " hits can be paged through; refine the query");
+        }
+        if (!available) {
+            throw new SearchUnavailableException(enabled ? "Search index could not be opened" : "Search is disabled");
+        }
+        long started = System.nanoTime();
+        try {
+            JobSearchIndex.Result result = index.search(query.trim(), pageNumber * pageSize, pageSize);
+            List<JobSearchHitDto> items = result.hits().stream()
+                    .map(hit -> new JobSearchHitDto(hit.jobId(), hit.jiraTicket(), hit.components(), hit.completedAt(),
+                            hit.score(), hit.highlights()))
+                    .toList();
+            return new JobSearchPageDto(items, pageNumber, pageSize, result.totalHits(), result.totalHitsExact());
+        } catch (IOException e) {
+            logger.error("Search for '{}' failed: {}", query, e.getMessage(), e);
+            throw new SearchUnavailableException("Search index could not be read");
+        } finally {
+            queryTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Adds a completed job to the index, replacing an earlier version of it.
+     *
+     * @param job The job, just saved as COMPLETED.
+     */
+    public void onJobCompleted(final TestGenerationJob job) {
+        if (!available) {
+            return;
+        }
+        try {
+            index.update(new JobSearchIndex.Entry(job.getId(), job.getJiraTicket(), job.getComponents(),
+                    job.getDescription(), job.getTestResult(), job.getCompletedAt()));
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not add job {} to the search index: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Removes deleted jobs from the index.
+     *
+     * @param jobIds The IDs of the deleted jobs.
+     */
+    public void onJobsDeleted(final Collection<Long> jobIds) {
+        if (!available) {
+            return;
+        }
+        try {
+            index.delete(jobIds);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not remove {} jobs from the search index: {}", jobIds.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Starts rebuilding the index from the database in the background. Searches keep returning the
+     * previous content until the rebuild completes.
+     *
+     * @return False if a rebuild is already running.
+     * @throws SearchUnavailableException if search is disabled or the index could not be opened.
+     */
+    public boolean requestRebuild() {
+        if (!available) {
+            throw new SearchUnavailableException(enabled ? "Search index could not be opened" : "Search is disabled");
+        }
+        if (!rebuildRunning.compareAndSet(false, true)) {
+            return false;
+        }
+        rebuildExecutor.execute(() -> {
+            try {
+                rebuild();
+            } finally {
+                rebuildRunning.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Rebuilds the index from all completed jobs, read in ID order one batch at a time.
+     *
+     * @return Number of jobs indexed, or -1 if the rebuild failed.
+     */
+    long rebuild() {
+        long started = System.nanoTime();
+        try {
+            long count = index.rebuild(new CompletedJobIterator());
+            logger.info("Search index rebuilt with {} jobs in {} ms", count,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            return count;
+        } catch (Exception e) {
+            logger.error("Search index rebuild failed, keeping the previous index: {}", e.getMessage(), e);
+            return -1;
+        } finally {
+            rebuildTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Pages through completed jobs by ID, so no transaction or cursor stays open during a rebuild.
+     */
+    private final class CompletedJobIterator implements Iterator<JobSearchIndex.Entry> {
+        private List<JobSearchDocumentView> batch = List.of();
+        private int position;
+        private long lastId;
+        private boolean exhausted;
+
+        @Override
+        public boolean hasNext() {
+            if (position < batch.size()) {
+                return true;
+            }
+            if (exhausted) {
+                return false;
+            }
+            if (closing) {
+                throw new IllegalStateException("Rebuild cancelled by shutdown");
+            }
+            batch = testGenerationRepository.findSearchDocuments(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            position = 0;
+            exhausted = batch.size() < REBUILD_BATCH_SIZE;
+            return !batch.isEmpty();
+        }
+
+        @Override
+        public JobSearchIndex.Entry next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            JobSearchDocumentView row = batch.get(position++);
+            lastId = row.getId();
+            return new JobSearchIndex.Entry(row.getId(), row.getJiraTicket(), row.getComponents(), row.getDescription(),
+                    row.getTestResult(), row.getCompletedAt());
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.service;
+
+import com.example.exception.JobNotFoundException;
+import com.example.model.TestGenerationJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Write-through, in-process cache of job statuses plus the registry of parked long-poll requests.
+ *
+ * <p>Every status transition made by this instance is written here and wakes matching waiters.
+ * Because other instances may update the same job, non-terminal entries are only trusted for
+ * {@code max-staleness}; after that callers must re-read the database. Terminal entries never
+ * change and are kept for {@code terminal-ttl}, bounded by {@code max-entries}.</p>
+ */
+@Component
+public class JobStatusCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobStatusCache.class);
+
+    private final Map<Long, JobStatusSnapshot> entries = new ConcurrentHashMap<>();
+    private final Map<Long, Set<StatusWaiter>> waiters = new ConcurrentHashMap<>();
+    private final long maxStalenessNanos;
+    private final long terminalTtlNanos;
+    private final int maxEntries;
+
+    public JobStatusCache(
+            @Value("${app.status-cache.max-staleness:2s}") final Duration maxStaleness,
+            @Value("${app.status-cache.terminal-ttl:10m}") final Duration terminalTtl,
+            @Value("${app.status-cache.max-entries:10000}") final int maxEntries) {
+        this.maxStalenessNanos = maxStaleness.toNanos();
+        this.terminalTtlNanos = terminalTtl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the cached snapshot if it can be served without a database read.
+     *
+     * @param jobId The job ID.
+     * @return The snapshot, or null if absent or too old to trust.
+     */
+    public JobStatusSnapshot getIfFresh(final Long jobId) {
+        JobStatusSnapshot snapshot = entries.get(jobId);
+        if (snapshot == null) {
+            return null;
+        }
+        long age = System.nanoTime() - snapshot.getLoadedAtNanos();
+        long ttl = snapshot.isTerminal() ? terminalTtlNanos : maxStalenessNanos;
+        return age <= ttl ? snapshot : null;
+    }
+
+    /**
+     * Records a state transition made by this instance and wakes any matching waiters.
+     *
+     * @param job The job as just saved.
+     * @return The stored snapshot.
+     */
+    public JobStatusSnapshot put(final TestGenerationJob job) {
+        JobStatusSnapshot snapshot = JobStatusSnapshot.of(job);
+        entries.put(snapshot.getJobId(), snapshot);
+        evictIfNeeded();
+        notifyWaiters(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Stores a snapshot read from the database, unless a write landed in the cache after the read began.
+     *
+     * @param job The job as read from the database.
+     * @param readStartedNanos {@link System#nanoTime()} taken just before the read.
+     * @return The snapshot now held in the cache.
+     */
+    public JobStatusSnapshot refresh(final TestGenerationJob job, final long readStartedNanos) {
+        JobStatusSnapshot loaded = JobStatusSnapshot.of(job);
+        JobStatusSnapshot stored = entries.compute(loaded.getJobId(), (id, existing) ->
+                existing != null && existing.getLoadedAtNanos() > readStartedNanos ? existing : loaded);
+        evictIfNeeded();
+        notifyWaiters(stored);
+        return stored;
+    }
+
+    /**
+     * Drops a job from the cache and fails any request waiting on it.
+     *
+     * @param jobId The deleted job's ID.
+     */
+    public void evict(final Long jobId) {
+        entries.remove(jobId);
+        Set<StatusWaiter> jobWaiters = waiters.remove(jobId);
+        if (jobWaiters != null) {
+            for (StatusWaiter waiter : jobWaiters) {
+                waiter.future.completeExceptionally(new JobNotFoundException("Job deleted while waiting: " + jobId));
+            }
+        }
+    }
+
+    /**
+     * Parks until a snapshot of the job satisfies the condition or the timeout elapses.
+     * Only transitions observed by this instance complete the future early; on timeout it
+     * completes with null and the caller is expected to re-read the database.
+     *
+     * @param jobId The job ID.
+     * @param condition The state the caller is waiting for.
+     * @param timeout The maximum time to wait.
+     * @return A future completed with the matching snapshot, or null on timeout.
+     */
+    public CompletableFuture<JobStatusSnapshot> awaitChange(final Long jobId,
+                                                            final Predicate<JobStatusSnapshot> condition,
+                                                            final Duration timeout) {
+        StatusWaiter waiter = new StatusWaiter(condition, new CompletableFuture<>());
+        Set<StatusWaiter> jobWaiters = waiters.computeIfAbsent(jobId, id -> ConcurrentHashMap.newKeySet());
+        jobWaiters.add(waiter);
+        waiter.future.whenComplete((snapshot, error) -> removeWaiter(jobId, waiter));
+
+        // Re-check after registering so a transition racing with registration is not missed
+        JobStatusSnapshot current = entries.get(jobId);
+        if (current != null && condition.test(current)) {
+            waiter.future.complete(current);
+        }
+        return waiter.future.completeOnTimeout(null, timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return The number of requests currently parked on a status change.
+     */
+    public int getWaiterCount() {
+        return waiters.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void notifyWaiters(final JobStatusSnapshot snapshot) {
+        Set<StatusWaiter> jobWaiters = waiters.get(snapshot.getJobId());
+        if (jobWaiters == null) {
+            return;
+        }
+        for (StatusWaiter waiter : jobWaiters) {
+            if (waiter.condition.test(snapshot)) {
+                waiter.future.complete(snapshot);
+            }
+        }
+    }
+
+    private void removeWaiter(final Long jobId, final StatusWaiter waiter) {
+        waiters.computeIfPresent(jobId, (id, jobWaiters) -> {
+            jobWaiters.remove(waiter);
+            return jobWaiters.isEmpty() ? null : jobWaiters;
+        });
+    }
+
+    private void evictIfNeeded() {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        // Drop terminal entries first; they are the cheapest to reload and the most numerous
+        int target = maxEntries - maxEntries / 10;
+        Iterator<JobStatusSnapshot> iterator = entries.values().iterator();
+        while (entries.size() > target && iterator.hasNext()) {
+            if (iterator.next().isTerminal()) {
+                iterator.remove();
+            }
+        }
+        iterator = entries.values().iterator();
+        while (entries.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+        logger.debug("Status cache trimmed to {} entries", entries.size());
+    }
+
+    private static final class StatusWaiter {
+        private final Predicate<JobStatusSnapshot> condition;
+        private final CompletableFuture<JobStatusSnapshot> future;
+
+        private StatusWaiter(final Predicate<JobStatusSnapshot> condition,
+                             final CompletableFuture<JobStatusSnapshot> future) {
+            this.condition = condition;
+            this.future = future;
+        }
+    }
+}
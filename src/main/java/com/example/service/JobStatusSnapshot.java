@@ -0,0 +1,96 @@
+package com.example.service;
+
+import com.example.model.TestGenerationJob;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Immutable view of a job's status as held by {@link JobStatusCache}.
+ * The ETag is derived from the status fields only, so it is identical on every instance
+ * that observed the same database state.
+ */
+public final class JobStatusSnapshot {
+
+    private final Long jobId;
+    private final TestGenerationJob.JobStatus status;
+    private final String errorMessage;
+    private final LocalDateTime completedAt;
+    private final String etag;
+    private final long loadedAtNanos;
+
+    private JobStatusSnapshot(final Long jobId, final TestGenerationJob.JobStatus status,
+                              final String errorMessage, final LocalDateTime completedAt, final long loadedAtNanos) {
+        this.jobId = jobId;
+        this.status = status;
+        this.errorMessage = errorMessage;
+        this.completedAt = completedAt;
+        this.loadedAtNanos = loadedAtNanos;
+        this.etag = "\"" + jobId + "-" + status.name() + "-"
+                + Integer.toHexString(Objects.hash(errorMessage, completedAt)) + "\"";
+    }
+
+    /**
+     * Captures the status fields of a job.
+     *
+     * @param job The job entity, freshly read from or written to the database.
+     * @return The snapshot.
+     */
+    public static JobStatusSnapshot of(final TestGenerationJob job) {
+        return new JobStatusSnapshot(job.getId(), job.getStatus(), job.getErrorMessage(),
+                job.getCompletedAt(), System.nanoTime());
+    }
+
+    public Long getJobId() {
+        return jobId;
+    }
+
+    public TestGenerationJob.JobStatus getStatus() {
+        return status;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    long getLoadedAtNanos() {
+        return loadedAtNanos;
+    }
+
+    /**
+     * @return true for COMPLETED and FAILED, which never change again.
+     */
+    public boolean isTerminal() {
+        return status == TestGenerationJob.JobStatus.COMPLETED || status == TestGenerationJob.JobStatus.FAILED;
+    }
+
+    /**
+     * Checks an {@code If-None-Match} header value against this snapshot's ETag.
+     *
+     * @param ifNoneMatch The raw header value, possibly a comma-separated list or "*".
+     * @return true if the client already holds this representation.
+     */
+    public boolean matches(final String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if ("*".equals(tag) || etag.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
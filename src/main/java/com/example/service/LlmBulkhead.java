@@ -0,0 +1,156 @@
+package com.example.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caps concurrent Ollama requests and splits them between interactive chat and job processing.
+ *
+ * <p>Each pool has a reserved minimum that the other pool can never take; the remaining
+ * {@code max-concurrent - chat-reserved - batch-reserved} slots are shared first come, first
+ * served. A burst of queued jobs therefore cannot lock /chat out, and heavy chat use cannot
+ * stall job processing.</p>
+ */
+@Component
+public class LlmBulkhead {
+
+    public enum Pool {
+        CHAT,
+        BATCH
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final int[] reserved = new int[Pool.values().length];
+    private final int[] inUse = new int[Pool.values().length];
+    private final int shared;
+
+    @Autowired
+    public LlmBulkhead(
+            final MeterRegistry meterRegistry,
+            @Value("${app.llm.max-concurrent:3}") final int maxConcurrent,
+            @Value("${app.llm.chat-reserved:1}") final int chatReserved,
+            @Value("${app.llm.batch-reserved:1}") final int batchReserved) {
+        if (chatReserved < 0 || batchReserved < 0 || chatReserved + batchReserved > maxConcurrent) {
+            throw new IllegalStateException("app.llm reserved slots (" + chatReserved + " + " + batchReserved
+                    + ") must fit in app.llm.max-concurrent (" + maxConcurrent + ")");
+        }
+        this.reserved[Pool.CHAT.ordinal()] = chatReserved;
+        this.reserved[Pool.BATCH.ordinal()] = batchReserved;
+        this.shared = maxConcurrent - chatReserved - batchReserved;
+        for (Pool pool : Pool.values()) {
+            Gauge.builder("llm.bulkhead.in.use", this, bulkhead -> bulkhead.getInUse(pool))
+                    .description("Ollama requests in flight")
+                    .tag("pool", pool.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Waits as long as needed for a slot in the given pool.
+     *
+     * @param pool The pool to charge.
+     * @return A permit that must be closed when the LLM call ends.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public Permit acquire(final Pool pool) throws InterruptedException {
+        lock.lock();
+        try {
+            while (!hasRoom(pool)) {
+                released.await();
+            }
+            inUse[pool.ordinal()]++;
+            return new Permit(pool);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits up to {@code timeout} for a slot in the given pool.
+     *
+     * @param pool The pool to charge.
+     * @param timeout Maximum wait.
+     * @return A permit that must be closed when the LLM call ends, or null if none freed up in time.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public Permit tryAcquire(final Pool pool, final Duration timeout) throws InterruptedException {
+        long remainingNanos = timeout.toNanos();
+        lock.lock();
+        try {
+            while (!hasRoom(pool)) {
+                if (remainingNanos <= 0) {
+                    return null;
+                }
+                remainingNanos = released.awaitNanos(remainingNanos);
+            }
+            inUse[pool.ordinal()]++;
+            return new Permit(pool);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param pool The pool to inspect.
+     * @return LLM calls currently charged to the pool.
+     */
+    public int getInUse(final Pool pool) {
+        lock.lock();
+        try {
+            return inUse[pool.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the lock
+    private boolean hasRoom(final Pool pool) {
+        if (inUse[pool.ordinal()] < reserved[pool.ordinal()]) {
+            return true;
+        }
+        int sharedInUse = 0;
+        for (Pool other : Pool.values()) {
+            sharedInUse += Math.max(0, inUse[other.ordinal()] - reserved[other.ordinal()]);
+        }
+        return sharedInUse < shared;
+    }
+
+    private void release(final Pool pool) {
+        lock.lock();
+        try {
+            inUse[pool.ordinal()]--;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * One LLM slot; closing it more than once is harmless.
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final Pool pool;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Permit(final Pool pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                release(pool);
+            }
+        }
+    }
+}
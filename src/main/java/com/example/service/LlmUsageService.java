@@ -0,0 +1,83 @@
+package com.example.service;
+
+import com.example.dto.LlmUsageDto;
+import com.example.dto.LlmUsageRollupDto;
+import com.example.model.LlmUsage;
+import com.example.repository.LlmUsageRollupView;
+import com.example.repository.TestGenerationJobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Reports the token counts and timings Ollama returned for generation calls,
+ * per job and rolled up per model and backend for capacity planning.
+ */
+@Service
+public class LlmUsageService {
+
+    private final TestGenerationJobRepository testGenerationJobRepository;
+
+    @Autowired
+    public LlmUsageService(final TestGenerationJobRepository testGenerationJobRepository) {
+        this.testGenerationJobRepository = testGenerationJobRepository;
+    }
+
+    /**
+     * Sums usage per model and backend.
+     *
+     * @param createdFrom Inclusive lower bound on job creation time, or null.
+     * @param createdTo Exclusive upper bound on job creation time, or null.
+     * @return One rollup per (model, backend) pair.
+     */
+    public List<LlmUsageRollupDto> getRollups(final LocalDateTime createdFrom, final LocalDateTime createdTo) {
+        if (createdFrom != null && createdTo != null && !createdFrom.isBefore(createdTo)) {
+            throw new IllegalArgumentException("createdFrom must be before createdTo");
+        }
+        return testGenerationJobRepository.sumLlmUsage(createdFrom, createdTo).stream()
+                .map(LlmUsageService::toRollupDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param usage A job's recorded usage, may be null.
+     * @return The usage with derived throughput, or null.
+     */
+    public static LlmUsageDto toDto(final LlmUsage usage) {
+        if (usage == null) {
+            return null;
+        }
+        return new LlmUsageDto(usage.getModel(), usage.getBackend(), usage.getPromptTokens(),
+                usage.getCompletionTokens(), usage.getLoadMillis(), usage.getPromptEvalMillis(),
+                usage.getEvalMillis(), usage.getTotalMillis(),
+                tokensPerSecond(usage.getPromptTokens(), usage.getPromptEvalMillis()),
+                tokensPerSecond(usage.getCompletionTokens(), usage.getEvalMillis()));
+    }
+
+    /**
+     * @return Tokens per second, or null when either value is missing or the time is zero.
+     */
+    static Double tokensPerSecond(final Number tokens, final Long millis) {
+        if (tokens == null || millis == null || millis <= 0) {
+            return null;
+        }
+        return tokens.doubleValue() * 1000d / millis;
+    }
+
+    private static LlmUsageRollupDto toRollupDto(final LlmUsageRollupView view) {
+        long totalMillis = orZero(view.getTotalMillis());
+        return new LlmUsageRollupDto(view.getModel(), view.getBackend(), view.getJobCount(),
+                orZero(view.getPromptTokens()), orZero(view.getCompletionTokens()), orZero(view.getLoadMillis()),
+                orZero(view.getPromptEvalMillis()), orZero(view.getEvalMillis()), totalMillis,
+                tokensPerSecond(view.getPromptTokens(), view.getPromptEvalMillis()),
+                tokensPerSecond(view.getCompletionTokens(), view.getEvalMillis()),
+                view.getJobCount() > 0 ? (double) totalMillis / view.getJobCount() : null);
+    }
+
+    private static long orZero(final Long value) {
+        return value != null ? value : 0L;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.service;
+
+import com.example.config.ReadWriteRoutingDataSource;
+import com.example.exception.JobNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Decides whether a read of one job may be served by the read replica ({@code app.datasource.replica}).
+ *
+ * <p>The replica trails the primary. Jobs this instance wrote less than {@code max-staleness} ago
+ * (set it above the replica's usual lag) are read from the primary, so a client polling the job it
+ * just started, or that is being processed here, never sees an older state than before. A job the
+ * replica does not have yet, e.g. one just created by another instance, is looked up again on the
+ * primary. Other reads may be as old as the replica's lag.</p>
+ */
+@Component
+public class ReplicaReadRouter {
+
+    private final boolean enabled;
+    private final long maxStalenessNanos;
+    private final Map<Long, Long> recentWrites = new ConcurrentHashMap<>();
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+    private final Counter notFoundFallbacks;
+
+    @Autowired
+    public ReplicaReadRouter(
+            final MeterRegistry meterRegistry,
+            @Value("${app.datasource.replica.enabled:false}") final boolean enabled,
+            @Value("${app.datasource.replica.max-staleness:5s}") final Duration maxStaleness) {
+        this.enabled = enabled;
+        this.maxStalenessNanos = maxStaleness.toNanos();
+        this.replicaReads = readCounter(meterRegistry, "replica");
+        this.primaryReads = readCounter(meterRegistry, "primary");
+        this.notFoundFallbacks = Counter.builder("db.replica.fallbacks")
+                .description("Replica reads repeated on the primary because the job or its rows were not found")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records that a job's row or logs were just written on the primary.
+     *
+     * @param jobId The job ID.
+     */
+    public void markWritten(final Long jobId) {
+        if (enabled && jobId != null) {
+            recentWrites.put(jobId, System.nanoTime());
+        }
+    }
+
+    /**
+     * Runs a read-only query about one job on the replica, or on the primary if the job was written
+     * recently or the replica does not know it.
+     *
+     * @param jobId The job the query reads.
+     * @param query The query; its read-only transactions are routed.
+     * @return The query's result.
+     */
+    public <T> T read(final Long jobId, final Supplier<T> query) {
+        return read(jobId, query, result -> false);
+    }
+
+    /**
+     * Like {@link #read(Long, Supplier)}, for queries that return nothing instead of throwing
+     * {@link JobNotFoundException} when the replica does not have the job's rows yet.
+     *
+     * @param jobId The job the query reads.
+     * @param query The query; its read-only transactions are routed. It must not run inside a
+     *              surrounding transaction, which would keep serving it from the same database.
+     * @param missing Tells whether a replica result may be incomplete, e.g. an empty list, and is
+     *                repeated on the primary.
+     * @return The query's result.
+     */
+    public <T> T read(final Long jobId, final Supplier<T> query, final Predicate<? super T> missing) {
+        if (!enabled || isRecentlyWritten(jobId)) {
+            primaryReads.increment();
+            return query.get();
+        }
+        try {
+            replicaReads.increment();
+            T result = ReadWriteRoutingDataSource.readFromReplica(query);
+            if (!missing.test(result)) {
+                return result;
+            }
+        } catch (JobNotFoundException e) {
+            // Looked up again on the primary below
+        }
+        notFoundFallbacks.increment();
+        return query.get();
+    }
+
+    /**
+     * Forgets writes old enough for the replica to have caught up.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.prune-interval-ms:60000}")
+    public void pruneRecentWrites() {
+        long now = System.nanoTime();
+        recentWrites.values().removeIf(writtenAt -> now - writtenAt >= maxStalenessNanos);
+    }
+
+    private boolean isRecentlyWritten(final Long jobId) {
+        Long writtenAt = recentWrites.get(jobId);
+        return writtenAt != null && System.nanoTime() - writtenAt < maxStalenessNanos;
+    }
+
+    private static Counter readCounter(final MeterRegistry meterRegistry, final String target) {
+        return Counter.builder("db.job.reads")
+                .description("Job status, job and log reads by the database that served them")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free histogram of millisecond values over a sliding time window.
+ *
+ * <p>The window is a ring of time slices, each with its own log-linear buckets (8 per power of
+ * two, so a reported percentile is at most 12.5% above the true value). Recording is an atomic
+ * increment into the current slice; the first recorder to reach a slice from a new period claims
+ * it with a CAS on its epoch and clears it. Counts recorded into that slice by other threads in
+ * the instant between the claim and the clear can be lost, which is acceptable for monitoring
+ * and keeps recording free of locks.</p>
+ */
+final class RollingHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Values are clamped below 2^MAX_EXPONENT ms (about 50 days)
+    private static final int MAX_EXPONENT = 32;
+    static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final Slice[] slices;
+    private final long sliceNanos;
+    private final LongSupplier nanoClock;
+
+    RollingHistogram(final long windowNanos, final int sliceCount, final LongSupplier nanoClock) {
+        this.slices = new Slice[sliceCount];
+        for (int i = 0; i < sliceCount; i++) {
+            slices[i] = new Slice();
+        }
+        this.sliceNanos = Math.max(1, windowNanos / sliceCount);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Records one value.
+     *
+     * @param millis The value; negative values are recorded as 0.
+     */
+    void record(final long millis) {
+        long value = Math.max(0, millis);
+        Slice slice = currentSlice();
+        slice.buckets.incrementAndGet(bucketOf(value));
+        slice.count.incrementAndGet();
+        slice.max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Merges the slices still inside the window.
+     *
+     * @return A consistent-enough copy to compute percentiles from.
+     */
+    Snapshot snapshot() {
+        long currentEpoch = nanoClock.getAsLong() / sliceNanos;
+        long[] merged = new long[BUCKETS];
+        long count = 0;
+        long max = 0;
+        for (Slice slice : slices) {
+            long epoch = slice.epoch.get();
+            if (epoch <= currentEpoch - slices.length || epoch > currentEpoch) {
+                continue;
+            }
+            for (int b = 0; b < BUCKETS; b++) {
+                merged[b] += slice.buckets.get(b);
+            }
+            count += slice.count.get();
+            max = Math.max(max, slice.max.get());
+        }
+        return new Snapshot(merged, count, max);
+    }
+
+    private Slice currentSlice() {
+        long epoch = nanoClock.getAsLong() / sliceNanos;
+        Slice slice = slices[(int) Math.floorMod(epoch, (long) slices.length)];
+        long seen = slice.epoch.get();
+        if (seen < epoch && slice.epoch.compareAndSet(seen, epoch)) {
+            slice.clear();
+        }
+        return slice;
+    }
+
+    static int bucketOf(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_EXPONENT - 1);
+        int subBucket = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        if (exponent == MAX_EXPONENT - 1 && value >= (1L << MAX_EXPONENT)) {
+            subBucket = SUB_BUCKETS - 1;
+        }
+        return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    static long lowerBound(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = (bucket - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+        int subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((long) SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    private static final class Slice {
+        private final AtomicLong epoch = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        private void clear() {
+            for (int b = 0; b < BUCKETS; b++) {
+                buckets.set(b, 0);
+            }
+            count.set(0);
+            max.set(0);
+        }
+    }
+
+    /**
+     * Merged bucket counts of the window.
+     */
+    static final class Snapshot {
+        private final long[] buckets;
+        private final long count;
+        private final long max;
+
+        private Snapshot(final long[] buckets, final long count, final long max) {
+            this.buckets = buckets;
+            this.count = count;
+            this.max = max;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        long getMax() {
+            return max;
+        }
+
+        /**
+         * @param quantile In [0, 1].
+         * @return The upper bound of the bucket holding the quantile, capped at the window's
+         *         maximum; 0 if nothing was recorded.
+         */
+        long percentile(final double quantile) {
+            long total = 0;
+            for (long bucketCount : buckets) {
+                total += bucketCount;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int b = 0; b < buckets.length; b++) {
+                seen += buckets[b];
+                if (seen >= rank) {
+                    long upper = b + 1 < BUCKETS ? lowerBound(b + 1) - 1 : Long.MAX_VALUE;
+                    return Math.min(upper, max);
+                }
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.service;
+
+import com.example.agent.TextEmbedder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds earlier jobs whose ticket is a near-duplicate of a new one (the same feature for another
+ * market, a copied template) by comparing ticket embeddings.
+ *
+ * <p>Completed jobs are added to an {@link EmbeddingIndex} persisted at {@code app.embedding.index-file}.
+ * A match at or above {@code app.embedding.offer-threshold} is recorded on the new job; at or above
+ * {@code app.embedding.reuse-threshold} its result is copied instead of calling the LLM. Embedding
+ * failures never fail a job; the lookup is skipped.</p>
+ */
+@Service
+public class SemanticReuseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SemanticReuseService.class);
+
+    /**
+     * Lookup outcomes counted by {@code embedding.lookups}.
+     */
+    enum Outcome {
+        NO_MATCH,
+        OFFERED,
+        REUSABLE,
+        ERROR
+    }
+
+    private final TextEmbedder textEmbedder;
+    private final boolean enabled;
+    private final double offerThreshold;
+    private final double reuseThreshold;
+    private final EmbeddingIndex index;
+    private final Timer embedTimer;
+    private final Map<Outcome, Counter> lookupCounters = new EnumMap<>(Outcome.class);
+
+    @Autowired
+    public SemanticReuseService(
+            final TextEmbedder textEmbedder,
+            final MeterRegistry meterRegistry,
+            @Value("${app.embedding.enabled:false}") final boolean enabled,
+            @Value("${app.embedding.model:nomic-embed-text}") final String model,
+            @Value("${app.embedding.index-file:./data/embedding-index.bin}") final String indexFile,
+            @Value("${app.embedding.offer-threshold:0.90}") final double offerThreshold,
+            @Value("${app.embedding.reuse-threshold:0.97}") final double reuseThreshold,
+            @Value("${app.embedding.lsh-tables:20}") final int lshTables,
+            @Value("${app.embedding.lsh-bits:10}") final int lshBits) {
+        this.textEmbedder = textEmbedder;
+        this.enabled = enabled;
+        this.offerThreshold = offerThreshold;
+        this.reuseThreshold = reuseThreshold;
+        this.index = new EmbeddingIndex(indexFile == null || indexFile.isBlank() ? null : Path.of(indexFile),
+                model, lshTables, lshBits);
+        this.embedTimer = Timer.builder("embedding.call")
+                .description("Duration of ticket embedding calls")
+                .register(meterRegistry);
+        for (Outcome outcome : Outcome.values()) {
+            lookupCounters.put(outcome, Counter.builder("embedding.lookups")
+                    .description("Near-duplicate ticket lookups, by outcome")
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        Gauge.builder("embedding.index.size", index, EmbeddingIndex::size)
+                .description("Completed jobs in the near-duplicate embedding index")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void loadIndex() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            index.load();
+        } catch (IOException e) {
+            // Keep working in memory; matches are lost on restart
+            logger.error("Could not open the embedding index file, continuing without persistence: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    void closeIndex() throws IOException {
+        index.close();
+    }
+
+    /**
+     * Embeds a ticket and looks up the most similar completed job.
+     *
+     * @param ticketContent The ticket text.
+     * @return The embedding and the match, if any; null when disabled or the embedding call failed.
+     */
+    public Lookup lookup(final String ticketContent) {
+        if (!enabled || ticketContent == null || ticketContent.isBlank()) {
+            return null;
+        }
+        float[] embedding;
+        long started = System.nanoTime();
+        try {
+            embedding = textEmbedder.embed(ticketContent);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            lookupCounters.get(Outcome.ERROR).increment();
+            logger.warn("Ticket embedding failed, skipping near-duplicate lookup: {}", e.getMessage());
+            return null;
+        } finally {
+            embedTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+        EmbeddingIndex.Match match = index.nearest(embedding, offerThreshold);
+        Outcome outcome = match == null ? Outcome.NO_MATCH
+                : match.similarity() >= reuseThreshold ? Outcome.REUSABLE : Outcome.OFFERED;
+        lookupCounters.get(outcome).increment();
+        return match == null
+                ? new Lookup(embedding, null, null, false)
+                : new Lookup(embedding, match.jobId(), match.similarity(), outcome == Outcome.REUSABLE);
+    }
+
+    /**
+     * Adds a completed job to the index.
+     *
+     * @param jobId     The job ID.
+     * @param embedding The embedding returned by {@link #lookup} for its ticket.
+     */
+    public void index(final Long jobId, final float[] embedding) {
+        if (!enabled || embedding == null) {
+            return;
+        }
+        try {
+            index.add(jobId, embedding);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Could not add job {} to the embedding index: {}", jobId, e.getMessage());
+        }
+    }
+
+    /**
+     * Removes a job from the index, e.g. when it is deleted or superseded by a newer revision.
+     *
+     * @param jobId The job ID.
+     */
+    public void remove(final Long jobId) {
+        if (!enabled || jobId == null) {
+            return;
+        }
+        try {
+            index.remove(jobId);
+        } catch (IOException e) {
+            logger.warn("Could not remove job {} from the embedding index: {}", jobId, e.getMessage());
+        }
+    }
+
+    /**
+     * Result of {@link #lookup}.
+     *
+     * @param embedding  The ticket's embedding, to index the job once it completes.
+     * @param jobId      The most similar completed job, or null below the offer threshold.
+     * @param similarity Cosine similarity to that job, or null.
+     * @param reusable   Whether the similarity reaches the reuse threshold.
+     */
+    public record Lookup(float[] embedding, Long jobId, Double similarity, boolean reusable) {
+    }
+}
@@ -0,0 +1,392 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental parser for the UAT format the generator prompt asks for:
+ *
+ * <pre>
+ * [UAT-001] [Title]
+ * Steps:
+ * 1. First step
+ * 2. Second step
+ * Result: Expected outcome
+ * </pre>
+ *
+ * <p>Text can be fed in chunks of any size (e.g. as it streams from the model); only complete
+ * lines are examined, by index, without regular expressions or splitting. The parser is lenient
+ * about decoration models like to add ({@code **bold**}, {@code ###}, list numbers, brackets,
+ * {@code "UAT-001:"}). Only IDs with the {@code UAT-} prefix the prompt asks for start a test case,
+ * so a step such as {@code "3. API-5 returns 200"} stays a step. A test case that lacks steps or a result, or has gaps in its step
+ * numbering, is still returned but flagged as malformed with the reasons.</p>
+ *
+ * <p>Not thread-safe; use one instance per output.</p>
+ */
+public final class TestCaseParser {
+
+    /**
+     * Prefix of the test IDs the generator prompt asks for.
+     */
+    static final String TEST_ID_PREFIX = "UAT-";
+
+    private enum Section {
+        HEADER,
+        STEPS,
+        RESULT
+    }
+
+    private final StringBuilder pendingLine = new StringBuilder();
+    // Offset in the whole output of the first character of the next chunk, and of the pending line
+    private int consumed;
+    private int pendingLineOffset;
+    private final List<ParsedTestCase> testCases = new ArrayList<>();
+    private ParsedTestCase current;
+    private Section section = Section.HEADER;
+    private StringBuilder lastStep;
+    private StringBuilder result;
+    private int expectedStepNumber;
+
+    /**
+     * Parses a complete output in one go.
+     *
+     * @param text The generated text; may be null.
+     * @return The test cases in output order.
+     */
+    public static List<ParsedTestCase> parse(final String text) {
+        TestCaseParser parser = new TestCaseParser();
+        if (text != null) {
+            parser.feed(text);
+        }
+        return parser.finish();
+    }
+
+    /**
+     * Consumes the next chunk of output.
+     *
+     * @param chunk Any part of the output, not necessarily ending at a line break.
+     */
+    public void feed(final CharSequence chunk) {
+        int lineStart = 0;
+        for (int i = 0; i < chunk.length(); i++) {
+            if (chunk.charAt(i) == '\n') {
+                if (pendingLine.length() > 0) {
+                    pendingLine.append(chunk, lineStart, i);
+                    acceptLine(pendingLine, 0, pendingLine.length(), pendingLineOffset);
+                    pendingLine.setLength(0);
+                } else {
+                    acceptLine(chunk, lineStart, i, consumed + lineStart);
+                }
+                lineStart = i + 1;
+                pendingLineOffset = consumed + lineStart;
+            }
+        }
+        pendingLine.append(chunk, lineStart, chunk.length());
+        consumed += chunk.length();
+    }
+
+    /**
+     * Flushes the last line and closes the last test case.
+     *
+     * @return All test cases parsed so far, in output order.
+     */
+    public List<ParsedTestCase> finish() {
+        if (pendingLine.length() > 0) {
+            acceptLine(pendingLine, 0, pendingLine.length(), pendingLineOffset);
+            pendingLine.setLength(0);
+        }
+        closeCurrent(consumed);
+        return testCases;
+    }
+
+    private void acceptLine(final CharSequence line, final int from, final int to, final int lineOffset) {
+        int start = skipWhitespace(line, from, to);
+        int end = trimEnd(line, start, to);
+        if (start >= end) {
+            return;
+        }
+        int idStart = findTestId(line, start, end);
+        if (idStart >= 0) {
+            startTestCase(line, idStart, end, lineOffset);
+            return;
+        }
+        if (current == null) {
+            // Preamble before the first test case ("Here are the test cases:")
+            return;
+        }
+        int afterSteps = matchLabel(line, start, end, "steps");
+        if (afterSteps >= 0) {
+            section = Section.STEPS;
+            if (afterSteps < end) {
+                addStep(line, afterSteps, end);
+            }
+            return;
+        }
+        int afterResult = matchLabel(line, start, end, "result");
+        if (afterResult < 0) {
+            afterResult = matchLabel(line, start, end, "expected result");
+        }
+        if (afterResult >= 0) {
+            section = Section.RESULT;
+            result = new StringBuilder();
+            appendText(result, line, afterResult, end);
+            return;
+        }
+        switch (section) {
+            case STEPS -> addStep(line, start, end);
+            case RESULT -> appendText(result, line, start, end);
+            default -> current.addProblem("Text before Steps: " + line.subSequence(start, Math.min(end, start + 40)));
+        }
+    }
+
+    private void startTestCase(final CharSequence line, final int idStart, final int end, final int lineOffset) {
+        closeCurrent(lineOffset);
+        int idEnd = idStart;
+        while (idEnd < end && isIdChar(line.charAt(idEnd))) {
+            idEnd++;
+        }
+        int titleStart = idEnd;
+        while (titleStart < end && isDecoration(line.charAt(titleStart))) {
+            titleStart++;
+        }
+        int titleEnd = end;
+        while (titleEnd > titleStart && isDecoration(line.charAt(titleEnd - 1))) {
+            titleEnd--;
+        }
+        current = new ParsedTestCase(line.subSequence(idStart, idEnd).toString(),
+                line.subSequence(titleStart, titleEnd).toString(), lineOffset);
+        section = Section.HEADER;
+        lastStep = null;
+        result = null;
+        expectedStepNumber = 1;
+    }
+
+    private void addStep(final CharSequence line, final int start, final int end) {
+        int i = start;
+        int number = 0;
+        while (i < end && Character.isDigit(line.charAt(i))) {
+            number = number * 10 + (line.charAt(i) - '0');
+            i++;
+        }
+        if (i > start && i < end && (line.charAt(i) == '.' || line.charAt(i) == ')')) {
+            if (number != expectedStepNumber) {
+                current.addProblem("Step " + number + " where " + expectedStepNumber + " was expected");
+            }
+            expectedStepNumber = number + 1;
+            lastStep = new StringBuilder();
+            appendText(lastStep, line, i + 1, end);
+            current.steps.add(lastStep);
+        } else if (lastStep != null) {
+            // Wrapped step text
+            appendText(lastStep, line, start, end);
+        } else {
+            expectedStepNumber++;
+            lastStep = new StringBuilder();
+            appendText(lastStep, line, skipBullet(line, start, end), end);
+            current.steps.add(lastStep);
+            current.addProblem("Unnumbered step");
+        }
+    }
+
+    private void closeCurrent(final int endOffset) {
+        if (current == null) {
+            return;
+        }
+        current.endOffset = endOffset;
+        if (current.steps.isEmpty()) {
+            current.addProblem("No steps");
+        }
+        if (result == null || result.length() == 0) {
+            current.addProblem("No result");
+        } else {
+            current.expectedResult = result.toString();
+        }
+        testCases.add(current);
+        current = null;
+    }
+
+    /**
+     * @return Index where a test ID such as {@code UAT-001} starts, if the line opens with one
+     *         after optional decoration and list numbering; otherwise -1.
+     */
+    static int findTestId(final CharSequence line, final int start, final int end) {
+        int i = start;
+        while (i < end && isDecoration(line.charAt(i))) {
+            i++;
+        }
+        // Optional list number: "1. UAT-001"
+        int digits = i;
+        while (digits < end && Character.isDigit(line.charAt(digits))) {
+            digits++;
+        }
+        if (digits > i && digits < end && (line.charAt(digits) == '.' || line.charAt(digits) == ')')) {
+            i = digits + 1;
+            while (i < end && isDecoration(line.charAt(i))) {
+                i++;
+            }
+        }
+        if (end - i <= TEST_ID_PREFIX.length()) {
+            return -1;
+        }
+        for (int k = 0; k < TEST_ID_PREFIX.length(); k++) {
+            if (line.charAt(i + k) != TEST_ID_PREFIX.charAt(k)) {
+                return -1;
+            }
+        }
+        int numberStart = i + TEST_ID_PREFIX.length();
+        int number = numberStart;
+        while (number < end && Character.isDigit(line.charAt(number))) {
+            number++;
+        }
+        if (number == numberStart || (number < end && Character.isLetterOrDigit(line.charAt(number)))) {
+            return -1;
+        }
+        return i;
+    }
+
+    /**
+     * @return Index just after {@code label:} (case-insensitive, decoration allowed around the
+     *         label) with leading spaces skipped, or -1 if the line is not that label.
+     */
+    private static int matchLabel(final CharSequence line, final int start, final int end, final String label) {
+        int i = start;
+        while (i < end && isDecoration(line.charAt(i))) {
+            i++;
+        }
+        if (end - i < label.length()) {
+            return -1;
+        }
+        for (int k = 0; k < label.length(); k++) {
+            if (Character.toLowerCase(line.charAt(i + k)) != label.charAt(k)) {
+                return -1;
+            }
+        }
+        i += label.length();
+        while (i < end && (line.charAt(i) == '*' || line.charAt(i) == '_')) {
+            i++;
+        }
+        if (i >= end || line.charAt(i) != ':') {
+            return -1;
+        }
+        i++;
+        while (i < end && (line.charAt(i) == '*' || line.charAt(i) == '_')) {
+            i++;
+        }
+        return skipWhitespace(line, i, end);
+    }
+
+    private static void appendText(final StringBuilder target, final CharSequence line, final int from, final int to) {
+        int start = skipWhitespace(line, from, to);
+        if (start >= to) {
+            return;
+        }
+        if (target.length() > 0) {
+            target.append(' ');
+        }
+        target.append(line, start, to);
+    }
+
+    private static int skipBullet(final CharSequence line, final int start, final int end) {
+        int i = start;
+        while (i < end && (line.charAt(i) == '-' || line.charAt(i) == '*' || line.charAt(i) == '\u2022')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipWhitespace(final CharSequence line, final int from, final int to) {
+        int i = from;
+        while (i < to && Character.isWhitespace(line.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int trimEnd(final CharSequence line, final int from, final int to) {
+        int i = to;
+        while (i > from && Character.isWhitespace(line.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+
+    private static boolean isIdChar(final char c) {
+        return (c >= 'A' && c <= 'Z') || Character.isDigit(c) || c == '-';
+    }
+
+    private static boolean isDecoration(final char c) {
+        return Character.isWhitespace(c) || c == '[' || c == ']' || c == '*' || c == '#' || c == ':'
+                || c == '-' || c == '\u2013' || c == '_' || c == '(' || c == ')';
+    }
+
+    /**
+     * One test case as found in the output.
+     */
+    public static final class ParsedTestCase {
+        private final String code;
+        private final String title;
+        private final int startOffset;
+        private int endOffset;
+        private final List<CharSequence> steps = new ArrayList<>();
+        private String expectedResult;
+        private List<String> problems;
+
+        private ParsedTestCase(final String code, final String title, final int startOffset) {
+            this.code = code;
+            this.title = title;
+            this.startOffset = startOffset;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        /**
+         * @return Offset in the output where this test case's header line starts.
+         */
+        public int getStartOffset() {
+            return startOffset;
+        }
+
+        /**
+         * @return Offset in the output where the next test case starts, or the output length.
+         */
+        public int getEndOffset() {
+            return endOffset;
+        }
+
+        public List<String> getSteps() {
+            List<String> texts = new ArrayList<>(steps.size());
+            for (CharSequence step : steps) {
+                texts.add(step.toString());
+            }
+            return texts;
+        }
+
+        public String getExpectedResult() {
+            return expectedResult;
+        }
+
+        public boolean isMalformed() {
+            return problems != null;
+        }
+
+        /**
+         * @return Why the test case is malformed, joined with "; ", or null.
+         */
+        public String getProblems() {
+            return problems != null ? String.join("; ", problems) : null;
+        }
+
+        private void addProblem(final String problem) {
+            if (problems == null) {
+                problems = new ArrayList<>(2);
+            }
+            problems.add(problem);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.service;
+
+import com.example.agent.OllamaGenerationClient;
+import com.example.agent.TestGeneratorAgent;
+import com.example.model.LlmUsage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks generated output for truncated, duplicate and malformed test cases and fixes only
+ * those, instead of regenerating the whole ticket.
+ * <ul>
+ *   <li>A truncated answer (Ollama hit {@code num_predict}, or the last test case has no
+ *       result) loses its last test case and is continued from that Test ID.</li>
+ *   <li>Duplicates (same title) are dropped without asking the model, keeping a well-formed copy.</li>
+ *   <li>Each malformed test case is sent back on its own to be rewritten in the required format.</li>
+ * </ul>
+ * Every continuation and rewrite is one LLM call, bounded by {@code app.llm.repair-max-calls}
+ * per job. Test cases that cannot be fixed within that budget are kept as they are and show up
+ * as malformed in the test case API.
+ */
+@Service
+public class TestCaseRepairService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestCaseRepairService.class);
+
+    private final TestGeneratorAgent testGenerator;
+    private final int maxLlmCalls;
+
+    @Autowired
+    public TestCaseRepairService(
+            final TestGeneratorAgent testGenerator,
+            @Value("${app.llm.repair-max-calls:3}") final int maxLlmCalls) {
+        this.testGenerator = testGenerator;
+        this.maxLlmCalls = Math.max(0, maxLlmCalls);
+    }
+
+    /**
+     * @param ticketContent The ticket the output was generated for.
+     * @param generation    The successful answer of the generation call.
+     * @return The repaired output with the usage of all calls added up, and a log line per repair.
+     */
+    public RepairResult repair(final String ticketContent, final OllamaGenerationClient.Completion generation) {
+        List<String> actions = new ArrayList<>();
+        String text = generation.content();
+        if (text == null || text.isBlank()) {
+            return new RepairResult(generation, actions);
+        }
+        LlmUsage usage = generation.usage();
+        boolean truncated = generation.truncated();
+        int budget = maxLlmCalls;
+
+        List<TestCaseParser.ParsedTestCase> cases = TestCaseParser.parse(text);
+        while (budget > 0 && !cases.isEmpty() && (truncated || isCutOff(last(cases)))) {
+            TestCaseParser.ParsedTestCase cutOff = last(cases);
+            List<String> headers = new ArrayList<>(cases.size() - 1);
+            for (TestCaseParser.ParsedTestCase parsed : cases.subList(0, cases.size() - 1)) {
+                headers.add(parsed.getCode() + " " + parsed.getTitle());
+            }
+            OllamaGenerationClient.Completion continuation =
+                    testGenerator.continueTests(ticketContent, headers, cutOff.getCode());
+            budget--;
+            usage = add(usage, continuation.usage());
+            String more = fromFirstTestCase(continuation.content());
+            if (more == null) {
+                actions.add("Continuation after truncated test case " + cutOff.getCode() + " returned no test cases");
+                break;
+            }
+            text = text.substring(0, cutOff.getStartOffset()).stripTrailing() + "\n\n" + more;
+            truncated = continuation.truncated();
+            cases = TestCaseParser.parse(text);
+            actions.add("Continued truncated output from " + cutOff.getCode());
+        }
+
+        String[] replacements = new String[cases.size()];
+        boolean[] dropped = new boolean[cases.size()];
+        boolean changed = dropDuplicates(cases, dropped, actions);
+
+        for (int i = 0; i < cases.size() && budget > 0; i++) {
+            TestCaseParser.ParsedTestCase parsed = cases.get(i);
+            if (dropped[i] || !parsed.isMalformed()) {
+                continue;
+            }
+            String section = text.substring(parsed.getStartOffset(), parsed.getEndOffset());
+            OllamaGenerationClient.Completion rewrite =
+                    testGenerator.repairTestCase(ticketContent, section, parsed.getProblems());
+            budget--;
+            usage = add(usage, rewrite.usage());
+            TestCaseParser.ParsedTestCase fixed = firstWellFormed(rewrite.content());
+            if (fixed == null) {
+                actions.add("Rewrite of " + parsed.getCode() + " is still malformed (" + parsed.getProblems() + ")");
+                continue;
+            }
+            replacements[i] = rewrite.content().substring(fixed.getStartOffset(), fixed.getEndOffset());
+            changed = true;
+            actions.add("Rewrote malformed test case " + parsed.getCode() + " (" + parsed.getProblems() + ")");
+        }
+
+        if (changed) {
+            text = splice(text, cases, replacements, dropped);
+        }
+        if (budget == 0 && maxLlmCalls > 0 && needsRepair(TestCaseParser.parse(text))) {
+            actions.add("Repair budget of " + maxLlmCalls + " LLM calls used up");
+        }
+        if (!actions.isEmpty()) {
+            logger.info("Repaired generated output: {}", actions);
+        }
+        return new RepairResult(new OllamaGenerationClient.Completion(text, usage, truncated), actions);
+    }
+
+    private static boolean isCutOff(final TestCaseParser.ParsedTestCase parsed) {
+        return parsed.getExpectedResult() == null || parsed.getExpectedResult().isEmpty();
+    }
+
+    private static boolean needsRepair(final List<TestCaseParser.ParsedTestCase> cases) {
+        for (TestCaseParser.ParsedTestCase parsed : cases) {
+            if (parsed.isMalformed()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marks later copies of a title as dropped; a well-formed copy replaces a malformed one.
+     */
+    private static boolean dropDuplicates(final List<TestCaseParser.ParsedTestCase> cases, final boolean[] dropped,
+                                          final List<String> actions) {
+        Map<String, Integer> firstByTitle = new HashMap<>();
+        boolean changed = false;
+        for (int i = 0; i < cases.size(); i++) {
+            String key = normalize(cases.get(i).getTitle());
+            if (key.isEmpty()) {
+                continue;
+            }
+            Integer kept = firstByTitle.putIfAbsent(key, i);
+            if (kept == null) {
+                continue;
+            }
+            int drop = i;
+            if (cases.get(kept).isMalformed() && !cases.get(i).isMalformed()) {
+                drop = kept;
+                firstByTitle.put(key, i);
+            }
+            dropped[drop] = true;
+            changed = true;
+            actions.add("Dropped duplicate test case " + cases.get(drop).getCode() + " (" + cases.get(drop).getTitle() + ")");
+        }
+        return changed;
+    }
+
+    private static String normalize(final String title) {
+        StringBuilder key = new StringBuilder(title.length());
+        for (int i = 0; i < title.length(); i++) {
+            char c = title.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                key.append(Character.toLowerCase(c));
+            }
+        }
+        return key.toString();
+    }
+
+    private static String splice(final String text, final List<TestCaseParser.ParsedTestCase> cases,
+                                 final String[] replacements, final boolean[] dropped) {
+        StringBuilder out = new StringBuilder(text.length());
+        out.append(text, 0, cases.get(0).getStartOffset());
+        for (int i = 0; i < cases.size(); i++) {
+            if (dropped[i]) {
+                continue;
+            }
+            TestCaseParser.ParsedTestCase parsed = cases.get(i);
+            String section = replacements[i] != null
+                    ? replacements[i]
+                    : text.substring(parsed.getStartOffset(), parsed.getEndOffset());
+            out.append(section.strip()).append("\n\n");
+        }
+        return out.toString().stripTrailing() + "\n";
+    }
+
+    private static String fromFirstTestCase(final String content) {
+        if (content == null || content.startsWith("Error:")) {
+            return null;
+        }
+        List<TestCaseParser.ParsedTestCase> cases = TestCaseParser.parse(content);
+        return cases.isEmpty() ? null : content.substring(cases.get(0).getStartOffset());
+    }
+
+    private static TestCaseParser.ParsedTestCase firstWellFormed(final String content) {
+        if (content == null || content.startsWith("Error:")) {
+            return null;
+        }
+        for (TestCaseParser.ParsedTestCase parsed : TestCaseParser.parse(content)) {
+            if (!parsed.isMalformed()) {
+                return parsed;
+            }
+        }
+        return null;
+    }
+
+    private static TestCaseParser.ParsedTestCase last(final List<TestCaseParser.ParsedTestCase> cases) {
+        return cases.get(cases.size() - 1);
+    }
+
+    private static LlmUsage add(final LlmUsage usage, final LlmUsage more) {
+        return usage != null ? usage.plus(more) : more;
+    }
+
+    /**
+     * @param completion The repaired output, the usage of all calls and whether the last call was cut off.
+     * @param actions    What was repaired, for the job log; empty when nothing was changed.
+     */
+    public record RepairResult(OllamaGenerationClient.Completion completion, List<String> actions) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.service;
+
+import com.example.dto.TestCaseDto;
+import com.example.dto.TestCaseSummaryDto;
+import com.example.exception.JobNotFoundException;
+import com.example.exception.TestCaseNotFoundException;
+import com.example.model.TestCase;
+import com.example.model.TestGenerationJob;
+import com.example.model.TestStep;
+import com.example.repository.TestCaseRepository;
+import com.example.repository.TestGenerationJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Stores a job's generated output as {@link TestCase} and {@link TestStep} rows and serves them
+ * individually, so clients do not have to fetch and re-parse the whole {@code testResult}.
+ *
+ * <p>Output is parsed once, when the job completes. Jobs completed before parsing existed
+ * ({@code testCaseCount} is null) are parsed on first access.</p>
+ */
+@Service
+public class TestCaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestCaseService.class);
+
+    private final TestCaseRepository testCaseRepository;
+    private final TestGenerationJobRepository testGenerationJobRepository;
+
+    @Autowired
+    public TestCaseService(final TestCaseRepository testCaseRepository,
+                           final TestGenerationJobRepository testGenerationJobRepository) {
+        this.testCaseRepository = testCaseRepository;
+        this.testGenerationJobRepository = testGenerationJobRepository;
+    }
+
+    /**
+     * Parses the output and replaces the job's test cases with the result.
+     *
+     * @param job The saved job the output belongs to.
+     * @param output The generated text.
+     * @return The number of test cases stored (malformed ones included).
+     */
+    @Transactional
+    public int replaceTestCases(final TestGenerationJob job, final String output) {
+        List<TestCaseParser.ParsedTestCase> parsed = TestCaseParser.parse(output);
+        deleteForJob(job.getId());
+        List<TestCase> testCases = new ArrayList<>(parsed.size());
+        int position = 1;
+        for (TestCaseParser.ParsedTestCase source : parsed) {
+            testCases.add(toEntity(job, position++, source));
+        }
+        testCaseRepository.saveAll(testCases);
+        long malformed = testCases.stream().filter(TestCase::isMalformed).count();
+        logger.debug("Stored {} test cases for job {} ({} malformed)", testCases.size(), job.getId(), malformed);
+        return testCases.size();
+    }
+
+    /**
+     * Removes a job's test cases and steps.
+     *
+     * @param jobId The job ID.
+     */
+    @Transactional
+    public void deleteForJob(final Long jobId) {
+        testCaseRepository.deleteStepsByJobId(jobId);
+        testCaseRepository.deleteByJobId(jobId);
+    }
+
+    /**
+     * Lists a job's test cases without their steps.
+     *
+     * @param jobId The job ID.
+     * @param malformed If non-null, only test cases with this malformed flag.
+     * @return Summaries in output order.
+     * @throws JobNotFoundException if the job is not found.
+     */
+    @Transactional
+    public List<TestCaseSummaryDto> listTestCases(final Long jobId, final Boolean malformed) {
+        ensureParsed(jobId);
+        List<TestCase> testCases = malformed != null
+                ? testCaseRepository.findByJobIdAndMalformedOrderByPositionAsc(jobId, malformed)
+                : testCaseRepository.findByJobIdOrderByPositionAsc(jobId);
+        return testCases.stream()
+                .map(tc -> new TestCaseSummaryDto(tc.getPosition(), tc.getCode(), tc.getTitle(), tc.getStepCount(),
+                        tc.isMalformed(), tc.getParseProblems()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Gets one test case with its steps.
+     *
+     * @param jobId The job ID.
+     * @param position 1-based position of the test case in the output.
+     * @return The test case.
+     * @throws JobNotFoundException if the job is not found.
+     * @throws TestCaseNotFoundException if the job has no test case at that position.
+     */
+    @Transactional
+    public TestCaseDto getTestCase(final Long jobId, final Integer position) {
+        ensureParsed(jobId);
+        TestCase testCase = testCaseRepository.findWithSteps(jobId, position)
+                .orElseThrow(() -> new TestCaseNotFoundException(
+                        "Test case " + position + " not found for job " + jobId));
+        List<String> steps = testCase.getSteps().stream().map(TestStep::getText).collect(Collectors.toList());
+        return new TestCaseDto(testCase.getPosition(), testCase.getCode(), testCase.getTitle(), steps,
+                testCase.getExpectedResult(), testCase.isMalformed(), testCase.getParseProblems());
+    }
+
+    private void ensureParsed(final Long jobId) {
+        TestGenerationJob job = testGenerationJobRepository.findById(jobId)
+                .orElseThrow(() -> new JobNotFoundException("Job not found with id: " + jobId));
+        if (job.getTestCaseCount() == null && job.getTestResult() != null) {
+            job.setTestCaseCount(replaceTestCases(job, job.getTestResult()));
+            testGenerationJobRepository.save(job);
+        }
+    }
+
+    private static TestCase toEntity(final TestGenerationJob job, final int position,
+                                     final TestCaseParser.ParsedTestCase source) {
+        TestCase testCase = new TestCase();
+        testCase.setJob(job);
+        testCase.setPosition(position);
+        testCase.setCode(truncate(source.getCode(), 50));
+        testCase.setTitle(truncate(source.getTitle(), 500));
+        testCase.setExpectedResult(truncate(source.getExpectedResult(), 2000));
+        testCase.setMalformed(source.isMalformed());
+        testCase.setParseProblems(truncate(source.getProblems(), 1000));
+        List<String> steps = source.getSteps();
+        testCase.setStepCount(steps.size());
+        for (int i = 0; i < steps.size(); i++) {
+            TestStep step = new TestStep();
+            step.setTestCase(testCase);
+            step.setPosition(i + 1);
+            step.setText(truncate(steps.get(i), 2000));
+            testCase.getSteps().add(step);
+        }
+        return testCase;
+    }
+
+    private static String truncate(final String value, final int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength - 2) + ".." : value;
+    }
+}
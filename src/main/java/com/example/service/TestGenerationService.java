@@ -1,23 +1,44 @@
 package com.example.service;
 
+import com.example.agent.OllamaGenerationClient;
 import com.example.agent.TestGeneratorAgent;
+import com.example.dto.JobDeletionResultDto;
+import com.example.dto.JobPageDto;
+import com.example.dto.JobSearchCriteria;
+import com.example.dto.JobSummaryDto;
 import com.example.dto.TicketContentDto;
+import com.example.event.JobEventBus;
 import com.example.exception.InvalidJobStateException;
 import com.example.exception.JobNotFoundException;
 import com.example.exception.JobProcessingException;
+import com.example.model.LlmUsage;
 import com.example.model.TestGenerationJob;
+import com.example.repository.JobSummaryView;
 import com.example.repository.TestGenerationJobRepository;
 import com.example.services.JobLogService; // Ensure correct import path
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 /**
  * Service responsible for orchestrating the UAT test generation process.
@@ -26,20 +47,78 @@ import java.util.Map;
 public class TestGenerationService {
 
     private static final Logger logger = LoggerFactory.getLogger(TestGenerationService.class);
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
 
     // Dependencies are now final
     private final TestGeneratorAgent testGenerator;
     private final TestGenerationJobRepository testGenerationRepository;
     private final com.example.services.JobLogService jobLogService;
+    private final JobStatusCache jobStatusCache;
+    private final JobEventBus jobEventBus;
+    private final WebhookService webhookService;
+    private final ApiQuotaService apiQuotaService;
+    private final FairJobScheduler jobScheduler;
+    private final LlmBulkhead llmBulkhead;
+    private final JobMetrics jobMetrics;
+    private final JobPhaseStats jobPhaseStats;
+    private final TestCaseService testCaseService;
+    private final TestCaseRepairService testCaseRepairService;
+    private final SemanticReuseService semanticReuseService;
+    private final JobSearchService jobSearchService;
+    private final JobDeletionService jobDeletionService;
+    private final ReplicaReadRouter replicaReadRouter;
+    private final JobLeaseService jobLeaseService;
+    private final TicketRevisionService ticketRevisionService;
+    private final Executor statusPollExecutor;
+    private final double incrementalMaxChangedRatio;
+    // Output streamed so far by each running job's generation call
+    private final Map<Long, StringBuffer> partialOutputs = new ConcurrentHashMap<>();
 
     @Autowired
     public TestGenerationService(
             final TestGeneratorAgent testGenerator,
             final TestGenerationJobRepository testGenerationRepository,
-            final com.example.services.JobLogService jobLogService) {
+            final com.example.services.JobLogService jobLogService,
+            final JobStatusCache jobStatusCache,
+            final JobEventBus jobEventBus,
+            final WebhookService webhookService,
+            final ApiQuotaService apiQuotaService,
+            final FairJobScheduler jobScheduler,
+            final LlmBulkhead llmBulkhead,
+            final JobMetrics jobMetrics,
+            final JobPhaseStats jobPhaseStats,
+            final TestCaseService testCaseService,
+            final TestCaseRepairService testCaseRepairService,
+            final SemanticReuseService semanticReuseService,
+            final JobSearchService jobSearchService,
+            final JobDeletionService jobDeletionService,
+            final ReplicaReadRouter replicaReadRouter,
+            final JobLeaseService jobLeaseService,
+            final TicketRevisionService ticketRevisionService,
+            @Qualifier("statusPollExecutor") final Executor statusPollExecutor,
+            @Value("${app.llm.incremental-max-changed-ratio:0.5}") final double incrementalMaxChangedRatio) {
         this.testGenerator = testGenerator;
         this.testGenerationRepository = testGenerationRepository;
         this.jobLogService = jobLogService;
+        this.jobStatusCache = jobStatusCache;
+        this.jobEventBus = jobEventBus;
+        this.webhookService = webhookService;
+        this.apiQuotaService = apiQuotaService;
+        this.jobScheduler = jobScheduler;
+        this.llmBulkhead = llmBulkhead;
+        this.jobMetrics = jobMetrics;
+        this.jobPhaseStats = jobPhaseStats;
+        this.testCaseService = testCaseService;
+        this.testCaseRepairService = testCaseRepairService;
+        this.semanticReuseService = semanticReuseService;
+        this.jobSearchService = jobSearchService;
+        this.jobDeletionService = jobDeletionService;
+        this.replicaReadRouter = replicaReadRouter;
+        this.jobLeaseService = jobLeaseService;
+        this.ticketRevisionService = ticketRevisionService;
+        this.statusPollExecutor = statusPollExecutor;
+        this.incrementalMaxChangedRatio = incrementalMaxChangedRatio;
     }
 
     /**
@@ -50,6 +129,36 @@ public class TestGenerationService {
      * @throws JobProcessingException if the initial job record cannot be saved.
      */
     public TestGenerationJob startTestGeneration(final TicketContentDto ticketDto) {
+        return startTestGeneration(ticketDto, null);
+    }
+
+    /**
+     * Creates the initial job record on behalf of an API client and triggers the asynchronous processing.
+     *
+     * @param ticketDto DTO containing the ticket information.
+     * @param apiClient Name of the submitting API client, charged for the job's LLM time; may be null.
+     * @return The initially saved TestGenerationJob entity with its ID.
+     * @throws JobProcessingException if the initial job record cannot be saved.
+     */
+    @Transactional
+    public TestGenerationJob startTestGeneration(final TicketContentDto ticketDto, final String apiClient) {
+        if (ticketDto.getCallbackUrl() != null && !ticketDto.getCallbackUrl().isBlank()) {
+            webhookService.validateCallbackUrl(ticketDto.getCallbackUrl()); // Rejected with 400 before any job is created
+        }
+        FairJobScheduler.Reservation reservation = jobScheduler.reserve(1); // Rejected with 503 before any job is created
+        try {
+            return createJob(ticketDto, apiClient, ticketRevisionService.nextRevision(ticketDto.getTicketId()),
+                    reservation);
+        } finally {
+            closeWhenDone(reservation);
+        }
+    }
+
+    /**
+     * Saves a PENDING job for a ticket and queues it in a reserved slot once it is committed.
+     */
+    private TestGenerationJob createJob(final TicketContentDto ticketDto, final String apiClient, final int revision,
+                                        final FairJobScheduler.Reservation reservation) {
         TestGenerationJob job = new TestGenerationJob();
         job.setJiraTicket(ticketDto.getTicketId());
         job.setDescription(ticketDto.getContent());
@@ -58,20 +167,41 @@ public class TestGenerationService {
         } else {
             job.setComponents("N/A");
         }
+        job.setCallbackUrl(ticketDto.getCallbackUrl());
+        job.setApiClient(apiClient);
+        job.setPriority(ticketDto.getPriority() != null ? ticketDto.getPriority() : TestGenerationJob.JobPriority.NORMAL);
+        job.setFullRegeneration(ticketDto.isFullRegeneration());
         job.setStatus(TestGenerationJob.JobStatus.PENDING);
         job.setCreatedAt(LocalDateTime.now());
+        // Lineage: each job is a new version of its ticket, derived from the last completed one
+        job.setRevision(revision);
+        testGenerationRepository.findFirstByJiraTicketAndStatusOrderByCreatedAtDescIdDesc(
+                        ticketDto.getTicketId(), TestGenerationJob.JobStatus.COMPLETED)
+                .map(JobSummaryView::getId)
+                .ifPresent(job::setPreviousJobId);
+        final boolean incremental = !ticketDto.isFullRegeneration();
 
         try {
             // Save the initial job state synchronously
-            job = testGenerationRepository.saveAndFlush(job);
+            final TestGenerationJob newJob = job;
+            job = jobMetrics.timePersistence(JobMetrics.PersistOperation.CREATE,
+                    () -> testGenerationRepository.saveAndFlush(newJob));
             final Long jobId = job.getId(); // Get the ID after saving
 
-            // Log job creation immediately
-            jobLogService.addJobLog(job, "INFO", "Job created with ID: " + jobId + " for ticket: " + ticketDto.getTicketId());
-            jobLogService.addJobLog(job, "INFO", "Components: " + job.getComponents());
+            // When the job is created in a larger transaction (a batch, or together with its Idempotency-Key),
+            // it is announced and queued only once it is committed and visible to the workers
+            final TestGenerationJob savedJob = job;
+            runAfterCommit(() -> {
+                onStatusChanged(savedJob);
 
-            // Trigger the actual processing asynchronously
-            triggerAsyncProcessing(jobId, ticketDto.getContent(), job); // Pass job for logging context if needed
+                // Log job creation immediately
+                jobLogService.addJobLog(savedJob, "INFO", "Job created with ID: " + jobId + " for ticket: " + ticketDto.getTicketId());
+                jobLogService.addJobLog(savedJob, "INFO", "Components: " + savedJob.getComponents());
+
+                // Queue the actual processing; the scheduler orders it by priority and tenant fairness
+                reservation.submit(jobId, savedJob.getPriority(), apiClient != null ? apiClient : savedJob.getComponents(),
+                        () -> triggerAsyncProcessing(jobId, ticketDto.getContent(), incremental, savedJob)); // Pass job for logging context if needed
+            });
 
             // Return the job object with its ID to the controller
             return job;
@@ -85,19 +215,98 @@ public class TestGenerationService {
     }
 
     /**
-     * Triggers the asynchronous test generation process.
-     * This method is called after the initial job record is saved.
+     * Creates one job per ticket, in order, in one transaction. Tickets are validated up front so that
+     * an invalid callback URL or a full queue rejects the whole batch before any job is created, and a
+     * job that cannot be saved rolls back the ones before it.
+     *
+     * @param ticketDtos DTOs containing the ticket information.
+     * @param apiClient Name of the submitting API client; may be null.
+     * @return The saved jobs, in request order.
+     * @throws JobProcessingException if a job record cannot be saved.
+     */
+    @Transactional
+    public List<TestGenerationJob> startTestGenerationBatch(final List<TicketContentDto> ticketDtos,
+                                                            final String apiClient) {
+        for (TicketContentDto ticketDto : ticketDtos) {
+            if (ticketDto.getCallbackUrl() != null && !ticketDto.getCallbackUrl().isBlank()) {
+                webhookService.validateCallbackUrl(ticketDto.getCallbackUrl());
+            }
+        }
+        FairJobScheduler.Reservation reservation = jobScheduler.reserve(ticketDtos.size());
+        try {
+            List<Integer> revisions = ticketRevisionService.nextRevisions(ticketDtos.stream()
+                    .map(TicketContentDto::getTicketId)
+                    .collect(Collectors.toList()));
+            List<TestGenerationJob> jobs = new ArrayList<>(ticketDtos.size());
+            for (int i = 0; i < ticketDtos.size(); i++) {
+                jobs.add(createJob(ticketDtos.get(i), apiClient, revisions.get(i), reservation));
+            }
+            return jobs;
+        } finally {
+            closeWhenDone(reservation);
+        }
+    }
+
+    /**
+     * Runs an action once the current transaction has committed, or right away outside a transaction.
+     */
+    private static void runAfterCommit(final Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Returns the unused slots of a queue reservation once the current transaction has completed, after
+     * the jobs were queued on commit, or right away outside a transaction.
+     */
+    private static void closeWhenDone(final FairJobScheduler.Reservation reservation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reservation.close();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(final int status) {
+                reservation.close();
+            }
+        });
+    }
+
+    /**
+     * Queues a PENDING job again, e.g. one left over by a previous run. It is processed the way it
+     * was requested and continues from its checkpoint, if any.
+     *
+     * @param job The job, as read from the database.
+     */
+    public void resumeJob(final TestGenerationJob job) {
+        final boolean incremental = !Boolean.TRUE.equals(job.getFullRegeneration());
+        jobScheduler.submit(job.getId(), job.getPriority(), job.getApiClient() != null ? job.getApiClient() : job.getComponents(),
+                () -> triggerAsyncProcessing(job.getId(), job.getDescription(), incremental, job));
+    }
+
+    /**
+     * Runs the test generation process on a {@link FairJobScheduler} worker thread.
+     * This method is queued after the initial job record is saved.
      *
      * @param jobId         The ID of the job to process.
      * @param ticketContent The content for test generation.
+     * @param incremental   Whether test cases of the previous version may be reused.
      * @param job           The job entity (passed for logging context).
      */
-    @Async("taskExecutor") // This method runs in the background
-    public void triggerAsyncProcessing(final Long jobId, final String ticketContent, final TestGenerationJob job) {
+    public void triggerAsyncProcessing(final Long jobId, final String ticketContent, final boolean incremental,
+                                       final TestGenerationJob job) {
         try {
             // Log the start of async processing using the passed job context
             jobLogService.addJobLog(job, "INFO", "Starting asynchronous processing for job ID: " + jobId);
-            processTestGeneration(jobId, ticketContent);
+            processTestGeneration(jobId, ticketContent, incremental);
         } catch (Exception e) {
             // Log error if the async task itself fails immediately (e.g., cannot find job)
             logger.error("Error triggering async processing for job {}: {}", jobId, e.getMessage(), e);
@@ -112,21 +321,107 @@ public class TestGenerationService {
      *
      * @param jobId The ID of the job being processed.
      * @param ticketContent The content/description of the ticket to generate tests for.
+     * @param incremental Whether to regenerate only the sections changed since the previous version.
      */
-    protected void processTestGeneration(final Long jobId, final String ticketContent) {
+    protected void processTestGeneration(final Long jobId, final String ticketContent, final boolean incremental) {
         TestGenerationJob job = null;
         try {
-            job = testGenerationRepository.findById(jobId)
-                    .orElseThrow(() -> new JobNotFoundException("Job not found with id: " + jobId)); // Throw JobNotFoundException
-
+            // Throws JobNotFoundException; null if another worker got the job first
+            job = jobMetrics.timePersistence(JobMetrics.PersistOperation.STATUS, () -> jobLeaseService.claim(jobId));
+            if (job == null) {
+                logger.info("Job {} is no longer PENDING; not processing it again", jobId);
+                return;
+            }
+            onStatusChanged(job);
             jobLogService.addJobLog(job, "INFO", "Processing job ID: " + jobId);
-            job.setStatus(TestGenerationJob.JobStatus.IN_PROGRESS);
-            testGenerationRepository.save(job);
             jobLogService.addJobLog(job, "INFO", "Job status updated to IN_PROGRESS");
+            String checkpoint = job.getCheckpoint();
 
-            jobLogService.addJobLog(job, "INFO", "Calling Test Generator Agent directly with ticket content.");
-            String generatedTests = testGenerator.generateTests(ticketContent);
-            jobLogService.addJobLog(job, "INFO", "Test Generator Agent finished.");
+            IncrementalGenerationPlanner.Plan plan = incremental ? planIncrementalGeneration(job, ticketContent) : null;
+            // Near-duplicates of other tickets are only looked for when nothing of this ticket is reused
+            SemanticReuseService.Lookup similar = plan == null ? semanticReuseService.lookup(ticketContent) : null;
+            String similarResult = null;
+            if (similar != null && similar.jobId() != null) {
+                job.setSimilarJobId(similar.jobId());
+                job.setSimilarity(similar.similarity());
+                jobLogService.addJobLog(job, "INFO", String.format(Locale.ROOT,
+                        "Ticket is %.1f%% similar to job %d.", similar.similarity() * 100, similar.jobId()));
+                // A heavily edited ticket must not get its own previous version back
+                if (similar.reusable() && incremental && !similar.jobId().equals(job.getPreviousJobId())) {
+                    similarResult = loadCompletedResult(similar.jobId());
+                }
+            }
+            OllamaGenerationClient.Completion generation;
+            List<String> repairs = List.of();
+            if (plan != null && plan.getChangedSections().isEmpty()) {
+                jobLogService.addJobLog(job, "INFO", "No new or changed sections since job " + job.getPreviousJobId()
+                        + "; reusing its test cases without calling the LLM.");
+                generation = new OllamaGenerationClient.Completion(plan.merge(null), null);
+                job.setGenerationMode(TestGenerationJob.GenerationMode.INCREMENTAL);
+                jobMetrics.recordLlmCallAvoided(JobMetrics.AvoidedCallReason.UNCHANGED);
+            } else if (similarResult != null) {
+                jobLogService.addJobLog(job, "INFO", "Reusing the result of job " + similar.jobId()
+                        + " without calling the LLM.");
+                generation = new OllamaGenerationClient.Completion(similarResult, null);
+                job.setGenerationMode(TestGenerationJob.GenerationMode.REUSED);
+                jobMetrics.recordLlmCallAvoided(JobMetrics.AvoidedCallReason.SIMILAR);
+            } else {
+                job.setGenerationMode(plan != null
+                        ? TestGenerationJob.GenerationMode.INCREMENTAL : TestGenerationJob.GenerationMode.FULL);
+                jobLogService.addJobLog(job, "INFO", plan != null
+                        ? "Calling Test Generator Agent for " + plan.getChangedSections().size() + " new or changed sections."
+                        : "Calling Test Generator Agent directly with ticket content.");
+                // Waits for a batch slot so queued jobs never take the capacity reserved for /chat
+                LlmBulkhead.Permit permit = llmBulkhead.acquire(LlmBulkhead.Pool.BATCH);
+                long llmStart = System.nanoTime();
+                job.setLlmStartedAt(LocalDateTime.now());
+                try {
+                    StringBuffer partialOutput = new StringBuffer();
+                    partialOutputs.put(jobId, partialOutput);
+                    if (checkpoint != null) {
+                        jobLogService.addJobLog(job, "INFO", "Continuing from " + checkpoint.length()
+                                + " characters of output checkpointed before a shutdown.");
+                        generation = continueFromCheckpoint(ticketContent, checkpoint, partialOutput);
+                    } else if (plan != null) {
+                        generation = testGenerator.generateTestsForSections(ticketContent, plan.getChangedSections(),
+                                plan.getReusedHeaders(), plan.getNextTestId(), partialOutput::append);
+                    } else {
+                        generation = testGenerator.generateTests(ticketContent, partialOutput::append);
+                    }
+                    if (generation.content() != null && !generation.content().startsWith("Error:")) {
+                        if (plan != null) {
+                            generation = new OllamaGenerationClient.Completion(plan.merge(generation.content()),
+                                    generation.usage(), generation.truncated());
+                        }
+                        TestCaseRepairService.RepairResult repaired = testCaseRepairService.repair(ticketContent, generation);
+                        generation = repaired.completion();
+                        repairs = repaired.actions();
+                        if (generation.truncated()) {
+                            // The repair budget ran out before the output was complete
+                            throw new JobProcessingException("Generated output is still truncated after "
+                                    + repairs.size() + " repairs");
+                        }
+                    }
+                } finally {
+                    job.setLlmFinishedAt(LocalDateTime.now());
+                    apiQuotaService.recordLlmTime(job.getApiClient(), Duration.ofNanos(System.nanoTime() - llmStart));
+                    permit.close();
+                }
+                jobLogService.addJobLog(job, "INFO", "Test Generator Agent finished.");
+            }
+            for (String repair : repairs) {
+                jobLogService.addJobLog(job, "INFO", "Repair: " + repair);
+            }
+            String generatedTests = generation.content();
+            LlmUsage usage = generation.usage();
+            if (usage != null) {
+                job.setLlmUsage(usage);
+                jobLogService.addJobLog(job, "INFO", String.format(Locale.ROOT,
+                        "LLM usage: %s prompt tokens in %s ms, %s output tokens in %s ms (%.1f tokens/s), model %s",
+                        usage.getPromptTokens(), usage.getPromptEvalMillis(), usage.getCompletionTokens(),
+                        usage.getEvalMillis(), LlmUsageService.tokensPerSecond(usage.getCompletionTokens(), usage.getEvalMillis()),
+                        usage.getModel()));
+            }
 
             if (generatedTests != null && generatedTests.startsWith("Error:")) {
                 logger.error("Test Generation Agent returned an error for job {}: {}", jobId, generatedTests);
@@ -136,41 +431,197 @@ public class TestGenerationService {
 
             jobLogService.addJobLog(job, "DEBUG", "Generated tests:\n" + generatedTests);
             job.setTestResult(generatedTests);
+            try {
+                job.setTestCaseCount(testCaseService.replaceTestCases(job, generatedTests));
+            } catch (Exception e) {
+                // Not fatal: test cases are parsed again on first access
+                logger.warn("Could not store parsed test cases for job {}: {}", jobId, e.getMessage());
+            }
             jobLogService.addJobLog(job, "INFO", "Successfully generated tests.");
             job.setStatus(TestGenerationJob.JobStatus.COMPLETED);
             job.setCompletedAt(LocalDateTime.now());
             job.setErrorMessage(null);
-            testGenerationRepository.saveAndFlush(job);
+            final TestGenerationJob completedJob = job;
+            // Null if the lease ran out and the job was put back or claimed by another worker meanwhile
+            TestGenerationJob savedJob = jobMetrics.timePersistence(JobMetrics.PersistOperation.RESULT,
+                    () -> jobLeaseService.complete(completedJob));
+            if (savedJob == null) {
+                logger.warn("Job {} is no longer held by this worker; discarding its result", jobId);
+                return;
+            }
+            job = savedJob;
+            onStatusChanged(job);
+            jobPhaseStats.recordCompleted(job);
+            if (similar != null && job.getGenerationMode() != TestGenerationJob.GenerationMode.REUSED) {
+                semanticReuseService.index(job.getId(), similar.embedding());
+            }
+            if (job.getPreviousJobId() != null) {
+                // Near-duplicate lookups should find the latest version of a ticket only
+                semanticReuseService.remove(job.getPreviousJobId());
+            }
+            jobSearchService.onJobCompleted(job);
             jobLogService.addJobLog(job, "INFO", "Job completed and saved.");
 
         } catch (JobProcessingException | JobNotFoundException e) { // Catch specific exceptions first
+             if (returnToPendingIfInterrupted(jobId)) {
+                 return;
+             }
              logger.error("Error during test generation process for job {}: {}", jobId, e.getMessage(), e);
-             failJob(jobId, e.getMessage(), e); // Pass cause
+             jobMetrics.recordFailure(e instanceof JobNotFoundException
+                     ? JobMetrics.FailureCause.NOT_FOUND : JobMetrics.FailureCause.GENERATION);
+             failJob(jobId, e.getMessage(), e, job); // Pass cause
         } catch (Exception e) { // Catch broader exceptions
+            if (returnToPendingIfInterrupted(jobId)) {
+                return;
+            }
             logger.error("Unexpected error during test generation process for jobId: {}", jobId, e);
+            jobMetrics.recordFailure(JobMetrics.FailureCause.UNEXPECTED);
             String errorMessage = (e.getMessage() != null) ? e.getMessage() : "Unknown error";
-            failJob(jobId, "Process failed unexpectedly: " + errorMessage, e); // Pass cause
+            failJob(jobId, "Process failed unexpectedly: " + errorMessage, e, job); // Pass cause
+        } finally {
+            partialOutputs.remove(jobId);
         }
     }
 
+    /**
+     * Puts a job back to PENDING if its worker was interrupted by a shutdown, instead of failing it.
+     *
+     * @return true if the job was interrupted.
+     */
+    private boolean returnToPendingIfInterrupted(final Long jobId) {
+        if (!jobScheduler.isInterrupting()) {
+            return false;
+        }
+        // Cleared so the database calls that put the job back are not cut short
+        Thread.interrupted();
+        returnToPending(jobId);
+        return true;
+    }
+
+    /**
+     * Puts a job interrupted by a shutdown back to PENDING, checkpointing what its generation call had
+     * streamed so far. The job is left alone if it finished in the meantime.
+     *
+     * @param jobId The job ID.
+     */
+    public void returnToPending(final Long jobId) {
+        StringBuffer partialOutput = partialOutputs.remove(jobId);
+        String checkpoint = partialOutput != null && partialOutput.length() > 0 ? partialOutput.toString() : null;
+        try {
+            TestGenerationJob job = jobLeaseService.release(jobId, checkpoint);
+            if (job == null) {
+                return;
+            }
+            onStatusChanged(job);
+            jobLogService.addJobLog(job, "WARN", checkpoint != null
+                    ? "Interrupted by shutdown; returned to PENDING with " + checkpoint.length() + " characters of output checkpointed."
+                    : "Interrupted by shutdown; returned to PENDING.");
+            logger.info("Job {} returned to PENDING{}", jobId, checkpoint != null ? " with a checkpoint" : "");
+        } catch (Exception e) {
+            logger.error("Could not return job {} to PENDING; it is recovered once its lease expires", jobId, e);
+        }
+    }
+
+    /**
+     * Continues output checkpointed before a shutdown: the test cases it completed are kept and the
+     * model is asked for the rest, starting again with the one that was cut off. A checkpoint
+     * without a complete test case (e.g. only a preamble) is generated again in full.
+     */
+    private OllamaGenerationClient.Completion continueFromCheckpoint(final String ticketContent, final String checkpoint,
+                                                                     final StringBuffer partialOutput) {
+        List<TestCaseParser.ParsedTestCase> cases = TestCaseParser.parse(checkpoint);
+        if (cases.size() < 2) {
+            return testGenerator.generateTests(ticketContent, partialOutput::append);
+        }
+        TestCaseParser.ParsedTestCase cutOff = cases.get(cases.size() - 1);
+        List<String> headers = new ArrayList<>(cases.size() - 1);
+        for (TestCaseParser.ParsedTestCase parsed : cases.subList(0, cases.size() - 1)) {
+            headers.add(parsed.getCode() + " " + parsed.getTitle());
+        }
+        String kept = checkpoint.substring(0, cutOff.getStartOffset()).stripTrailing();
+        // Checkpointed again if this run is interrupted too; the continuation itself is not streamed
+        partialOutput.append(kept);
+        OllamaGenerationClient.Completion continuation =
+                testGenerator.continueTests(ticketContent, headers, cutOff.getCode());
+        String content = continuation.content();
+        if (content == null || content.startsWith("Error:")) {
+            return continuation;
+        }
+        List<TestCaseParser.ParsedTestCase> more = TestCaseParser.parse(content);
+        if (more.isEmpty()) {
+            return new OllamaGenerationClient.Completion("Error: Continuation from " + cutOff.getCode()
+                    + " returned no test cases.", continuation.usage());
+        }
+        return new OllamaGenerationClient.Completion(
+                kept + "\n\n" + content.substring(more.get(0).getStartOffset()),
+                continuation.usage(), continuation.truncated());
+    }
+
+    /**
+     * @return The output of a job if it is still there and completed, else null.
+     */
+    private String loadCompletedResult(final Long jobId) {
+        return testGenerationRepository.findById(jobId)
+                .filter(found -> found.getStatus() == TestGenerationJob.JobStatus.COMPLETED)
+                .map(TestGenerationJob::getTestResult)
+                .orElse(null);
+    }
+
+    /**
+     * Compares the ticket with the job's previous version and decides what can be reused.
+     *
+     * @return The plan, or null if the job has to be generated in full: no previous completed
+     *         version, or too much of the description changed for reuse to pay off.
+     */
+    private IncrementalGenerationPlanner.Plan planIncrementalGeneration(final TestGenerationJob job,
+                                                                       final String ticketContent) {
+        if (job.getPreviousJobId() == null || incrementalMaxChangedRatio <= 0) {
+            return null;
+        }
+        TestGenerationJob previous = testGenerationRepository.findById(job.getPreviousJobId()).orElse(null);
+        if (previous == null || previous.getTestResult() == null
+                || previous.getStatus() != TestGenerationJob.JobStatus.COMPLETED) {
+            return null;
+        }
+        IncrementalGenerationPlanner.Plan plan =
+                IncrementalGenerationPlanner.plan(previous.getDescription(), previous.getTestResult(), ticketContent);
+        if (plan.getChangedRatio() > incrementalMaxChangedRatio) {
+            jobLogService.addJobLog(job, "INFO", String.format(Locale.ROOT,
+                    "%.0f%% of the description changed since job %d; regenerating all test cases.",
+                    plan.getChangedRatio() * 100, previous.getId()));
+            return null;
+        }
+        job.setReusedTestCaseCount(plan.getReusedTestCaseCount());
+        jobLogService.addJobLog(job, "INFO", String.format(Locale.ROOT,
+                "Revision %d of %s: %d new or changed sections, %d removed; reusing %d test cases of job %d, dropping %d.",
+                job.getRevision(), job.getJiraTicket(), plan.getChangedSections().size(), plan.getRemovedSections(),
+                plan.getReusedTestCaseCount(), previous.getId(), plan.getDroppedTestCases()));
+        return plan;
+    }
+
     /**
      * Helper method to mark a job as FAILED.
      *
      * @param jobId The ID of the job to fail.
      * @param errorMessage The reason for the failure.
      * @param cause The original exception causing the failure (optional).
+     * @param progress The worker's copy of the job with its LLM phase timestamps, or null if it was not claimed.
      */
-    private void failJob(final Long jobId, final String errorMessage, final Throwable cause) { // Accept cause
+    private void failJob(final Long jobId, final String errorMessage, final Throwable cause,
+                         final TestGenerationJob progress) { // Accept cause
         TestGenerationJob jobToFail = null;
         try {
-            jobToFail = testGenerationRepository.findById(jobId)
-                    // Throw JobNotFoundException if job doesn't exist when trying to fail it
-                    .orElseThrow(() -> new JobNotFoundException("Attempted to fail non-existent job: " + jobId));
-            jobToFail.setStatus(TestGenerationJob.JobStatus.FAILED);
             // Limit error message length if necessary
-            jobToFail.setErrorMessage(errorMessage.length() > 255 ? errorMessage.substring(0, 252) + ".." : errorMessage);
-            jobToFail.setCompletedAt(LocalDateTime.now());
-            testGenerationRepository.save(jobToFail);
+            final String storedMessage = errorMessage.length() > 255 ? errorMessage.substring(0, 252) + ".." : errorMessage;
+            // Throws JobNotFoundException if job doesn't exist when trying to fail it
+            jobToFail = jobMetrics.timePersistence(JobMetrics.PersistOperation.STATUS,
+                    () -> jobLeaseService.fail(jobId, storedMessage, progress));
+            if (jobToFail == null) {
+                logger.warn("Job {} is no longer held by this worker; not marking it FAILED. Reason: {}", jobId, errorMessage);
+                return;
+            }
+            onStatusChanged(jobToFail);
+            jobPhaseStats.recordFailed(jobToFail);
             logger.warn("Job {} marked as FAILED. Reason: {}", jobId, errorMessage, cause); // Log cause
              if (jobToFail != null) {
                 jobLogService.addJobLog(jobToFail, "ERROR", "Job failed: " + errorMessage); // Add failure log
@@ -184,6 +635,17 @@ public class TestGenerationService {
         }
     }
 
+    /**
+     * Propagates a saved status transition to the status cache and to event stream subscribers.
+     *
+     * @param job The job as just saved.
+     */
+    private void onStatusChanged(final TestGenerationJob job) {
+        replicaReadRouter.markWritten(job.getId());
+        jobStatusCache.put(job);
+        jobEventBus.publishStatus(job.getId(), job.getStatus().name(), job.getErrorMessage());
+    }
+
     /**
      * Retrieves the status and error message for a job.
      *
@@ -194,14 +656,71 @@ public class TestGenerationService {
      */
     public Map<String, Object> getJobStatus(final String jobId) {
         Long jobIdLong = Long.parseLong(jobId); // Can throw NumberFormatException
-        TestGenerationJob job = testGenerationRepository.findById(jobIdLong)
-            .orElseThrow(() -> new JobNotFoundException("Job status not found for ID: " + jobId)); // Throw JobNotFoundException
+        JobStatusSnapshot snapshot = getJobStatusSnapshot(jobIdLong);
         return Map.of(
-            "status", job.getStatus().name(),
-            "error", job.getErrorMessage() != null ? job.getErrorMessage() : ""
+            "status", snapshot.getStatus().name(),
+            "error", snapshot.getErrorMessage() != null ? snapshot.getErrorMessage() : ""
         );
     }
 
+    /**
+     * Retrieves the status snapshot for a job, served from the status cache while it is fresh
+     * and re-read from the database otherwise.
+     *
+     * @param jobId The job ID.
+     * @return The current status snapshot, including its ETag.
+     * @throws JobNotFoundException if the job is not found.
+     */
+    public JobStatusSnapshot getJobStatusSnapshot(final Long jobId) {
+        JobStatusSnapshot cached = jobStatusCache.getIfFresh(jobId);
+        if (cached != null) {
+            return cached;
+        }
+        return loadJobStatusSnapshot(jobId);
+    }
+
+    /**
+     * Waits until the job's status satisfies the condition, or until the timeout elapses.
+     * On timeout the status is re-read from the database on the bounded {@code statusPollExecutor},
+     * so transitions made by other instances are still observed. When that executor is saturated
+     * the snapshot the poll started from is returned and the client simply polls again.
+     *
+     * @param jobId The job ID.
+     * @param condition The state the caller is waiting for.
+     * @param timeout The maximum time to park the request.
+     * @return A future completed with the matching snapshot, or the latest one on timeout.
+     * @throws JobNotFoundException if the job is not found.
+     */
+    public CompletableFuture<JobStatusSnapshot> awaitJobStatus(final Long jobId,
+                                                               final Predicate<JobStatusSnapshot> condition,
+                                                               final Duration timeout) {
+        JobStatusSnapshot current = getJobStatusSnapshot(jobId);
+        if (condition.test(current)) {
+            return CompletableFuture.completedFuture(current);
+        }
+        return jobStatusCache.awaitChange(jobId, condition, timeout)
+                .thenCompose(snapshot -> snapshot != null
+                        ? CompletableFuture.completedFuture(snapshot)
+                        : reloadAfterTimeout(jobId, current));
+    }
+
+    private CompletableFuture<JobStatusSnapshot> reloadAfterTimeout(final Long jobId,
+                                                                  final JobStatusSnapshot lastSeen) {
+        try {
+            return CompletableFuture.supplyAsync(() -> loadJobStatusSnapshot(jobId), statusPollExecutor);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Status poll executor saturated, returning the last seen status of job {}", jobId);
+            return CompletableFuture.completedFuture(lastSeen);
+        }
+    }
+
+    private JobStatusSnapshot loadJobStatusSnapshot(final Long jobId) {
+        long readStartedNanos = System.nanoTime();
+        TestGenerationJob job = replicaReadRouter.read(jobId, () -> testGenerationRepository.findById(jobId)
+            .orElseThrow(() -> new JobNotFoundException("Job status not found for ID: " + jobId))); // Throw JobNotFoundException
+        return jobStatusCache.refresh(job, readStartedNanos);
+    }
+
     /**
      * Retrieves a specific job by its ID.
      *
@@ -210,27 +729,93 @@ public class TestGenerationService {
      * @throws JobNotFoundException if the job is not found.
      */
     public TestGenerationJob getJob(final Long id) {
-        return testGenerationRepository.findById(id)
-            .orElseThrow(() -> new JobNotFoundException("Job not found with id: " + id)); // Throw JobNotFoundException
+        return replicaReadRouter.read(id, () -> testGenerationRepository.findById(id)
+            .orElseThrow(() -> new JobNotFoundException("Job not found with id: " + id))); // Throw JobNotFoundException
+    }
+
+    /**
+     * Lists jobs matching the given filters using keyset pagination on (createdAt, id).
+     * Only summary columns are read, so the result payload is never loaded.
+     *
+     * @param criteria The optional filters, page size, sort direction and cursor.
+     * @return The requested page and the cursor for the next one (null on the last page).
+     * @throws IllegalArgumentException if the cursor or sort direction is invalid.
+     */
+    @Transactional(readOnly = true)
+    public JobPageDto listJobs(final JobSearchCriteria criteria) {
+        int limit = criteria.getLimit() == null ? DEFAULT_PAGE_SIZE
+                : Math.max(1, Math.min(criteria.getLimit(), MAX_PAGE_SIZE));
+        JobCursor cursor = JobCursor.decode(criteria.getCursor());
+        String componentPattern = criteria.getComponent() == null || criteria.getComponent().isBlank()
+                ? null : "%" + criteria.getComponent().trim() + "%";
+        // Fetch one extra row to know whether another page exists without a COUNT query
+        PageRequest pageRequest = PageRequest.of(0, limit + 1);
+
+        List<JobSummaryView> rows;
+        if (isAscending(criteria.getSort())) {
+            rows = testGenerationRepository.searchOldestFirst(criteria.getStatus(), criteria.getJiraTicket(),
+                    componentPattern, criteria.getCreatedFrom(), criteria.getCreatedTo(),
+                    cursor != null ? cursor.getCreatedAt() : null, cursor != null ? cursor.getId() : null,
+                    pageRequest);
+        } else {
+            rows = testGenerationRepository.searchNewestFirst(criteria.getStatus(), criteria.getJiraTicket(),
+                    componentPattern, criteria.getCreatedFrom(), criteria.getCreatedTo(),
+                    cursor != null ? cursor.getCreatedAt() : null, cursor != null ? cursor.getId() : null,
+                    pageRequest);
+        }
+
+        boolean hasMore = rows.size() > limit;
+        List<JobSummaryView> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            JobSummaryView last = page.get(page.size() - 1);
+            nextCursor = new JobCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        List<JobSummaryDto> items = page.stream()
+                .map(view -> new JobSummaryDto(view.getId(), view.getJiraTicket(), view.getComponents(),
+                        view.getStatus().name(), view.getErrorMessage(), view.getCreatedAt(), view.getCompletedAt()))
+                .collect(Collectors.toList());
+        return new JobPageDto(items, nextCursor);
+    }
+
+    private static boolean isAscending(final String sort) {
+        if (sort == null || sort.isBlank() || "desc".equalsIgnoreCase(sort)) {
+            return false;
+        }
+        if ("asc".equalsIgnoreCase(sort)) {
+            return true;
+        }
+        throw new IllegalArgumentException("Invalid sort direction: " + sort + " (expected 'asc' or 'desc')");
     }
 
     /**
-     * Deletes a job by its ID.
+     * Deletes a job by its ID, with its logs and test cases.
      * Cannot delete jobs that are currently IN_PROGRESS.
      *
      * @param jobId The ID of the job to delete.
      * @throws JobNotFoundException if the job is not found.
      * @throws InvalidJobStateException if the job is IN_PROGRESS.
      */
-    @Transactional
     public void deleteJob(final Long jobId) {
-        TestGenerationJob job = getJob(jobId); // Throws JobNotFoundException if not found
-        if (job.getStatus() == TestGenerationJob.JobStatus.IN_PROGRESS) {
+        JobDeletionResultDto result = jobDeletionService.deleteJobs(List.of(jobId));
+        if (!result.getNotFound().isEmpty()) {
+            throw new JobNotFoundException("Job not found with id: " + jobId);
+        }
+        if (!result.getInProgress().isEmpty()) {
             // Throw InvalidJobStateException for specific state issue
             throw new InvalidJobStateException("Cannot delete a job that is IN_PROGRESS. Job ID: " + jobId);
         }
-        testGenerationRepository.delete(job);
         logger.info("Deleted job with ID: {}", jobId);
-        // Consider deleting logs: jobLogService.deleteLogsForJob(jobId);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Deletes several jobs with one set-based delete per table. Jobs that are IN_PROGRESS or do not
+     * exist are reported rather than failing the request.
+     *
+     * @param jobIds The IDs of the jobs to delete.
+     * @return Which IDs were deleted, not found or skipped.
+     */
+    public JobDeletionResultDto deleteJobs(final List<Long> jobIds) {
+        return jobDeletionService.deleteJobs(jobIds);
+    }
+}
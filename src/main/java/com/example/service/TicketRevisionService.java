@@ -0,0 +1,101 @@
+package com.example.service;
+
+import com.example.exception.TicketRevisionConflictException;
+import com.example.model.TicketRevision;
+import com.example.repository.TestGenerationJobRepository;
+import com.example.repository.TicketRevisionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Assigns ticket revisions (job lineage version numbers) from a per-ticket counter row.
+ *
+ * <p>Reading the highest revision and inserting the next one would let two concurrent submissions
+ * for a ticket, on one instance or several, both take the same number. Advancing the counter
+ * instead locks the ticket's row until the job's transaction ends, so the second submission waits
+ * and takes the next revision; a rolled-back job gives its revision back.</p>
+ *
+ * <p>A ticket's counter is created in the transaction of its first job. The counter is not created
+ * in a transaction of its own: with SQLite's single write connection that would wait forever for
+ * the connection the job's transaction holds.</p>
+ */
+@Service
+public class TicketRevisionService {
+
+    private final TicketRevisionRepository ticketRevisionRepository;
+    private final TestGenerationJobRepository testGenerationRepository;
+
+    @Autowired
+    public TicketRevisionService(
+            final TicketRevisionRepository ticketRevisionRepository,
+            final TestGenerationJobRepository testGenerationRepository) {
+        this.ticketRevisionRepository = ticketRevisionRepository;
+        this.testGenerationRepository = testGenerationRepository;
+    }
+
+    /**
+     * Takes the next revision of a ticket, 1 for its first job.
+     *
+     * @param jiraTicket The ticket ID.
+     * @return The revision for the job being created in the current transaction.
+     * @throws TicketRevisionConflictException if the first job of the ticket is being created concurrently.
+     */
+    @Transactional
+    public int nextRevision(final String jiraTicket) {
+        return nextRevisions(List.of(jiraTicket)).get(0);
+    }
+
+    /**
+     * Takes the next revisions for jobs of several tickets, in order; a ticket listed twice gets two
+     * consecutive revisions. Counters are locked in ticket order, so that two batches sharing
+     * tickets cannot deadlock.
+     *
+     * @param jiraTickets The ticket ID of each job.
+     * @return The revision of each job, in the order of {@code jiraTickets}.
+     * @throws TicketRevisionConflictException if the first job of a ticket is being created concurrently.
+     */
+    @Transactional
+    public List<Integer> nextRevisions(final List<String> jiraTickets) {
+        Map<String, Integer> next = new HashMap<>();
+        for (String jiraTicket : new TreeSet<>(jiraTickets)) {
+            int count = Collections.frequency(jiraTickets, jiraTicket);
+            next.put(jiraTicket, advance(jiraTicket, count) - count + 1);
+        }
+        List<Integer> revisions = new ArrayList<>(jiraTickets.size());
+        for (String jiraTicket : jiraTickets) {
+            revisions.add(next.merge(jiraTicket, 1, Integer::sum) - 1);
+        }
+        return revisions;
+    }
+
+    /**
+     * Advances a ticket's counter, creating it on first use, and returns its new value. Tickets with
+     * jobs from before the counter existed continue from their highest revision.
+     */
+    private int advance(final String jiraTicket, final int count) {
+        if (ticketRevisionRepository.advance(jiraTicket, count) == 0) {
+            TicketRevision counter = new TicketRevision();
+            counter.setJiraTicket(jiraTicket);
+            Integer latestRevision = testGenerationRepository.findMaxRevision(jiraTicket);
+            counter.setLastRevision((latestRevision != null ? latestRevision : 0) + count);
+            try {
+                ticketRevisionRepository.saveAndFlush(counter);
+            } catch (DataIntegrityViolationException e) {
+                // Inserted by a concurrent first job of the ticket; this transaction can only roll back
+                throw new TicketRevisionConflictException("Another job for ticket " + jiraTicket
+                        + " is being created; retry the request", e);
+            }
+            return counter.getLastRevision();
+        }
+        return ticketRevisionRepository.findLastRevision(jiraTicket);
+    }
+}
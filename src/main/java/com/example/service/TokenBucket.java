@@ -0,0 +1,69 @@
+package com.example.service;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket. The whole state is swapped with a single CAS, so concurrent
+ * requests for the same key never block each other.
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    TokenBucket(final double tokensPerSecond, final int capacity) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.state = new AtomicReference<>(new State(capacity, System.nanoTime()));
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @return true if the request may proceed.
+     */
+    boolean tryAcquire() {
+        while (true) {
+            State current = state.get();
+            long now = System.nanoTime();
+            double tokens = refill(current, now);
+            if (tokens < 1d) {
+                return false;
+            }
+            if (state.compareAndSet(current, new State(tokens - 1d, Math.max(now, current.timestampNanos)))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return Whole seconds until the next token is available, at least 1.
+     */
+    long secondsUntilNextToken() {
+        double missing = 1d - refill(state.get(), System.nanoTime());
+        if (missing <= 0d || tokensPerNano <= 0d) {
+            return 1L;
+        }
+        return Math.max(1L, (long) Math.ceil(missing / tokensPerNano / 1_000_000_000d));
+    }
+
+    double availableTokens() {
+        return refill(state.get(), System.nanoTime());
+    }
+
+    private double refill(final State current, final long now) {
+        long elapsed = Math.max(0L, now - current.timestampNanos);
+        return Math.min(capacity, current.tokens + elapsed * tokensPerNano);
+    }
+
+    private static final class State {
+        private final double tokens;
+        private final long timestampNanos;
+
+        private State(final double tokens, final long timestampNanos) {
+            this.tokens = tokens;
+            this.timestampNanos = timestampNanos;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.service;
+
+import com.example.model.WebhookDelivery;
+import com.example.repository.WebhookDeliveryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Delivers due rows of the webhook outbox.
+ *
+ * <p>Each poll groups due deliveries by target host and hands up to {@code host-batch-size} of
+ * each group to the bounded {@code webhookExecutor} as one batch, with at most one batch in
+ * flight per host. A batch is leased before it is handed over and sent sequentially over
+ * kept-alive connections. The other due rows of the host are moved to the back of the queue,
+ * so a slow or dead receiver cannot fill the next polls and only delays its own callbacks.
+ * Failed attempts are retried with exponential backoff and jitter until {@code max-attempts}
+ * is reached.</p>
+ */
+@Component
+public class WebhookDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookDispatcher.class);
+
+    private final WebhookDeliveryRepository webhookDeliveryRepository;
+    private final WebhookSender webhookSender;
+    private final Executor webhookExecutor;
+    private final Set<String> hostsInFlight = ConcurrentHashMap.newKeySet();
+    private final int batchSize;
+    private final int hostBatchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final Timer deliveryLatency;
+    private final Timer attemptDuration;
+    private final Counter deliveryFailures;
+
+    @Autowired
+    public WebhookDispatcher(
+            final WebhookDeliveryRepository webhookDeliveryRepository,
+            final WebhookSender webhookSender,
+            @Qualifier("webhookExecutor") final Executor webhookExecutor,
+            final MeterRegistry meterRegistry,
+            @Value("${app.webhooks.batch-size:100}") final int batchSize,
+            @Value("${app.webhooks.host-batch-size:5}") final int hostBatchSize,
+            @Value("${app.webhooks.max-attempts:8}") final int maxAttempts,
+            @Value("${app.webhooks.initial-backoff:2s}") final Duration initialBackoff,
+            @Value("${app.webhooks.max-backoff:10m}") final Duration maxBackoff,
+            @Value("${app.webhooks.lease:2m}") final Duration lease) {
+        this.webhookDeliveryRepository = webhookDeliveryRepository;
+        this.webhookSender = webhookSender;
+        this.webhookExecutor = webhookExecutor;
+        this.batchSize = batchSize;
+        this.hostBatchSize = Math.max(1, hostBatchSize);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+        this.deliveryLatency = Timer.builder("webhook.delivery.latency")
+                .description("Time from job completion to successful callback delivery")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.attemptDuration = Timer.builder("webhook.delivery.attempt")
+                .description("Duration of a single callback HTTP attempt")
+                .register(meterRegistry);
+        this.deliveryFailures = Counter.builder("webhook.delivery.failed")
+                .description("Callbacks abandoned after exhausting their retries")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Polls the outbox for due deliveries and dispatches them per host.
+     * Rows left PENDING by a previous run are picked up here after a restart.
+     */
+    @Scheduled(fixedDelayString = "${app.webhooks.poll-interval-ms:1000}")
+    public void dispatchDue() {
+        List<WebhookDelivery> due = webhookDeliveryRepository.findDue(WebhookDelivery.DeliveryStatus.PENDING,
+                LocalDateTime.now(), PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return;
+        }
+        Map<String, List<WebhookDelivery>> byHost = new LinkedHashMap<>();
+        for (WebhookDelivery delivery : due) {
+            byHost.computeIfAbsent(hostKey(delivery.getTargetUrl()), host -> new ArrayList<>()).add(delivery);
+        }
+        for (Map.Entry<String, List<WebhookDelivery>> entry : byHost.entrySet()) {
+            String host = entry.getKey();
+            List<WebhookDelivery> rows = entry.getValue();
+            // Previous batch for this host still running: all of its due rows wait
+            int take = hostsInFlight.add(host) ? Math.min(hostBatchSize, rows.size()) : 0;
+            LocalDateTime now = LocalDateTime.now();
+            if (take < rows.size()) {
+                webhookDeliveryRepository.defer(ids(rows.subList(take, rows.size())),
+                        WebhookDelivery.DeliveryStatus.PENDING, now, now);
+            }
+            if (take == 0) {
+                continue;
+            }
+            // Leased here, not by the worker, so that the next poll does not fetch the batch again
+            LocalDateTime leaseUntil = now.plus(lease);
+            List<WebhookDelivery> batch = new ArrayList<>(take);
+            for (WebhookDelivery delivery : rows.subList(0, take)) {
+                if (webhookDeliveryRepository.claim(delivery.getId(), WebhookDelivery.DeliveryStatus.PENDING,
+                        now, leaseUntil) == 1) {
+                    batch.add(delivery);
+                } // else claimed by another dispatcher
+            }
+            if (batch.isEmpty()) {
+                hostsInFlight.remove(host);
+                continue;
+            }
+            try {
+                webhookExecutor.execute(() -> {
+                    try {
+                        batch.forEach(this::attempt);
+                    } finally {
+                        hostsInFlight.remove(host);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                hostsInFlight.remove(host);
+                webhookDeliveryRepository.defer(ids(batch), WebhookDelivery.DeliveryStatus.PENDING,
+                        leaseUntil, LocalDateTime.now());
+                logger.warn("Webhook executor saturated, deferring {} deliveries to {}", batch.size(), host);
+            }
+        }
+    }
+
+    private static List<Long> ids(final List<WebhookDelivery> deliveries) {
+        List<Long> ids = new ArrayList<>(deliveries.size());
+        for (WebhookDelivery delivery : deliveries) {
+            ids.add(delivery.getId());
+        }
+        return ids;
+    }
+
+    private void attempt(final WebhookDelivery delivery) {
+        String error = null;
+        long start = System.nanoTime();
+        try {
+            int statusCode = webhookSender.send(delivery);
+            if (statusCode < 200 || statusCode >= 300) {
+                error = "HTTP " + statusCode;
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = "Interrupted";
+        } finally {
+            attemptDuration.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        delivery.setAttempts(delivery.getAttempts() + 1);
+        if (error == null) {
+            delivery.setStatus(WebhookDelivery.DeliveryStatus.DELIVERED);
+            delivery.setDeliveredAt(now);
+            delivery.setLastError(null);
+            deliveryLatency.record(Duration.between(delivery.getCreatedAt(), now));
+            logger.debug("Delivered webhook {} for job {} after {} attempt(s)",
+                    delivery.getId(), delivery.getJobId(), delivery.getAttempts());
+        } else if (delivery.getAttempts() >= maxAttempts) {
+            delivery.setStatus(WebhookDelivery.DeliveryStatus.FAILED);
+            delivery.setLastError(truncate(error));
+            deliveryFailures.increment();
+            logger.warn("Giving up on webhook {} for job {} after {} attempts: {}",
+                    delivery.getId(), delivery.getJobId(), delivery.getAttempts(), error);
+        } else {
+            delivery.setNextAttemptAt(now.plus(backoff(delivery.getAttempts())));
+            delivery.setLastError(truncate(error));
+            logger.info("Webhook {} for job {} failed (attempt {}), retrying at {}: {}",
+                    delivery.getId(), delivery.getJobId(), delivery.getAttempts(), delivery.getNextAttemptAt(), error);
+        }
+        webhookDeliveryRepository.save(delivery);
+    }
+
+    /**
+     * Exponential backoff with "equal jitter": half of the capped delay is fixed, the other half random,
+     * so retries from many failed deliveries to one host spread out instead of arriving together.
+     */
+    Duration backoff(final int attempts) {
+        long capMillis = maxBackoff.toMillis();
+        long exponential = initialBackoff.toMillis() << Math.min(attempts - 1, 20);
+        long delay = Math.min(capMillis, exponential);
+        long half = delay / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    private static String hostKey(final String targetUrl) {
+        try {
+            URI uri = URI.create(targetUrl);
+            return uri.getHost() + ":" + uri.getPort();
+        } catch (IllegalArgumentException e) {
+            return targetUrl;
+        }
+    }
+
+    private static String truncate(final String error) {
+        return error.length() > 255 ? error.substring(0, 252) + ".." : error;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.service;
+
+import com.example.model.WebhookDelivery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Performs a single HTTP POST of a webhook delivery. One shared client keeps connections
+ * alive, so consecutive deliveries to the same host reuse them.
+ */
+@Component
+public class WebhookSender {
+
+    static final String DELIVERY_ID_HEADER = "X-Webhook-Delivery-Id";
+    static final String EVENT_HEADER = "X-Webhook-Event";
+
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+
+    public WebhookSender(
+            @Value("${app.webhooks.connect-timeout:5s}") final Duration connectTimeout,
+            @Value("${app.webhooks.request-timeout:10s}") final Duration requestTimeout) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Posts the delivery's payload to its target URL.
+     *
+     * @param delivery The outbox row to send.
+     * @return The HTTP status code returned by the receiver.
+     * @throws IOException on connection failures or timeouts.
+     * @throws InterruptedException if the sending thread is interrupted.
+     */
+    public int send(final WebhookDelivery delivery) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(delivery.getTargetUrl()))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                // Receivers can de-duplicate on this: delivery is at-least-once
+                .header(DELIVERY_ID_HEADER, String.valueOf(delivery.getId()))
+                .header(EVENT_HEADER, "job.finished")
+                .POST(HttpRequest.BodyPublishers.ofString(delivery.getPayload(), StandardCharsets.UTF_8))
+                .build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.service;
+
+import com.example.model.TestGenerationJob;
+import com.example.model.WebhookDelivery;
+import com.example.repository.WebhookDeliveryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Validates job callback URLs and writes completion callbacks to the webhook outbox,
+ * from which {@link WebhookDispatcher} delivers them.
+ */
+@Service
+public class WebhookService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookService.class);
+
+    private final WebhookDeliveryRepository webhookDeliveryRepository;
+    private final ObjectMapper objectMapper;
+    private final List<String> allowedHosts;
+
+    @Autowired
+    public WebhookService(
+            final WebhookDeliveryRepository webhookDeliveryRepository,
+            final ObjectMapper objectMapper,
+            @Value("${app.webhooks.allowed-hosts:}") final List<String> allowedHosts) {
+        this.webhookDeliveryRepository = webhookDeliveryRepository;
+        this.objectMapper = objectMapper;
+        this.allowedHosts = allowedHosts.stream()
+                .filter(host -> !host.isBlank())
+                .map(host -> host.trim().toLowerCase(Locale.ROOT))
+                .toList();
+    }
+
+    /**
+     * Checks a callback URL before a job is accepted.
+     *
+     * <p>Without {@code app.webhooks.allowed-hosts} any public host is accepted: the host is resolved
+     * and rejected if any of its addresses is loopback, link-local, private or otherwise internal, so
+     * that callbacks cannot be aimed at services behind the firewall or the cloud metadata endpoint.</p>
+     *
+     * @param callbackUrl The URL supplied by the client.
+     * @throws IllegalArgumentException if the URL is not http(s) or its host is not allowed.
+     */
+    public void validateCallbackUrl(final String callbackUrl) {
+        URI uri;
+        try {
+            uri = URI.create(callbackUrl);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid callbackUrl: " + callbackUrl, e);
+        }
+        String scheme = uri.getScheme();
+        if (uri.getHost() == null || !("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme))) {
+            throw new IllegalArgumentException("callbackUrl must be an absolute http(s) URL: " + callbackUrl);
+        }
+        if (!allowedHosts.isEmpty()) {
+            if (!allowedHosts.contains(uri.getHost().toLowerCase(Locale.ROOT))) {
+                throw new IllegalArgumentException("callbackUrl host is not allowed: " + uri.getHost());
+            }
+            return;
+        }
+        InetAddress[] addresses;
+        try {
+            addresses = InetAddress.getAllByName(uri.getHost());
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("callbackUrl host cannot be resolved: " + uri.getHost(), e);
+        }
+        for (InetAddress address : addresses) {
+            if (isInternal(address)) {
+                throw new IllegalArgumentException("callbackUrl host resolves to a non-public address: " + uri.getHost());
+            }
+        }
+    }
+
+    private static boolean isInternal(final InetAddress address) {
+        return address.isAnyLocalAddress()
+                || address.isLoopbackAddress()
+                || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress()
+                || address.isMulticastAddress()
+                // IPv6 unique local addresses (fc00::/7), the successor of site-local ones
+                || (address instanceof Inet6Address && (address.getAddress()[0] & 0xfe) == 0xfc);
+    }
+
+    /**
+     * Records a completion callback for a finished job, if it asked for one. Call it in the
+     * transaction that stores the job's final status, so that the callback is recorded exactly
+     * when the status change is; a failure here rolls that transaction back.
+     *
+     * @param job The job in its final (COMPLETED or FAILED) state.
+     * @throws IllegalStateException if the payload cannot be serialized.
+     */
+    public void enqueueCompletion(final TestGenerationJob job) {
+        if (job.getCallbackUrl() == null || job.getCallbackUrl().isBlank()) {
+            return;
+        }
+        WebhookDelivery delivery = new WebhookDelivery();
+        delivery.setJobId(job.getId());
+        delivery.setTargetUrl(job.getCallbackUrl());
+        try {
+            delivery.setPayload(objectMapper.writeValueAsString(buildPayload(job)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize webhook payload for job " + job.getId(), e);
+        }
+        delivery.setStatus(WebhookDelivery.DeliveryStatus.PENDING);
+        delivery.setCreatedAt(LocalDateTime.now());
+        delivery.setNextAttemptAt(delivery.getCreatedAt());
+        webhookDeliveryRepository.save(delivery);
+        logger.debug("Queued completion webhook for job {} to {}", job.getId(), job.getCallbackUrl());
+    }
+
+    private Map<String, Object> buildPayload(final TestGenerationJob job) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("jobId", job.getId());
+        payload.put("ticketId", job.getJiraTicket());
+        payload.put("status", job.getStatus().name());
+        payload.put("errorMessage", job.getErrorMessage());
+        payload.put("completedAt", job.getCompletedAt() != null ? job.getCompletedAt().toString() : null);
+        payload.put("resultPath", "/api/v1/test-generation/jobs/" + job.getId() + "/test-result");
+        return payload;
+    }
+}
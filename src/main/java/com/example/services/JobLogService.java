@@ -1,30 +1,42 @@
 package com.example.services;
 
-import com.example.model.JobLog;
+import com.example.dto.JobLogDto;
+import com.example.event.JobEventBus;
 import com.example.model.TestGenerationJob;
-import com.example.repository.TestGenerationJobRepository;
-import com.example.repository.JobLogRepository;
+import com.example.service.JobMetrics;
+import com.example.service.ReplicaReadRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 /**
- * Service responsible for managing job log entries.
+ * Service responsible for managing job log entries. Entries are kept by the {@link JobLogStore}
+ * selected with {@code app.logs.store}.
  */
 @Service
 public class JobLogService {
     private static final Logger logger = LoggerFactory.getLogger(JobLogService.class);
-    private final TestGenerationJobRepository testGenerationJobRepository;
-    private final JobLogRepository jobLogRepository;
+    private final JobLogStore jobLogStore;
+    private final JobEventBus jobEventBus;
+    private final JobMetrics jobMetrics;
+    private final ReplicaReadRouter replicaReadRouter;
 
     @Autowired
     public JobLogService(
-        final TestGenerationJobRepository testGenerationJobRepository, 
-        final JobLogRepository jobLogRepository) {
-        this.testGenerationJobRepository = testGenerationJobRepository;
-        this.jobLogRepository = jobLogRepository;
+        final JobLogStore jobLogStore,
+        final JobEventBus jobEventBus,
+        final JobMetrics jobMetrics,
+        final ReplicaReadRouter replicaReadRouter) {
+        this.jobLogStore = jobLogStore;
+        this.jobEventBus = jobEventBus;
+        this.jobMetrics = jobMetrics;
+        this.replicaReadRouter = replicaReadRouter;
     }
 
     /**
@@ -42,17 +54,38 @@ public class JobLogService {
             return;
         }
         try {
-            job = testGenerationJobRepository.findById(job.getId()).orElseThrow();
-            JobLog log = new JobLog();
-            log.setJob(job);
-            log.setLevel(level);
-            log.setMessage(message.length() > 150 ? message.substring(0, 150) + "..." : message);
-            log.setTimestamp(java.time.LocalDateTime.now());
-            jobLogRepository.save(log);
-            logger.debug("Log added successfully for job {}: {} - {}", job.getId(), level, log.getMessage());
+            LocalDateTime timestamp = LocalDateTime.now();
+            String stored = jobMetrics.timePersistence(JobMetrics.PersistOperation.LOG,
+                    () -> jobLogStore.append(job, level, message, timestamp));
+            replicaReadRouter.markWritten(job.getId());
+            jobEventBus.publishLog(job.getId(), level, stored, timestamp);
+            logger.debug("Log added successfully for job {}: {} - {}", job.getId(), level, stored);
         } catch (Exception e) {
             logger.error("Error during adding log for job {}: {}", job.getId(), e.getMessage());
             logger.info("[JOB_{}] {} - {}", job.getId(), level, message);
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Returns a job's log entries, newest first; served by the read replica when one is configured.
+     * No entries on the replica may just mean it has not caught up, so they are looked up again on
+     * the primary. Not transactional: each lookup needs its own read-only transaction to be routed.
+     *
+     * @param jobId The job ID.
+     * @param tail Maximum number of entries to return, or null for all of them.
+     * @return The log entries.
+     */
+    public List<JobLogDto> getJobLogs(Long jobId, Integer tail) {
+        return replicaReadRouter.read(jobId, () -> jobLogStore.findLatest(jobId, tail == null ? Integer.MAX_VALUE : tail),
+                List::isEmpty);
+    }
+
+    /**
+     * Removes the stored log entries of deleted jobs.
+     *
+     * @param jobIds The IDs of the deleted jobs.
+     */
+    public void deleteLogs(Collection<Long> jobIds) {
+        jobLogStore.deleteForJobs(jobIds);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.services;
+
+import com.example.dto.JobLogDto;
+import com.example.model.TestGenerationJob;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Storage backend for job log entries, selected with {@code app.logs.store}.
+ */
+public interface JobLogStore {
+
+    /**
+     * Stores one log entry.
+     *
+     * @param job       The job the entry belongs to.
+     * @param level     The log level.
+     * @param message   The log message.
+     * @param timestamp When the entry was written.
+     * @return The message as stored, which a backend may have shortened.
+     */
+    String append(TestGenerationJob job, String level, String message, LocalDateTime timestamp);
+
+    /**
+     * @param jobId The job ID.
+     * @param limit Maximum number of entries to return.
+     * @return The job's most recent entries, newest first.
+     */
+    List<JobLogDto> findLatest(Long jobId, int limit);
+
+    /**
+     * Removes what the backend keeps for deleted jobs. Rows in {@code job_logs} are deleted together
+     * with their jobs by {@link com.example.service.JobDeletionService} whichever backend is selected.
+     *
+     * @param jobIds The IDs of the deleted jobs.
+     */
+    void deleteForJobs(Collection<Long> jobIds);
+}
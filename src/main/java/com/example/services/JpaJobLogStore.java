@@ -0,0 +1,72 @@
+package com.example.services;
+
+import com.example.dto.JobLogDto;
+import com.example.model.JobLog;
+import com.example.model.TestGenerationJob;
+import com.example.repository.JobLogRepository;
+import com.example.repository.TestGenerationJobRepository;
+import com.example.service.BatchedWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Default job log backend: one {@code job_logs} row per entry, messages cut to 150 characters to keep
+ * the table small. Inserts go through the {@link BatchedWriter}, which commits them in batches when
+ * {@code app.sqlite.batch-writes} is on.
+ */
+@Service
+@ConditionalOnProperty(name = "app.logs.store", havingValue = "jpa", matchIfMissing = true)
+public class JpaJobLogStore implements JobLogStore {
+
+    private static final int MAX_MESSAGE_LENGTH = 150;
+
+    private final TestGenerationJobRepository testGenerationJobRepository;
+    private final JobLogRepository jobLogRepository;
+    private final BatchedWriter batchedWriter;
+
+    @Autowired
+    public JpaJobLogStore(final TestGenerationJobRepository testGenerationJobRepository,
+                          final JobLogRepository jobLogRepository,
+                          final BatchedWriter batchedWriter) {
+        this.testGenerationJobRepository = testGenerationJobRepository;
+        this.jobLogRepository = jobLogRepository;
+        this.batchedWriter = batchedWriter;
+    }
+
+    @Override
+    public String append(final TestGenerationJob job, final String level, final String message, final LocalDateTime timestamp) {
+        Long jobId = job.getId();
+        String stored = message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) + "..." : message;
+        batchedWriter.submit(() -> {
+            JobLog log = new JobLog();
+            // A reference is enough for the foreign key; a deleted job fails the insert instead of a lookup
+            log.setJob(testGenerationJobRepository.getReferenceById(jobId));
+            log.setLevel(level);
+            log.setMessage(stored);
+            log.setTimestamp(timestamp);
+            jobLogRepository.save(log);
+        });
+        return stored;
+    }
+
+    @Override
+    public List<JobLogDto> findLatest(final Long jobId, final int limit) {
+        List<JobLog> logs = limit == Integer.MAX_VALUE
+                ? jobLogRepository.findByJobIdOrderByTimestampDesc(jobId)
+                : jobLogRepository.findByJobIdOrderByTimestampDesc(jobId, PageRequest.of(0, limit));
+        return logs.stream()
+                .map(log -> new JobLogDto(log.getTimestamp(), log.getLevel(), log.getMessage()))
+                .toList();
+    }
+
+    @Override
+    public void deleteForJobs(final Collection<Long> jobIds) {
+        // Nothing beyond the job_logs rows, which are deleted with the jobs
+    }
+}
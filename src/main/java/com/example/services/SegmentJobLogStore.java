@@ -0,0 +1,504 @@
+package com.example.services;
+
+import com.example.dto.JobLogDto;
+import com.example.model.TestGenerationJob;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Job log backend writing full messages to append-only, memory-mapped segment files under
+ * {@code app.logs.segment.dir}; selected with {@code app.logs.store=segment}.
+ *
+ * <p>Each segment is preallocated to {@code segment-size} and filled with records of
+ * {@code [length][crc32][type, jobId, epoch millis, level, message]}; a zero length marks the end of
+ * the written data. When a record does not fit, the next segment is started. An in-memory index keeps
+ * the position of every live entry per job, in write order, so the last N entries of a job are read
+ * directly without scanning. The index is rebuilt by scanning the segments on startup; a record cut
+ * short by a crash fails its checksum and ends the scan.</p>
+ *
+ * <p>Deleting a job's logs appends a tombstone record. Sealed segments whose share of live entries
+ * falls below {@code compaction-threshold} are rewritten with their live records only, keeping their
+ * place in the segment order, or removed when nothing in them is live.</p>
+ *
+ * <p>Writes go to the page cache; a JVM crash loses nothing, an OS crash may lose the entries written
+ * since the kernel last flushed the mapping.</p>
+ */
+@Service
+@ConditionalOnProperty(name = "app.logs.store", havingValue = "segment")
+public class SegmentJobLogStore implements JobLogStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentJobLogStore.class);
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String COMPACTING_SUFFIX = ".compacting";
+    private static final byte LOG = 1;
+    private static final byte DELETE = 2;
+    // Length and checksum in front of each record
+    private static final int RECORD_HEADER_BYTES = 8;
+    // Type, job ID, timestamp and level length in front of the level and message
+    private static final int LOG_FIELDS_BYTES = 1 + 8 + 8 + 1;
+    private static final int DELETE_PAYLOAD_BYTES = 1 + 8;
+    // Positions pack the segment ID and the offset into one long
+    private static final long MAX_SEGMENT_BYTES = Integer.MAX_VALUE;
+    private static final int MAX_MESSAGE_BYTES = 1024 * 1024;
+    private static final String TRUNCATION_MARKER = "...";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxMessageBytes;
+    private final double compactionThreshold;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+    private final Map<Long, Positions> index = new HashMap<>();
+    private Segment active;
+
+    @Autowired
+    public SegmentJobLogStore(
+            @Value("${app.logs.segment.dir:./data/job-logs}") final String directory,
+            @Value("${app.logs.segment.segment-size:64MB}") final DataSize segmentSize,
+            @Value("${app.logs.segment.compaction-threshold:0.5}") final double compactionThreshold) {
+        if (segmentSize.toBytes() < 4096 || segmentSize.toBytes() > MAX_SEGMENT_BYTES) {
+            throw new IllegalArgumentException("app.logs.segment.segment-size must be between 4KB and 2GB");
+        }
+        this.directory = Path.of(directory);
+        this.segmentBytes = (int) segmentSize.toBytes();
+        // A single entry never takes more than a quarter of a segment
+        this.maxMessageBytes = Math.min(MAX_MESSAGE_BYTES, segmentBytes / 4);
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Maps the existing segments, rebuilds the index from them and opens the last one for appending.
+     */
+    @PostConstruct
+    void open() throws IOException {
+        lock.writeLock().lock();
+        try {
+            Files.createDirectories(directory);
+            List<Integer> ids = new ArrayList<>();
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    String name = file.getFileName().toString();
+                    if (name.endsWith(COMPACTING_SUFFIX)) {
+                        Files.delete(file); // Left behind by a crash during compaction; the original is intact
+                    } else if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                        ids.add(Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+                    }
+                }
+            }
+            ids.sort(null);
+            for (int id : ids) {
+                Segment segment = map(id, segmentFile(id), 0);
+                segments.put(id, segment);
+                scan(segment, id == ids.get(ids.size() - 1));
+            }
+            if (segments.isEmpty() || segments.lastEntry().getValue().capacity() < segmentBytes) {
+                // Compacted segments are sized to their content and never appended to
+                roll();
+            } else {
+                active = segments.lastEntry().getValue();
+            }
+            logger.info("Job log segments opened at {}: {} segments, {} jobs", directory, segments.size(), index.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            for (Segment segment : segments.values()) {
+                segment.close();
+            }
+            segments.clear();
+            index.clear();
+            active = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public String append(final TestGenerationJob job, final String level, final String message, final LocalDateTime timestamp) {
+        byte[] levelBytes = level.getBytes(StandardCharsets.UTF_8);
+        if (levelBytes.length > 255) {
+            levelBytes = Arrays.copyOf(levelBytes, 255);
+        }
+        String stored = message;
+        byte[] messageBytes = message.getBytes(StandardCharsets.UTF_8);
+        if (messageBytes.length > maxMessageBytes) {
+            // Decoding a cut multi-byte character yields one replacement character, so the result stays in bounds
+            stored = new String(messageBytes, 0, maxMessageBytes - 16, StandardCharsets.UTF_8) + TRUNCATION_MARKER;
+            messageBytes = stored.getBytes(StandardCharsets.UTF_8);
+        }
+        ByteBuffer payload = ByteBuffer.allocate(LOG_FIELDS_BYTES + levelBytes.length + messageBytes.length)
+                .put(LOG)
+                .putLong(job.getId())
+                .putLong(timestamp.toInstant(ZoneOffset.UTC).toEpochMilli())
+                .put((byte) levelBytes.length)
+                .put(levelBytes)
+                .put(messageBytes);
+        lock.writeLock().lock();
+        try {
+            long position = write(payload.array());
+            index.computeIfAbsent(job.getId(), id -> new Positions()).add(position);
+            active.records++;
+            active.liveRecords++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to job log segment", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return stored;
+    }
+
+    @Override
+    public List<JobLogDto> findLatest(final Long jobId, final int limit) {
+        lock.readLock().lock();
+        try {
+            Positions positions = index.get(jobId);
+            if (positions == null || limit <= 0) {
+                return List.of();
+            }
+            int from = Math.max(0, positions.size - limit);
+            List<JobLogDto> entries = new ArrayList<>(positions.size - from);
+            for (int i = positions.size - 1; i >= from; i--) {
+                entries.add(readEntry(positions.values[i]));
+            }
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteForJobs(final Collection<Long> jobIds) {
+        lock.writeLock().lock();
+        try {
+            for (Long jobId : jobIds) {
+                Positions positions = index.remove(jobId);
+                if (positions == null) {
+                    continue;
+                }
+                for (int i = 0; i < positions.size; i++) {
+                    segments.get(segmentId(positions.values[i])).liveRecords--;
+                }
+                write(ByteBuffer.allocate(DELETE_PAYLOAD_BYTES).put(DELETE).putLong(jobId).array());
+                active.tombstones = true;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to job log segment", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrites or removes sealed segments with few live entries left.
+     */
+    @Scheduled(initialDelayString = "${app.logs.segment.compaction-interval-ms:600000}",
+            fixedDelayString = "${app.logs.segment.compaction-interval-ms:600000}")
+    public void compact() {
+        List<Integer> candidates = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Segment segment : segments.values()) {
+                // A segment of tombstones only is dropped once nothing older is left for them to hide
+                boolean sparse = segment.records == 0
+                        ? segment.id == segments.firstKey()
+                        : segment.liveRecords < segment.records * compactionThreshold;
+                if (segment != active && sparse) {
+                    candidates.add(segment.id);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        for (int id : candidates) {
+            try {
+                compact(id);
+            } catch (IOException e) {
+                logger.error("Compaction of job log segment {} failed: {}", id, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Copies the live records of a sealed segment into a new file that replaces it. Appends and reads
+     * wait while one segment is copied.
+     */
+    void compact(final int id) throws IOException {
+        lock.writeLock().lock();
+        try {
+            Segment segment = segments.get(id);
+            if (segment == null || segment == active) {
+                return;
+            }
+            // Tombstones only matter while older segments may still hold the deleted job's entries
+            boolean keepTombstones = segment.tombstones && segments.firstKey() != id;
+            if (segment.liveRecords == 0 && !keepTombstones) {
+                segments.remove(id);
+                segment.close();
+                Files.delete(segment.file);
+                logger.info("Removed job log segment {}: no live entries", id);
+                return;
+            }
+
+            ByteBuffer copy = ByteBuffer.allocate(segment.size);
+            // Old and new offset of each kept entry, in file order
+            List<int[]> moved = new ArrayList<>();
+            int records = 0;
+            boolean tombstones = false;
+            int offset = 0;
+            while (offset < segment.size) {
+                int length = segment.buffer.getInt(offset);
+                int recordBytes = RECORD_HEADER_BYTES + length;
+                byte type = segment.buffer.get(offset + RECORD_HEADER_BYTES);
+                long jobId = segment.buffer.getLong(offset + RECORD_HEADER_BYTES + 1);
+                boolean keep = type == LOG ? indexOf(jobId, position(id, offset)) >= 0 : keepTombstones;
+                if (keep) {
+                    if (type == LOG) {
+                        moved.add(new int[]{offset, copy.position()});
+                        records++;
+                    } else {
+                        tombstones = true;
+                    }
+                    copy.put(segment.buffer.slice(offset, recordBytes));
+                }
+                offset += recordBytes;
+            }
+
+            Path compacting = segment.file.resolveSibling(segment.file.getFileName() + COMPACTING_SUFFIX);
+            try (FileChannel channel = FileChannel.open(compacting, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                copy.flip();
+                while (copy.hasRemaining()) {
+                    channel.write(copy);
+                }
+                channel.force(true);
+            }
+            int freed = segment.size - copy.limit();
+            segment.close();
+            Files.move(compacting, segment.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Segment compacted = map(id, segment.file, 0);
+            compacted.size = copy.limit();
+            compacted.records = records;
+            compacted.liveRecords = records;
+            compacted.tombstones = tombstones;
+            segments.put(id, compacted);
+            // Offsets only shrink and keep their order, so remapping in file order keeps each job's positions sorted
+            for (int[] offsets : moved) {
+                long jobId = compacted.buffer.getLong(offsets[1] + RECORD_HEADER_BYTES + 1);
+                Positions positions = index.get(jobId);
+                positions.values[positions.indexOf(position(id, offsets[0]))] = position(id, offsets[1]);
+            }
+            logger.info("Compacted job log segment {}: {} live entries kept, {} bytes freed", id, records, freed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Number of segment files, sealed and active.
+     */
+    int segmentCount() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long write(final byte[] payload) throws IOException {
+        if (active.size + RECORD_HEADER_BYTES + payload.length > active.capacity()) {
+            roll();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        int offset = active.size;
+        active.buffer.put(offset + RECORD_HEADER_BYTES, payload);
+        active.buffer.putInt(offset + 4, (int) crc.getValue());
+        // The length goes last: until it is set the record reads as the end of the segment
+        active.buffer.putInt(offset, payload.length);
+        active.size += RECORD_HEADER_BYTES + payload.length;
+        return position(active.id, offset);
+    }
+
+    private void roll() throws IOException {
+        if (active != null) {
+            active.buffer.force();
+        }
+        int id = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+        active = map(id, segmentFile(id), segmentBytes);
+        segments.put(id, active);
+    }
+
+    /**
+     * Reads records from the start of a segment, adding LOG records to the index and applying tombstones.
+     */
+    private void scan(final Segment segment, final boolean last) {
+        int offset = 0;
+        CRC32 crc = new CRC32();
+        while (offset + RECORD_HEADER_BYTES <= segment.capacity()) {
+            int length = segment.buffer.getInt(offset);
+            if (length == 0) {
+                break;
+            }
+            boolean valid = length >= DELETE_PAYLOAD_BYTES && offset + RECORD_HEADER_BYTES + length <= segment.capacity();
+            if (valid) {
+                crc.reset();
+                crc.update(segment.buffer.slice(offset + RECORD_HEADER_BYTES, length));
+                valid = (int) crc.getValue() == segment.buffer.getInt(offset + 4);
+            }
+            if (!valid) {
+                logger.warn("Job log segment {} ends with a damaged record at offset {}; later entries are ignored", segment.id, offset);
+                if (last) {
+                    // Zeroed so the records appended from here are not followed by leftovers on the next scan
+                    for (int i = offset; i < segment.capacity(); i++) {
+                        segment.buffer.put(i, (byte) 0);
+                    }
+                }
+                break;
+            }
+            byte type = segment.buffer.get(offset + RECORD_HEADER_BYTES);
+            long jobId = segment.buffer.getLong(offset + RECORD_HEADER_BYTES + 1);
+            if (type == LOG) {
+                index.computeIfAbsent(jobId, key -> new Positions()).add(position(segment.id, offset));
+                segment.records++;
+                segment.liveRecords++;
+            } else {
+                Positions removed = index.remove(jobId);
+                if (removed != null) {
+                    for (int i = 0; i < removed.size; i++) {
+                        segments.get(segmentId(removed.values[i])).liveRecords--;
+                    }
+                }
+                segment.tombstones = true;
+            }
+            offset += RECORD_HEADER_BYTES + length;
+        }
+        segment.size = offset;
+    }
+
+    private JobLogDto readEntry(final long position) {
+        Segment segment = segments.get(segmentId(position));
+        int offset = (int) position + RECORD_HEADER_BYTES;
+        int length = segment.buffer.getInt((int) position);
+        long epochMillis = segment.buffer.getLong(offset + 9);
+        int levelLength = Byte.toUnsignedInt(segment.buffer.get(offset + 17));
+        byte[] level = new byte[levelLength];
+        segment.buffer.get(offset + LOG_FIELDS_BYTES, level);
+        byte[] message = new byte[length - LOG_FIELDS_BYTES - levelLength];
+        segment.buffer.get(offset + LOG_FIELDS_BYTES + levelLength, message);
+        return new JobLogDto(LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC),
+                new String(level, StandardCharsets.UTF_8), new String(message, StandardCharsets.UTF_8));
+    }
+
+    private int indexOf(final long jobId, final long position) {
+        Positions positions = index.get(jobId);
+        return positions == null ? -1 : positions.indexOf(position);
+    }
+
+    private Path segmentFile(final int id) {
+        return directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Maps a segment file, growing it to {@code minimumBytes} if it is smaller.
+     */
+    private static Segment map(final int id, final Path file, final int minimumBytes) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long bytes = Math.max(channel.size(), minimumBytes);
+        return new Segment(id, file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes));
+    }
+
+    private static long position(final int segmentId, final int offset) {
+        return ((long) segmentId << 32) | offset;
+    }
+
+    private static int segmentId(final long position) {
+        return (int) (position >>> 32);
+    }
+
+    private static final class Segment {
+        private final int id;
+        private final Path file;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int size;
+        private int records;
+        private int liveRecords;
+        private boolean tombstones;
+
+        private Segment(final int id, final Path file, final FileChannel channel, final MappedByteBuffer buffer) {
+            this.id = id;
+            this.file = file;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        private int capacity() {
+            return buffer.capacity();
+        }
+
+        private void close() throws IOException {
+            // The mapping itself is released when the buffer is garbage collected
+            buffer.force();
+            channel.close();
+        }
+    }
+
+    /**
+     * Positions of one job's entries in write order, hence sorted.
+     */
+    private static final class Positions {
+        private long[] values = new long[8];
+        private int size;
+
+        private void add(final long position) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = position;
+        }
+
+        private int indexOf(final long position) {
+            int found = Arrays.binarySearch(values, 0, size, position);
+            return found >= 0 ? found : -1;
+        }
+    }
+}
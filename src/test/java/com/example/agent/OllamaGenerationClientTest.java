@@ -0,0 +1,176 @@
+package com.example.agent;
+
+import com.example.model.LlmUsage;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OllamaGenerationClientTest {
+
+    // Captured from Ollama 0.3 for a generation cut off by num_predict
+    private static final String CHAT_RESPONSE = """
+            {"model":"mistral","created_at":"2024-08-06T10:15:30.123456Z",\
+            "message":{"role":"assistant","content":"UAT-001 Login\\nSteps:\\n1. Open the"},\
+            "done_reason":"length","done":true,"total_duration":5191566416,"load_duration":2154458,\
+            "prompt_eval_count":26,"prompt_eval_duration":383809000,"eval_count":298,"eval_duration":4799921000}
+            """;
+
+    private static final String STREAM_START = """
+            {"model":"mistral","created_at":"2024-08-06T10:15:30Z","message":{"role":"assistant","content":"UAT-001 "},"done":false}
+            {"model":"mistral","created_at":"2024-08-06T10:15:31Z","message":{"role":"assistant","content":"Login\\n"},"done":false}
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> requestBodies = new CopyOnWriteArrayList<>();
+    private HttpServer ollama;
+    private volatile String responseBody = CHAT_RESPONSE;
+    private OllamaGenerationClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ollama = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        ollama.createContext("/api/chat", exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                requestBodies.add(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            byte[] response = responseBody.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        ollama.start();
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.ai.ollama.options.temperature", "0.2")
+                .withProperty("spring.ai.ollama.options.num_predict", "256")
+                .withProperty("spring.ai.ollama.options.use_mmap", "true")
+                .withProperty("spring.ai.ollama.options.stop[0]", "</s>")
+                .withProperty("spring.ai.ollama.options.stop[1]", "USER:")
+                .withProperty("spring.ai.ollama.options.rope_scaling.type", "linear");
+        client = new OllamaGenerationClient(objectMapper, "http://localhost:" + ollama.getAddress().getPort(),
+                "mistral", Duration.ofSeconds(5), environment);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ollama.stop(0);
+    }
+
+    @Test
+    void complete_ShouldParseUsageInMillisAndTruncation() throws Exception {
+        OllamaGenerationClient.Completion completion = client.complete("Write tests");
+
+        assertEquals("UAT-001 Login\nSteps:\n1. Open the", completion.content());
+        assertTrue(completion.truncated());
+        LlmUsage usage = completion.usage();
+        assertEquals("mistral", usage.getModel());
+        assertEquals("localhost:" + ollama.getAddress().getPort(), usage.getBackend());
+        assertEquals(26, usage.getPromptTokens());
+        assertEquals(298, usage.getCompletionTokens());
+        assertEquals(2L, usage.getLoadMillis());
+        assertEquals(383L, usage.getPromptEvalMillis());
+        assertEquals(4799L, usage.getEvalMillis());
+        assertEquals(5191L, usage.getTotalMillis());
+    }
+
+    @Test
+    void complete_ShouldSendConfiguredOptionsWithTheirJsonTypes() throws Exception {
+        client.complete("Write tests");
+
+        JsonNode request = objectMapper.readTree(requestBodies.get(0));
+        assertEquals("mistral", request.get("model").asText());
+        assertFalse(request.get("stream").asBoolean());
+        JsonNode options = request.get("options");
+        assertTrue(options.get("temperature").isDouble());
+        assertEquals(0.2, options.get("temperature").asDouble());
+        assertTrue(options.get("num_predict").isIntegralNumber());
+        assertEquals(256, options.get("num_predict").asInt());
+        assertTrue(options.get("use_mmap").isBoolean());
+        assertTrue(options.get("stop").isArray());
+        assertEquals("</s>", options.get("stop").get(0).asText());
+        assertEquals("USER:", options.get("stop").get(1).asText());
+        assertEquals("linear", options.get("rope_scaling").get("type").asText());
+    }
+
+    @Test
+    void complete_ShouldOmitOptionsWhenNoneConfigured() throws Exception {
+        client = new OllamaGenerationClient(objectMapper, "http://localhost:" + ollama.getAddress().getPort(),
+                "mistral", Duration.ofSeconds(5), new MockEnvironment());
+
+        client.complete("Write tests");
+
+        assertFalse(objectMapper.readTree(requestBodies.get(0)).has("options"));
+    }
+
+    @Test
+    void complete_ShouldStreamPiecesAndTakeUsageFromLastChunk() throws Exception {
+        responseBody = STREAM_START + """
+                {"model":"mistral","created_at":"2024-08-06T10:15:32Z","message":{"role":"assistant","content":""},\
+                "done_reason":"stop","done":true,"total_duration":3000000000,"load_duration":1000000,\
+                "prompt_eval_count":26,"prompt_eval_duration":200000000,"eval_count":4,"eval_duration":2500000000}
+                """;
+        List<String> pieces = new CopyOnWriteArrayList<>();
+
+        OllamaGenerationClient.Completion completion = client.complete("Write tests", pieces::add);
+
+        assertTrue(objectMapper.readTree(requestBodies.get(0)).get("stream").asBoolean());
+        assertEquals(List.of("UAT-001 ", "Login\n"), pieces);
+        assertEquals("UAT-001 Login\n", completion.content());
+        assertFalse(completion.truncated());
+        assertEquals(4, completion.usage().getCompletionTokens());
+        assertEquals(2500L, completion.usage().getEvalMillis());
+        assertEquals(3000L, completion.usage().getTotalMillis());
+    }
+
+    @Test
+    void complete_ShouldFailOnErrorChunkKeepingWhatWasStreamed() {
+        responseBody = STREAM_START + "{\"error\":\"model runner has unexpectedly stopped\"}\n";
+        List<String> pieces = new CopyOnWriteArrayList<>();
+
+        IOException error = assertThrows(IOException.class, () -> client.complete("Write tests", pieces::add));
+
+        assertTrue(error.getMessage().contains("model runner has unexpectedly stopped"));
+        assertEquals(List.of("UAT-001 ", "Login\n"), pieces);
+    }
+
+    @Test
+    void complete_ShouldFailWhenStreamEndsWithoutDone() {
+        responseBody = STREAM_START;
+
+        IOException error = assertThrows(IOException.class, () -> client.complete("Write tests", piece -> { }));
+
+        assertTrue(error.getMessage().contains("without completing"));
+    }
+
+    @Test
+    void complete_ShouldStopReadingWhenInterruptedMidStream() {
+        responseBody = STREAM_START + CHAT_RESPONSE.replace("\"done\":true", "\"done\":false");
+        List<String> pieces = new CopyOnWriteArrayList<>();
+
+        try {
+            assertThrows(InterruptedException.class, () -> client.complete("Write tests", piece -> {
+                pieces.add(piece);
+                // As FairJobScheduler.drain does to a worker that outlived the grace period
+                Thread.currentThread().interrupt();
+            }));
+        } finally {
+            Thread.interrupted();
+        }
+        assertEquals(List.of("UAT-001 "), pieces);
+    }
+}
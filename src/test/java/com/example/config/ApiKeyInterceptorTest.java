@@ -0,0 +1,41 @@
+package com.example.config;
+
+import com.example.service.ApiQuotaService;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiKeyInterceptorTest {
+
+    @Test
+    void preHandle_WhenLlmQuotaIsSpent_ShouldRejectOnlySubmissions() throws Exception {
+        ApiSecurityProperties properties = new ApiSecurityProperties();
+        properties.setKey("legacy-key");
+        ApiSecurityProperties.Client client = new ApiSecurityProperties.Client();
+        client.setName("team-a");
+        client.setKey("team-a-key");
+        client.setLlmTimeQuota(Duration.ofMinutes(1));
+        properties.getClients().add(client);
+        ApiQuotaService quotaService = new ApiQuotaService(properties);
+        quotaService.recordLlmTime("team-a", Duration.ofMinutes(2));
+        ApiKeyInterceptor interceptor = new ApiKeyInterceptor(quotaService);
+
+        assertEquals(429, handle(interceptor, "/api/v1/test-generation/start"));
+        assertEquals(429, handle(interceptor, "/api/v1/test-generation/start/batch"));
+        assertEquals(200, handle(interceptor, "/api/v1/test-generation/jobs/delete"));
+        assertEquals(200, handle(interceptor, "/api/v1/test-generation/search/rebuild"));
+    }
+
+    private static int handle(final ApiKeyInterceptor interceptor, final String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.addHeader("X-API-Key", "team-a-key");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        boolean proceed = interceptor.preHandle(request, response, new Object());
+        assertEquals(proceed, response.getStatus() == 200);
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.config;
+
+import com.example.exception.JobNotFoundException;
+import com.example.service.ReplicaReadRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and a replica that lags behind it.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate writeTransaction;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary", "insert into jobs values (1, 'COMPLETED'), (2, 'COMPLETED'), (3, 'PENDING')");
+        // Job 1 is behind, job 3 has not arrived yet
+        DataSource replica = database("replica", "insert into jobs values (1, 'IN_PROGRESS'), (2, 'COMPLETED')");
+        DataSource routing = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, false));
+        jdbcTemplate = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void readFromReplica_ShouldOnlyRouteReadOnlyTransactions() {
+        assertEquals("primary", readOnlyTransaction.execute(status -> databaseName()));
+        assertEquals("replica", ReadWriteRoutingDataSource.readFromReplica(
+                () -> readOnlyTransaction.execute(status -> databaseName())));
+        assertEquals("primary", ReadWriteRoutingDataSource.readFromReplica(
+                () -> writeTransaction.execute(status -> databaseName())));
+    }
+
+    @Test
+    void read_ShouldFallBackToPrimaryForRecentWritesAndMissingJobs() {
+        ReplicaReadRouter router = new ReplicaReadRouter(new SimpleMeterRegistry(), true, Duration.ofMinutes(1));
+
+        assertEquals("IN_PROGRESS", router.read(1L, () -> status(1L)));
+        router.markWritten(1L);
+        assertEquals("COMPLETED", router.read(1L, () -> status(1L)));
+        assertEquals("PENDING", router.read(3L, () -> status(3L)));
+        assertThrows(JobNotFoundException.class, () -> router.read(4L, () -> status(4L)));
+    }
+
+    @Test
+    void read_ShouldFallBackToPrimaryWhenReplicaResultIsMissing() {
+        ReplicaReadRouter router = new ReplicaReadRouter(new SimpleMeterRegistry(), true, Duration.ofMinutes(1));
+
+        // Queries that return nothing for rows the replica does not have yet, like job logs
+        assertEquals(List.of("PENDING"), router.read(3L, () -> statuses(3L), List::isEmpty));
+        assertEquals(List.of("IN_PROGRESS"), router.read(1L, () -> statuses(1L), List::isEmpty));
+        assertEquals(List.of(), router.read(4L, () -> statuses(4L), List::isEmpty));
+    }
+
+    @Test
+    void read_ShouldUsePrimaryWhenDisabled() {
+        ReplicaReadRouter router = new ReplicaReadRouter(new SimpleMeterRegistry(), false, Duration.ofMinutes(1));
+
+        assertEquals("COMPLETED", router.read(1L, () -> status(1L)));
+    }
+
+    private String status(final Long jobId) {
+        return readOnlyTransaction.execute(transaction -> jdbcTemplate
+                .queryForList("select status from jobs where id = ?", String.class, jobId)
+                .stream().findFirst()
+                .orElseThrow(() -> new JobNotFoundException("Job not found with id: " + jobId)));
+    }
+
+    private List<String> statuses(final Long jobId) {
+        return readOnlyTransaction.execute(transaction -> jdbcTemplate
+                .queryForList("select status from jobs where id = ?", String.class, jobId));
+    }
+
+    private String databaseName() {
+        return jdbcTemplate.queryForObject("select name from origin", String.class);
+    }
+
+    private static DataSource database(final String name, final String rows) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("drop table if exists jobs");
+        jdbc.execute("drop table if exists origin");
+        jdbc.execute("create table jobs (id bigint primary key, status varchar(20))");
+        jdbc.execute("create table origin (name varchar(20))");
+        jdbc.update("insert into origin values (?)", name);
+        jdbc.execute(rows);
+        return dataSource;
+    }
+}
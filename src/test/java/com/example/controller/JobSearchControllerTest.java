@@ -0,0 +1,46 @@
+package com.example.controller;
+
+import com.example.service.ApiQuotaService;
+import com.example.service.JobSearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JobSearchControllerTest {
+
+    static {
+        System.setProperty("net.bytebuddy.experimental", "true");
+    }
+
+    @Mock
+    private JobSearchService jobSearchService;
+
+    @Mock
+    private ApiQuotaService apiQuotaService;
+
+    @InjectMocks
+    private JobSearchController controller;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void rebuild_ShouldBeStartedByAdminClientsOnly() {
+        when(apiQuotaService.isAdmin("ops")).thenReturn(true);
+        when(jobSearchService.requestRebuild()).thenReturn(true);
+
+        assertEquals(HttpStatus.FORBIDDEN, controller.rebuild("team-a").getStatusCode());
+        verify(jobSearchService, never()).requestRebuild();
+
+        assertEquals(HttpStatus.ACCEPTED, controller.rebuild("ops").getStatusCode());
+        verify(jobSearchService).requestRebuild();
+    }
+}
@@ -6,10 +6,11 @@ import com.example.dto.JobTestResultDto;
 import com.example.dto.TicketContentDto;
 import com.example.exception.JobNotFoundException;
 import com.example.model.TestGenerationJob;
-import com.example.model.JobLog;
 import com.example.repository.TestGenerationJobRepository;
-import com.example.repository.JobLogRepository;
+import com.example.service.IdempotencyService;
+import com.example.service.JobStatusSnapshot;
 import com.example.service.TestGenerationService;
+import com.example.services.JobLogService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -23,10 +24,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 class TestGenerationControllerTest {
@@ -42,7 +45,10 @@ class TestGenerationControllerTest {
     private TestGenerationJobRepository testGenerationRepository;
 
     @Mock
-    private JobLogRepository jobLogRepository;
+    private JobLogService jobLogService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
 
     @InjectMocks
     private TestGenerationController controller;
@@ -60,32 +66,55 @@ class TestGenerationControllerTest {
         ticketDto.setContent("Test ticket content");
         ticketDto.setComponents(new ArrayList<>());
 
-        doNothing().when(testGenerationService).startTestGeneration(any(TicketContentDto.class));
+        TestGenerationJob createdJob = new TestGenerationJob();
+        createdJob.setId(1L);
+        createdJob.setJiraTicket(ticketDto.getTicketId());
+        when(testGenerationService.startTestGeneration(any(TicketContentDto.class), isNull())).thenReturn(createdJob);
+        when(idempotencyService.execute(isNull(), eq(ticketDto), any())).thenAnswer(invocation -> {
+            Supplier<List<Long>> action = invocation.getArgument(2);
+            return new IdempotencyService.Outcome(action.get(), false);
+        });
 
         // Act
-        ResponseEntity<String> response = controller.startTestGeneration(ticketDto);
+        ResponseEntity<Map<String, Object>> response = controller.startTestGeneration(ticketDto, null, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertTrue(response.getBody().contains(ticketDto.getTicketId()));
+        assertEquals(1L, response.getBody().get("jobId"));
+
+        verify(testGenerationService).startTestGeneration(eq(ticketDto), isNull());
+    }
 
-        verify(testGenerationService).startTestGeneration(eq(ticketDto));
+    @Test
+    void startTestGeneration_WithRepeatedIdempotencyKey_ShouldReturnOriginalJob() {
+        // Arrange
+        TicketContentDto ticketDto = new TicketContentDto();
+        ticketDto.setTicketId("TICKET-001");
+        ticketDto.setContent("Test ticket content");
+        when(idempotencyService.execute(eq("team-a:key-1"), eq(ticketDto), any()))
+                .thenReturn(new IdempotencyService.Outcome(List.of(7L), true));
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = controller.startTestGeneration(ticketDto, "key-1", "team-a");
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(7L, response.getBody().get("jobId"));
+        assertEquals("true", response.getHeaders().getFirst("Idempotent-Replayed"));
+        verify(testGenerationService, never()).startTestGeneration(any(), any());
     }
 
     @Test
     void getJobStatus_ShouldReturnStatusMap() {
         // Arrange
         String jobId = "123";
-        Map<String, Object> serviceResponseMap = Map.of(
-            "status", "COMPLETED",
-            "error", ""
-        );
-        when(testGenerationService.getJobStatus(jobId)).thenReturn(serviceResponseMap);
+        JobStatusSnapshot snapshot = createSnapshot(123L, TestGenerationJob.JobStatus.COMPLETED);
+        when(testGenerationService.getJobStatusSnapshot(123L)).thenReturn(snapshot);
 
         // Act
-        ResponseEntity<Map<String, Object>> response = controller.getJobStatus(jobId);
+        ResponseEntity<Map<String, Object>> response = controller.getJobStatus(jobId, null, null, null).join();
 
         // Assert
         assertNotNull(response);
@@ -94,24 +123,45 @@ class TestGenerationControllerTest {
         Map<String, Object> responseMap = response.getBody();
         assertEquals("COMPLETED", responseMap.get("status"));
         assertEquals("", responseMap.get("error"));
-        verify(testGenerationService).getJobStatus(jobId);
+        assertEquals(snapshot.getEtag(), response.getHeaders().getETag());
+        verify(testGenerationService).getJobStatusSnapshot(123L);
+    }
+
+    @Test
+    void getJobStatus_WithMatchingETag_ShouldReturnNotModified() {
+        // Arrange
+        JobStatusSnapshot snapshot = createSnapshot(123L, TestGenerationJob.JobStatus.IN_PROGRESS);
+        when(testGenerationService.getJobStatusSnapshot(123L)).thenReturn(snapshot);
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = controller.getJobStatus("123", snapshot.getEtag(), null, null).join();
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
     }
 
     @Test
     void getJobStatus_WithInvalidJobId_ShouldThrowJobNotFoundException() {
         // Arrange
-        String jobId = "invalid-job-id";
+        String jobId = "404";
         String errorMessage = "Job non trovato";
-        when(testGenerationService.getJobStatus(jobId)).thenThrow(new JobNotFoundException(errorMessage));
+        when(testGenerationService.getJobStatusSnapshot(404L)).thenThrow(new JobNotFoundException(errorMessage));
 
         JobNotFoundException thrown = assertThrows(
             JobNotFoundException.class,
-            () -> controller.getJobStatus(jobId),
+            () -> controller.getJobStatus(jobId, null, null, null),
             "Expected getJobStatus to throw, but it didn't"
         );
 
         assertTrue(thrown.getMessage().contains(errorMessage));
-        verify(testGenerationService).getJobStatus(jobId);
+        verify(testGenerationService).getJobStatusSnapshot(404L);
+    }
+
+    @Test
+    void getJobStatus_WithNegativeTimeout_ShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> controller.getJobStatus("123", null, null, "-5s"));
+        verifyNoInteractions(testGenerationService);
     }
 
     @Test
@@ -119,15 +169,15 @@ class TestGenerationControllerTest {
         // Arrange
         String jobId = "123";
         Long jobIdLong = 123L;
-        List<JobLog> logs = Arrays.asList(
+        List<JobLogDto> logs = Arrays.asList(
             createJobLog("INFO", "Test log 1"),
             createJobLog("ERROR", "Test log 2")
         );
         
-        when(jobLogRepository.findByJobIdOrderByTimestampDesc(jobIdLong)).thenReturn(logs);
+        when(jobLogService.getJobLogs(jobIdLong, null)).thenReturn(logs);
 
         // Act
-        var response = controller.getJobLogs(jobId);
+        var response = controller.getJobLogs(jobId, null);
 
         // Assert
         assertNotNull(response.getBody());
@@ -137,7 +187,22 @@ class TestGenerationControllerTest {
         assertEquals("Test log 1", logDtos.get(0).getMessage());
         assertEquals("ERROR", logDtos.get(1).getLevel());
         assertEquals("Test log 2", logDtos.get(1).getMessage());
-        verify(jobLogRepository).findByJobIdOrderByTimestampDesc(jobIdLong);
+        verify(jobLogService).getJobLogs(jobIdLong, null);
+    }
+
+    @Test
+    void getJobLogs_WithTail_ShouldPassItOn() {
+        // Arrange
+        when(jobLogService.getJobLogs(123L, 1)).thenReturn(List.of(createJobLog("INFO", "Latest")));
+
+        // Act
+        var response = controller.getJobLogs("123", 1);
+        var invalid = controller.getJobLogs("123", 0);
+
+        // Assert
+        assertEquals("Latest", response.getBody().get(0).getMessage());
+        assertEquals(400, invalid.getStatusCode().value());
+        verify(jobLogService, never()).getJobLogs(123L, 0);
     }
 
     @Test
@@ -146,11 +211,11 @@ class TestGenerationControllerTest {
         String jobId = "invalid-id";
 
         // Act
-        var response = controller.getJobLogs(jobId);
+        var response = controller.getJobLogs(jobId, null);
 
         // Assert
         assertEquals(400, response.getStatusCode().value());
-        verify(jobLogRepository, never()).findByJobIdOrderByTimestampDesc(any());
+        verify(jobLogService, never()).getJobLogs(any(), any());
     }
 
     @Test
@@ -161,10 +226,11 @@ class TestGenerationControllerTest {
         TestGenerationJob job = new TestGenerationJob();
         job.setTestResult("Test result content");
         
+        when(testGenerationService.getJobStatusSnapshot(jobIdLong)).thenReturn(createSnapshot(jobIdLong, TestGenerationJob.JobStatus.PENDING));
         when(testGenerationService.getJob(jobIdLong)).thenReturn(job);
 
         // Act
-        var response = controller.getJobTestResult(jobId);
+        var response = controller.getJobTestResult(jobId, null);
 
         // Assert
         assertNotNull(response.getBody());
@@ -179,7 +245,7 @@ class TestGenerationControllerTest {
         String jobId = "invalid-id";
 
         // Act
-        var response = controller.getJobTestResult(jobId);
+        var response = controller.getJobTestResult(jobId, null);
 
         // Assert
         assertEquals(400, response.getStatusCode().value());
@@ -191,21 +257,49 @@ class TestGenerationControllerTest {
         // Arrange
         String jobId = "123";
         Long jobIdLong = 123L;
-        when(testGenerationService.getJob(jobIdLong)).thenThrow(new JobNotFoundException("Job not found"));
+        when(testGenerationService.getJobStatusSnapshot(jobIdLong)).thenThrow(new JobNotFoundException("Job not found"));
 
         // Act
-        var response = controller.getJobTestResult(jobId);
+        var response = controller.getJobTestResult(jobId, null);
 
         // Assert
         assertEquals(404, response.getStatusCode().value());
-        verify(testGenerationService).getJob(jobIdLong);
+        verify(testGenerationService, never()).getJob(any());
+    }
+
+    @Test
+    void getJobTestResult_WithFinishedJob_ShouldBeImmutableAndRevalidatedByEtag() {
+        // Arrange
+        Long jobIdLong = 123L;
+        TestGenerationJob job = new TestGenerationJob();
+        job.setId(jobIdLong);
+        job.setStatus(TestGenerationJob.JobStatus.COMPLETED);
+        job.setTestResult("Test result content");
+        JobStatusSnapshot snapshot = JobStatusSnapshot.of(job);
+        when(testGenerationService.getJobStatusSnapshot(jobIdLong)).thenReturn(snapshot);
+        when(testGenerationService.getJob(jobIdLong)).thenReturn(job);
+
+        // Act
+        var first = controller.getJobTestResult("123", null);
+        var repeat = controller.getJobTestResult("123", "W/" + snapshot.getEtag());
+
+        // Assert
+        assertEquals(200, first.getStatusCode().value());
+        assertEquals(snapshot.getEtag(), first.getHeaders().getETag());
+        assertTrue(first.getHeaders().getCacheControl().contains("immutable"));
+        assertEquals(304, repeat.getStatusCode().value());
+        assertNull(repeat.getBody());
+        verify(testGenerationService, times(1)).getJob(jobIdLong);
+    }
+
+    private JobStatusSnapshot createSnapshot(Long id, TestGenerationJob.JobStatus status) {
+        TestGenerationJob job = new TestGenerationJob();
+        job.setId(id);
+        job.setStatus(status);
+        return JobStatusSnapshot.of(job);
     }
 
-    private JobLog createJobLog(String level, String message) {
-        JobLog log = new JobLog();
-        log.setLevel(level);
-        log.setMessage(message);
-        log.setTimestamp(LocalDateTime.now());
-        return log;
+    private JobLogDto createJobLog(String level, String message) {
+        return new JobLogDto(LocalDateTime.now(), level, message);
     }
 } 
\ No newline at end of file
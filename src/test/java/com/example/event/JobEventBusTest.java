@@ -0,0 +1,89 @@
+package com.example.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobEventBusTest {
+
+    @Test
+    void publish_ShouldDeliverEventsOnlyToSubscribersOfTheJob() {
+        JobEventBus bus = new JobEventBus(Runnable::run, 4);
+        RecordingSink sink = new RecordingSink();
+        bus.subscribe(Set.of(1L), sink);
+
+        bus.publishStatus(1L, "IN_PROGRESS", null);
+        bus.publishLog(2L, "INFO", "other job", LocalDateTime.now());
+        bus.publishLog(1L, "INFO", "hello", LocalDateTime.now());
+
+        assertEquals(2, sink.events.size());
+        assertEquals(JobEvent.Type.STATUS, sink.events.get(0).getType());
+        assertEquals("hello", sink.events.get(1).getMessage());
+    }
+
+    @Test
+    void publish_WhenSubscriberBufferIsFull_ShouldDisconnectSlowConsumer() {
+        // Executor that never runs the drain task, simulating a client that stopped reading
+        List<Runnable> parked = new ArrayList<>();
+        JobEventBus bus = new JobEventBus(parked::add, 2);
+        RecordingSink sink = new RecordingSink();
+        JobEventSubscription subscription = bus.subscribe(Set.of(1L), sink);
+
+        bus.publishLog(1L, "INFO", "one", LocalDateTime.now());
+        bus.publishLog(1L, "INFO", "two", LocalDateTime.now());
+        bus.publishLog(1L, "INFO", "three", LocalDateTime.now());
+
+        assertTrue(subscription.isClosed());
+        assertEquals(0, bus.getSubscriberCount());
+        parked.forEach(Runnable::run);
+        assertTrue(sink.closed);
+    }
+
+    @Test
+    void subscribe_ShouldOrderInitialStatusesWithTransitionsBySequence() {
+        JobEventBus bus = new JobEventBus(Runnable::run, 8);
+        RecordingSink sink = new RecordingSink();
+
+        bus.subscribe(List.of(1L, 2L), sink, jobId -> {
+            if (jobId == 1L) {
+                // Job 1 is read as PENDING, then both jobs move on before the statuses are sent
+                bus.publishStatus(1L, "IN_PROGRESS", null);
+                bus.publishStatus(2L, "IN_PROGRESS", null);
+                return status(1L, "PENDING");
+            }
+            // Read after its transition, which it already reflects
+            return status(2L, "IN_PROGRESS");
+        });
+
+        assertEquals(List.of("1:PENDING", "1:IN_PROGRESS", "2:IN_PROGRESS"),
+                sink.events.stream().map(event -> event.getJobId() + ":" + event.getStatus()).toList());
+        assertEquals(List.of(1L, 2L, 4L), sink.events.stream().map(JobEvent::getSequence).toList());
+
+        bus.publishStatus(1L, "COMPLETED", null);
+        assertEquals(5L, sink.events.get(3).getSequence());
+    }
+
+    private static JobEvent status(Long jobId, String status) {
+        return new JobEvent(0L, jobId, JobEvent.Type.STATUS, LocalDateTime.now(), status, null, null);
+    }
+
+    private static final class RecordingSink implements JobEventSink {
+        private final List<JobEvent> events = new ArrayList<>();
+        private boolean closed;
+
+        @Override
+        public void send(JobEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
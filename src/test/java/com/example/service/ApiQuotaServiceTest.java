@@ -0,0 +1,98 @@
+package com.example.service;
+
+import com.example.config.ApiSecurityProperties;
+import com.example.dto.ApiKeyUsageDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiQuotaServiceTest {
+
+    @Test
+    void findByKey_ShouldResolveLegacyAndConfiguredClients() {
+        ApiQuotaService service = new ApiQuotaService(createProperties());
+
+        assertEquals(ApiQuotaService.DEFAULT_CLIENT, service.findByKey("legacy-key").getName());
+        assertEquals("team-a", service.findByKey("team-a-key").getName());
+        assertNull(service.findByKey("unknown"));
+    }
+
+    @Test
+    void tryAcquireRequest_ShouldRejectOnceBurstIsSpent() {
+        ApiQuotaService.ClientLimits client = new ApiQuotaService(createProperties()).findByKey("team-a-key");
+
+        assertTrue(client.tryAcquireRequest());
+        assertTrue(client.tryAcquireRequest());
+        assertFalse(client.tryAcquireRequest());
+        assertTrue(client.retryAfterSeconds() >= 1);
+    }
+
+    @Test
+    void recordLlmTime_ShouldExhaustQuotaOfTheSubmittingClientOnly() {
+        ApiQuotaService service = new ApiQuotaService(createProperties());
+
+        service.recordLlmTime("team-a", Duration.ofSeconds(61));
+
+        assertTrue(service.findByKey("team-a-key").isLlmQuotaExhausted());
+        assertFalse(service.findByKey("legacy-key").isLlmQuotaExhausted());
+        List<ApiKeyUsageDto> usage = service.getUsage();
+        assertEquals(61.0, usage.stream().filter(u -> u.getClient().equals("team-a")).findFirst().orElseThrow().getLlmSecondsUsed());
+    }
+
+    @Test
+    void tryAcquireStatusRead_ShouldUseSeparateBucket() {
+        ApiQuotaService.ClientLimits client = new ApiQuotaService(createProperties()).findByKey("team-a-key");
+
+        assertTrue(client.tryAcquireRequest());
+        assertTrue(client.tryAcquireRequest());
+        assertFalse(client.tryAcquireRequest());
+        // Long-polling keeps working while submissions are throttled, and vice versa
+        assertTrue(client.tryAcquireStatusRead());
+        assertTrue(client.tryAcquireStatusRead());
+        assertTrue(client.tryAcquireStatusRead());
+        assertFalse(client.tryAcquireStatusRead());
+        assertTrue(client.statusRetryAfterSeconds() >= 1);
+    }
+
+    @Test
+    void getUsage_ShouldShowOtherClientsToAdminsOnly() {
+        ApiSecurityProperties properties = createProperties();
+        ApiSecurityProperties.Client admin = new ApiSecurityProperties.Client();
+        admin.setName("ops");
+        admin.setKey("ops-key");
+        admin.setAdmin(true);
+        properties.getClients().add(admin);
+        ApiQuotaService service = new ApiQuotaService(properties);
+
+        assertEquals(List.of("team-a"), service.getUsage("team-a").stream().map(ApiKeyUsageDto::getClient).toList());
+        assertEquals(List.of(ApiQuotaService.DEFAULT_CLIENT, "team-a", "ops"),
+                service.getUsage("ops").stream().map(ApiKeyUsageDto::getClient).toList());
+        assertTrue(service.getUsage(null).isEmpty());
+    }
+
+    @Test
+    void constructor_WithDuplicateKey_ShouldFail() {
+        ApiSecurityProperties properties = createProperties();
+        properties.getClients().get(0).setKey("legacy-key");
+
+        assertThrows(IllegalStateException.class, () -> new ApiQuotaService(properties));
+    }
+
+    private ApiSecurityProperties createProperties() {
+        ApiSecurityProperties properties = new ApiSecurityProperties();
+        properties.setKey("legacy-key");
+        properties.setStatusRequestsPerSecond(0.001);
+        properties.setStatusBurst(3);
+        ApiSecurityProperties.Client client = new ApiSecurityProperties.Client();
+        client.setName("team-a");
+        client.setKey("team-a-key");
+        client.setRequestsPerSecond(0.001);
+        client.setBurst(2);
+        client.setLlmTimeQuota(Duration.ofMinutes(1));
+        properties.getClients().add(client);
+        return properties;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BatchedWriterTest {
+
+    static {
+        System.setProperty("net.bytebuddy.experimental", "true");
+    }
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<String> written = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void submit_ShouldCommitQueuedWritesInOneTransaction() throws InterruptedException {
+        // Not started, so the writes stay queued until close flushes them
+        BatchedWriter writer = new BatchedWriter(transactionManager, new SimpleMeterRegistry(), true, 200, 100);
+        CompletableFuture<Void> first = writer.submit(() -> written.add("a"));
+        writer.submit(() -> written.add("b"));
+        writer.submit(() -> written.add("c"));
+        assertTrue(written.isEmpty());
+
+        writer.close();
+
+        assertEquals(List.of("a", "b", "c"), written);
+        assertTrue(first.isDone());
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void submit_ShouldRetryFailedBatchOneByOne() throws InterruptedException {
+        BatchedWriter writer = new BatchedWriter(transactionManager, new SimpleMeterRegistry(), true, 200, 100);
+        CompletableFuture<Void> good = writer.submit(() -> written.add("a"));
+        CompletableFuture<Void> bad = writer.submit(() -> {
+            throw new IllegalStateException("constraint violated");
+        });
+        writer.submit(() -> written.add("c"));
+
+        writer.close();
+
+        assertTrue(good.isDone() && !good.isCompletedExceptionally());
+        assertTrue(bad.isCompletedExceptionally());
+        // Once in the failed batch, then once each on their own
+        assertEquals(List.of("a", "a", "c"), written);
+        verify(transactionManager, times(4)).getTransaction(any());
+    }
+
+    @Test
+    void submit_ShouldRunInlineWhenDisabledOrQueueFull() throws InterruptedException {
+        BatchedWriter disabled = new BatchedWriter(transactionManager, new SimpleMeterRegistry(), false, 200, 100);
+        assertTrue(disabled.submit(() -> written.add("inline")).isDone());
+
+        BatchedWriter full = new BatchedWriter(transactionManager, new SimpleMeterRegistry(), true, 200, 1);
+        full.submit(() -> written.add("queued"));
+        assertTrue(full.submit(() -> written.add("overflow")).isDone());
+
+        assertEquals(List.of("inline", "overflow"), written);
+        verifyNoInteractions(transactionManager);
+        full.close();
+        assertEquals(List.of("inline", "overflow", "queued"), written);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.service;
+
+import com.example.exception.JobQueueFullException;
+import com.example.model.TestGenerationJob;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FairJobSchedulerTest {
+
+    private FairJobScheduler scheduler;
+    private final List<String> started = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new FairJobScheduler(new SimpleMeterRegistry(), 1, 3, List.of("gold=2"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        scheduler.shutdown();
+    }
+
+    @Test
+    void submit_ShouldInterleaveTenantsAndRunHigherPriorityFirst() throws InterruptedException {
+        blockWorker();
+        CountDownLatch done = new CountDownLatch(4);
+        submit(1L, TestGenerationJob.JobPriority.NORMAL, "bulk", done);
+        submit(2L, TestGenerationJob.JobPriority.NORMAL, "bulk", done);
+        submit(3L, TestGenerationJob.JobPriority.NORMAL, "team-a", done);
+        submit(4L, TestGenerationJob.JobPriority.HIGH, "bulk", done);
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("4", "1", "3", "2"), started);
+    }
+
+    @Test
+    void reserve_ShouldRejectWhenQueueIsFull() {
+        blockWorker();
+        CountDownLatch done = new CountDownLatch(3);
+        for (long id = 1; id <= 3; id++) {
+            submit(id, null, null, done);
+        }
+
+        assertThrows(JobQueueFullException.class, () -> scheduler.reserve(1));
+        assertEquals(3, scheduler.getQueuedCount());
+    }
+
+    @Test
+    void reserve_ShouldCountSlotsReservedButNotYetSubmitted() {
+        blockWorker();
+        FairJobScheduler.Reservation first = scheduler.reserve(2);
+
+        // The first request's jobs are not queued yet, but their slots are taken
+        assertThrows(JobQueueFullException.class, () -> scheduler.reserve(2));
+        first.submit(1L, null, null, () -> { });
+        first.close();
+        FairJobScheduler.Reservation second = scheduler.reserve(2);
+        assertThrows(IllegalStateException.class, () -> {
+            second.submit(2L, null, null, () -> { });
+            second.submit(3L, null, null, () -> { });
+            second.submit(4L, null, null, () -> { });
+        });
+        assertEquals(3, scheduler.getQueuedCount());
+    }
+
+    @Test
+    void drain_ShouldDropQueuedJobsAndInterruptJobsOutlivingGracePeriod() {
+        blockWorker();
+        CountDownLatch done = new CountDownLatch(2);
+        submit(1L, null, null, done);
+        submit(2L, null, null, done);
+
+        List<Long> interrupted = scheduler.drain(Duration.ofMillis(100));
+
+        assertEquals(List.of(0L), interrupted);
+        assertTrue(scheduler.isInterrupting());
+        assertTrue(started.isEmpty());
+        assertEquals(0, scheduler.getQueuedCount());
+        assertThrows(JobQueueFullException.class, () -> scheduler.reserve(1));
+    }
+
+    @Test
+    void submit_ShouldIgnoreJobAlreadyQueued() {
+        blockWorker();
+        CountDownLatch done = new CountDownLatch(1);
+        submit(1L, null, null, done);
+        submit(1L, null, null, done);
+
+        assertEquals(1, scheduler.getQueuedCount());
+    }
+
+    private void blockWorker() {
+        CountDownLatch running = new CountDownLatch(1);
+        scheduler.submit(0L, TestGenerationJob.JobPriority.LOW, "blocker", () -> {
+            running.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submit(long jobId, TestGenerationJob.JobPriority priority, String tenant, CountDownLatch done) {
+        scheduler.submit(jobId, priority, tenant, () -> {
+            started.add(String.valueOf(jobId));
+            done.countDown();
+        });
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.service;
+
+import com.example.exception.IdempotencyKeyConflictException;
+import com.example.exception.IdempotencyKeyMismatchException;
+import com.example.model.IdempotencyRecord;
+import com.example.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IdempotencyServiceTest {
+
+    static {
+        System.setProperty("net.bytebuddy.experimental", "true");
+    }
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IdempotencyService idempotencyService;
+    private final AtomicInteger jobsCreated = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, new ObjectMapper(),
+                transactionManager, Duration.ofHours(1), Duration.ofMinutes(2), 100, 100);
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.empty());
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(idempotencyRecordRepository.completeReservation(eq("key-1"), anyString(), anyString(), any(LocalDateTime.class)))
+                .thenReturn(1);
+    }
+
+    @Test
+    void execute_WithoutKey_ShouldAlwaysRunAction() {
+        idempotencyService.execute(null, Map.of("ticketId", "T-1"), this::createJob);
+        idempotencyService.execute(null, Map.of("ticketId", "T-1"), this::createJob);
+
+        assertEquals(2, jobsCreated.get());
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    @Test
+    void execute_WithRepeatedKeyAndSameBody_ShouldReplayWithoutDatabaseLookup() {
+        IdempotencyService.Outcome first = idempotencyService.execute("key-1", Map.of("ticketId", "T-1"), this::createJob);
+        clearInvocations(idempotencyRecordRepository);
+
+        IdempotencyService.Outcome second = idempotencyService.execute("key-1", Map.of("ticketId", "T-1"), this::createJob);
+
+        assertFalse(first.isReplayed());
+        assertTrue(second.isReplayed());
+        assertEquals(first.getJobIds(), second.getJobIds());
+        assertEquals(1, jobsCreated.get());
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    @Test
+    void execute_WithRepeatedKeyAndDifferentBody_ShouldReject() {
+        idempotencyService.execute("key-1", Map.of("ticketId", "T-1"), this::createJob);
+
+        assertThrows(IdempotencyKeyMismatchException.class,
+                () -> idempotencyService.execute("key-1", Map.of("ticketId", "T-2"), this::createJob));
+        assertEquals(1, jobsCreated.get());
+    }
+
+    @Test
+    void execute_ShouldReserveUntilInFlightTimeoutAndKeepResultForTtl() {
+        LocalDateTime before = LocalDateTime.now();
+
+        idempotencyService.execute("key-1", Map.of("ticketId", "T-1"), this::createJob);
+
+        ArgumentCaptor<IdempotencyRecord> reservation = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRecordRepository).saveAndFlush(reservation.capture());
+        assertNull(reservation.getValue().getJobIds());
+        assertFalse(reservation.getValue().getExpiresAt().isAfter(LocalDateTime.now().plusMinutes(2)));
+        ArgumentCaptor<LocalDateTime> expiresAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(idempotencyRecordRepository).completeReservation(eq("key-1"), eq(reservation.getValue().getReservationToken()),
+                eq("1"), expiresAt.capture());
+        assertFalse(expiresAt.getValue().isBefore(before.plusHours(1)));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void execute_WhenActionFails_ShouldRollBackAndReleaseKey() {
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("key-1", Map.of("ticketId", "T-1"),
+                () -> {
+                    throw new IllegalStateException("boom");
+                }));
+
+        verify(transactionManager).rollback(any());
+        verify(idempotencyRecordRepository).deleteReservation(eq("key-1"), anyString());
+        verify(idempotencyRecordRepository, never()).completeReservation(anyString(), anyString(), anyString(), any());
+    }
+
+    @Test
+    void execute_WhenActionFailsAfterRetryTookOverKey_ShouldKeepRetrysEntry() {
+        // Reservations expire at once, so the nested retry takes the key over from the first request
+        IdempotencyService service = new IdempotencyService(idempotencyRecordRepository, new ObjectMapper(),
+                transactionManager, Duration.ofHours(1), Duration.ofMillis(-1), 100, 100);
+        AtomicReference<IdempotencyService.Outcome> retry = new AtomicReference<>();
+
+        assertThrows(IllegalStateException.class, () -> service.execute("key-1", Map.of("ticketId", "T-1"), () -> {
+            retry.set(service.execute("key-1", Map.of("ticketId", "T-1"), this::createJob));
+            throw new IllegalStateException("boom");
+        }));
+        IdempotencyService.Outcome replay = service.execute("key-1", Map.of("ticketId", "T-1"), this::createJob);
+
+        assertTrue(replay.isReplayed());
+        assertEquals(retry.get().getJobIds(), replay.getJobIds());
+        assertEquals(1, jobsCreated.get());
+    }
+
+    @Test
+    void constructor_ShouldRejectBatchSizeBeyondJobIdsColumn() {
+        assertThrows(IllegalStateException.class, () -> new IdempotencyService(idempotencyRecordRepository,
+                new ObjectMapper(), transactionManager, Duration.ofHours(1), Duration.ofMinutes(2), 100, 101));
+    }
+
+    @Test
+    void execute_WhenReservationWasTakenOver_ShouldRollBackCreatedJobs() {
+        when(idempotencyRecordRepository.completeReservation(eq("key-1"), anyString(), anyString(), any(LocalDateTime.class)))
+                .thenReturn(0);
+
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> idempotencyService.execute("key-1", Map.of("ticketId", "T-1"), this::createJob));
+
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void execute_WhenReservationOfDeadRequestExpired_ShouldTakeOverKey() {
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(idempotencyRecordRepository.deleteIfExpired(eq("key-1"), any(LocalDateTime.class))).thenReturn(1);
+
+        IdempotencyService.Outcome outcome = idempotencyService.execute("key-1", Map.of("ticketId", "T-1"), this::createJob);
+
+        assertFalse(outcome.isReplayed());
+        assertEquals(1, jobsCreated.get());
+        verify(idempotencyRecordRepository, times(2)).saveAndFlush(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void execute_WhileAnotherInstanceHoldsReservation_ShouldConflict() throws Exception {
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(new ObjectMapper().writeValueAsBytes(Map.of("ticketId", "T-1")));
+        IdempotencyRecord held = new IdempotencyRecord();
+        held.setKey("key-1");
+        held.setRequestHash(HexFormat.of().formatHex(hash));
+        held.setReservationToken("other-instance");
+        held.setCreatedAt(LocalDateTime.now());
+        held.setExpiresAt(LocalDateTime.now().plusMinutes(1));
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.empty()).thenReturn(Optional.of(held));
+
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> idempotencyService.execute("key-1", Map.of("ticketId", "T-1"), this::createJob));
+        assertEquals(0, jobsCreated.get());
+    }
+
+    private List<Long> createJob() {
+        return List.of((long) jobsCreated.incrementAndGet());
+    }
+}
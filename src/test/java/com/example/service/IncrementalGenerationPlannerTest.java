@@ -0,0 +1,64 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalGenerationPlannerTest {
+
+    private static final String DESCRIPTION = """
+            Acceptance criteria:
+            - Users can log in with their email address and password.
+            - Users can reset a forgotten password from the login page.
+            - Logged-in users can download their invoices as PDF.
+            """;
+
+    private static final String OUTPUT = """
+            UAT-001 Login with email
+            Steps:
+            1. Open the login page.
+            2. Enter email address and password.
+            Result: User is logged in.
+
+            UAT-002 Reset forgotten password
+            Steps:
+            1. Click "Forgot password" on the login page.
+            2. Follow the reset link.
+            Result: Password is reset.
+
+            UAT-003 Download invoices
+            Steps:
+            1. Open the invoices page.
+            2. Download an invoice.
+            Result: Invoice downloads as PDF.
+            """;
+
+    @Test
+    void plan_ShouldReuseUnchangedSectionsAndRegenerateEditedOnes() {
+        String edited = DESCRIPTION.replace("download their invoices as PDF", "download their invoices as PDF or CSV");
+
+        IncrementalGenerationPlanner.Plan plan = IncrementalGenerationPlanner.plan(DESCRIPTION, OUTPUT, edited);
+
+        assertEquals(List.of("- Logged-in users can download their invoices as PDF or CSV."), plan.getChangedSections());
+        assertEquals(List.of("UAT-001 Login with email", "UAT-002 Reset forgotten password"), plan.getReusedHeaders());
+        assertEquals(1, plan.getDroppedTestCases());
+        assertEquals("UAT-003", plan.getNextTestId());
+
+        String merged = plan.merge("Sure!\nUAT-003 Export invoices\nSteps:\n1. Open the invoices page.\nResult: PDF and CSV offered.\n");
+        List<TestCaseParser.ParsedTestCase> cases = TestCaseParser.parse(merged);
+        assertEquals(List.of("UAT-001", "UAT-002", "UAT-003"), cases.stream().map(TestCaseParser.ParsedTestCase::getCode).toList());
+        assertFalse(merged.contains("Sure!"));
+    }
+
+    @Test
+    void plan_ShouldIgnoreFormattingOnlyEdits() {
+        String reformatted = DESCRIPTION.replace("- ", "* ").replace("email address", "Email  address");
+
+        IncrementalGenerationPlanner.Plan plan = IncrementalGenerationPlanner.plan(DESCRIPTION, OUTPUT, reformatted);
+
+        assertFalse(plan.hasChanges());
+        assertEquals(3, plan.getReusedTestCaseCount());
+    }
+}
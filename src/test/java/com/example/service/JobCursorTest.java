@@ -0,0 +1,33 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobCursorTest {
+
+    @Test
+    void encodeThenDecode_ShouldRoundTrip() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_000_000);
+        String token = new JobCursor(createdAt, 42L).encode();
+
+        JobCursor decoded = JobCursor.decode(token);
+
+        assertNotNull(decoded);
+        assertEquals(createdAt, decoded.getCreatedAt());
+        assertEquals(42L, decoded.getId());
+    }
+
+    @Test
+    void decode_WithBlankToken_ShouldReturnNull() {
+        assertNull(JobCursor.decode(null));
+        assertNull(JobCursor.decode(" "));
+    }
+
+    @Test
+    void decode_WithMalformedToken_ShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> JobCursor.decode("not-a-cursor"));
+    }
+}
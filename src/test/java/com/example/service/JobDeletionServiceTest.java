@@ -0,0 +1,121 @@
+package com.example.service;
+
+import com.example.dto.JobDeletionResultDto;
+import com.example.event.JobEventBus;
+import com.example.model.JobLog;
+import com.example.model.TestGenerationJob;
+import com.example.repository.JobLogRepository;
+import com.example.repository.TestGenerationJobRepository;
+import com.example.services.JobLogService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = "app.job-cache.enabled=false")
+@ActiveProfiles("test")
+@Import(JobDeletionService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JobDeletionServiceTest {
+
+    static {
+        System.setProperty("net.bytebuddy.experimental", "true");
+    }
+
+    @Autowired
+    private JobDeletionService jobDeletionService;
+
+    @Autowired
+    private TestGenerationJobRepository jobRepository;
+
+    @Autowired
+    private JobLogRepository jobLogRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private JobLogService jobLogService;
+
+    @MockBean
+    private SemanticReuseService semanticReuseService;
+
+    @MockBean
+    private JobSearchService jobSearchService;
+
+    @MockBean
+    private JobStatusCache jobStatusCache;
+
+    @MockBean
+    private JobEventBus jobEventBus;
+
+    @BeforeEach
+    void setUp() {
+        jobLogRepository.deleteAll();
+        jobRepository.deleteAll();
+    }
+
+    @Test
+    void deleteJobs_ShouldDeleteRowsAndCleanUpAfterCommit() {
+        Long completed = saveJob(TestGenerationJob.JobStatus.COMPLETED);
+        Long running = saveJob(TestGenerationJob.JobStatus.IN_PROGRESS);
+
+        JobDeletionResultDto result = jobDeletionService.deleteJobs(List.of(completed, running, 999L));
+
+        assertEquals(List.of(completed), result.getDeleted());
+        assertEquals(List.of(running), result.getInProgress());
+        assertEquals(List.of(999L), result.getNotFound());
+        assertFalse(jobRepository.existsById(completed));
+        assertTrue(jobRepository.existsById(running));
+        assertEquals(1, jobLogRepository.count());
+        verify(jobStatusCache).evict(completed);
+        verify(jobEventBus).closeJob(completed);
+        verify(jobLogService).deleteLogs(List.of(completed));
+        verify(jobSearchService).onJobsDeleted(List.of(completed));
+        verify(jobStatusCache, never()).evict(running);
+    }
+
+    @Test
+    void deleteJobs_ShouldLeaveCachesAndLogsAloneWhenTransactionRollsBack() {
+        Long completed = saveJob(TestGenerationJob.JobStatus.COMPLETED);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jobDeletionService.deleteJobs(List.of(completed));
+            status.setRollbackOnly();
+        });
+
+        assertTrue(jobRepository.existsById(completed));
+        assertEquals(1, jobLogRepository.count());
+        verify(jobStatusCache, never()).evict(anyLong());
+        verifyNoInteractions(jobLogService, jobSearchService, jobEventBus, semanticReuseService);
+    }
+
+    private Long saveJob(final TestGenerationJob.JobStatus status) {
+        TestGenerationJob job = new TestGenerationJob();
+        job.setJiraTicket("TICKET-1");
+        job.setDescription("Login");
+        job.setStatus(status);
+        job = jobRepository.save(job);
+        JobLog log = new JobLog();
+        log.setJob(job);
+        log.setLevel("INFO");
+        log.setMessage("Created");
+        log.setTimestamp(LocalDateTime.now());
+        jobLogRepository.save(log);
+        return job.getId();
+    }
+}
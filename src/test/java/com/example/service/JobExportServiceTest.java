@@ -0,0 +1,88 @@
+package com.example.service;
+
+import com.example.model.TestGenerationJob;
+import com.example.repository.JobExportView;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobExportServiceTest {
+
+    private static final String OUTPUT = "UAT-001 Login, happy path\nSteps:\n1. Open the \"login\" page.\n2. Sign in.\nResult: Dashboard is shown.\n";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JobExportService exportService = new JobExportService(null, objectMapper);
+
+    @Test
+    void write_Csv_ShouldQuoteFieldsAndSkipJobsWithoutOutput() throws IOException {
+        String csv = export(JobExportService.Format.CSV, job(1L, OUTPUT), job(2L, null));
+
+        String[] rows = csv.split("\r\n");
+        assertEquals(2, rows.length);
+        assertEquals("1,PROJ-1,Web UI,UAT-001,\"Login, happy path\",\"1. Open the \"\"login\"\" page.\n2. Sign in.\","
+                + "Dashboard is shown.,false,", rows[1]);
+    }
+
+    @Test
+    void write_Xray_ShouldWriteOneRowPerStepWithIssueFieldsOnFirstRow() throws IOException {
+        String csv = export(JobExportService.Format.XRAY, job(7L, OUTPUT));
+
+        String[] rows = csv.split("\r\n");
+        assertEquals(3, rows.length);
+        assertEquals("7-1,\"UAT-001 Login, happy path\",Generated from PROJ-1 (job 7),Manual,Web_UI,"
+                + "\"Open the \"\"login\"\" page.\",,", rows[1]);
+        assertEquals("7-1,,,,,Sign in.,,Dashboard is shown.", rows[2]);
+    }
+
+    @Test
+    void write_CsvAndXray_ShouldKeepFormulaLikeCellsAsText() throws IOException {
+        String output = "UAT-001 =HYPERLINK(\"http://evil\",\"Login\") now\nSteps:\n1. @SUM(A1:A2)\n2. +1 row\nResult: -2 items, then =1+1\n";
+
+        String[] csv = export(JobExportService.Format.CSV, job(1L, output)).split("\r\n");
+        assertEquals("1,PROJ-1,Web UI,UAT-001,\"'=HYPERLINK(\"\"http://evil\"\",\"\"Login\"\") now\","
+                + "\"1. @SUM(A1:A2)\n2. +1 row\",\"'-2 items, then =1+1\",false,", csv[1]);
+
+        String[] xray = export(JobExportService.Format.XRAY, job(7L, output)).split("\r\n");
+        assertEquals("7-1,\"UAT-001 =HYPERLINK(\"\"http://evil\"\",\"\"Login\"\") now\",Generated from PROJ-1 (job 7),"
+                + "Manual,Web_UI,'@SUM(A1:A2),,", xray[1]);
+        assertEquals("7-1,,,,,'+1 row,,\"'-2 items, then =1+1\"", xray[2]);
+    }
+
+    @Test
+    void write_JsonLines_ShouldWriteOneObjectPerJob() throws IOException {
+        String lines = export(JobExportService.Format.JSONL, job(1L, OUTPUT), job(2L, null));
+
+        List<String> split = lines.lines().toList();
+        assertEquals(2, split.size());
+        JsonNode first = objectMapper.readTree(split.get(0));
+        assertEquals("UAT-001", first.at("/testCases/0/code").asText());
+        assertEquals(2, first.at("/testCases/0/steps").size());
+        assertEquals(0, objectMapper.readTree(split.get(1)).get("testCases").size());
+    }
+
+    private String export(JobExportService.Format format, JobExportView... jobs) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(jobs.length, exportService.write(List.of(jobs).iterator(), format, out));
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static JobExportView job(Long id, String testResult) {
+        return new ExportRow(id, "PROJ-1", "Web UI",
+                testResult != null ? TestGenerationJob.JobStatus.COMPLETED : TestGenerationJob.JobStatus.FAILED,
+                null, LocalDateTime.of(2024, 1, 1, 12, 0), null, testResult);
+    }
+
+    private record ExportRow(Long getId, String getJiraTicket, String getComponents,
+                             TestGenerationJob.JobStatus getStatus, String getErrorMessage,
+                             LocalDateTime getCreatedAt, LocalDateTime getCompletedAt,
+                             String getTestResult) implements JobExportView {
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.service;
+
+import com.example.exception.JobNotFoundException;
+import com.example.model.TestGenerationJob;
+import com.example.repository.TestGenerationJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@DataJpaTest(properties = {"app.job-cache.enabled=false", "app.recovery.lease=2m"})
+@ActiveProfiles("test")
+@Import(JobLeaseService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JobLeaseServiceTest {
+
+    static {
+        System.setProperty("net.bytebuddy.experimental", "true");
+    }
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @SpyBean
+    private TestGenerationJobRepository jobRepository;
+
+    @MockBean
+    private WebhookService webhookService;
+
+    @BeforeEach
+    void setUp() {
+        jobRepository.deleteAll();
+    }
+
+    @Test
+    void claim_ShouldTakePendingJobOnce() {
+        Long jobId = saveJob(TestGenerationJob.JobStatus.PENDING, null);
+
+        TestGenerationJob claimed = jobLeaseService.claim(jobId);
+
+        assertNotNull(claimed);
+        TestGenerationJob stored = jobRepository.findById(jobId).orElseThrow();
+        assertEquals(TestGenerationJob.JobStatus.IN_PROGRESS, stored.getStatus());
+        assertNotNull(stored.getStartedAt());
+        assertNotNull(stored.getLeaseToken());
+        assertTrue(stored.getLeaseExpiresAt().isAfter(LocalDateTime.now().plusMinutes(1)));
+        assertNull(jobLeaseService.claim(jobId));
+        assertThrows(JobNotFoundException.class, () -> jobLeaseService.claim(999L));
+    }
+
+    @Test
+    void renew_ShouldExtendOnlyLeasesThisInstanceHolds() {
+        Long held = jobLeaseService.claim(saveJob(TestGenerationJob.JobStatus.PENDING, null)).getId();
+        Long foreign = saveJob(TestGenerationJob.JobStatus.IN_PROGRESS, LocalDateTime.now().minusSeconds(5));
+        expireLease(held);
+
+        jobLeaseService.renew(List.of(held, foreign));
+
+        assertTrue(jobRepository.findById(held).orElseThrow().getLeaseExpiresAt().isAfter(LocalDateTime.now()));
+        assertTrue(jobRepository.findById(foreign).orElseThrow().getLeaseExpiresAt().isBefore(LocalDateTime.now()));
+    }
+
+    @Test
+    void releaseExpired_ShouldRequeueJobsWhoseLeaseRanOut() {
+        Long expired = saveJob(TestGenerationJob.JobStatus.IN_PROGRESS, LocalDateTime.now().minusSeconds(5));
+        Long alive = saveJob(TestGenerationJob.JobStatus.IN_PROGRESS, LocalDateTime.now().plusMinutes(1));
+        Long legacy = saveJob(TestGenerationJob.JobStatus.IN_PROGRESS, null);
+
+        List<TestGenerationJob> released = jobLeaseService.releaseExpired(100);
+
+        assertEquals(List.of(expired, legacy), released.stream().map(TestGenerationJob::getId).sorted().toList());
+        assertEquals(TestGenerationJob.JobStatus.PENDING, jobRepository.findById(expired).orElseThrow().getStatus());
+        assertEquals(TestGenerationJob.JobStatus.IN_PROGRESS, jobRepository.findById(alive).orElseThrow().getStatus());
+    }
+
+    @Test
+    void releaseExpired_ShouldSkipJobRenewedBeforeItWasLocked() {
+        Long renewed = saveJob(TestGenerationJob.JobStatus.IN_PROGRESS, LocalDateTime.now().plusMinutes(1));
+        // The lookup saw an expired lease; the owner renewed it before the row was locked
+        doReturn(List.of(renewed)).when(jobRepository).findIdsWithExpiredLease(any(LocalDateTime.class), any(Pageable.class));
+
+        assertTrue(jobLeaseService.releaseExpired(100).isEmpty());
+        assertEquals(TestGenerationJob.JobStatus.IN_PROGRESS, jobRepository.findById(renewed).orElseThrow().getStatus());
+    }
+
+    @Test
+    void complete_ShouldRefuseJobTakenOverByAnotherWorker() {
+        TestGenerationJob claimed = jobLeaseService.claim(saveJob(TestGenerationJob.JobStatus.PENDING, null));
+        // Lease ran out: another instance put the job back and claimed it again
+        expireLease(claimed.getId());
+        jobLeaseService.releaseExpired(100);
+        TestGenerationJob reclaimed = jobRepository.findById(claimed.getId()).orElseThrow();
+        reclaimed.setStatus(TestGenerationJob.JobStatus.IN_PROGRESS);
+        reclaimed.setLeaseToken("other-instance");
+        jobRepository.save(reclaimed);
+
+        claimed.setStatus(TestGenerationJob.JobStatus.COMPLETED);
+        claimed.setTestResult("stale result");
+
+        assertNull(jobLeaseService.complete(claimed));
+        assertNull(jobLeaseService.fail(claimed.getId(), "stale failure", null));
+        TestGenerationJob stored = jobRepository.findById(claimed.getId()).orElseThrow();
+        assertEquals(TestGenerationJob.JobStatus.IN_PROGRESS, stored.getStatus());
+        assertNull(stored.getTestResult());
+        assertEquals("other-instance", stored.getLeaseToken());
+        verifyNoInteractions(webhookService);
+    }
+
+    @Test
+    void complete_ShouldSaveResultAndClearLeaseAndCheckpoint() {
+        TestGenerationJob claimed = jobLeaseService.claim(saveJob(TestGenerationJob.JobStatus.PENDING, null));
+        claimed.setStatus(TestGenerationJob.JobStatus.COMPLETED);
+        claimed.setTestResult("UAT-001 Login");
+        claimed.setCheckpoint("UAT-001 Lo");
+
+        assertNotNull(jobLeaseService.complete(claimed));
+
+        TestGenerationJob stored = jobRepository.findById(claimed.getId()).orElseThrow();
+        assertEquals(TestGenerationJob.JobStatus.COMPLETED, stored.getStatus());
+        assertEquals("UAT-001 Login", stored.getTestResult());
+        assertNull(stored.getLeaseToken());
+        assertNull(stored.getLeaseExpiresAt());
+        assertNull(stored.getCheckpoint());
+        verify(webhookService).enqueueCompletion(argThat(job -> job.getId().equals(claimed.getId())));
+    }
+
+    @Test
+    void fail_ShouldKeepJobInProgressWhenCallbackCannotBeRecorded() {
+        Long jobId = jobLeaseService.claim(saveJob(TestGenerationJob.JobStatus.PENDING, null)).getId();
+        doThrow(new IllegalStateException("outbox unavailable")).when(webhookService).enqueueCompletion(any());
+
+        assertThrows(IllegalStateException.class, () -> jobLeaseService.fail(jobId, "Generation failed", null));
+
+        // Status and callback are stored together or not at all; the expired lease requeues the job
+        TestGenerationJob stored = jobRepository.findById(jobId).orElseThrow();
+        assertEquals(TestGenerationJob.JobStatus.IN_PROGRESS, stored.getStatus());
+        assertNull(stored.getErrorMessage());
+    }
+
+    @Test
+    void fail_ShouldSaveGenerationModeAndLlmPhaseOfTheWorker() {
+        TestGenerationJob claimed = jobLeaseService.claim(saveJob(TestGenerationJob.JobStatus.PENDING, null));
+        LocalDateTime llmStartedAt = LocalDateTime.now().minusSeconds(30);
+        claimed.setGenerationMode(TestGenerationJob.GenerationMode.FULL);
+        claimed.setLlmStartedAt(llmStartedAt);
+        claimed.setLlmFinishedAt(llmStartedAt.plusSeconds(25));
+
+        TestGenerationJob failed = jobLeaseService.fail(claimed.getId(), "LLM call timed out", claimed);
+
+        assertNotNull(failed);
+        TestGenerationJob stored = jobRepository.findById(claimed.getId()).orElseThrow();
+        assertEquals(TestGenerationJob.JobStatus.FAILED, stored.getStatus());
+        assertEquals(TestGenerationJob.GenerationMode.FULL, stored.getGenerationMode());
+        assertNotNull(stored.getLlmStartedAt());
+        assertEquals(Duration.ofSeconds(25), Duration.between(stored.getLlmStartedAt(), stored.getLlmFinishedAt()));
+    }
+
+    @Test
+    void release_ShouldReturnHeldJobToPendingWithCheckpoint() {
+        Long jobId = jobLeaseService.claim(saveJob(TestGenerationJob.JobStatus.PENDING, null)).getId();
+
+        assertNotNull(jobLeaseService.release(jobId, "UAT-001 Lo"));
+        assertNull(jobLeaseService.release(jobId, "again"));
+
+        TestGenerationJob stored = jobRepository.findById(jobId).orElseThrow();
+        assertEquals(TestGenerationJob.JobStatus.PENDING, stored.getStatus());
+        assertEquals("UAT-001 Lo", stored.getCheckpoint());
+        assertNull(stored.getLeaseToken());
+    }
+
+    private Long saveJob(final TestGenerationJob.JobStatus status, final LocalDateTime leaseExpiresAt) {
+        TestGenerationJob job = new TestGenerationJob();
+        job.setJiraTicket("TICKET-1");
+        job.setDescription("Login");
+        job.setStatus(status);
+        job.setLeaseExpiresAt(leaseExpiresAt);
+        return jobRepository.save(job).getId();
+    }
+
+    private void expireLease(final Long jobId) {
+        TestGenerationJob job = jobRepository.findById(jobId).orElseThrow();
+        job.setLeaseExpiresAt(LocalDateTime.now().minusSeconds(1));
+        jobRepository.save(job);
+    }
+}
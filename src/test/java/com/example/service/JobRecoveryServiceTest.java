@@ -0,0 +1,131 @@
+package com.example.service;
+
+import com.example.model.TestGenerationJob;
+import com.example.repository.TestGenerationJobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class JobRecoveryServiceTest {
+
+    static {
+        System.setProperty("net.bytebuddy.experimental", "true");
+    }
+
+    @Mock
+    private TestGenerationJobRepository repository;
+
+    @Mock
+    private TestGenerationService testGenerationService;
+
+    @Mock
+    private JobLeaseService jobLeaseService;
+
+    @Mock
+    private FairJobScheduler jobScheduler;
+
+    private SimpleMeterRegistry meterRegistry;
+    private JobRecoveryService recoveryService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        recoveryService = new JobRecoveryService(repository, testGenerationService, jobLeaseService, jobScheduler,
+                meterRegistry, Duration.ofSeconds(8), Duration.ofSeconds(20));
+    }
+
+    @Test
+    void recoverPendingJobs_ShouldQueueLeftoverPendingJobsOldestFirst() {
+        LocalDateTime now = LocalDateTime.now();
+        TestGenerationJob newer = job(2L, TestGenerationJob.JobStatus.PENDING, now.minusMinutes(1));
+        TestGenerationJob older = job(1L, TestGenerationJob.JobStatus.PENDING, now.minusMinutes(5));
+        // Claimed by another instance between the two queries
+        TestGenerationJob claimed = job(3L, TestGenerationJob.JobStatus.IN_PROGRESS, now.minusMinutes(3));
+        when(repository.findIdsCreatedBefore(eq(TestGenerationJob.JobStatus.PENDING), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(1L, 3L, 2L));
+        when(repository.findAllById(List.of(1L, 3L, 2L))).thenReturn(List.of(newer, claimed, older));
+
+        recoveryService.recoverPendingJobs();
+
+        InOrder inOrder = inOrder(testGenerationService);
+        inOrder.verify(testGenerationService).resumeJob(older);
+        inOrder.verify(testGenerationService).resumeJob(newer);
+        verify(testGenerationService, never()).resumeJob(claimed);
+        assertEquals(2.0, meterRegistry.get("jobs.recovered").tag("reason", "pending").counter().count());
+    }
+
+    @Test
+    void heartbeat_ShouldRenewRunningJobsAndRequeueExpiredOnes() {
+        TestGenerationJob lost = job(7L, TestGenerationJob.JobStatus.PENDING, LocalDateTime.now());
+        when(jobScheduler.getRunningJobIds()).thenReturn(Set.of(4L));
+        when(jobLeaseService.releaseExpired(anyInt())).thenReturn(List.of(lost));
+        recoveryService.start();
+
+        recoveryService.heartbeat();
+
+        verify(jobLeaseService).renew(Set.of(4L));
+        verify(testGenerationService).resumeJob(lost);
+        assertEquals(1.0, meterRegistry.get("jobs.recovered").tag("reason", "expired_lease").counter().count());
+    }
+
+    @Test
+    void stop_ShouldDrainSchedulerAndReturnInterruptedJobsToPending() {
+        when(jobScheduler.drain(Duration.ofSeconds(8))).thenReturn(List.of(5L, 6L));
+        recoveryService.start();
+
+        recoveryService.stop();
+
+        assertFalse(recoveryService.isRunning());
+        verify(testGenerationService).returnToPending(5L);
+        verify(testGenerationService).returnToPending(6L);
+        assertEquals(2.0, meterRegistry.get("jobs.recovered").tag("reason", "interrupted").counter().count());
+        // No heartbeats once stopped: the leases of interrupted jobs must not be renewed
+        recoveryService.heartbeat();
+        verifyNoInteractions(jobLeaseService);
+    }
+
+    @Test
+    void stopWithCallback_ShouldDrainOffTheCallingThreadAndSignalCompletion() throws InterruptedException {
+        when(jobScheduler.drain(Duration.ofSeconds(8))).thenReturn(List.of(5L));
+        CountDownLatch done = new CountDownLatch(1);
+        recoveryService.start();
+
+        recoveryService.stop(done::countDown);
+
+        assertFalse(recoveryService.isRunning());
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        verify(testGenerationService).returnToPending(5L);
+    }
+
+    @Test
+    void constructor_ShouldRejectGracePeriodBeyondShutdownPhaseTimeout() {
+        assertThrows(IllegalStateException.class, () -> new JobRecoveryService(repository, testGenerationService,
+                jobLeaseService, jobScheduler, meterRegistry, Duration.ofSeconds(45), Duration.ofSeconds(20)));
+    }
+
+    private static TestGenerationJob job(final Long id, final TestGenerationJob.JobStatus status,
+                                         final LocalDateTime createdAt) {
+        TestGenerationJob job = new TestGenerationJob();
+        job.setId(id);
+        job.setStatus(status);
+        job.setCreatedAt(createdAt);
+        return job;
+    }
+}
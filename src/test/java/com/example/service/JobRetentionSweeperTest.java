@@ -0,0 +1,77 @@
+package com.example.service;
+
+import com.example.dto.JobDeletionResultDto;
+import com.example.model.TestGenerationJob;
+import com.example.repository.TestGenerationJobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class JobRetentionSweeperTest {
+
+    static {
+        System.setProperty("net.bytebuddy.experimental", "true");
+    }
+
+    @Mock
+    private TestGenerationJobRepository repository;
+
+    @Mock
+    private JobDeletionService jobDeletionService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        when(jobDeletionService.deleteJobs(anyCollection())).thenAnswer(invocation ->
+                new JobDeletionResultDto(List.copyOf(invocation.<Collection<Long>>getArgument(0)), List.of(), List.of()));
+    }
+
+    @Test
+    void sweep_ShouldDeleteInChunksUntilNoneLeft() {
+        when(repository.findIdsCreatedBefore(eq(TestGenerationJob.JobStatus.COMPLETED), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L));
+        when(repository.findIdsCreatedBefore(eq(TestGenerationJob.JobStatus.FAILED), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        newSweeper(Duration.ofDays(90), Duration.ofMinutes(5)).sweep();
+
+        verify(jobDeletionService).deleteJobs(List.of(1L, 2L));
+        verify(jobDeletionService).deleteJobs(List.of(3L));
+        assertEquals(3.0, meterRegistry.get("jobs.retention.deleted").tag("status", "completed").counter().count());
+    }
+
+    @Test
+    void sweep_ShouldStopAtDeadlineAndSkipStatusesKeptForever() {
+        when(repository.findIdsCreatedBefore(eq(TestGenerationJob.JobStatus.COMPLETED), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L, 4L));
+
+        newSweeper(Duration.ZERO, Duration.ZERO).sweep();
+
+        verify(jobDeletionService, times(1)).deleteJobs(anyCollection());
+        verify(repository, never()).findIdsCreatedBefore(eq(TestGenerationJob.JobStatus.FAILED), any(), any());
+    }
+
+    private JobRetentionSweeper newSweeper(final Duration failedMaxAge, final Duration maxSweepDuration) {
+        return new JobRetentionSweeper(repository, jobDeletionService, meterRegistry, true,
+                Duration.ofDays(90), failedMaxAge, 2, Duration.ZERO, maxSweepDuration);
+    }
+}
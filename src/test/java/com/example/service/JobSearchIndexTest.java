@@ -0,0 +1,74 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobSearchIndexTest {
+
+    private static final JobSearchIndex.Entry LOGIN = new JobSearchIndex.Entry(1L, "PROJ-1", "auth",
+            "Users can reset a forgotten password through a link that expires after one hour.",
+            "UAT-001 Reset password\nSteps:\n1. Open the reset link.\nResult: Password is changed.\n",
+            LocalDateTime.of(2024, 3, 1, 10, 0));
+    private static final JobSearchIndex.Entry CHECKOUT = new JobSearchIndex.Entry(2L, "PROJ-2", "billing",
+            "Checkout accepts card and invoice payments.",
+            "UAT-001 Pay by invoice\nSteps:\n1. Choose invoice at checkout.\nResult: Order <confirmed>.\n",
+            LocalDateTime.of(2024, 3, 2, 10, 0));
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void search_ShouldRankHighlightAndSurviveRestart() throws IOException {
+        JobSearchIndex index = new JobSearchIndex(tempDir);
+        assertFalse(index.open());
+        index.update(LOGIN);
+        index.update(CHECKOUT);
+        index.close();
+
+        JobSearchIndex reopened = new JobSearchIndex(tempDir);
+        assertTrue(reopened.open());
+        JobSearchIndex.Result result = reopened.search("invoice confirmed", 0, 10);
+        assertEquals(1, result.totalHits());
+        JobSearchIndex.Hit hit = result.hits().get(0);
+        assertEquals(2L, hit.jobId());
+        assertEquals("PROJ-2", hit.jiraTicket());
+        assertTrue(hit.highlights().get(JobSearchIndex.TEST_RESULT).contains("Order &lt;<em>confirmed</em>&gt;"));
+
+        // Unbalanced quotes are searched literally instead of failing
+        assertEquals(1L, reopened.search("\"reset link", 0, 10).hits().get(0).jobId());
+        assertEquals(List.of(), reopened.search("invoice", 1, 10).hits());
+
+        reopened.delete(List.of(2L));
+        assertEquals(0, reopened.search("invoice", 0, 10).totalHits());
+        reopened.close();
+    }
+
+    @Test
+    void rebuild_ShouldReplaceContentAndKeepDeletesMadeWhileRunning() throws IOException {
+        JobSearchIndex index = new JobSearchIndex(null);
+        index.open();
+        index.update(CHECKOUT);
+
+        long indexed = index.rebuild(List.of(LOGIN, CHECKOUT).stream()
+                .peek(entry -> {
+                    if (entry.jobId() == 1L) {
+                        // Deleted after the rebuild read it from the database
+                        assertDoesNotThrow(() -> index.delete(List.of(1L)));
+                    }
+                })
+                .iterator());
+
+        assertEquals(2, indexed);
+        assertEquals(1, index.size());
+        assertEquals(0, index.search("password", 0, 10).totalHits());
+        assertEquals(1, index.search("checkout", 0, 10).totalHits());
+        index.close();
+    }
+}
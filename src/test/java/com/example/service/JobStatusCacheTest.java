@@ -0,0 +1,66 @@
+package com.example.service;
+
+import com.example.model.TestGenerationJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobStatusCacheTest {
+
+    private JobStatusCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new JobStatusCache(Duration.ofSeconds(2), Duration.ofMinutes(10), 100);
+    }
+
+    @Test
+    void put_ShouldServeFreshSnapshotWithoutReload() {
+        JobStatusSnapshot stored = cache.put(createJob(1L, TestGenerationJob.JobStatus.PENDING));
+
+        assertSame(stored, cache.getIfFresh(1L));
+    }
+
+    @Test
+    void awaitChange_ShouldCompleteWhenMatchingTransitionIsPut() {
+        cache.put(createJob(1L, TestGenerationJob.JobStatus.IN_PROGRESS));
+        CompletableFuture<JobStatusSnapshot> future = cache.awaitChange(1L,
+                snapshot -> snapshot.getStatus() == TestGenerationJob.JobStatus.COMPLETED, Duration.ofSeconds(5));
+
+        assertFalse(future.isDone());
+        cache.put(createJob(1L, TestGenerationJob.JobStatus.COMPLETED));
+
+        assertEquals(TestGenerationJob.JobStatus.COMPLETED, future.join().getStatus());
+        assertEquals(0, cache.getWaiterCount());
+    }
+
+    @Test
+    void awaitChange_ShouldCompleteWithNullOnTimeout() {
+        CompletableFuture<JobStatusSnapshot> future = cache.awaitChange(1L,
+                JobStatusSnapshot::isTerminal, Duration.ofMillis(20));
+
+        assertNull(future.join());
+        assertEquals(0, cache.getWaiterCount());
+    }
+
+    @Test
+    void refresh_ShouldNotOverwriteNewerWrite() {
+        long readStarted = System.nanoTime();
+        cache.put(createJob(1L, TestGenerationJob.JobStatus.COMPLETED));
+
+        JobStatusSnapshot stored = cache.refresh(createJob(1L, TestGenerationJob.JobStatus.IN_PROGRESS), readStarted);
+
+        assertEquals(TestGenerationJob.JobStatus.COMPLETED, stored.getStatus());
+    }
+
+    private TestGenerationJob createJob(Long id, TestGenerationJob.JobStatus status) {
+        TestGenerationJob job = new TestGenerationJob();
+        job.setId(id);
+        job.setStatus(status);
+        return job;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LlmBulkheadTest {
+
+    private LlmBulkhead bulkhead;
+
+    @BeforeEach
+    void setUp() {
+        // 1 reserved for chat, 1 reserved for batch, 1 shared
+        bulkhead = new LlmBulkhead(new SimpleMeterRegistry(), 3, 1, 1);
+    }
+
+    @Test
+    void tryAcquire_ShouldKeepChatReservationWhenBatchSaturates() throws InterruptedException {
+        LlmBulkhead.Permit first = bulkhead.tryAcquire(LlmBulkhead.Pool.BATCH, Duration.ZERO);
+        LlmBulkhead.Permit second = bulkhead.tryAcquire(LlmBulkhead.Pool.BATCH, Duration.ZERO);
+
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNull(bulkhead.tryAcquire(LlmBulkhead.Pool.BATCH, Duration.ZERO));
+        assertNotNull(bulkhead.tryAcquire(LlmBulkhead.Pool.CHAT, Duration.ZERO));
+        assertNull(bulkhead.tryAcquire(LlmBulkhead.Pool.CHAT, Duration.ZERO));
+    }
+
+    @Test
+    void close_ShouldReleaseSlotOnlyOnce() throws InterruptedException {
+        LlmBulkhead.Permit permit = bulkhead.tryAcquire(LlmBulkhead.Pool.CHAT, Duration.ZERO);
+        permit.close();
+        permit.close();
+
+        assertEquals(0, bulkhead.getInUse(LlmBulkhead.Pool.CHAT));
+    }
+
+    @Test
+    void constructor_ShouldRejectReservationsAboveLimit() {
+        assertThrows(IllegalStateException.class, () -> new LlmBulkhead(new SimpleMeterRegistry(), 2, 2, 1));
+    }
+}
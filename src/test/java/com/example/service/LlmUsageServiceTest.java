@@ -0,0 +1,27 @@
+package com.example.service;
+
+import com.example.dto.LlmUsageDto;
+import com.example.model.LlmUsage;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LlmUsageServiceTest {
+
+    @Test
+    void toDto_ShouldDeriveThroughputFromTokensAndTimes() {
+        LlmUsage usage = new LlmUsage("mistral", "localhost:11434", 400, 250, 1200L, 800L, 5000L, 7100L);
+
+        LlmUsageDto dto = LlmUsageService.toDto(usage);
+
+        assertEquals(500.0, dto.getPromptTokensPerSecond(), 1e-9);
+        assertEquals(50.0, dto.getCompletionTokensPerSecond(), 1e-9);
+    }
+
+    @Test
+    void tokensPerSecond_ShouldBeNullWithoutTiming() {
+        assertNull(LlmUsageService.tokensPerSecond(100, 0L));
+        assertNull(LlmUsageService.tokensPerSecond(null, 100L));
+        assertNull(LlmUsageService.toDto(null));
+    }
+}
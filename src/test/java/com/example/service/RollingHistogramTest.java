@@ -0,0 +1,59 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollingHistogramTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    @Test
+    void percentile_ShouldStayWithinBucketPrecision() {
+        RollingHistogram histogram = new RollingHistogram(TimeUnit.MINUTES.toNanos(10), 10, clock::get);
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+
+        RollingHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(1000, snapshot.getMax());
+        assertInRange(500, snapshot.percentile(0.50));
+        assertInRange(950, snapshot.percentile(0.95));
+        assertInRange(990, snapshot.percentile(0.99));
+    }
+
+    @Test
+    void snapshot_ShouldDropValuesOlderThanWindow() {
+        RollingHistogram histogram = new RollingHistogram(TimeUnit.MINUTES.toNanos(10), 10, clock::get);
+        histogram.record(5000);
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(5));
+        histogram.record(10);
+
+        assertEquals(2, histogram.snapshot().getCount());
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(6));
+        RollingHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1, snapshot.getCount());
+        assertEquals(10, snapshot.percentile(0.99));
+    }
+
+    @Test
+    void bucketOf_ShouldMapEveryValueIntoItsBucketRange() {
+        for (long value : new long[] {0, 1, 7, 8, 15, 16, 17, 1023, 1024, 123_456_789L}) {
+            int bucket = RollingHistogram.bucketOf(value);
+            assertTrue(RollingHistogram.lowerBound(bucket) <= value);
+            assertTrue(RollingHistogram.lowerBound(bucket + 1) > value);
+        }
+        assertEquals(RollingHistogram.BUCKETS - 1, RollingHistogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    private static void assertInRange(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected * 1.125 + 1,
+                "expected about " + expected + " but was " + actual);
+    }
+}
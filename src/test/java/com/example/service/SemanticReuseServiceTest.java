@@ -0,0 +1,71 @@
+package com.example.service;
+
+import com.example.agent.TextEmbedder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SemanticReuseServiceTest {
+
+    private static final String CHECKOUT_DE = "Checkout for the German market: users pay by card or invoice, "
+            + "prices are shown with VAT and the order confirmation is sent by email.";
+    private static final String CHECKOUT_AT = CHECKOUT_DE.replace("German", "Austrian");
+    private static final String PASSWORD_RESET = "Users can reset a forgotten password from the login page "
+            + "through a link that expires after one hour.";
+
+    // Hashed bag of words: tickets sharing most words get close vectors, like a real embedding model
+    private static final TextEmbedder STUB_EMBEDDER = text -> {
+        float[] vector = new float[64];
+        for (String word : text.toLowerCase(Locale.ROOT).split("\\W+")) {
+            if (!word.isEmpty()) {
+                vector[Math.floorMod(word.hashCode(), vector.length)] += 1f;
+            }
+        }
+        return vector;
+    };
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void lookup_ShouldOfferOrReuseNearDuplicatesAndSurviveRestart() throws IOException {
+        SemanticReuseService service = newService();
+        SemanticReuseService.Lookup first = service.lookup(CHECKOUT_DE);
+        assertNull(first.jobId());
+        service.index(1L, first.embedding());
+        service.index(2L, service.lookup(PASSWORD_RESET).embedding());
+        service.closeIndex();
+
+        SemanticReuseService restarted = newService();
+        SemanticReuseService.Lookup duplicate = restarted.lookup(CHECKOUT_AT);
+        assertEquals(1L, duplicate.jobId());
+        assertTrue(duplicate.reusable());
+        assertTrue(duplicate.similarity() > 0.95);
+
+        restarted.remove(1L);
+        assertNull(restarted.lookup(CHECKOUT_AT).jobId());
+        restarted.closeIndex();
+    }
+
+    @Test
+    void lookup_ShouldSkipWhenEmbeddingFails() {
+        SemanticReuseService service = new SemanticReuseService(text -> {
+            throw new IOException("model not found");
+        }, new SimpleMeterRegistry(), true, "stub", "", 0.9, 0.97, 8, 6);
+
+        assertNull(service.lookup(CHECKOUT_DE));
+    }
+
+    private SemanticReuseService newService() {
+        SemanticReuseService service = new SemanticReuseService(STUB_EMBEDDER, new SimpleMeterRegistry(), true, "stub",
+                tempDir.resolve("index.bin").toString(), 0.9, 0.95, 8, 6);
+        service.loadIndex();
+        return service;
+    }
+}
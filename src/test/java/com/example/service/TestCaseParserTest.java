@@ -0,0 +1,84 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestCaseParserTest {
+
+    private static final String OUTPUT = """
+            Here are the test cases:
+
+            [UAT-001] [Login with valid credentials]
+            Steps:
+            1. Navigate to the login page.
+            2. Enter valid username
+               and password.
+            Result: User is logged in.
+
+            **UAT-002** Invalid login
+            **Steps:**
+            1. Go to login.
+            3. Enter a wrong password.
+            **Result:** An error is shown.
+
+            3. UAT-003: Missing result
+            Steps:
+            1. Do it.
+            """;
+
+    @Test
+    void parse_ShouldExtractCasesStepsAndResults() {
+        List<TestCaseParser.ParsedTestCase> cases = TestCaseParser.parse(OUTPUT);
+
+        assertEquals(3, cases.size());
+        TestCaseParser.ParsedTestCase first = cases.get(0);
+        assertEquals("UAT-001", first.getCode());
+        assertEquals("Login with valid credentials", first.getTitle());
+        assertEquals(List.of("Navigate to the login page.", "Enter valid username and password."), first.getSteps());
+        assertEquals("User is logged in.", first.getExpectedResult());
+        assertFalse(first.isMalformed());
+    }
+
+    @Test
+    void parse_ShouldFlagMalformedSections() {
+        List<TestCaseParser.ParsedTestCase> cases = TestCaseParser.parse(OUTPUT);
+
+        assertTrue(cases.get(1).isMalformed());
+        assertEquals("Step 3 where 2 was expected", cases.get(1).getProblems());
+        assertEquals("An error is shown.", cases.get(1).getExpectedResult());
+        assertTrue(cases.get(2).isMalformed());
+        assertEquals("No result", cases.get(2).getProblems());
+    }
+
+    @Test
+    void parse_ShouldKeepStepsThatMentionOtherIdsInTheirTestCase() {
+        List<TestCaseParser.ParsedTestCase> cases = TestCaseParser.parse("""
+                UAT-001 Order lookup
+                Steps:
+                1. Open the order page.
+                2. JIRA-42 is linked to the order.
+                3. API-5 returns 200
+                Result: The order is shown.
+                """);
+
+        assertEquals(1, cases.size());
+        assertEquals(List.of("Open the order page.", "JIRA-42 is linked to the order.", "API-5 returns 200"),
+                cases.get(0).getSteps());
+        assertFalse(cases.get(0).isMalformed());
+    }
+
+    @Test
+    void feed_ShouldGiveSameResultForArbitraryChunks() {
+        TestCaseParser parser = new TestCaseParser();
+        for (int i = 0; i < OUTPUT.length(); i += 7) {
+            parser.feed(OUTPUT.substring(i, Math.min(OUTPUT.length(), i + 7)));
+        }
+        List<TestCaseParser.ParsedTestCase> cases = parser.finish();
+
+        assertEquals(3, cases.size());
+        assertEquals(List.of("Go to login.", "Enter a wrong password."), cases.get(1).getSteps());
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.service;
+
+import com.example.agent.OllamaGenerationClient;
+import com.example.agent.TestGeneratorAgent;
+import com.example.model.LlmUsage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TestCaseRepairServiceTest {
+
+    static {
+        System.setProperty("net.bytebuddy.experimental", "true");
+    }
+
+    private static final String LOGIN = "UAT-001 Login\nSteps:\n1. Open the login page.\n2. Sign in.\nResult: Dashboard is shown.\n\n";
+    private static final String LOGOUT = "UAT-002 Logout\nSteps:\n1. Click Logout.\nResult: Login page is shown.\n\n";
+
+    @Mock
+    private TestGeneratorAgent testGenerator;
+
+    private TestCaseRepairService repairService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        repairService = new TestCaseRepairService(testGenerator, 2);
+    }
+
+    @Test
+    void repair_ShouldContinueTruncatedOutputAndAddUpUsage() {
+        String cutOff = LOGIN + "UAT-002 Logout\nSteps:\n1. Cli";
+        when(testGenerator.continueTests(eq("ticket"), eq(List.of("UAT-001 Login")), eq("UAT-002")))
+                .thenReturn(new OllamaGenerationClient.Completion("Here you go:\n" + LOGOUT, usage(100, 20)));
+
+        TestCaseRepairService.RepairResult result =
+                repairService.repair("ticket", new OllamaGenerationClient.Completion(cutOff, usage(300, 200), true));
+
+        List<TestCaseParser.ParsedTestCase> cases = TestCaseParser.parse(result.completion().content());
+        assertEquals(2, cases.size());
+        assertFalse(cases.get(1).isMalformed());
+        assertEquals(400, result.completion().usage().getPromptTokens());
+        assertEquals(220, result.completion().usage().getCompletionTokens());
+        assertEquals(1, result.actions().size());
+    }
+
+    @Test
+    void repair_ShouldDropDuplicatesAndRewriteOnlyTheMalformedCase() {
+        String broken = "UAT-002 Logout\nClick Logout and check the login page.\nResult: Login page is shown.\n\n";
+        when(testGenerator.repairTestCase(eq("ticket"), contains("Click Logout and check"), anyString()))
+                .thenReturn(new OllamaGenerationClient.Completion(LOGOUT, usage(50, 10)));
+
+        TestCaseRepairService.RepairResult result = repairService.repair("ticket",
+                new OllamaGenerationClient.Completion(LOGIN + broken + LOGIN.replace("001", "003"), usage(300, 200)));
+
+        assertEquals(LOGIN + LOGOUT.strip() + "\n", result.completion().content());
+        verify(testGenerator, times(1)).repairTestCase(any(), any(), any());
+        verify(testGenerator, never()).continueTests(any(), any(), any());
+    }
+
+    @Test
+    void repair_ShouldStopWhenBudgetIsUsedUp() {
+        when(testGenerator.repairTestCase(any(), any(), any()))
+                .thenReturn(new OllamaGenerationClient.Completion("Error: Failed to generate tests.", null));
+        String output = "UAT-001 A\nResult: x\n\nUAT-002 B\nResult: y\n\nUAT-003 C\nResult: z\n";
+
+        TestCaseRepairService.RepairResult result =
+                repairService.repair("ticket", new OllamaGenerationClient.Completion(output, usage(10, 10)));
+
+        assertEquals(output, result.completion().content());
+        verify(testGenerator, times(2)).repairTestCase(any(), any(), any());
+    }
+
+    private static LlmUsage usage(int promptTokens, int completionTokens) {
+        return new LlmUsage("mistral", "localhost:11434", promptTokens, completionTokens, 0L, 100L, 1000L, 1100L);
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.service;
+
+import com.example.agent.OllamaGenerationClient;
+import com.example.agent.TestGeneratorAgent;
+import com.example.event.JobEventBus;
+import com.example.model.TestGenerationJob;
+import com.example.repository.TestGenerationJobRepository;
+import com.example.services.JobLogService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TestGenerationServiceTest {
+
+    static {
+        System.setProperty("net.bytebuddy.experimental", "true");
+    }
+
+    private static final String TICKET = "As a user I can log in.";
+    private static final String PARTIAL = "UAT-001 Login\nSteps:\n1. Open the";
+    private static final String LOGIN = "UAT-001 Login\nSteps:\n1. Open the login page.\nResult: Dashboard is shown.\n\n";
+    private static final String LOGOUT = "UAT-002 Logout\nSteps:\n1. Click Logout.\nResult: Login page is shown.\n\n";
+
+    @Mock
+    private TestGeneratorAgent testGenerator;
+    @Mock
+    private TestGenerationJobRepository repository;
+    @Mock
+    private JobLogService jobLogService;
+    @Mock
+    private JobStatusCache jobStatusCache;
+    @Mock
+    private JobEventBus jobEventBus;
+    @Mock
+    private WebhookService webhookService;
+    @Mock
+    private ApiQuotaService apiQuotaService;
+    @Mock
+    private FairJobScheduler jobScheduler;
+    @Mock
+    private TestCaseService testCaseService;
+    @Mock
+    private TestCaseRepairService testCaseRepairService;
+    @Mock
+    private SemanticReuseService semanticReuseService;
+    @Mock
+    private JobSearchService jobSearchService;
+    @Mock
+    private JobDeletionService jobDeletionService;
+    @Mock
+    private ReplicaReadRouter replicaReadRouter;
+    @Mock
+    private JobLeaseService jobLeaseService;
+    @Mock
+    private TicketRevisionService ticketRevisionService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TestGenerationService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        service = newService(testCaseRepairService);
+        when(jobLeaseService.complete(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(testCaseRepairService.repair(anyString(), any())).thenAnswer(invocation ->
+                new TestCaseRepairService.RepairResult(invocation.getArgument(1), List.of()));
+    }
+
+    private TestGenerationService newService(final TestCaseRepairService repairService) {
+        return newService(repairService, Runnable::run);
+    }
+
+    private TestGenerationService newService(final TestCaseRepairService repairService,
+                                             final Executor statusPollExecutor) {
+        return new TestGenerationService(testGenerator, repository, jobLogService, jobStatusCache, jobEventBus,
+                webhookService, apiQuotaService, jobScheduler, new LlmBulkhead(meterRegistry, 2, 1, 1),
+                new JobMetrics(meterRegistry, repository, Duration.ofSeconds(15)),
+                new JobPhaseStats(Duration.ofMinutes(10), 30), testCaseService, repairService,
+                semanticReuseService, jobSearchService, jobDeletionService, replicaReadRouter, jobLeaseService,
+                ticketRevisionService, statusPollExecutor, 0.5);
+    }
+
+    @Test
+    void processTestGeneration_ShouldReturnInterruptedJobToPendingWithStreamedOutput() {
+        TestGenerationJob job = claimedJob(null);
+        when(testGenerator.generateTests(eq(TICKET), any())).thenAnswer(invocation -> {
+            Consumer<String> partialOutput = invocation.getArgument(1);
+            partialOutput.accept(PARTIAL);
+            // Shutdown: the scheduler interrupts the worker and the agent reports the failed call
+            when(jobScheduler.isInterrupting()).thenReturn(true);
+            Thread.currentThread().interrupt();
+            return new OllamaGenerationClient.Completion("Error: Failed to generate tests due to an internal error.", null);
+        });
+        when(jobLeaseService.release(job.getId(), PARTIAL)).thenAnswer(invocation -> {
+            job.setStatus(TestGenerationJob.JobStatus.PENDING);
+            job.setCheckpoint(PARTIAL);
+            return job;
+        });
+
+        service.processTestGeneration(job.getId(), TICKET, false);
+
+        assertFalse(Thread.currentThread().isInterrupted());
+        verify(jobLeaseService).release(job.getId(), PARTIAL);
+        verify(jobLeaseService, never()).fail(any(), any(), any());
+        verify(jobLeaseService, never()).complete(any());
+        verify(jobEventBus).publishStatus(job.getId(), "PENDING", null);
+    }
+
+    @Test
+    void processTestGeneration_ShouldContinueFromCheckpointInsteadOfRegenerating() {
+        TestGenerationJob job = claimedJob(LOGIN + "UAT-002 Logout\nSteps:\n1. Cli");
+        // The checkpoint is treated as truncated output: only the cut-off test case is asked for again
+        when(testGenerator.continueTests(eq(TICKET), eq(List.of("UAT-001 Login")), eq("UAT-002")))
+                .thenReturn(new OllamaGenerationClient.Completion(LOGOUT, null));
+
+        newService(new TestCaseRepairService(testGenerator, 2)).processTestGeneration(job.getId(), TICKET, false);
+
+        verify(testGenerator, never()).generateTests(anyString(), any());
+        ArgumentCaptor<TestGenerationJob> completed = ArgumentCaptor.forClass(TestGenerationJob.class);
+        verify(jobLeaseService).complete(completed.capture());
+        assertEquals(TestGenerationJob.JobStatus.COMPLETED, completed.getValue().getStatus());
+        List<TestCaseParser.ParsedTestCase> cases = TestCaseParser.parse(completed.getValue().getTestResult());
+        assertEquals(List.of("UAT-001", "UAT-002"), cases.stream().map(TestCaseParser.ParsedTestCase::getCode).toList());
+        assertFalse(cases.get(1).isMalformed());
+    }
+
+    @Test
+    void processTestGeneration_ShouldGenerateInFullWhenCheckpointHasNoCompleteTestCase() {
+        TestGenerationJob job = claimedJob("Here are the test cases:\n\nUAT-001 Lo");
+        when(testGenerator.generateTests(eq(TICKET), any()))
+                .thenReturn(new OllamaGenerationClient.Completion(LOGIN + LOGOUT, null));
+
+        newService(new TestCaseRepairService(testGenerator, 0)).processTestGeneration(job.getId(), TICKET, false);
+
+        verify(testGenerator, never()).continueTests(anyString(), any(), anyString());
+        ArgumentCaptor<TestGenerationJob> completed = ArgumentCaptor.forClass(TestGenerationJob.class);
+        verify(jobLeaseService).complete(completed.capture());
+        assertEquals(LOGIN + LOGOUT, completed.getValue().getTestResult());
+    }
+
+    @Test
+    void processTestGeneration_ShouldFailWhenContinuationIsStillTruncated() {
+        TestGenerationJob job = claimedJob(LOGIN + LOGOUT + "UAT-003 Sign up\nSteps:\n1. Op");
+        when(testGenerator.continueTests(eq(TICKET), eq(List.of("UAT-001 Login", "UAT-002 Logout")), eq("UAT-003")))
+                .thenReturn(new OllamaGenerationClient.Completion("UAT-003 Sign up\nSteps:\n1. Open the", null, true));
+
+        // No repair calls left to continue the continuation
+        newService(new TestCaseRepairService(testGenerator, 0)).processTestGeneration(job.getId(), TICKET, false);
+
+        verify(jobLeaseService, never()).complete(any());
+        verify(jobLeaseService).fail(eq(1L), contains("truncated"), any());
+    }
+
+    @Test
+    void processTestGeneration_ShouldDiscardResultWhenJobWasTakenOver() {
+        TestGenerationJob job = claimedJob(null);
+        when(testGenerator.generateTests(eq(TICKET), any()))
+                .thenReturn(new OllamaGenerationClient.Completion("UAT-001 Login", null));
+        when(jobLeaseService.complete(any())).thenReturn(null);
+
+        service.processTestGeneration(job.getId(), TICKET, false);
+
+        verify(jobEventBus, never()).publishStatus(1L, "COMPLETED", null);
+        verify(jobSearchService, never()).onJobCompleted(any());
+        verify(jobLeaseService, never()).fail(any(), any(), any());
+    }
+
+    @Test
+    void processTestGeneration_ShouldTimePersistenceOfCompletedJob() {
+        claimedJob(null);
+        when(testGenerator.generateTests(eq(TICKET), any())).thenReturn(new OllamaGenerationClient.Completion(LOGIN, null));
+
+        service.processTestGeneration(1L, TICKET, false);
+
+        assertEquals(1, meterRegistry.get("job.persistence").tag("operation", "status").timer().count());
+        assertEquals(1, meterRegistry.get("job.persistence").tag("operation", "result").timer().count());
+        assertEquals(0.0, meterRegistry.get("job.failures").counters().stream().mapToDouble(Counter::count).sum());
+        assertEquals(0.0, meterRegistry.get("llm.calls.avoided").counters().stream().mapToDouble(Counter::count).sum());
+    }
+
+    @Test
+    void processTestGeneration_ShouldCountGenerationFailure() {
+        claimedJob(null);
+        when(testGenerator.generateTests(eq(TICKET), any()))
+                .thenReturn(new OllamaGenerationClient.Completion("Error: Failed to generate tests due to an internal error.", null));
+
+        service.processTestGeneration(1L, TICKET, false);
+
+        // The LLM phase is saved with the failure
+        verify(jobLeaseService).fail(eq(1L), anyString(), argThat(progress -> progress.getLlmStartedAt() != null
+                && progress.getLlmFinishedAt() != null && progress.getGenerationMode() != null));
+        assertEquals(1.0, meterRegistry.get("job.failures").tag("cause", "generation").counter().count());
+        assertEquals(0.0, meterRegistry.get("job.failures").tag("cause", "unexpected").counter().count());
+        // Claim and failure
+        assertEquals(2, meterRegistry.get("job.persistence").tag("operation", "status").timer().count());
+        assertEquals(0, meterRegistry.get("job.persistence").tag("operation", "result").timer().count());
+    }
+
+    @Test
+    void processTestGeneration_ShouldCountCallAvoidedForUnchangedTicket() {
+        TestGenerationJob job = claimedJob(null);
+        job.setPreviousJobId(9L);
+        TestGenerationJob previous = new TestGenerationJob();
+        previous.setId(9L);
+        previous.setDescription(TICKET);
+        previous.setTestResult(LOGIN);
+        previous.setStatus(TestGenerationJob.JobStatus.COMPLETED);
+        when(repository.findById(9L)).thenReturn(Optional.of(previous));
+
+        service.processTestGeneration(1L, TICKET, true);
+
+        verify(testGenerator, never()).generateTests(anyString(), any());
+        assertEquals(1.0, meterRegistry.get("llm.calls.avoided").tag("reason", "unchanged").counter().count());
+        assertEquals(0.0, meterRegistry.get("llm.calls.avoided").tag("reason", "similar").counter().count());
+        assertEquals(1, meterRegistry.get("job.persistence").tag("operation", "result").timer().count());
+    }
+
+    @Test
+    void awaitJobStatus_ShouldReloadStatusOnTimeout() {
+        TestGenerationJob job = claimedJob(null);
+        JobStatusSnapshot inProgress = JobStatusSnapshot.of(job);
+        TestGenerationJob completed = claimedJob(null);
+        completed.setStatus(TestGenerationJob.JobStatus.COMPLETED);
+        JobStatusSnapshot reloaded = JobStatusSnapshot.of(completed);
+        when(jobStatusCache.getIfFresh(1L)).thenReturn(inProgress);
+        when(jobStatusCache.awaitChange(eq(1L), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(replicaReadRouter.read(eq(1L), any())).thenReturn(completed);
+        when(jobStatusCache.refresh(eq(completed), anyLong())).thenReturn(reloaded);
+
+        JobStatusSnapshot result = service.awaitJobStatus(1L, JobStatusSnapshot::isTerminal, Duration.ofSeconds(1)).join();
+
+        assertSame(reloaded, result);
+    }
+
+    @Test
+    void awaitJobStatus_ShouldReturnLastSeenStatusWhenReloadPoolIsSaturated() {
+        service = newService(testCaseRepairService, task -> {
+            throw new RejectedExecutionException("saturated");
+        });
+        JobStatusSnapshot inProgress = JobStatusSnapshot.of(claimedJob(null));
+        when(jobStatusCache.getIfFresh(1L)).thenReturn(inProgress);
+        when(jobStatusCache.awaitChange(eq(1L), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        JobStatusSnapshot result = service.awaitJobStatus(1L, JobStatusSnapshot::isTerminal, Duration.ofSeconds(1)).join();
+
+        assertSame(inProgress, result);
+        verify(replicaReadRouter, never()).read(any(), any());
+    }
+
+    private TestGenerationJob claimedJob(final String checkpoint) {
+        TestGenerationJob job = new TestGenerationJob();
+        job.setId(1L);
+        job.setJiraTicket("TICKET-1");
+        job.setDescription(TICKET);
+        job.setStatus(TestGenerationJob.JobStatus.IN_PROGRESS);
+        job.setCheckpoint(checkpoint);
+        when(jobLeaseService.claim(1L)).thenReturn(job);
+        return job;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.service;
+
+import com.example.model.TestGenerationJob;
+import com.example.repository.TestGenerationJobRepository;
+import com.example.repository.TicketRevisionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "app.job-cache.enabled=false")
+@ActiveProfiles("test")
+@Import(TicketRevisionService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TicketRevisionServiceTest {
+
+    @Autowired
+    private TicketRevisionService ticketRevisionService;
+
+    @Autowired
+    private TicketRevisionRepository ticketRevisionRepository;
+
+    @Autowired
+    private TestGenerationJobRepository jobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        ticketRevisionRepository.deleteAll();
+        jobRepository.deleteAll();
+    }
+
+    @Test
+    void nextRevision_ShouldCountFromOneAndContinueFromExistingJobs() {
+        assertEquals(1, ticketRevisionService.nextRevision("TICKET-1"));
+        assertEquals(2, ticketRevisionService.nextRevision("TICKET-1"));
+
+        // Jobs created before the counter existed
+        saveJob("TICKET-2", 4);
+        assertEquals(5, ticketRevisionService.nextRevision("TICKET-2"));
+    }
+
+    @Test
+    void nextRevisions_ShouldGiveRepeatedTicketsConsecutiveRevisionsInRequestOrder() {
+        ticketRevisionService.nextRevision("TICKET-B");
+
+        assertEquals(List.of(2, 1, 3, 2), ticketRevisionService.nextRevisions(
+                List.of("TICKET-B", "TICKET-A", "TICKET-B", "TICKET-A")));
+    }
+
+    @Test
+    void nextRevision_ShouldGiveBackRevisionOfRolledBackJob() {
+        ticketRevisionService.nextRevision("TICKET-1");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            ticketRevisionService.nextRevision("TICKET-1");
+            status.setRollbackOnly();
+        });
+
+        assertEquals(2, ticketRevisionService.nextRevision("TICKET-1"));
+    }
+
+    @Test
+    void nextRevision_ShouldGiveConcurrentSubmissionsDistinctRevisions() throws Exception {
+        ticketRevisionService.nextRevision("TICKET-1");
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> transaction.execute(status -> {
+                    int revision = ticketRevisionService.nextRevision("TICKET-1");
+                    // The job is saved while the counter stays locked
+                    saveJob("TICKET-1", revision);
+                    return revision;
+                })));
+            }
+            List<Integer> revisions = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                revisions.add(future.get());
+            }
+            assertEquals(IntStream.rangeClosed(2, 9).boxed().toList(), revisions.stream().sorted().toList());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void saveJob(final String jiraTicket, final int revision) {
+        TestGenerationJob job = new TestGenerationJob();
+        job.setJiraTicket(jiraTicket);
+        job.setDescription("Login");
+        job.setStatus(TestGenerationJob.JobStatus.PENDING);
+        job.setRevision(revision);
+        jobRepository.save(job);
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.service;
+
+import com.example.model.WebhookDelivery;
+import com.example.repository.WebhookDeliveryRepository;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class WebhookDispatcherTest {
+
+    static {
+        System.setProperty("net.bytebuddy.experimental", "true");
+    }
+
+    @Mock
+    private WebhookDeliveryRepository webhookDeliveryRepository;
+
+    private HttpServer receiver;
+    private final List<String> receivedBodies = new CopyOnWriteArrayList<>();
+    private final AtomicInteger responseCode = new AtomicInteger(200);
+    private SimpleMeterRegistry meterRegistry;
+    private WebhookDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        // Local stub receiver standing in for the CI pipeline
+        receiver = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        receiver.createContext("/hook", exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                receivedBodies.add(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            exchange.sendResponseHeaders(responseCode.get(), -1);
+            exchange.close();
+        });
+        receiver.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new WebhookDispatcher(webhookDeliveryRepository,
+                new WebhookSender(Duration.ofSeconds(2), Duration.ofSeconds(2)),
+                Runnable::run, meterRegistry, 100, 5, 3,
+                Duration.ofSeconds(2), Duration.ofMinutes(1), Duration.ofMinutes(2));
+        when(webhookDeliveryRepository.claim(any(), any(), any(), any())).thenReturn(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        receiver.stop(0);
+    }
+
+    @Test
+    void dispatchDue_WhenReceiverAccepts_ShouldMarkDelivered() {
+        WebhookDelivery delivery = createDelivery(0);
+        when(webhookDeliveryRepository.findDue(eq(WebhookDelivery.DeliveryStatus.PENDING), any(), any()))
+                .thenReturn(List.of(delivery));
+
+        dispatcher.dispatchDue();
+
+        assertEquals(List.of("{\"jobId\":1}"), receivedBodies);
+        assertEquals(WebhookDelivery.DeliveryStatus.DELIVERED, delivery.getStatus());
+        assertEquals(1, delivery.getAttempts());
+        assertEquals(1, meterRegistry.get("webhook.delivery.latency").timer().count());
+        verify(webhookDeliveryRepository).save(delivery);
+    }
+
+    @Test
+    void dispatchDue_WhenReceiverFails_ShouldScheduleRetry() {
+        responseCode.set(503);
+        WebhookDelivery delivery = createDelivery(0);
+        when(webhookDeliveryRepository.findDue(eq(WebhookDelivery.DeliveryStatus.PENDING), any(), any()))
+                .thenReturn(List.of(delivery));
+
+        dispatcher.dispatchDue();
+
+        assertEquals(WebhookDelivery.DeliveryStatus.PENDING, delivery.getStatus());
+        assertEquals("HTTP 503", delivery.getLastError());
+        assertTrue(delivery.getNextAttemptAt().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void dispatchDue_WhenRetriesExhausted_ShouldMarkFailed() {
+        responseCode.set(500);
+        WebhookDelivery delivery = createDelivery(2);
+        when(webhookDeliveryRepository.findDue(eq(WebhookDelivery.DeliveryStatus.PENDING), any(), any()))
+                .thenReturn(List.of(delivery));
+
+        dispatcher.dispatchDue();
+
+        assertEquals(WebhookDelivery.DeliveryStatus.FAILED, delivery.getStatus());
+        assertEquals(1.0, meterRegistry.get("webhook.delivery.failed").counter().count());
+    }
+
+    @Test
+    void dispatchDue_ShouldLeaseOneBatchPerHostAndMoveTheRestBack() {
+        List<Runnable> batches = new ArrayList<>();
+        dispatcher = new WebhookDispatcher(webhookDeliveryRepository,
+                new WebhookSender(Duration.ofSeconds(2), Duration.ofSeconds(2)),
+                batches::add, meterRegistry, 100, 5, 3,
+                Duration.ofSeconds(2), Duration.ofMinutes(1), Duration.ofMinutes(2));
+        List<WebhookDelivery> slowHost = new ArrayList<>();
+        for (long id = 1; id <= 7; id++) {
+            slowHost.add(createDelivery(id, "http://slow.example.com/hook"));
+        }
+        WebhookDelivery otherHost = createDelivery(8L, "http://other.example.com/hook");
+        List<WebhookDelivery> due = new ArrayList<>(slowHost);
+        due.add(otherHost);
+        when(webhookDeliveryRepository.findDue(eq(WebhookDelivery.DeliveryStatus.PENDING), any(), any()))
+                .thenReturn(due);
+
+        dispatcher.dispatchDue();
+
+        // One batch per host, leased before it is handed over; the rest of the slow host waits its turn
+        assertEquals(2, batches.size());
+        verify(webhookDeliveryRepository, times(6)).claim(any(), any(), any(), any());
+        verify(webhookDeliveryRepository).defer(eq(List.of(6L, 7L)), eq(WebhookDelivery.DeliveryStatus.PENDING),
+                any(), any());
+
+        // Slow host still in flight: its due rows are moved back instead of being fetched again and again
+        when(webhookDeliveryRepository.findDue(eq(WebhookDelivery.DeliveryStatus.PENDING), any(), any()))
+                .thenReturn(slowHost.subList(5, 7));
+        dispatcher.dispatchDue();
+
+        assertEquals(2, batches.size());
+        verify(webhookDeliveryRepository, times(6)).claim(any(), any(), any(), any());
+        verify(webhookDeliveryRepository, times(2)).defer(eq(List.of(6L, 7L)), eq(WebhookDelivery.DeliveryStatus.PENDING),
+                any(), any());
+    }
+
+    @Test
+    void backoff_ShouldStayWithinJitteredExponentialBounds() {
+        for (int attempt = 1; attempt <= 10; attempt++) {
+            long cap = Math.min(60_000L, 2_000L << (attempt - 1));
+            long delay = dispatcher.backoff(attempt).toMillis();
+            assertTrue(delay >= cap / 2 && delay <= cap, "attempt " + attempt + " delay " + delay);
+        }
+    }
+
+    private WebhookDelivery createDelivery(int previousAttempts) {
+        WebhookDelivery delivery = createDelivery(10L, "http://127.0.0.1:" + receiver.getAddress().getPort() + "/hook");
+        delivery.setAttempts(previousAttempts);
+        return delivery;
+    }
+
+    private static WebhookDelivery createDelivery(long id, String targetUrl) {
+        WebhookDelivery delivery = new WebhookDelivery();
+        delivery.setId(id);
+        delivery.setJobId(1L);
+        delivery.setTargetUrl(targetUrl);
+        delivery.setPayload("{\"jobId\":1}");
+        delivery.setCreatedAt(LocalDateTime.now());
+        delivery.setNextAttemptAt(LocalDateTime.now());
+        return delivery;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.service;
+
+import com.example.repository.WebhookDeliveryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebhookServiceTest {
+
+    static {
+        System.setProperty("net.bytebuddy.experimental", "true");
+    }
+
+    @Mock
+    private WebhookDeliveryRepository webhookDeliveryRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void validateCallbackUrl_WithoutAllowList_ShouldRejectInternalAddresses() {
+        WebhookService webhookService = new WebhookService(webhookDeliveryRepository, new ObjectMapper(), List.of());
+
+        for (String url : List.of("http://localhost:8080/hook", "http://127.0.0.1/hook", "http://10.0.0.5/hook",
+                "http://192.168.1.20/hook", "http://169.254.169.254/latest/meta-data", "http://[::1]/hook",
+                "http://[fd00::1]/hook", "http://0.0.0.0/hook")) {
+            assertThrows(IllegalArgumentException.class, () -> webhookService.validateCallbackUrl(url), url);
+        }
+        assertDoesNotThrow(() -> webhookService.validateCallbackUrl("https://93.184.216.34/hooks/uat"));
+    }
+
+    @Test
+    void validateCallbackUrl_WithAllowList_ShouldAcceptOnlyListedHosts() {
+        WebhookService webhookService = new WebhookService(webhookDeliveryRepository, new ObjectMapper(),
+                List.of("localhost", " CI.example.com "));
+
+        assertDoesNotThrow(() -> webhookService.validateCallbackUrl("http://localhost:8080/hook"));
+        assertDoesNotThrow(() -> webhookService.validateCallbackUrl("https://ci.example.com/hooks/uat"));
+        assertThrows(IllegalArgumentException.class, () -> webhookService.validateCallbackUrl("https://example.org/hook"));
+        assertThrows(IllegalArgumentException.class, () -> webhookService.validateCallbackUrl("ftp://localhost/hook"));
+    }
+}
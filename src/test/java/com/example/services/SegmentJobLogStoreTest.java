@@ -0,0 +1,107 @@
+package com.example.services;
+
+import com.example.dto.JobLogDto;
+import com.example.model.TestGenerationJob;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentJobLogStoreTest {
+
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2024, 3, 1, 10, 0, 0, 123_000_000);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void findLatest_ShouldReturnNewestFirstAndSurviveRestart() throws IOException {
+        SegmentJobLogStore store = newStore(DataSize.ofMegabytes(1));
+        String longMessage = "x".repeat(500);
+        store.append(job(1L), "INFO", "Job started", TIMESTAMP);
+        store.append(job(2L), "INFO", "Other job", TIMESTAMP);
+        assertEquals(longMessage, store.append(job(1L), "ERROR", longMessage, TIMESTAMP.plusSeconds(1)));
+        store.close();
+
+        SegmentJobLogStore reopened = newStore(DataSize.ofMegabytes(1));
+        List<JobLogDto> latest = reopened.findLatest(1L, 1);
+        assertEquals(1, latest.size());
+        assertEquals("ERROR", latest.get(0).getLevel());
+        assertEquals(longMessage, latest.get(0).getMessage());
+        assertEquals(TIMESTAMP.plusSeconds(1), latest.get(0).getTimestamp());
+        assertEquals(List.of("ERROR", "INFO"), reopened.findLatest(1L, Integer.MAX_VALUE).stream().map(JobLogDto::getLevel).toList());
+        assertEquals(List.of(), reopened.findLatest(3L, 10));
+
+        reopened.append(job(1L), "INFO", "Appended after restart", TIMESTAMP.plusSeconds(2));
+        assertEquals("Appended after restart", reopened.findLatest(1L, 1).get(0).getMessage());
+        reopened.close();
+    }
+
+    @Test
+    void deleteForJobs_ShouldHideEntriesAndCompactionShouldReclaimSegments() throws IOException {
+        SegmentJobLogStore store = newStore(DataSize.ofKilobytes(4));
+        String message = "y".repeat(200);
+        for (int i = 0; i < 40; i++) {
+            store.append(job(i % 2 == 0 ? 1L : 2L), "INFO", message + i, TIMESTAMP.plusSeconds(i));
+        }
+        int segments = store.segmentCount();
+        assertTrue(segments > 2);
+
+        store.deleteForJobs(List.of(1L));
+        assertEquals(List.of(), store.findLatest(1L, 10));
+        store.compact();
+        assertEquals(segments, store.segmentCount());
+        assertEquals(20, store.findLatest(2L, 100).size());
+
+        store.deleteForJobs(List.of(2L));
+        store.compact();
+        assertTrue(store.segmentCount() < segments);
+        store.append(job(3L), "INFO", "After compaction", TIMESTAMP);
+        store.close();
+
+        SegmentJobLogStore reopened = newStore(DataSize.ofKilobytes(4));
+        assertEquals(List.of(), reopened.findLatest(1L, 10));
+        assertEquals(List.of(), reopened.findLatest(2L, 10));
+        assertEquals("After compaction", reopened.findLatest(3L, 1).get(0).getMessage());
+        reopened.close();
+    }
+
+    @Test
+    void compact_ShouldKeepLiveEntriesReadable() throws IOException {
+        SegmentJobLogStore store = newStore(DataSize.ofKilobytes(4));
+        for (int i = 0; i < 30; i++) {
+            store.append(job(i % 3 == 0 ? 1L : 2L), "INFO", "entry " + i + " " + "z".repeat(200), TIMESTAMP.plusSeconds(i));
+        }
+        store.deleteForJobs(List.of(2L));
+        store.compact();
+
+        List<JobLogDto> latest = store.findLatest(1L, Integer.MAX_VALUE);
+        assertEquals(10, latest.size());
+        assertTrue(latest.get(0).getMessage().startsWith("entry 27 "));
+        assertTrue(latest.get(9).getMessage().startsWith("entry 0 "));
+        store.close();
+
+        SegmentJobLogStore reopened = newStore(DataSize.ofKilobytes(4));
+        assertEquals(10, reopened.findLatest(1L, Integer.MAX_VALUE).size());
+        assertTrue(reopened.findLatest(1L, 1).get(0).getMessage().startsWith("entry 27 "));
+        reopened.close();
+    }
+
+    private SegmentJobLogStore newStore(final DataSize segmentSize) throws IOException {
+        SegmentJobLogStore store = new SegmentJobLogStore(tempDir.toString(), segmentSize, 0.5);
+        store.open();
+        return store;
+    }
+
+    private static TestGenerationJob job(final Long id) {
+        TestGenerationJob job = new TestGenerationJob();
+        job.setId(id);
+        return job;
+    }
+}